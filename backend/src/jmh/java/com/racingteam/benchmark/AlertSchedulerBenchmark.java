@@ -0,0 +1,154 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.service.AlertService;
+import com.racingteam.service.FleetReadinessService;
+import com.racingteam.service.JobLeaseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pasada periódica del planificador de avisos con la cola ya cargada, que solo lee los usuarios y
+ * vehículos cambiados, frente a replanificar leyendo todo como haría un sondeo completo.
+ *
+ * <p>Solo mide: la concesión entre nodos y la emisión única de cada aviso se comprueban en
+ * {@code AlertServiceTest} y {@code JobLeaseServiceTest}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertSchedulerBenchmark {
+
+    private static final BigDecimal THRESHOLD = BigDecimal.valueOf(100);
+    private static final Duration LEASE = Duration.ofMinutes(3);
+
+    @Param({"20"})
+    public int teams;
+
+    @Param({"200"})
+    public int usersPerTeam;
+
+    @Param({"50"})
+    public int fleetSize;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private FleetReadinessService fleetReadinessService;
+    private final List<AlertService> nodes = new ArrayList<>();
+    private AlertService incremental;
+    private AlertService fullRescan;
+
+    @Setup
+    public void setUp() {
+        // El planificador de la aplicación no interviene: los nodos se crean aquí
+        context = BenchmarkContext.start(Map.of("app.alerts.enabled", "false"));
+        jdbc = context.getBean(JdbcTemplate.class);
+        fleetReadinessService = context.getBean(FleetReadinessService.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int t = 0; t < teams; t++) {
+            Long teamId = teamRepository.save(new Team("Benchmark Racing " + t, VehicleCategory.CAR)).getId();
+            seedTeam(teamId, t, now);
+        }
+
+        // Dos instancias del mismo nodo. Sin margen, para que la pasada incremental no relea lo
+        // escrito al preparar los datos. Lo ya vencido se emite antes de medir: en las pasadas
+        // medidas la cola solo tiene lo pendiente
+        incremental = node("bench", Duration.ofHours(1), Duration.ZERO);
+        fullRescan = node("bench", Duration.ZERO, Duration.ZERO);
+        incremental.refresh();
+        incremental.fireDue();
+        fullRescan.refresh();
+    }
+
+    private AlertService node(String nodeId, Duration rescanInterval, Duration inFlightMargin) {
+        AlertService node = new AlertService(jdbc, new JobLeaseService(jdbc, nodeId), fleetReadinessService, true,
+                Duration.ofDays(30), Duration.ofDays(7), LEASE, rescanInterval, inFlightMargin, 50, 200);
+        nodes.add(node);
+        return node;
+    }
+
+    private void seedTeam(Long teamId, int team, LocalDateTime now) {
+        List<Object[]> users = new ArrayList<>(usersPerTeam);
+        for (int i = 0; i < usersPerTeam; i++) {
+            LocalDateTime expiry = switch (i % 4) {
+                case 0 -> now.minusDays(1 + i % 90);
+                case 1 -> now.plusDays(1 + i % 20);
+                case 2 -> now.plusDays(200 + i % 100);
+                default -> null;
+            };
+            users.add(new Object[]{"user" + team + "-" + i + "@benchmark.test", "secret", "Piloto", "Número " + i,
+                    "PILOT", teamId, expiry != null ? Timestamp.valueOf(expiry) : null, i % 10 != 9});
+        }
+        jdbc.batchUpdate("INSERT INTO users (email, password, first_name, last_name, role, team_id, " +
+                "license_expiry, active, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", users);
+
+        // Con el ritmo por defecto (0,5 horas de vehículo por hora de evento) las 10 horas del
+        // evento suman 5 horas: de 98 pasan el umbral de 100, de 10 no
+        List<Object[]> vehicles = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            BigDecimal hours = switch (i % 5) {
+                case 0 -> BigDecimal.valueOf(120);
+                case 1 -> BigDecimal.valueOf(98);
+                default -> BigDecimal.TEN;
+            };
+            vehicles.add(new Object[]{"Vehicle " + i, "GT3", "AVAILABLE", true, teamId, hours, THRESHOLD});
+        }
+        jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, total_hours, " +
+                "next_maintenance_hours, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", vehicles);
+
+        LocalDateTime start = now.plusDays(2).withNano(0);
+        jdbc.update("INSERT INTO events (name, event_type, start_date, end_date, status, team_id, created_at) " +
+                "VALUES (?, 'RACE', ?, ?, 'PLANNED', ?, CURRENT_TIMESTAMP)",
+                "Carrera " + team, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(10)), teamId);
+        jdbc.update("INSERT INTO event_vehicles (event_id, vehicle_id) " +
+                "SELECT e.id, v.id FROM events e JOIN vehicles v ON v.team_id = e.team_id WHERE e.team_id = ?", teamId);
+    }
+
+    @TearDown
+    public void tearDown() {
+        nodes.forEach(AlertService::shutdown);
+        context.close();
+    }
+
+    @Benchmark
+    public int refreshChangedOnly() {
+        incremental.refresh();
+        return incremental.pendingCount();
+    }
+
+    @Benchmark
+    public int refreshFullRescan() {
+        fullRescan.refresh();
+        return fullRescan.pendingCount();
+    }
+}
@@ -0,0 +1,142 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.RacingTeamManagementApplication;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Arranca la aplicación completa con el servidor web en un puerto libre. Las propiedades se
+ * pasan como argumentos de línea de comandos para que tengan prioridad sobre application.yml.
+ *
+ * <p>Por defecto usa H2 en memoria. Si se define BENCHMARK_DATASOURCE_URL (con
+ * BENCHMARK_DATASOURCE_USERNAME y BENCHMARK_DATASOURCE_PASSWORD) se usa esa base de datos
+ * PostgreSQL con las migraciones de Flyway, para medir con el motor y el esquema reales.
+ * Esa base de datos se vacía antes de cada arranque.</p>
+ */
+final class BenchmarkContext {
+
+    private static final String EXTERNAL_URL = System.getenv("BENCHMARK_DATASOURCE_URL");
+    private static final String USERNAME = System.getenv("BENCHMARK_DATASOURCE_USERNAME");
+    private static final String PASSWORD = System.getenv("BENCHMARK_DATASOURCE_PASSWORD");
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+
+    // Igual que start() con propiedades adicionales, que prevalecen sobre las del arranque
+    static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        if (EXTERNAL_URL == null) {
+            return startEmbedded("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL", overrides);
+        }
+        clean();
+        return run(externalProperties(), overrides);
+    }
+
+    /**
+     * Solo con PostgreSQL: arranca con el esquema de las migraciones, para las pruebas que
+     * dependen de lo que Hibernate no genera en H2 (columnas generadas, índices parciales,
+     * disparadores).
+     */
+    static ConfigurableApplicationContext startMigrated() {
+        requireExternal();
+        clean();
+        return run(externalProperties(), Map.of());
+    }
+
+    /**
+     * Solo con PostgreSQL: vacía la base de datos, aplica las migraciones hasta
+     * {@code targetVersion} incluida, carga los datos con {@code seed} y arranca la aplicación,
+     * que aplica las migraciones restantes sobre esos datos.
+     */
+    static ConfigurableApplicationContext startMigratingFrom(String targetVersion, Consumer<JdbcTemplate> seed) {
+        requireExternal();
+        clean();
+        Flyway.configure()
+                .dataSource(EXTERNAL_URL, USERNAME, PASSWORD)
+                .target(targetVersion)
+                .load()
+                .migrate();
+        seed.accept(new JdbcTemplate(new DriverManagerDataSource(EXTERNAL_URL, USERNAME, PASSWORD)));
+        return run(externalProperties(), Map.of());
+    }
+
+    private static void requireExternal() {
+        if (EXTERNAL_URL == null) {
+            throw new IllegalStateException("Esta prueba necesita PostgreSQL: define BENCHMARK_DATASOURCE_URL");
+        }
+    }
+
+    // También el esquema archive de V11, que Flyway no vacía por no ser el de la migración
+    private static void clean() {
+        Flyway.configure()
+                .dataSource(EXTERNAL_URL, USERNAME, PASSWORD)
+                .schemas("public", "archive")
+                .cleanDisabled(false)
+                .load()
+                .clean();
+    }
+
+    private static Map<String, String> externalProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", EXTERNAL_URL);
+        properties.put("spring.datasource.username", USERNAME);
+        properties.put("spring.datasource.password", PASSWORD != null ? PASSWORD : "");
+        return properties;
+    }
+
+    // H2 con la URL indicada y el esquema generado por Hibernate, sin migraciones
+    static ConfigurableApplicationContext startEmbedded(String url) {
+        return startEmbedded(url, Map.of());
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(String url, Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.defer-datasource-initialization", "true");
+        properties.put("spring.sql.init.schema-locations",
+                "classpath:db/h2/id-defaults.sql,classpath:db/h2/maintenance-projection.sql");
+        return run(properties, overrides);
+    }
+
+    static boolean isEmbedded(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("spring.datasource.url", "").startsWith("jdbc:h2:");
+    }
+
+    // Puerto real del servidor web, que se arranca con server.port=0
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext run(Map<String, String> database, Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>(database);
+        properties.put("server.port", "0");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("app.usage.wal-dir", "target/benchmark-wal");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.racingteam", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.putAll(overrides);
+
+        return new SpringApplicationBuilder(RacingTeamManagementApplication.class)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,87 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.Event;
+import com.racingteam.model.EventType;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.model.VehicleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métodos de utilidad del modelo de dominio que se llaman en bucles sobre listas completas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainModelBenchmark {
+
+    private static final BigDecimal LAP_HOURS = new BigDecimal("0.03");
+    private static final BigDecimal LAP_KM = new BigDecimal("4.66");
+
+    private Vehicle vehicle;
+    private Event event;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        vehicle = new Vehicle("GT3 #7", VehicleType.GT3);
+        vehicle.setTotalHours(new BigDecimal("120.50"));
+        vehicle.setTotalKilometers(new BigDecimal("15230.75"));
+        vehicle.setNextMaintenanceHours(new BigDecimal("150.00"));
+        vehicle.setNextMaintenanceKm(new BigDecimal("20000.00"));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        event = new Event("Endurance", EventType.RACE, start, start.plusHours(24));
+
+        user = new User("pilot@racing.com", "secret", "Pilot", "One", UserRole.PILOT);
+    }
+
+    @Benchmark
+    public boolean vehicleNeedsMaintenance() {
+        return vehicle.needsMaintenance();
+    }
+
+    @Benchmark
+    public Vehicle vehicleAddUsage() {
+        vehicle.addHours(LAP_HOURS);
+        vehicle.addKilometers(LAP_KM);
+        return vehicle;
+    }
+
+    @Benchmark
+    public void eventTimeChecks(Blackhole blackhole) {
+        blackhole.consume(event.isActive());
+        blackhole.consume(event.isUpcoming());
+        blackhole.consume(event.getDurationInHours());
+    }
+
+    // Misma medida desde la primera versión para comparar series; typesOf está en EnumLookupBenchmark
+    @Benchmark
+    public VehicleType[] vehicleTypesByCategory() {
+        return VehicleType.getByCategory(VehicleCategory.MOTORCYCLE);
+    }
+
+    @Benchmark
+    public Object userAuthorities() {
+        return user.getAuthorities();
+    }
+}
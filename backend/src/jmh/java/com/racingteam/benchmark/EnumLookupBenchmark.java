@@ -0,0 +1,105 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.EventType;
+import com.racingteam.model.Permission;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.model.VehicleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas sobre los enums del modelo: los métodos "legacy" reproducen la implementación
+ * anterior (stream sobre values() y cadenas de comparaciones) para compararla con las tablas
+ * precalculadas. Para ver la memoria reservada por operación: -Djmh.args="EnumLookup -prof gc".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumLookupBenchmark {
+
+    private static final int VEHICLE_AND_EVENTS = Permission.mask(Permission.MANAGE_VEHICLES, Permission.MANAGE_EVENTS);
+
+    private static final UserRole[] ROLES = UserRole.values();
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    @Benchmark
+    public VehicleType[] typesByCategoryLegacy() {
+        return Arrays.stream(VehicleType.values())
+                .filter(type -> type.getCategory() == VehicleCategory.MOTORCYCLE)
+                .toArray(VehicleType[]::new);
+    }
+
+    @Benchmark
+    public List<VehicleType> typesByCategory() {
+        return VehicleType.typesOf(VehicleCategory.MOTORCYCLE);
+    }
+
+    @Benchmark
+    public int rolePermissionsLegacy() {
+        int allowed = 0;
+        for (UserRole role : ROLES) {
+            if ((role == UserRole.MANAGER || role == UserRole.MECHANIC || role == UserRole.ENGINEER)
+                    && (role == UserRole.MANAGER || role == UserRole.LOGISTICS)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    public int rolePermissions() {
+        int allowed = 0;
+        for (UserRole role : ROLES) {
+            if (role.hasAll(VEHICLE_AND_EVENTS)) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    public int eventClassifiersLegacy() {
+        int matches = 0;
+        for (EventType type : EVENT_TYPES) {
+            boolean onTrack = type == EventType.RACE || type == EventType.TEST || type == EventType.PRACTICE
+                    || type == EventType.QUALIFYING || type == EventType.SHAKEDOWN || type == EventType.TRACKDAY;
+            if (onTrack || type == EventType.MAINTENANCE) {
+                matches++;
+            }
+            if (type == EventType.RACE || type == EventType.PRESENTATION
+                    || type == EventType.MEDIA || type == EventType.SPONSOR_EVENT) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int eventClassifiers() {
+        int matches = 0;
+        for (EventType type : EVENT_TYPES) {
+            if (type.requiresVehicle()) {
+                matches++;
+            }
+            if (type.isPublic()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
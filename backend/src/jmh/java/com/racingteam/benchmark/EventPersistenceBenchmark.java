@@ -0,0 +1,91 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.Event;
+import com.racingteam.model.EventType;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guardado y carga por JPA de un {@link Event} con participantes sobre H2 embebido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPersistenceBenchmark {
+
+    @Param({"5", "40"})
+    public int participants;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EventRepository eventRepository;
+    private Team team;
+    private List<User> crew;
+    private Long savedEventId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        eventRepository = context.getBean(EventRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+
+        team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        crew = new ArrayList<>();
+        for (int i = 0; i < participants; i++) {
+            User user = new User("crew" + i + "@racing.com", "secret1", "Crew", "Member " + i, UserRole.MECHANIC);
+            user.setTeam(team);
+            crew.add(userRepository.save(user));
+        }
+        savedEventId = saveEventWithParticipants();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long saveEventWithParticipants() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime start = LocalDateTime.now().plusDays(7);
+            Event event = new Event("Test day", EventType.TEST, start, start.plusHours(8));
+            event.setTeam(team);
+            event.addParticipants(crew);
+            return eventRepository.save(event).getId();
+        });
+    }
+
+    @Benchmark
+    public int loadEventWithParticipants() {
+        return transactionTemplate.execute(status ->
+                eventRepository.findById(savedEventId).orElseThrow().getParticipants().size());
+    }
+}
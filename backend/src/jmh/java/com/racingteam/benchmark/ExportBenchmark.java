@@ -0,0 +1,88 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.ExportFilter;
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.service.DataFormat;
+import com.racingteam.service.ExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación completa del histórico de mantenimiento con gzip, descartando la salida.
+ *
+ * <p>Sirve también de comprobación del techo de memoria: la JVM del benchmark se limita a
+ * 192 MB de heap y la base de datos vive en disco, así que si la exportación acumulara filas
+ * en memoria el benchmark fallaría con OutOfMemoryError. Siempre usa H2 en fichero, porque la
+ * carga inicial de datos usa funciones de H2.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx192m", "-XX:+ExitOnOutOfMemoryError"})
+public class ExportBenchmark {
+
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"CSV", "NDJSON"})
+    public DataFormat format;
+
+    private ConfigurableApplicationContext context;
+    private ExportService exportService;
+    private ExportFilter filter;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startEmbedded("jdbc:h2:file:./target/benchmark-export;MODE=PostgreSQL;CACHE_SIZE=16384");
+        exportService = context.getBean(ExportService.class);
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        filter = new ExportFilter(team.getId(), null, null);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO users (email, password, first_name, last_name, role, active, team_id, created_at) " +
+                "VALUES ('mechanic@racing.com', 'x', 'Mecánico', 'Jefe', 'MECHANIC', TRUE, ?, CURRENT_TIMESTAMP)",
+                team.getId());
+        jdbc.update("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, created_at) " +
+                "SELECT 'Vehicle ' || X, 'GT3', 'AVAILABLE', TRUE, ?, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 100)",
+                team.getId());
+        jdbc.update("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, cost, " +
+                "parts_replaced, vehicle_id, performed_by_user_id, created_at) " +
+                "SELECT DATEADD('MINUTE', X, TIMESTAMP '2020-01-01 00:00:00'), 'Revisión, cambio de \"pastillas\" ' || X, " +
+                "'PREVENTIVE', 100 + MOD(X, 900), 'Pastillas de freno', " +
+                "(SELECT MIN(id) FROM vehicles) + MOD(X, 100), (SELECT MIN(id) FROM users), CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", records);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long exportMaintenance() throws IOException {
+        try (OutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream(), 64 * 1024)) {
+            return exportService.exportMaintenance(filter, format, out);
+        }
+    }
+}
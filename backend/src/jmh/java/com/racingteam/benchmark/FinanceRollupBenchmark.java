@@ -0,0 +1,233 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.FinanceRollupReport;
+import com.racingteam.model.EventType;
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.service.FinanceRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollup financiero de una temporada para todos los equipos leído del agregado frente a
+ * recalcularlo sumando {@link BigDecimal} desde eventos, asignaciones y mantenimientos.
+ *
+ * <p>Antes de medir se modifica parte de los datos (eventos que cambian de fecha, tipo o
+ * importes, vehículos que se quitan de eventos, mantenimientos borrados o movidos). En H2, que no
+ * tiene los triggers de V12, una reconciliación carga el agregado. Que el agregado coincide
+ * exactamente con el recálculo se comprueba en {@code FinanceRollupServiceTest}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinanceRollupBenchmark {
+
+    private static final EventType[] TYPES = {EventType.RACE, EventType.TEST, EventType.PRACTICE,
+            EventType.QUALIFYING, EventType.TRACKDAY, EventType.SHAKEDOWN, EventType.TRAVEL};
+    private static final int[] SEASONS = {2023, 2024, 2025};
+    private static final int SEASON = 2024;
+
+    @Param({"10"})
+    public int teams;
+
+    @Param({"50"})
+    public int fleetSize;
+
+    @Param({"60"})
+    public int eventsPerSeason;
+
+    @Param({"200"})
+    public int recordsPerVehicle;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private FinanceRollupService rollupService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jdbc = context.getBean(JdbcTemplate.class);
+        rollupService = context.getBean(FinanceRollupService.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+
+        for (int t = 0; t < teams; t++) {
+            Long teamId = teamRepository.save(new Team("Benchmark Racing " + t, VehicleCategory.CAR)).getId();
+            seedTeam(teamId);
+        }
+
+        // Cambios que recorren todos los caminos de los triggers
+        jdbc.update("UPDATE events SET start_date = start_date + INTERVAL '9' DAY, " +
+                "end_date = end_date + INTERVAL '9' DAY WHERE MOD(id, 7) = 1");
+        jdbc.update("UPDATE events SET start_date = start_date + INTERVAL '200' DAY, " +
+                "end_date = end_date + INTERVAL '200' DAY WHERE MOD(id, 29) = 3");
+        jdbc.update("UPDATE events SET event_type = 'TEST', budget_allocated = 1234.56 WHERE MOD(id, 11) = 2");
+        jdbc.update("UPDATE events SET actual_cost = NULL WHERE MOD(id, 13) = 4");
+        jdbc.update("DELETE FROM event_vehicles WHERE MOD(event_id + vehicle_id, 17) = 5");
+        // Como JPA, primero las asignaciones: el esquema de H2 no las borra en cascada
+        jdbc.update("DELETE FROM event_vehicles WHERE MOD(event_id, 19) = 6");
+        jdbc.update("DELETE FROM events WHERE MOD(id, 19) = 6");
+        jdbc.update("DELETE FROM maintenance_records WHERE MOD(id, 10) = 3");
+        jdbc.update("UPDATE maintenance_records SET cost = cost + 0.01, " +
+                "maintenance_date = maintenance_date + INTERVAL '3' DAY WHERE MOD(id, 7) = 2");
+
+        if (BenchmarkContext.isEmbedded(context)) {
+            rollupService.reconcile();
+        }
+    }
+
+    private void seedTeam(Long teamId) {
+        List<Object[]> vehicles = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            vehicles.add(new Object[]{"Vehicle " + i, "GT3", "AVAILABLE", true, teamId});
+        }
+        jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", vehicles);
+        List<Long> vehicleIds = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id",
+                Long.class, teamId);
+
+        // Eventos repartidos por las temporadas con presupuesto y coste en céntimos variados
+        List<Object[]> events = new ArrayList<>();
+        for (int season : SEASONS) {
+            for (int e = 0; e < eventsPerSeason; e++) {
+                LocalDateTime start = LocalDateTime.of(season, 1, 1, 9, 0).plusDays(e * 360L / eventsPerSeason);
+                BigDecimal budget = e % 9 == 0 ? null : BigDecimal.valueOf(100_000L + (e * 7919L + teamId) % 900_000, 2);
+                BigDecimal actual = e % 5 == 0 ? null : BigDecimal.valueOf(90_000L + (e * 104_729L) % 950_000, 2);
+                events.add(new Object[]{"Event " + season + "-" + e, TYPES[e % TYPES.length].name(),
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(8)), "PLANNED",
+                        budget, actual, teamId});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO events (name, event_type, start_date, end_date, status, budget_allocated, " +
+                "actual_cost, team_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", events);
+        List<Long> eventIds = jdbc.queryForList("SELECT id FROM events WHERE team_id = ? ORDER BY start_date, id",
+                Long.class, teamId);
+
+        // Cada evento con un tercio de la flota
+        List<Object[]> assignments = new ArrayList<>();
+        for (int e = 0; e < eventIds.size(); e++) {
+            for (int v = e % 3; v < vehicleIds.size(); v += 3) {
+                assignments.add(new Object[]{eventIds.get(e), vehicleIds.get(v)});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", assignments);
+
+        LocalDateTime first = LocalDateTime.of(SEASONS[0] - 1, 12, 1, 8, 0);
+        List<Object[]> records = new ArrayList<>(vehicleIds.size() * recordsPerVehicle);
+        for (Long id : vehicleIds) {
+            for (int r = 0; r < recordsPerVehicle; r++) {
+                BigDecimal cost = r % 11 == 0 ? null : BigDecimal.valueOf(5_000L + (r * 3_701L + id) % 95_000, 2);
+                records.add(new Object[]{Timestamp.valueOf(first.plusHours(r * 37L * 24 / 10 + id % 24)),
+                        "Revisión " + r, "PREVENTIVE", cost, id});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "cost, vehicle_id, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records, 1000,
+                (ps, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FinanceRollupReport seasonRollupsFromAggregate() {
+        return rollupService.getRollups(null, SEASON);
+    }
+
+    @Benchmark
+    public Map<Key, Sums> seasonRollupsRecomputed() {
+        return recompute();
+    }
+
+    private record Key(Long teamId, int season, int month, EventType eventType) {
+    }
+
+    private record EventRow(Long id, Long teamId, LocalDateTime start, EventType eventType,
+                            BigDecimal budget, BigDecimal actual) {
+    }
+
+    private static final class Sums {
+
+        private long eventCount;
+        private BigDecimal budget = BigDecimal.ZERO.setScale(2);
+        private BigDecimal actual = BigDecimal.ZERO.setScale(2);
+        private BigDecimal maintenance = BigDecimal.ZERO.setScale(2);
+    }
+
+    /**
+     * Recálculo independiente del agregado: el mantenimiento de cada vehículo va al último de sus
+     * eventos que empezó antes o a la vez, desempatando por id.
+     */
+    private Map<Key, Sums> recompute() {
+        Map<Long, EventRow> events = new HashMap<>();
+        jdbc.query("SELECT id, team_id, start_date, event_type, budget_allocated, actual_cost FROM events", rs -> {
+            EventRow row = new EventRow(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime(),
+                    EventType.valueOf(rs.getString(4)), rs.getBigDecimal(5), rs.getBigDecimal(6));
+            events.put(row.id(), row);
+        });
+        Map<Key, Sums> sums = new HashMap<>();
+        for (EventRow event : events.values()) {
+            Sums cell = sums.computeIfAbsent(keyOf(event), key -> new Sums());
+            cell.eventCount++;
+            cell.budget = cell.budget.add(Objects.requireNonNullElse(event.budget(), BigDecimal.ZERO));
+            cell.actual = cell.actual.add(Objects.requireNonNullElse(event.actual(), BigDecimal.ZERO));
+        }
+
+        Map<Long, TreeMap<LocalDateTime, EventRow>> byVehicle = new HashMap<>();
+        Comparator<EventRow> order = Comparator.comparing(EventRow::start).thenComparing(EventRow::id);
+        jdbc.query("SELECT event_id, vehicle_id FROM event_vehicles", rs -> {
+            EventRow event = events.get(rs.getLong(1));
+            if (event != null) {
+                byVehicle.computeIfAbsent(rs.getLong(2), id -> new TreeMap<>())
+                        .merge(event.start(), event, (a, b) -> order.compare(a, b) >= 0 ? a : b);
+            }
+        });
+        jdbc.query("SELECT vehicle_id, maintenance_date, cost FROM maintenance_records WHERE cost IS NOT NULL", rs -> {
+            TreeMap<LocalDateTime, EventRow> timeline = byVehicle.get(rs.getLong(1));
+            Map.Entry<LocalDateTime, EventRow> entry =
+                    timeline != null ? timeline.floorEntry(rs.getTimestamp(2).toLocalDateTime()) : null;
+            if (entry != null) {
+                Sums cell = sums.get(keyOf(entry.getValue()));
+                cell.maintenance = cell.maintenance.add(rs.getBigDecimal(3));
+            }
+        });
+        return sums;
+    }
+
+    private static Key keyOf(EventRow event) {
+        return new Key(event.teamId(), event.start().getYear(), event.start().getMonthValue(), event.eventType());
+    }
+}
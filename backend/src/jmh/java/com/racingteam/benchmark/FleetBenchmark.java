@@ -0,0 +1,122 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.UsageDelta;
+import com.racingteam.model.Team;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.service.VehicleUsageIngestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones sobre la flota de un equipo: búsqueda de vehículos con mantenimiento pendiente y
+ * volcado de uso de vuelta en vuelta. Cada par compara el camino original por entidades con el
+ * actual. Necesita PostgreSQL (BENCHMARK_DATASOURCE_URL).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FleetBenchmark {
+
+    private static final BigDecimal LAP_HOURS = new BigDecimal("0.03");
+    private static final BigDecimal LAP_KM = new BigDecimal("4.66");
+
+    @Param({"100000"})
+    public int fleetSize;
+
+    @Param({"200"})
+    public int usageBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private VehicleRepository vehicleRepository;
+    private VehicleUsageIngestionService usageIngestionService;
+    private Long teamId;
+    private List<Long> usageVehicleIds;
+
+    @Setup
+    public void setUp() {
+        // La consulta por proyección usa las columnas generadas y el índice parcial de V2
+        context = BenchmarkContext.startMigrated();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        usageIngestionService = context.getBean(VehicleUsageIngestionService.class);
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        teamId = team.getId();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        // Uno de cada cien vehículos supera su umbral de horas
+        List<Object[]> rows = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            BigDecimal hours = BigDecimal.valueOf(i % 100 == 0 ? 160 : 40);
+            rows.add(new Object[]{"Vehicle " + i, "GT3", hours, BigDecimal.valueOf(1000), BigDecimal.valueOf(150),
+                    BigDecimal.valueOf(50000), "AVAILABLE", true, team.getId()});
+        }
+        jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, total_hours, total_kilometers, " +
+                "next_maintenance_hours, next_maintenance_km, status, active, team_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", rows);
+
+        usageVehicleIds = jdbc.queryForList("SELECT id FROM vehicles ORDER BY id LIMIT " + usageBatchSize, Long.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long maintenanceDueByEntityScan() {
+        return transactionTemplate.execute(status ->
+                vehicleRepository.findAll().stream().filter(Vehicle::needsMaintenance).count());
+    }
+
+    @Benchmark
+    public int maintenanceDueByProjection() {
+        return vehicleRepository.findMaintenanceDueByTeam(teamId).size();
+    }
+
+    @Benchmark
+    public void usagePerRowUpdate() {
+        for (Long id : usageVehicleIds) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Vehicle vehicle = vehicleRepository.findById(id).orElseThrow();
+                vehicle.addHours(LAP_HOURS);
+                vehicle.addKilometers(LAP_KM);
+            });
+        }
+    }
+
+    @Benchmark
+    public void usageBatchedIngestion() {
+        List<UsageDelta> deltas = new ArrayList<>(usageVehicleIds.size());
+        for (Long id : usageVehicleIds) {
+            deltas.add(new UsageDelta(id, LAP_HOURS, LAP_KM));
+        }
+        usageIngestionService.submit(teamId, deltas);
+        usageIngestionService.flush();
+    }
+}
@@ -0,0 +1,141 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.VehicleReadiness;
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.EventType;
+import com.racingteam.model.Team;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.service.FleetReadinessService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planificación de disponibilidad de una temporada completa: replanificado de toda la flota
+ * frente al recálculo incremental tras cambiar un vehículo.
+ *
+ * <p>Cada equipo tiene dos eventos en pista por semana durante el año anterior y el siguiente,
+ * y cada evento lleva a una quinta parte de la flota, así que cada vehículo tiene unos cuarenta
+ * eventos pasados y otros tantos por delante. Los mantenimientos llevan lecturas de horas y
+ * kilómetros para que el uso se estime con el histórico de cada vehículo.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleetReadinessBenchmark {
+
+    private static final EventType[] ON_TRACK = {EventType.RACE, EventType.TEST, EventType.PRACTICE};
+    private static final int WEEKS = 52;
+
+    @Param({"200", "1000"})
+    public int fleetSize;
+
+    @Param({"12"})
+    public int recordsPerVehicle;
+
+    private ConfigurableApplicationContext context;
+    private FleetReadinessService readinessService;
+    private Long teamId;
+    private Vehicle changedVehicle;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        readinessService = context.getBean(FleetReadinessService.class);
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        teamId = team.getId();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> vehicles = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            // Umbrales repartidos para que una parte de la flota llegue al mantenimiento en la temporada
+            vehicles.add(new Object[]{"Vehicle " + i, "GT3", "AVAILABLE", true, teamId,
+                    BigDecimal.valueOf(400), BigDecimal.valueOf(30000),
+                    BigDecimal.valueOf(450 + i % 300), BigDecimal.valueOf(40000 + (i % 100) * 500L)});
+        }
+        jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, total_hours, " +
+                "total_kilometers, next_maintenance_hours, next_maintenance_km, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", vehicles);
+        List<Long> vehicleIds = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id",
+                Long.class, teamId);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime firstEvent = now.minusWeeks(WEEKS);
+        List<Object[]> events = new ArrayList<>();
+        for (int i = 0; i < WEEKS * 4; i++) {
+            LocalDateTime start = firstEvent.plusHours(i * 84L);
+            events.add(new Object[]{"Event " + i, ON_TRACK[i % ON_TRACK.length].name(), Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(6 + i % 5)), "PLANNED", teamId});
+        }
+        jdbc.batchUpdate("INSERT INTO events (name, event_type, start_date, end_date, status, team_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", events);
+        List<Long> eventIds = jdbc.queryForList("SELECT id FROM events WHERE team_id = ? ORDER BY start_date",
+                Long.class, teamId);
+
+        List<Object[]> assignments = new ArrayList<>();
+        for (int e = 0; e < eventIds.size(); e++) {
+            for (int v = e % 5; v < vehicleIds.size(); v += 5) {
+                assignments.add(new Object[]{eventIds.get(e), vehicleIds.get(v)});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", assignments);
+
+        List<Object[]> records = new ArrayList<>(vehicleIds.size() * recordsPerVehicle);
+        for (Long id : vehicleIds) {
+            for (int r = 0; r < recordsPerVehicle; r++) {
+                records.add(new Object[]{Timestamp.valueOf(now.minusWeeks(WEEKS - r * 4L)), "Revisión " + r,
+                        "PREVENTIVE", BigDecimal.valueOf(200 + r * 15L), BigDecimal.valueOf(15000 + r * 1200L), id});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "vehicle_hours_at_maintenance, vehicle_km_at_maintenance, vehicle_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records);
+
+        changedVehicle = context.getBean(VehicleRepository.class).findById(vehicleIds.get(0)).orElseThrow();
+        List<VehicleReadiness> plan = readinessService.replan(teamId);
+        long atRisk = plan.stream().filter(VehicleReadiness::atRisk).count();
+        System.out.printf("%n%d vehículos planificados, %d con mantenimiento en algún evento%n", plan.size(), atRisk);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<VehicleReadiness> fullReplan() {
+        return readinessService.replan(teamId);
+    }
+
+    // Lo que ocurre tras guardar un vehículo: solo se recalcula ese vehículo al pedir el plan
+    @Benchmark
+    public List<VehicleReadiness> singleVehicleChange() {
+        readinessService.onEntityChange(new EntityChangeEvent(changedVehicle, ChangeType.UPDATED));
+        return readinessService.getTeamReadiness(teamId, false);
+    }
+}
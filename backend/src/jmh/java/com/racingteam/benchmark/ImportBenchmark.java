@@ -0,0 +1,137 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.ImportReport;
+import com.racingteam.model.MaintenanceRecord;
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.Team;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.model.VehicleType;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.service.DataFormat;
+import com.racingteam.service.ImportService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserción de una temporada de registros: entidades guardadas con JPA en una transacción
+ * (ids pooled-lo e INSERT agrupados en lotes de {@code jdbc.batch_size}, con el contexto de
+ * persistencia y los listeners de cada entidad) frente a la importación masiva desde CSV, que
+ * además incluye el parseo y la validación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ImportBenchmark {
+
+    private static final LocalDateTime SEASON_START = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private VehicleRepository vehicleRepository;
+    private ImportService importService;
+    private Team team;
+    private Vehicle vehicle;
+    private byte[] vehiclesCsv;
+    private byte[] maintenanceCsv;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        importService = context.getBean(ImportService.class);
+
+        team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        vehicle = new Vehicle("GT3 #7", VehicleType.GT3);
+        vehicle.setTeam(team);
+        vehicle = vehicleRepository.save(vehicle);
+
+        StringBuilder vehicles = new StringBuilder("name,vehicleType,manufacturer,totalHours,teamId\n");
+        StringBuilder maintenance = new StringBuilder("maintenanceDate,description,maintenanceType,cost,vehicleId\n");
+        for (int i = 0; i < rows; i++) {
+            vehicles.append("Vehicle ").append(i).append(",GT3,\"Porsche, AG\",").append(i % 200)
+                    .append(',').append(team.getId()).append('\n');
+            maintenance.append(SEASON_START.plusMinutes(i)).append(",Revisión ").append(i)
+                    .append(",PREVENTIVE,").append(100 + i % 900).append(',').append(vehicle.getId()).append('\n');
+        }
+        vehiclesCsv = vehicles.toString().getBytes(StandardCharsets.UTF_8);
+        maintenanceCsv = maintenance.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int vehiclesJpa() {
+        List<Vehicle> vehicles = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Vehicle entity = new Vehicle("Vehicle " + i, VehicleType.GT3);
+            entity.setManufacturer("Porsche, AG");
+            entity.setTotalHours(BigDecimal.valueOf(i % 200));
+            entity.setTeam(team);
+            vehicles.add(entity);
+        }
+        return vehicleRepository.saveAll(vehicles).size();
+    }
+
+    @Benchmark
+    public ImportReport vehiclesImport() {
+        return importService.importVehicles(new ByteArrayInputStream(vehiclesCsv), DataFormat.CSV, team.getId());
+    }
+
+    @Benchmark
+    public int maintenanceJpa() {
+        return transactionTemplate.execute(status -> {
+            Vehicle reference = entityManager.getReference(Vehicle.class, vehicle.getId());
+            for (int i = 0; i < rows; i++) {
+                MaintenanceRecord record = new MaintenanceRecord(SEASON_START.plusMinutes(i), "Revisión " + i,
+                        MaintenanceType.PREVENTIVE);
+                record.setCost(BigDecimal.valueOf(100 + i % 900));
+                record.setVehicle(reference);
+                entityManager.persist(record);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return rows;
+        });
+    }
+
+    @Benchmark
+    public ImportReport maintenanceImport() {
+        return importService.importMaintenanceRecords(new ByteArrayInputStream(maintenanceCsv), DataFormat.CSV,
+                team.getId());
+    }
+}
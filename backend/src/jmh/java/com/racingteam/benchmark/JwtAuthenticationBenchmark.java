@@ -0,0 +1,68 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de autenticar una petición: solo con los claims del token frente a verificar el token
+ * y además cargar el usuario de la base de datos, como hacía la autenticación por sesión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JwtService jwtService;
+    private UserRepository userRepository;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        jwtService = context.getBean(JwtService.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        User user = new User("pilot@racing.com", "secret1", "Pilot", "One", UserRole.PILOT);
+        user.setTeam(team);
+        token = jwtService.issueToken(userRepository.save(user));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object claimsOnly() {
+        return jwtService.verify(token).principal();
+    }
+
+    @Benchmark
+    public Object claimsPlusUserLookup() {
+        return userRepository.findByEmail(jwtService.verify(token).principal().email()).orElseThrow();
+    }
+}
@@ -0,0 +1,204 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.security.JwtService;
+import com.racingteam.service.LiveStatusService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Prueba de resistencia del canal en directo: miles de suscriptores SSE simulados en un solo
+ * nodo, todos del mismo equipo. Cada operación cambia el estado de un vehículo y espera a que
+ * el mensaje llegue a todos los suscriptores, así que el tiempo medido es el del reparto completo.
+ *
+ * <p>Los clientes son sockets NIO atendidos por un único selector, para que el coste por conexión
+ * del lado cliente sea mínimo. La memoria por conexión se mide como el heap ocupado tras una
+ * recolección completa antes y después de abrirlas, dividido entre el número de suscriptores;
+ * incluye unos cientos de bytes del propio cliente. Se imprime en la salida de la prueba junto
+ * con los suscriptores desconectados por cola llena, que aquí debería ser cero: los contadores
+ * auxiliares de JMH se suman entre iteraciones y no sirven para un valor fijo.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class LiveStatusSoakBenchmark {
+
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final VehicleStatus[] STATUSES = {VehicleStatus.AVAILABLE, VehicleStatus.IN_USE};
+
+    @Param({"1000", "5000"})
+    public int subscribers;
+
+    private ConfigurableApplicationContext context;
+    private LiveStatusService liveStatusService;
+    private VehicleRepository vehicleRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long vehicleId;
+    private int toggle;
+
+    private Selector selector;
+    private Thread reader;
+    private volatile boolean running = true;
+    private final List<SocketChannel> channels = new ArrayList<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicLong received = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = BenchmarkContext.start(Map.of(
+                "server.tomcat.max-connections", String.valueOf(subscribers + 100),
+                "app.live.max-subscribers", String.valueOf(subscribers),
+                "app.live.heartbeat-interval", "3600000"));
+        liveStatusService = context.getBean(LiveStatusService.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        User user = new User("pilot@racing.com", "secret1", "Pilot", "One", UserRole.PILOT);
+        user.setTeam(team);
+        String token = context.getBean(JwtService.class).issueToken(context.getBean(UserRepository.class).save(user));
+        Vehicle vehicle = new Vehicle("Vehicle 0", VehicleType.GT3);
+        vehicle.setTeam(team);
+        vehicle.setStatus(STATUSES[0]);
+        vehicleId = vehicleRepository.save(vehicle).getId();
+
+        byte[] request = ("GET /api/live HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n" +
+                "Authorization: Bearer " + token + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        InetSocketAddress address = new InetSocketAddress("localhost", BenchmarkContext.port(context));
+
+        long heapBefore = usedHeapAfterGc();
+        selector = Selector.open();
+        reader = new Thread(this::read, "soak-reader");
+        reader.start();
+        for (int i = 0; i < subscribers; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.write(ByteBuffer.wrap(request));
+            channel.configureBlocking(false);
+            channels.add(channel);
+            channel.register(selector, SelectionKey.OP_READ, new int[]{0, 0});
+        }
+        // Cada suscriptor recibe un comentario inicial al quedar registrado
+        awaitCondition(() -> connected.get() == subscribers && liveStatusService.getSubscriberCount() == subscribers);
+        long bytesPerSubscriber = (usedHeapAfterGc() - heapBefore) / subscribers;
+        System.out.printf("%n%d suscriptores, heap por suscriptor: %d bytes%n", subscribers, bytesPerSubscriber);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        System.out.printf("%nSuscriptores desconectados por cola llena: %d%n", liveStatusService.getDroppedCount());
+        running = false;
+        selector.wakeup();
+        reader.join();
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        selector.close();
+        context.close();
+    }
+
+    @Benchmark
+    public long fanOut() throws InterruptedException {
+        long target = received.get() + subscribers;
+        VehicleStatus status = STATUSES[++toggle % STATUSES.length];
+        transactionTemplate.executeWithoutResult(tx ->
+                vehicleRepository.findById(vehicleId).orElseThrow().setStatus(status));
+        awaitCondition(() -> received.get() >= target);
+        return received.get();
+    }
+
+    // Cuenta los campos "data:" de cada conexión, que pueden llegar partidos entre lecturas
+    private void read() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (running) {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    int[] state = (int[]) key.attachment();
+                    buffer.clear();
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                    if (state[1] == 0) {
+                        state[1] = 1;
+                        connected.incrementAndGet();
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        byte b = buffer.get();
+                        state[0] = b == DATA_PREFIX[state[0]] ? state[0] + 1 : (b == DATA_PREFIX[0] ? 1 : 0);
+                        if (state[0] == DATA_PREFIX.length) {
+                            state[0] = 0;
+                            received.incrementAndGet();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Tiempo de espera agotado en la prueba de resistencia");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,152 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.MaintenanceAnalytics;
+import com.racingteam.model.MaintenanceRecord;
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.service.MaintenanceAnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analítica de mantenimiento de un vehículo recorriendo sus registros frente a la lectura del
+ * agregado, y la variante de toda la flota.
+ *
+ * <p>Antes de medir se modifica parte del histórico (borrados y cambios de tipo y coste). Con
+ * PostgreSQL los triggers de V5 mantienen el agregado; en H2, que no los tiene, se carga con una
+ * reconciliación. El invariante lo comprueba {@code MaintenanceAnalyticsServiceTest}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaintenanceAnalyticsBenchmark {
+
+    private static final MaintenanceType[] TYPES = MaintenanceType.values();
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    @Param({"200"})
+    public int recordsPerVehicle;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private VehicleRepository vehicleRepository;
+    private MaintenanceAnalyticsService analyticsService;
+    private Long teamId;
+    private Long vehicleId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        vehicleRepository = context.getBean(VehicleRepository.class);
+        analyticsService = context.getBean(MaintenanceAnalyticsService.class);
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        teamId = team.getId();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        List<Object[]> vehicles = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            vehicles.add(new Object[]{"Vehicle " + i, "GT3", "AVAILABLE", true, teamId});
+        }
+        jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", vehicles);
+        List<Long> vehicleIds = jdbc.queryForList("SELECT id FROM vehicles ORDER BY id", Long.class);
+        vehicleId = vehicleIds.get(0);
+
+        // Tres temporadas de histórico; uno de cada cinco registros es correctivo
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 8, 0);
+        List<Object[]> records = new ArrayList<>(vehicleIds.size() * recordsPerVehicle);
+        for (Long id : vehicleIds) {
+            for (int r = 0; r < recordsPerVehicle; r++) {
+                MaintenanceType type = r % 5 == 0 ? MaintenanceType.CORRECTIVE : TYPES[r % TYPES.length];
+                BigDecimal cost = r % 11 == 0 ? null : BigDecimal.valueOf(50 + (r * 37L + id) % 950);
+                records.add(new Object[]{Timestamp.valueOf(start.plusHours(r * 131L + id % 24)),
+                        "Revisión " + r, type.name(), cost, id});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "cost, vehicle_id, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records, 1000,
+                (ps, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                });
+        jdbc.update("DELETE FROM maintenance_records WHERE MOD(id, 10) = 3");
+        jdbc.update("UPDATE maintenance_records SET maintenance_type = 'CORRECTIVE', cost = 120 WHERE MOD(id, 7) = 2");
+        jdbc.update("UPDATE maintenance_records SET maintenance_date = maintenance_date + INTERVAL '400' DAY " +
+                "WHERE MOD(id, 13) = 5");
+
+        if (BenchmarkContext.isEmbedded(context)) {
+            analyticsService.reconcile();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void vehicleAnalyticsFromRecords(Blackhole blackhole) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<MaintenanceType, BigDecimal> costByType = new EnumMap<>(MaintenanceType.class);
+            LocalDateTime first = null;
+            LocalDateTime last = null;
+            int corrective = 0;
+            for (MaintenanceRecord record : vehicleRepository.findById(vehicleId).orElseThrow().getMaintenanceRecords()) {
+                BigDecimal cost = record.getCost() != null ? record.getCost() : BigDecimal.ZERO;
+                costByType.merge(record.getMaintenanceType(), cost, BigDecimal::add);
+                if (record.getMaintenanceType() == MaintenanceType.CORRECTIVE) {
+                    corrective++;
+                    LocalDateTime date = record.getMaintenanceDate();
+                    first = first == null || date.isBefore(first) ? date : first;
+                    last = last == null || date.isAfter(last) ? date : last;
+                }
+            }
+            blackhole.consume(costByType);
+            blackhole.consume(corrective > 1 ? Duration.between(first, last).dividedBy(corrective - 1) : null);
+        });
+    }
+
+    @Benchmark
+    public MaintenanceAnalytics vehicleAnalyticsFromAggregate() {
+        return analyticsService.getVehicleAnalytics(vehicleId, null);
+    }
+
+    @Benchmark
+    public MaintenanceAnalytics fleetAnalyticsFromAggregate() {
+        return analyticsService.getFleetAnalytics(teamId, 2024);
+    }
+}
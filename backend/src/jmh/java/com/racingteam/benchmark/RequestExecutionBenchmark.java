@@ -0,0 +1,132 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.security.JwtService;
+import com.racingteam.service.MaintenanceAnalyticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga HTTP con muchos clientes concurrentes contra el pool de hilos de Tomcat
+ * ({@code platform}) y contra el perfil {@code virtual-threads}. SampleTime da los percentiles
+ * de latencia (p99) y Throughput las peticiones por segundo.
+ *
+ * <p>Ambos modos usan el mismo pool de conexiones para que la diferencia sea solo el modelo de
+ * ejecución. El modo virtual necesita Java 21; con una versión anterior falla en el arranque en
+ * lugar de medir hilos de plataforma con otro nombre.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final MaintenanceType[] TYPES = MaintenanceType.values();
+
+    @Param({"platform", "virtual"})
+    public String execution;
+
+    @Param({"20"})
+    public int connectionPoolSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if ("virtual".equals(execution)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("El modo virtual requiere Java 21 y se ejecuta con Java "
+                        + Runtime.version().feature());
+            }
+            properties.put("spring.profiles.active", "virtual-threads");
+        }
+        properties.put("spring.datasource.hikari.maximum-pool-size", String.valueOf(connectionPoolSize));
+        properties.put("spring.datasource.hikari.minimum-idle", String.valueOf(connectionPoolSize));
+        context = BenchmarkContext.start(properties);
+
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+        User user = new User("pilot@racing.com", "secret1", "Pilot", "One", UserRole.PILOT);
+        user.setTeam(team);
+        String token = context.getBean(JwtService.class).issueToken(context.getBean(UserRepository.class).save(user));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, created_at) " +
+                "VALUES ('Vehicle 0', 'GT3', 'AVAILABLE', TRUE, ?, CURRENT_TIMESTAMP)", team.getId());
+        Long vehicleId = jdbc.queryForObject("SELECT MAX(id) FROM vehicles", Long.class);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Object[]> records = new ArrayList<>();
+        for (int r = 0; r < 200; r++) {
+            records.add(new Object[]{Timestamp.valueOf(start.plusHours(r * 37L)), "Revisión " + r,
+                    TYPES[r % TYPES.length].name(), BigDecimal.valueOf(50 + r), vehicleId});
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "cost, vehicle_id, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records);
+        if (BenchmarkContext.isEmbedded(context)) {
+            context.getBean(MaintenanceAnalyticsService.class).reconcile();
+        }
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContext.port(context) +
+                        "/api/vehicles/" + vehicleId + "/maintenance-analytics?season=2024"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String vehicleAnalytics() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,166 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.config.QueryBudget;
+import com.racingteam.config.QueryCounter;
+import com.racingteam.controller.EventController;
+import com.racingteam.controller.TeamController;
+import com.racingteam.controller.VehicleController;
+import com.racingteam.model.Event;
+import com.racingteam.model.EventType;
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.model.VehicleType;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.service.EventService;
+import com.racingteam.service.TeamService;
+import com.racingteam.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Tiempo de cada pantalla con {@link QueryBudget}, con los mismos datos que QueryBudgetTest:
+ * bastantes pilotos, vehículos, mantenimientos y eventos con miembros. El presupuesto lo
+ * comprueba esa prueba en {@code mvn test}; aquí solo se imprime el recuento con las cachés
+ * vacías, contado con {@link QueryCounter}, junto al presupuesto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenQueryBudgetBenchmark {
+
+    private static final MaintenanceType[] TYPES = MaintenanceType.values();
+
+    @Param({"team-overview", "event-detail", "vehicle-detail"})
+    public String screen;
+
+    private ConfigurableApplicationContext context;
+    private Supplier<Object> screenLoader;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        context = BenchmarkContext.start();
+        Team team = context.getBean(TeamRepository.class).save(new Team("Benchmark Racing", VehicleCategory.CAR));
+
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            User user = new User("pilot" + i + "@racing.com", "secret1", "Pilot", "Number " + i, UserRole.PILOT);
+            user.setTeam(team);
+            members.add(user);
+        }
+        members = context.getBean(UserRepository.class).saveAll(members);
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Vehicle vehicle = new Vehicle("Vehicle " + i, VehicleType.GT3);
+            vehicle.setTeam(team);
+            vehicles.add(vehicle);
+        }
+        vehicles = context.getBean(VehicleRepository.class).saveAll(vehicles);
+
+        List<Object[]> records = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        for (Vehicle vehicle : vehicles) {
+            for (int r = 0; r < 40; r++) {
+                records.add(new Object[]{Timestamp.valueOf(start.plusDays(r * 7L)), "Revisión " + r,
+                        TYPES[r % TYPES.length].name(), BigDecimal.valueOf(50 + r), vehicle.getId(),
+                        members.get(r % members.size()).getId()});
+            }
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO maintenance_records (maintenance_date, " +
+                "description, maintenance_type, cost, vehicle_id, performed_by_user_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records);
+
+        List<Event> events = new ArrayList<>();
+        LocalDateTime firstEvent = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 20; i++) {
+            Event event = new Event("Event " + i, EventType.RACE,
+                    firstEvent.plusDays(i * 7L), firstEvent.plusDays(i * 7L).plusHours(6));
+            event.setTeam(team);
+            event.addParticipants(members.subList(i % 20, i % 20 + 10));
+            event.addVehicles(vehicles.subList(i % 15, i % 15 + 5));
+            events.add(event);
+        }
+        events = context.getBean(EventRepository.class).saveAll(events);
+
+        Long teamId = team.getId();
+        Long eventId = events.get(events.size() / 2).getId();
+        Long vehicleId = vehicles.get(0).getId();
+        Method endpoint;
+        switch (screen) {
+            case "team-overview" -> {
+                TeamService teamService = context.getBean(TeamService.class);
+                screenLoader = () -> teamService.getOverview(teamId);
+                endpoint = TeamController.class.getMethod("getOverview", Long.class);
+            }
+            case "event-detail" -> {
+                EventService eventService = context.getBean(EventService.class);
+                screenLoader = () -> eventService.getDetail(eventId);
+                endpoint = EventController.class.getMethod("getEvent", Long.class);
+            }
+            case "vehicle-detail" -> {
+                VehicleService vehicleService = context.getBean(VehicleService.class);
+                screenLoader = () -> vehicleService.getDetail(vehicleId, null);
+                endpoint = VehicleController.class.getMethod("getVehicleDetail", Long.class, Integer.class);
+            }
+            default -> throw new IllegalArgumentException("Pantalla desconocida: " + screen);
+        }
+        printQueryCount(endpoint.getAnnotation(QueryBudget.class).value());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object loadScreen() {
+        return screenLoader.get();
+    }
+
+    // Con las cachés vacías, que es el caso con más consultas
+    private void printQueryCount(int budget) {
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        QueryCounter queryCounter = context.getBean(QueryCounter.class);
+        queryCounter.start();
+        int count;
+        try {
+            screenLoader.get();
+        } finally {
+            count = queryCounter.stop();
+        }
+        System.out.printf("%nPantalla %s: %d sentencias SQL, presupuesto %d%n", screen, count, budget);
+    }
+}
@@ -0,0 +1,139 @@
+package com.racingteam.benchmark;
+
+import com.racingteam.dto.SearchResult;
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.service.SearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de texto libre en un equipo con un millón de mantenimientos: una palabra poco
+ * frecuente, la misma con una errata, un prefijo de número de chasis y dos palabras frecuentes,
+ * que obligan a ordenar muchos candidatos.
+ *
+ * <p>Hay un segundo equipo con los mismos datos para que el filtro por equipo descarte la mitad
+ * de las coincidencias. Con H2 la búsqueda recorre las tablas con LIKE y sirve solo como
+ * referencia; la cifra que importa es la de PostgreSQL con los índices de V10.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] WORK = {"Cambio de aceite", "Revisión de frenos", "Sustitución de embrague",
+            "Ajuste de suspensión", "Revisión del motor", "Cambio de neumáticos", "Reparación de carrocería"};
+    private static final String[] PARTS = {"Oil filter, engine oil", "Brake pads, brake discs", "Clutch kit",
+            "Dampers, springs", "Spark plugs", "Slick tyres", "Front splitter"};
+
+    @Param({"1000"})
+    public int fleetSize;
+
+    @Param({"1000"})
+    public int recordsPerVehicle;
+
+    private ConfigurableApplicationContext context;
+    private SearchService searchService;
+    private Long teamId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        searchService = context.getBean(SearchService.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+        teamId = teamRepository.save(new Team("Benchmark Racing", VehicleCategory.CAR)).getId();
+        Long otherTeamId = teamRepository.save(new Team("Other Racing", VehicleCategory.CAR)).getId();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        for (Long team : List.of(teamId, otherTeamId)) {
+            List<Object[]> vehicles = new ArrayList<>(fleetSize);
+            for (int i = 0; i < fleetSize; i++) {
+                vehicles.add(new Object[]{"Vehicle " + i, "GT3", "AVAILABLE", true, team,
+                        String.format("WDB-%d-%05d", team, i), String.format("ENG-%05d", i),
+                        i % 50 == 0 ? "Vibración en la caja de cambios (gearbox) a alta velocidad" : null});
+            }
+            jdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, chassis_number, " +
+                    "engine_number, notes, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", vehicles);
+        }
+        List<Long> vehicleIds = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id",
+                Long.class, teamId);
+        List<Long> otherVehicleIds = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id",
+                Long.class, otherTeamId);
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        int total = fleetSize * recordsPerVehicle / 2;
+        List<Object[]> records = new ArrayList<>(10_000);
+        for (int r = 0; r < total * 2; r++) {
+            List<Long> ids = r < total ? vehicleIds : otherVehicleIds;
+            int k = r % total;
+            // Una de cada mil menciona la caja de cambios
+            String notes = k % 1000 == 0 ? "Ruido en la gearbox tras la sesión" : null;
+            records.add(new Object[]{Timestamp.valueOf(now.minusHours(k)), WORK[k % WORK.length] + " " + k,
+                    "PREVENTIVE", PARTS[k % PARTS.length], notes, ids.get(k % ids.size())});
+            if (records.size() == 10_000) {
+                insertRecords(jdbc, records);
+                records.clear();
+            }
+        }
+        insertRecords(jdbc, records);
+
+        searchService.refreshVocabulary();
+        System.out.printf("%n%d resultados para 'gearbox'%n", search("gearbox").size());
+    }
+
+    private static void insertRecords(JdbcTemplate jdbc, List<Object[]> records) {
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "parts_replaced, notes, vehicle_id, created_at) VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", records);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SearchResult> rareWord() {
+        return search("gearbox");
+    }
+
+    @Benchmark
+    public List<SearchResult> rareWordWithTypo() {
+        return search("gerbox");
+    }
+
+    @Benchmark
+    public List<SearchResult> chassisNumberPrefix() {
+        return search("wdb-" + teamId + "-0042");
+    }
+
+    @Benchmark
+    public List<SearchResult> frequentWords() {
+        return search("revisión frenos");
+    }
+
+    private List<SearchResult> search(String query) {
+        return searchService.search(teamId, query, null, null);
+    }
+}
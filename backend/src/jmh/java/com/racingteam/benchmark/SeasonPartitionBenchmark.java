@@ -0,0 +1,164 @@
+package com.racingteam.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas por rango de fechas sobre el particionado por temporada de V11. Solo con
+ * PostgreSQL: la base de datos se migra hasta V10, se carga con varias temporadas de eventos y
+ * mantenimientos y la aplicación aplica V11 al arrancar. La migración de los datos y la poda de
+ * particiones de estas consultas se comprueban en {@code SeasonPartitionTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeasonPartitionBenchmark {
+
+    private static final int SEASONS = 6;
+    private static final int VEHICLES = 50;
+    private static final int PILOTS = 20;
+    private static final int EVENTS_PER_SEASON = 100;
+    private static final String[] TYPES = {"PREVENTIVE", "CORRECTIVE", "INSPECTION", "SETUP"};
+
+    @Param({"events-in-season", "maintenance-across-seasons", "maintenance-history"})
+    public String query;
+
+    @Param({"200"})
+    public int recordsPerVehicleSeason;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private int firstSeason;
+    private Long teamId;
+    private String sql;
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        firstSeason = Year.now().getValue() - SEASONS + 1;
+        context = BenchmarkContext.startMigratingFrom("10", this::seed);
+        jdbc = context.getBean(JdbcTemplate.class);
+        teamId = jdbc.queryForObject("SELECT MIN(id) FROM teams", Long.class);
+
+        int season = firstSeason + SEASONS / 2;
+        switch (query) {
+            // Listado de eventos filtrado por fechas (EventRepositoryImpl)
+            case "events-in-season" -> {
+                sql = "SELECT e.id, e.name, e.start_date FROM events e " +
+                      "WHERE e.team_id = ? AND e.start_date >= ? AND e.start_date < ? " +
+                      "ORDER BY e.start_date, e.id LIMIT 50";
+                args = new Object[]{teamId, at(season, 3), at(season, 6)};
+            }
+            // Exportación de mantenimientos de un invierno (ExportService)
+            case "maintenance-across-seasons" -> {
+                sql = "SELECT m.id, m.maintenance_date, m.cost, v.name FROM maintenance_records m " +
+                      "JOIN vehicles v ON v.id = m.vehicle_id " +
+                      "WHERE v.team_id = ? AND m.maintenance_date >= ? AND m.maintenance_date < ? " +
+                      "ORDER BY m.maintenance_date, m.id";
+                args = new Object[]{teamId, at(season, 11), at(season + 1, 3)};
+            }
+            // Histórico de lecturas de la planificación de disponibilidad (FleetReadinessService)
+            case "maintenance-history" -> {
+                sql = "SELECT m.vehicle_id, MIN(m.maintenance_date), MIN(m.vehicle_hours_at_maintenance) " +
+                      "FROM maintenance_records m JOIN vehicles v ON v.id = m.vehicle_id " +
+                      "WHERE m.maintenance_date >= ? AND v.team_id = ? GROUP BY m.vehicle_id";
+                args = new Object[]{Timestamp.valueOf(LocalDateTime.now().minusDays(365)), teamId};
+            }
+            default -> throw new IllegalArgumentException("Consulta desconocida: " + query);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> rangeQuery() {
+        return jdbc.queryForList(sql, args);
+    }
+
+    // Datos anteriores a V11, cargados con el esquema de V10
+    private void seed(JdbcTemplate seedJdbc) {
+        seedJdbc.update("INSERT INTO teams (name, primary_category) VALUES ('Benchmark Racing', 'CAR')");
+        Long team = seedJdbc.queryForObject("SELECT MIN(id) FROM teams", Long.class);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicles.add(new Object[]{"Vehicle " + i, "GT3", team});
+        }
+        seedJdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, team_id) VALUES (?, ?, ?)", vehicles);
+        List<Long> vehicleIds = seedJdbc.queryForList("SELECT id FROM vehicles ORDER BY id", Long.class);
+
+        List<Object[]> pilots = new ArrayList<>();
+        for (int i = 0; i < PILOTS; i++) {
+            pilots.add(new Object[]{"pilot" + i + "@racing.com", "secret1", "Pilot", "Number " + i, "PILOT", team});
+        }
+        seedJdbc.batchUpdate("INSERT INTO users (email, password, first_name, last_name, role, team_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", pilots);
+        List<Long> pilotIds = seedJdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        for (int season = firstSeason; season < firstSeason + SEASONS; season++) {
+            List<Object[]> events = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_SEASON; i++) {
+                LocalDateTime start = LocalDateTime.of(season, 1, 1, 9, 0).plusDays(i * 3L);
+                events.add(new Object[]{"Event " + season + "-" + i, "RACE", Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(8)), team});
+            }
+            seedJdbc.batchUpdate("INSERT INTO events (name, event_type, start_date, end_date, team_id) " +
+                    "VALUES (?, ?, ?, ?, ?)", events);
+
+            List<Object[]> records = new ArrayList<>();
+            for (Long vehicleId : vehicleIds) {
+                for (int r = 0; r < recordsPerVehicleSeason; r++) {
+                    LocalDateTime date = LocalDateTime.of(season, 1, 1, 8, 0).plusMinutes(r * 2617L);
+                    records.add(new Object[]{Timestamp.valueOf(date), "Revisión " + r, TYPES[r % TYPES.length],
+                            BigDecimal.valueOf(20 + r % 90), BigDecimal.valueOf(r * 3L), vehicleId});
+                }
+            }
+            seedJdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, " +
+                    "maintenance_type, cost, vehicle_hours_at_maintenance, vehicle_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", records);
+        }
+
+        List<Long> eventIds = seedJdbc.queryForList("SELECT id FROM events ORDER BY id", Long.class);
+        List<Object[]> participants = new ArrayList<>();
+        List<Object[]> assigned = new ArrayList<>();
+        for (int e = 0; e < eventIds.size(); e++) {
+            for (int k = 0; k < 5; k++) {
+                participants.add(new Object[]{eventIds.get(e), pilotIds.get((e + k) % pilotIds.size())});
+                assigned.add(new Object[]{eventIds.get(e), vehicleIds.get((e + k) % vehicleIds.size())});
+            }
+        }
+        seedJdbc.batchUpdate("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", participants);
+        seedJdbc.batchUpdate("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", assigned);
+    }
+
+    private static Timestamp at(int season, int month) {
+        return Timestamp.valueOf(LocalDateTime.of(season, month, 1, 0, 0));
+    }
+}
@@ -0,0 +1,50 @@
+package com.racingteam.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cachés locales (Caffeine) para los datos de referencia que se resuelven en casi todas las
+ * peticiones. Cada caché tiene TTL y tamaño máximo, y registra estadísticas para que Spring Boot
+ * publique aciertos, fallos y desalojos en {@code /actuator/metrics/cache.*}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TEAMS = "teams";
+    public static final String VEHICLES = "vehicles";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String CALENDAR_EVENTS = "calendarEvents";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.ttl:10m}") Duration ttl,
+                                     @Value("${app.cache.teams-max-size:1000}") long teamsMaxSize,
+                                     @Value("${app.cache.vehicles-max-size:10000}") long vehiclesMaxSize,
+                                     @Value("${app.cache.users-max-size:10000}") long usersMaxSize,
+                                     @Value("${app.calendar.feed.cache-ttl:1h}") Duration calendarTtl,
+                                     @Value("${app.calendar.feed.cache-max-size:20000}") long calendarMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Solo existen las cachés registradas aquí, así todas quedan instrumentadas al arrancar
+        cacheManager.registerCustomCache(TEAMS, builder(ttl, teamsMaxSize).build());
+        cacheManager.registerCustomCache(VEHICLES, builder(ttl, vehiclesMaxSize).build());
+        cacheManager.registerCustomCache(USERS_BY_EMAIL, builder(ttl, usersMaxSize).build());
+        // Bloques VEVENT ya renderizados; cada entrada lleva el updated_at con el que se generó
+        cacheManager.registerCustomCache(CALENDAR_EVENTS, builder(calendarTtl, calendarMaxSize).build());
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats();
+    }
+}
@@ -0,0 +1,132 @@
+package com.racingteam.config;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.aop.TimedAspect;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas propias sobre las que ya publica Spring Boot en {@code /actuator/prometheus}:
+ *
+ * <ul>
+ *   <li>{@code http.server.requests} lleva además la etiqueta {@code endpoint}
+ *       (controlador y método), estable aunque cambie la ruta.</li>
+ *   <li>{@code spring.data.repository.invocations} lleva además la etiqueta {@code entity}
+ *       con la entidad del repositorio; {@code method} es la operación.</li>
+ *   <li>Estadísticas de Hibernate ({@code hibernate.*}: consultas, cargas de entidades, caché
+ *       de segundo nivel).</li>
+ *   <li>{@code app.jdbc.operations}: los métodos de servicio anotados con {@code @Timed} que
+ *       trabajan con JdbcTemplate y no pasan por los repositorios, con las etiquetas
+ *       {@code class} y {@code method}.</li>
+ *   <li>Registro de consultas lentas con el endpoint que las lanzó ({@link SlowQueryListener}).</li>
+ * </ul>
+ *
+ * <p>Las consultas por petición ({@code app.http.queries}) las registra
+ * {@link QueryBudgetInterceptor}; la espera por conexión del pool es
+ * {@code hikaricp.connections.acquire}.</p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String JDBC_OPERATIONS = "app.jdbc.operations";
+
+    static final String ENDPOINT = "endpoint";
+    static final String NO_ENDPOINT = "none";
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and(ENDPOINT, endpointOf(context.getCarrier()));
+            }
+        };
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        Map<Class<?>, String> entities = new ConcurrentHashMap<>();
+        DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.of(defaults.repositoryTags(invocation))
+                .and(Tag.of("entity", entities.computeIfAbsent(invocation.getRepositoryInterface(),
+                        MetricsConfig::entityOf)));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer() {
+        return properties -> properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Envuelve el DataSource para el registro de consultas lentas y, si está activo, el recuento
+     * de sentencias por petición ({@link QueryCounter}). Estático porque un BeanPostProcessor se
+     * crea antes que el resto de beans de la configuración.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                     ObjectProvider<QueryCounter> queryCounter,
+                                                                     Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                Duration threshold = environment.getProperty("app.metrics.slow-query-threshold", Duration.class,
+                        Duration.ofMillis(200));
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new SlowQueryListener(meterRegistry, threshold.toMillis()));
+                queryCounter.ifAvailable(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+
+    // Controlador y método, p. ej. "EventController.getEvent"; acotado por el número de endpoints
+    static String endpointName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return NO_ENDPOINT;
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        return request != null ? endpointName(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE))
+                : NO_ENDPOINT;
+    }
+
+    private static String entityOf(Class<?> repositoryInterface) {
+        Class<?>[] arguments = GenericTypeResolver.resolveTypeArguments(repositoryInterface, Repository.class);
+        return arguments != null && arguments[0] != null ? arguments[0].getSimpleName() : "unknown";
+    }
+}
@@ -0,0 +1,22 @@
+package com.racingteam.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de sentencias SQL, de Hibernate o de JdbcTemplate, que puede ejecutar una
+ * pantalla.
+ * {@link QueryBudgetInterceptor} cuenta las de cada petición y avisa si se supera; sirve para
+ * detectar N+1 introducidos al tocar una relación perezosa en la pantalla o al serializarla.
+ * QueryBudgetTest sirve cada pantalla anotada y rompe el build si se pasa del presupuesto.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,83 @@
+package com.racingteam.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Cuenta las sentencias de cada petición a un controlador, las publica en
+ * {@code app.http.queries} por endpoint y aplica {@link QueryBudget} donde está declarado.
+ * Cuenta hasta el final de la petición, así que también ve las cargas perezosas que
+ * open-in-view permite durante la serialización. Deja el endpoint en el MDC para el registro
+ * de consultas lentas.
+ *
+ * <p>En las peticiones asíncronas (SSE) solo se cuenta el tramo inicial: el resto se ejecuta
+ * en otros hilos y el dispatch final no vuelve a contar.</p>
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    static final String QUERIES = "app.http.queries";
+    // Pocos buckets fijos: el histograma por defecto de un DistributionSummary tiene decenas
+    private static final double[] QUERY_BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(QueryCounter queryCounter, MeterRegistry meterRegistry) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (isCounted(request, handler)) {
+            queryCounter.start();
+            MDC.put(MetricsConfig.ENDPOINT, MetricsConfig.endpointName(handler));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (isCounted(request, handler)) {
+            finish(request, (HandlerMethod) handler);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (isCounted(request, handler)) {
+            finish(request, (HandlerMethod) handler);
+        }
+    }
+
+    private void finish(HttpServletRequest request, HandlerMethod handler) {
+        int count = queryCounter.stop();
+        MDC.remove(MetricsConfig.ENDPOINT);
+        DistributionSummary.builder(QUERIES)
+                .tag(MetricsConfig.ENDPOINT, MetricsConfig.endpointName(handler))
+                .serviceLevelObjectives(QUERY_BUCKETS)
+                .register(meterRegistry)
+                .record(count);
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        if (budget != null && count > budget.value()) {
+            log.warn("{} {} ejecutó {} sentencias SQL con un presupuesto de {}",
+                    request.getMethod(), request.getRequestURI(), count, budget.value());
+        }
+    }
+
+    private static boolean isCounted(HttpServletRequest request, Object handler) {
+        return handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC;
+    }
+}
@@ -0,0 +1,42 @@
+package com.racingteam.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Cuenta las sentencias SQL ejecutadas en el hilo actual entre {@link #start()} y
+ * {@link #stop()}. Las estadísticas de Hibernate son globales a la SessionFactory y mezclarían
+ * las peticiones concurrentes; el listener se llama en el hilo que ejecuta la sentencia. Está en
+ * el DataSource, así que cuenta tanto las de Hibernate como las de JdbcTemplate. Un lote cuenta
+ * como una sola sentencia.
+ */
+public class QueryCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    public void start() {
+        counts.set(new int[1]);
+    }
+
+    // Sentencias contadas desde start(); deja de contar en este hilo
+    public int stop() {
+        int[] count = counts.get();
+        counts.remove();
+        return count != null ? count[0] : 0;
+    }
+}
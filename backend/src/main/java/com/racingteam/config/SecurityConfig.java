@@ -0,0 +1,79 @@
+package com.racingteam.config;
+
+import com.racingteam.security.JwtAuthenticationFilter;
+import com.racingteam.security.JwtService;
+import com.racingteam.security.TokenRevocationService;
+import com.racingteam.security.UrlTokenAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+@Configuration
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtService jwtService,
+                                                   TokenRevocationService revocationService) throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth
+                // Los envíos SSE vuelven a pasar por los filtros como dispatch ASYNC y sin cabecera:
+                // la petición ya se autorizó al abrir la suscripción
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/auth/login").permitAll()
+                .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                // Los actuator están en management.server.port, que no se publica; el comprobador de
+                // salud y Prometheus no envían token. En el puerto de la API estas rutas no existen.
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                .anyRequest().authenticated())
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService, revocationService),
+                    UsernamePasswordAuthenticationFilter.class)
+            // Los clientes de calendario se suscriben a una URL y no pueden enviar la cabecera
+            .addFilterAfter(new UrlTokenAuthenticationFilter(jwtService, revocationService,
+                    JwtService.PURPOSE_CALENDAR, "token", new OrRequestMatcher(
+                            new AntPathRequestMatcher("/events/calendar/teams/*.ics", "GET"),
+                            new AntPathRequestMatcher("/events/calendar/me.ics", "GET"))),
+                    JwtAuthenticationFilter.class)
+            // Ni el EventSource del navegador: el canal en directo acepta un ticket de corta duración
+            .addFilterAfter(new UrlTokenAuthenticationFilter(jwtService, revocationService,
+                    JwtService.PURPOSE_LIVE, "ticket", new AntPathRequestMatcher("/live", "GET")),
+                    JwtAuthenticationFilter.class);
+        return http.build();
+    }
+
+    // Solo se usa en el login; las peticiones autenticadas con token no pasan por aquí
+    @Bean
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
+                                                       PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
@@ -0,0 +1,57 @@
+package com.racingteam.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Registra cada sentencia JDBC más lenta que {@code app.metrics.slow-query-threshold}: el SQL
+ * con parámetros sin sustituir y el endpoint que la lanzó, tomado del MDC que rellena
+ * {@link QueryBudgetInterceptor}. Está en el DataSource, así que ve tanto las de Hibernate como
+ * las de JdbcTemplate; las que se ejecutan fuera de una petición (tareas programadas, arranque)
+ * aparecen con endpoint {@code none}. Un lote cuenta como una sola sentencia.
+ */
+class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    static final String SLOW_QUERIES = "app.db.slow.queries";
+
+    // El DataSource se crea antes que el registro de métricas
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long thresholdMillis;
+
+    SlowQueryListener(ObjectProvider<MeterRegistry> meterRegistry, long thresholdMillis) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        String endpoint = MDC.get(MetricsConfig.ENDPOINT);
+        if (endpoint == null) {
+            endpoint = MetricsConfig.NO_ENDPOINT;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter(SLOW_QUERIES, MetricsConfig.ENDPOINT, endpoint).increment();
+        }
+        log.warn("Consulta lenta ({} ms) en {}: {}", execInfo.getElapsedTime(), endpoint,
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.racingteam.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diagnóstico del modo de hilos virtuales ({@code spring.threads.virtual.enabled}).
+ *
+ * <p>Spring Boot solo aplica la propiedad a partir de Java 21; en versiones anteriores se avisa al
+ * arrancar de que todo sigue en hilos de plataforma. En Java 21 se escucha el evento JFR
+ * {@code jdk.VirtualThreadPinned}: un hilo virtual que se bloquea dentro de un
+ * {@code synchronized} (o de código nativo) no libera su hilo portador, y con pocos portadores
+ * eso detiene al resto de peticiones. Cada bloqueo por encima del umbral se registra con la pila
+ * que lo provocó.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadDiagnostics.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int VIRTUAL_THREADS_FEATURE = 21;
+
+    private final Duration pinnedThreshold;
+    private final int stackDepth;
+    private final AtomicLong pinnedCount = new AtomicLong();
+
+    private RecordingStream recording;
+
+    public VirtualThreadDiagnostics(@Value("${app.virtual-threads.pinned-threshold:20ms}") Duration pinnedThreshold,
+                                    @Value("${app.virtual-threads.pinned-stack-depth:12}") int stackDepth) {
+        this.pinnedThreshold = pinnedThreshold;
+        this.stackDepth = stackDepth;
+    }
+
+    @PostConstruct
+    public void start() {
+        int feature = Runtime.version().feature();
+        if (feature < VIRTUAL_THREADS_FEATURE) {
+            log.warn("spring.threads.virtual.enabled requiere Java {} y se ejecuta con Java {}: " +
+                    "peticiones, @Async y @Scheduled siguen en hilos de plataforma", VIRTUAL_THREADS_FEATURE, feature);
+            return;
+        }
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::report);
+        recording.startAsync();
+        log.info("Hilos virtuales activos; se registran los hilos fijados a su portador más de {} ms",
+                pinnedThreshold.toMillis());
+    }
+
+    /**
+     * Hilos virtuales que han bloqueado su portador por encima del umbral desde el arranque.
+     */
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        StringBuilder stack = new StringBuilder();
+        RecordedStackTrace trace = event.getStackTrace();
+        if (trace != null) {
+            List<RecordedFrame> frames = trace.getFrames();
+            for (RecordedFrame frame : frames.subList(0, Math.min(stackDepth, frames.size()))) {
+                stack.append("\n\tat ").append(frame.getMethod().getType().getName())
+                     .append('.').append(frame.getMethod().getName())
+                     .append(':').append(frame.getLineNumber());
+            }
+        }
+        RecordedThread thread = event.getThread();
+        log.warn("Hilo virtual {} fijado a su portador durante {} ms{}",
+                thread != null ? thread.getJavaName() : "?", event.getDuration().toMillis(), stack);
+    }
+}
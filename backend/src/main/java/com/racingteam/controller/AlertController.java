@@ -0,0 +1,37 @@
+package com.racingteam.controller;
+
+import com.racingteam.config.QueryBudget;
+import com.racingteam.dto.AlertSummary;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.AlertService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Avisos de licencias y mantenimiento del equipo del usuario autenticado.
+ */
+@RestController
+@RequestMapping("/alerts")
+public class AlertController {
+
+    private final AlertService alertService;
+
+    public AlertController(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    // Los más recientes primero; con afterId los posteriores a ese aviso, del más antiguo en adelante
+    @GetMapping
+    @QueryBudget(1)
+    public List<AlertSummary> getAlerts(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return alertService.getAlerts(principal.requireTeamId(), afterId, limit);
+    }
+}
@@ -0,0 +1,59 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.LoginRequest;
+import com.racingteam.dto.LoginResponse;
+import com.racingteam.model.User;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.security.JwtService;
+import com.racingteam.security.TokenRevocationService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+
+    public AuthController(AuthenticationManager authenticationManager,
+                          JwtService jwtService,
+                          TokenRevocationService revocationService) {
+        this.authenticationManager = authenticationManager;
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+    }
+
+    @PostMapping("/login")
+    public LoginResponse login(@Valid @RequestBody LoginRequest request) {
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.email(), request.password()));
+        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(),
+                user.getTeam() != null ? user.getTeam().getId() : null, user.getEmail(), user.getRole());
+        return new LoginResponse(jwtService.issueToken(user), jwtService.getExpirationMillis(), principal);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        if (authentication.getCredentials() instanceof JwtService.VerifiedToken token) {
+            revocationService.revoke(token.tokenId(), token.expiresAt());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/me")
+    public AuthenticatedUser me(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return principal;
+    }
+}
@@ -0,0 +1,201 @@
+package com.racingteam.controller;
+
+import com.racingteam.config.QueryBudget;
+import com.racingteam.dto.CalendarFeed;
+import com.racingteam.dto.CalendarSubscription;
+import com.racingteam.dto.ConflictCheckRequest;
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.DoubleBooking;
+import com.racingteam.dto.EventConflict;
+import com.racingteam.dto.EventDetail;
+import com.racingteam.dto.EventFilter;
+import com.racingteam.dto.EventSummary;
+import com.racingteam.dto.MembershipChangeRequest;
+import com.racingteam.model.EventStatus;
+import com.racingteam.model.EventType;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.CalendarFeedService;
+import com.racingteam.service.EventService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/events")
+public class EventController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final EventService eventService;
+    private final CalendarFeedService calendarFeedService;
+
+    public EventController(EventService eventService, CalendarFeedService calendarFeedService) {
+        this.eventService = eventService;
+        this.calendarFeedService = calendarFeedService;
+    }
+
+    @GetMapping
+    public CursorPage<EventSummary> getEvents(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) EventType eventType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return eventService.findPage(new EventFilter(principal.teamScope(teamId), status, eventType, from, to), cursor, limit);
+    }
+
+    @QueryBudget(1)
+    @GetMapping("/{id}")
+    public EventDetail getEvent(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        // Se comprueba sobre el detalle ya cargado para no gastar otra consulta del presupuesto
+        EventDetail event = eventService.getDetail(id);
+        if (!event.teamId().equals(principal.requireTeamId())) {
+            throw new AccessDeniedException("Sin acceso al evento " + id);
+        }
+        return event;
+    }
+
+    @PostMapping("/{id}/conflicts")
+    public List<EventConflict> checkConflicts(@AuthenticationPrincipal AuthenticatedUser principal,
+                                              @PathVariable Long id,
+                                              @RequestBody(required = false) ConflictCheckRequest request) {
+        requireOwnEvent(principal, id);
+        return eventService.checkConflicts(id, request);
+    }
+
+    @GetMapping("/double-bookings")
+    public List<DoubleBooking> getDoubleBookings(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return eventService.findDoubleBookings(principal.teamScope(teamId), from, to);
+    }
+
+    @PostMapping("/{id}/participants/{userId}")
+    public ResponseEntity<Void> addParticipant(@AuthenticationPrincipal AuthenticatedUser principal,
+                                               @PathVariable Long id, @PathVariable Long userId,
+                                               @RequestParam(defaultValue = "false") boolean force) {
+        requireEventManager(principal, id);
+        eventService.addParticipant(id, userId, force);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/vehicles/{vehicleId}")
+    public ResponseEntity<Void> addVehicle(@AuthenticationPrincipal AuthenticatedUser principal,
+                                           @PathVariable Long id, @PathVariable Long vehicleId,
+                                           @RequestParam(defaultValue = "false") boolean force) {
+        requireEventManager(principal, id);
+        eventService.addVehicle(id, vehicleId, force);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/{id}/participants")
+    public ResponseEntity<Void> updateParticipants(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                   @PathVariable Long id,
+                                                   @RequestBody MembershipChangeRequest request,
+                                                   @RequestParam(defaultValue = "false") boolean force) {
+        requireEventManager(principal, id);
+        eventService.updateParticipants(id, request, force);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/{id}/vehicles")
+    public ResponseEntity<Void> updateVehicles(@AuthenticationPrincipal AuthenticatedUser principal,
+                                               @PathVariable Long id,
+                                               @RequestBody MembershipChangeRequest request,
+                                               @RequestParam(defaultValue = "false") boolean force) {
+        requireEventManager(principal, id);
+        eventService.updateVehicles(id, request, force);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * URLs de suscripción a los feeds con un token de calendario, para los clientes que no
+     * pueden enviar la cabecera Authorization.
+     */
+    @GetMapping("/calendar/subscription")
+    public CalendarSubscription getCalendarSubscription(@AuthenticationPrincipal AuthenticatedUser principal) {
+        String token = calendarFeedService.issueFeedToken(principal);
+        String teamFeedUrl = principal.teamId() == null ? null : ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/events/calendar/teams/{teamId}.ics").queryParam("token", token)
+                .buildAndExpand(principal.teamId()).toUriString();
+        String userFeedUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/events/calendar/me.ics").queryParam("token", token)
+                .toUriString();
+        return new CalendarSubscription(teamFeedUrl, userFeedUrl);
+    }
+
+    /**
+     * Feed iCalendar del equipo. Si If-None-Match coincide con la versión actual se responde 304
+     * sin renderizar el feed.
+     */
+    @GetMapping("/calendar/teams/{teamId}.ics")
+    public ResponseEntity<String> getTeamCalendar(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                  @PathVariable Long teamId, WebRequest request) {
+        requireSubscriber(principal, teamId);
+        if (request.checkNotModified(calendarFeedService.getTeamFeedTag(teamId))) {
+            return null;
+        }
+        return calendar(calendarFeedService.getTeamFeed(teamId));
+    }
+
+    // Eventos en los que participa el usuario autenticado
+    @GetMapping("/calendar/me.ics")
+    public ResponseEntity<String> getMyCalendar(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                WebRequest request) {
+        requireSubscriber(principal, null);
+        if (request.checkNotModified(calendarFeedService.getUserFeedTag(principal.userId(), principal.email()))) {
+            return null;
+        }
+        return calendar(calendarFeedService.getUserFeed(principal.userId(), principal.email()));
+    }
+
+    // Cambiar miembros, y con ello forzar una asignación con conflictos, exige gestionar eventos
+    private void requireEventManager(AuthenticatedUser principal, Long eventId) {
+        if (!principal.role().canManageEvents()) {
+            throw new AccessDeniedException("El rol no puede gestionar eventos");
+        }
+        requireOwnEvent(principal, eventId);
+    }
+
+    private void requireOwnEvent(AuthenticatedUser principal, Long eventId) {
+        if (!eventService.getTeamId(eventId).equals(principal.requireTeamId())) {
+            throw new AccessDeniedException("Sin acceso al evento " + eventId);
+        }
+    }
+
+    private void requireSubscriber(AuthenticatedUser principal, Long teamId) {
+        if (!calendarFeedService.canSubscribe(principal, teamId)) {
+            throw new AccessDeniedException("Sin acceso al calendario");
+        }
+    }
+
+    // no-cache obliga al cliente a revalidar con la ETag antes de reutilizar su copia
+    private static ResponseEntity<String> calendar(CalendarFeed feed) {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(feed.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(feed.body());
+    }
+}
@@ -0,0 +1,81 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.ExportFilter;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.DataFormat;
+import com.racingteam.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Descargas comprimidas con gzip que se escriben mientras se leen de la base de datos.
+ * El flujo gzip solo se cierra si la exportación termina: si falla a mitad, la descarga queda
+ * truncada y el cliente la detecta como inválida en lugar de recibir un fichero incompleto.
+ */
+@RestController
+@RequestMapping("/exports")
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // Siempre del equipo del usuario; teamId solo puede repetir el suyo
+    @GetMapping("/maintenance")
+    public void exportMaintenance(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            HttpServletResponse response) throws IOException {
+        ExportFilter filter = new ExportFilter(principal.teamScope(teamId), from, to);
+        OutputStream out = openDownload(response, "maintenance", format);
+        exportService.exportMaintenance(filter, format, out);
+        out.close();
+    }
+
+    @GetMapping("/finances")
+    public void exportFinances(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            HttpServletResponse response) throws IOException {
+        if (!principal.role().canViewFinances()) {
+            throw new AccessDeniedException("El rol no tiene acceso a las finanzas");
+        }
+        ExportFilter filter = new ExportFilter(principal.teamScope(teamId), from, to);
+        OutputStream out = openDownload(response, "finances", format);
+        exportService.exportFinances(filter, format, out);
+        out.close();
+    }
+
+    private OutputStream openDownload(HttpServletResponse response, String name, DataFormat format)
+            throws IOException {
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension() + ".gz")
+                .build()
+                .toString());
+        return new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,40 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.FinanceRollupReport;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.FinanceRollupService;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Year;
+
+/**
+ * Rollups financieros por temporada para los roles con acceso a las finanzas.
+ */
+@RestController
+@RequestMapping("/finance")
+public class FinanceController {
+
+    private final FinanceRollupService financeRollupService;
+
+    public FinanceController(FinanceRollupService financeRollupService) {
+        this.financeRollupService = financeRollupService;
+    }
+
+    // Solo el equipo propio; sin season, la temporada actual
+    @GetMapping("/rollups")
+    public FinanceRollupReport getRollups(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) Integer season) {
+        if (principal == null || !principal.role().canViewFinances()) {
+            throw new AccessDeniedException("El rol no tiene acceso a las finanzas");
+        }
+        return financeRollupService.getRollups(principal.teamScope(teamId),
+                season != null ? season : Year.now().getValue());
+    }
+}
@@ -0,0 +1,30 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.EventConflict;
+import com.racingteam.exception.SchedulingConflictException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.List;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(SchedulingConflictException.class)
+    public ResponseEntity<List<EventConflict>> handleSchedulingConflict(SchedulingConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getConflicts());
+    }
+
+    // Pool de conexiones agotado durante connection-timeout: el cliente puede reintentar
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Void> handleConnectionUnavailable(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.ImportReport;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.DataFormat;
+import com.racingteam.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importaciones masivas. El cuerpo de la petición se procesa mientras se recibe, por lo que
+ * admite ficheros de cualquier tamaño, opcionalmente comprimidos (Content-Encoding: gzip). Las
+ * filas se importan en el equipo de quien llama.
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/vehicles")
+    public ImportReport importVehicles(@AuthenticationPrincipal AuthenticatedUser principal,
+                                       @RequestParam(defaultValue = "CSV") DataFormat format,
+                                       HttpServletRequest request) throws IOException {
+        requireVehicleManagement(principal);
+        return importService.importVehicles(openBody(request), format, principal.requireTeamId());
+    }
+
+    @PostMapping("/maintenance")
+    public ImportReport importMaintenance(@AuthenticationPrincipal AuthenticatedUser principal,
+                                          @RequestParam(defaultValue = "CSV") DataFormat format,
+                                          HttpServletRequest request) throws IOException {
+        requireVehicleManagement(principal);
+        return importService.importMaintenanceRecords(openBody(request), format, principal.requireTeamId());
+    }
+
+    private static void requireVehicleManagement(AuthenticatedUser principal) {
+        if (principal == null || !principal.role().canManageVehicles()) {
+            throw new AccessDeniedException("El rol no puede gestionar vehículos");
+        }
+    }
+
+    private static InputStream openBody(HttpServletRequest request) throws IOException {
+        InputStream body = request.getInputStream();
+        return "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))
+                ? new GZIPInputStream(body)
+                : body;
+    }
+}
@@ -0,0 +1,46 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.LiveTicket;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.LiveStatusService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambios de estado en directo (Server-Sent Events) del equipo del usuario autenticado.
+ */
+@RestController
+@RequestMapping("/live")
+public class LiveController {
+
+    private final LiveStatusService liveStatusService;
+
+    public LiveController(LiveStatusService liveStatusService) {
+        this.liveStatusService = liveStatusService;
+    }
+
+    /**
+     * Admite el token de acceso o, para el EventSource del navegador, el ticket de {@code /live/ticket}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return liveStatusService.subscribe(principal.requireTeamId());
+    }
+
+    @GetMapping("/ticket")
+    public LiveTicket getTicket(@AuthenticationPrincipal AuthenticatedUser principal) {
+        principal.requireTeamId();
+        LocalDateTime expiresAt = LocalDateTime.now().plus(liveStatusService.getTicketValidity());
+        String streamUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/live").queryParam("ticket", liveStatusService.issueTicket(principal))
+                .toUriString();
+        return new LiveTicket(streamUrl, expiresAt);
+    }
+}
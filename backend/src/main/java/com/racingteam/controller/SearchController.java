@@ -0,0 +1,36 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.SearchResult;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.SearchService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Búsqueda de texto libre en los vehículos, eventos y mantenimientos del equipo del usuario
+ * autenticado.
+ */
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    public List<SearchResult> search(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam String q,
+            @RequestParam(required = false) SearchResult.Type type,
+            @RequestParam(required = false) Integer limit) {
+        return searchService.search(principal.requireTeamId(), q, type, limit);
+    }
+}
@@ -0,0 +1,34 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.SyncResponse;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.SyncService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sincronización incremental de los datos del equipo del usuario autenticado.
+ */
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    public SyncResponse sync(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return syncService.getChanges(principal.requireTeamId(), since);
+    }
+}
@@ -0,0 +1,49 @@
+package com.racingteam.controller;
+
+import com.racingteam.config.QueryBudget;
+import com.racingteam.dto.TeamOverview;
+import com.racingteam.dto.TeamStatsResponse;
+import com.racingteam.dto.TeamSummary;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.ReferenceDataService;
+import com.racingteam.service.TeamService;
+import com.racingteam.service.TeamStatsService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/teams")
+public class TeamController {
+
+    private final ReferenceDataService referenceDataService;
+    private final TeamStatsService teamStatsService;
+    private final TeamService teamService;
+
+    public TeamController(ReferenceDataService referenceDataService,
+                          TeamStatsService teamStatsService,
+                          TeamService teamService) {
+        this.referenceDataService = referenceDataService;
+        this.teamStatsService = teamStatsService;
+        this.teamService = teamService;
+    }
+
+    @GetMapping("/{id}")
+    public TeamSummary getTeam(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        return TeamSummary.from(referenceDataService.getTeam(principal.teamScope(id)));
+    }
+
+    // Equipo (en caché), plantilla, flota y próximos eventos
+    @QueryBudget(4)
+    @GetMapping("/{id}/overview")
+    public TeamOverview getOverview(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        return teamService.getOverview(principal.teamScope(id));
+    }
+
+    @GetMapping("/{id}/stats")
+    public TeamStatsResponse getStats(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        return teamStatsService.getStats(principal.teamScope(id));
+    }
+}
@@ -0,0 +1,33 @@
+package com.racingteam.controller;
+
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.UserFilter;
+import com.racingteam.dto.UserSummary;
+import com.racingteam.model.UserRole;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.UserService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/users")
+public class UserController {
+
+    private final UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public CursorPage<UserSummary> getUsers(@AuthenticationPrincipal AuthenticatedUser principal,
+                                            @RequestParam(required = false) Long teamId,
+                                            @RequestParam(required = false) UserRole role,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit) {
+        return userService.findPage(new UserFilter(principal.teamScope(teamId), role), cursor, limit);
+    }
+}
@@ -0,0 +1,138 @@
+package com.racingteam.controller;
+
+import com.racingteam.config.QueryBudget;
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.MaintenanceAnalytics;
+import com.racingteam.dto.UsageBatchRequest;
+import com.racingteam.dto.VehicleDetail;
+import com.racingteam.dto.VehicleFilter;
+import com.racingteam.dto.VehicleReadiness;
+import com.racingteam.dto.VehicleSummary;
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+import com.racingteam.repository.projection.MaintenanceDueView;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.service.FleetReadinessService;
+import com.racingteam.service.MaintenanceAnalyticsService;
+import com.racingteam.service.ReferenceDataService;
+import com.racingteam.service.VehicleService;
+import com.racingteam.service.VehicleUsageIngestionService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/vehicles")
+public class VehicleController {
+
+    private final VehicleService vehicleService;
+    private final ReferenceDataService referenceDataService;
+    private final VehicleUsageIngestionService usageIngestionService;
+    private final MaintenanceAnalyticsService maintenanceAnalyticsService;
+    private final FleetReadinessService fleetReadinessService;
+
+    public VehicleController(VehicleService vehicleService,
+                             ReferenceDataService referenceDataService,
+                             VehicleUsageIngestionService usageIngestionService,
+                             MaintenanceAnalyticsService maintenanceAnalyticsService,
+                             FleetReadinessService fleetReadinessService) {
+        this.vehicleService = vehicleService;
+        this.referenceDataService = referenceDataService;
+        this.usageIngestionService = usageIngestionService;
+        this.maintenanceAnalyticsService = maintenanceAnalyticsService;
+        this.fleetReadinessService = fleetReadinessService;
+    }
+
+    @GetMapping
+    public CursorPage<VehicleSummary> getVehicles(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                  @RequestParam(required = false) Long teamId,
+                                                  @RequestParam(required = false) VehicleStatus status,
+                                                  @RequestParam(required = false) VehicleType vehicleType,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        return vehicleService.findPage(new VehicleFilter(principal.teamScope(teamId), status, vehicleType), cursor, limit);
+    }
+
+    @GetMapping("/{id}")
+    public VehicleSummary getVehicle(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        requireOwnVehicle(principal, id);
+        return VehicleSummary.from(referenceDataService.getVehicle(id));
+    }
+
+    // Vehículo (en caché) y sus últimos mantenimientos
+    @QueryBudget(2)
+    @GetMapping("/{id}/detail")
+    public VehicleDetail getVehicleDetail(@AuthenticationPrincipal AuthenticatedUser principal,
+                                          @PathVariable Long id,
+                                          @RequestParam(required = false) Integer maintenanceLimit) {
+        requireOwnVehicle(principal, id);
+        return vehicleService.getDetail(id, maintenanceLimit);
+    }
+
+    @GetMapping("/maintenance-due")
+    public List<MaintenanceDueView> getMaintenanceDue(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                      @RequestParam(required = false) Long teamId) {
+        return vehicleService.findMaintenanceDue(principal.teamScope(teamId));
+    }
+
+    @GetMapping("/{id}/maintenance-analytics")
+    public MaintenanceAnalytics getMaintenanceAnalytics(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                        @PathVariable Long id,
+                                                        @RequestParam(required = false) Integer season) {
+        requireOwnVehicle(principal, id);
+        return maintenanceAnalyticsService.getVehicleAnalytics(id, season);
+    }
+
+    @GetMapping("/maintenance-analytics")
+    public MaintenanceAnalytics getFleetMaintenanceAnalytics(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                             @RequestParam(required = false) Long teamId,
+                                                             @RequestParam(required = false) Integer season) {
+        return maintenanceAnalyticsService.getFleetAnalytics(principal.teamScope(teamId), season);
+    }
+
+    // Vehículos que alcanzarán su mantenimiento en los próximos eventos en pista
+    @GetMapping("/readiness")
+    public List<VehicleReadiness> getFleetReadiness(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                    @RequestParam(required = false) Long teamId,
+                                                    @RequestParam(defaultValue = "false") boolean atRiskOnly) {
+        return fleetReadinessService.getTeamReadiness(principal.teamScope(teamId), atRiskOnly);
+    }
+
+    @GetMapping("/{id}/readiness")
+    public VehicleReadiness getVehicleReadiness(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                @PathVariable Long id) {
+        requireOwnVehicle(principal, id);
+        return fleetReadinessService.getVehicleReadiness(id);
+    }
+
+    @PostMapping("/usage")
+    public ResponseEntity<Void> ingestUsage(@AuthenticationPrincipal AuthenticatedUser principal,
+                                            @Valid @RequestBody UsageBatchRequest request) {
+        if (!principal.role().canManageVehicles()) {
+            throw new AccessDeniedException("El rol no puede gestionar vehículos");
+        }
+        if (!usageIngestionService.submit(principal.requireTeamId(), request.deltas())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    private void requireOwnVehicle(AuthenticatedUser principal, Long vehicleId) {
+        Vehicle vehicle = referenceDataService.getVehicle(vehicleId);
+        if (vehicle.getTeam() == null || !vehicle.getTeam().getId().equals(principal.requireTeamId())) {
+            throw new AccessDeniedException("Sin acceso al vehículo " + vehicleId);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.AlertType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aviso emitido para un equipo. {@code entityId} es el usuario en los avisos de licencia y el
+ * vehículo en los de mantenimiento; {@code dueAt} es el momento para el que estaba programado.
+ */
+public record AlertSummary(
+        Long id,
+        AlertType type,
+        Long entityId,
+        LocalDateTime dueAt,
+        String message,
+        LocalDateTime createdAt) {
+}
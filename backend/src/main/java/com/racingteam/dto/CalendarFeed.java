@@ -0,0 +1,9 @@
+package com.racingteam.dto;
+
+/**
+ * Feed iCalendar renderizado junto con la ETag que corresponde exactamente a su contenido.
+ */
+public record CalendarFeed(
+        String etag,
+        String body) {
+}
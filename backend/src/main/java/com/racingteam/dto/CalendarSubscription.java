@@ -0,0 +1,10 @@
+package com.racingteam.dto;
+
+/**
+ * URLs de suscripción a los feeds iCalendar del usuario, con su token de calendario.
+ * {@code teamFeedUrl} es nulo si el usuario no pertenece a ningún equipo.
+ */
+public record CalendarSubscription(
+        String teamFeedUrl,
+        String userFeedUrl) {
+}
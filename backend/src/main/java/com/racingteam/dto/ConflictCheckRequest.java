@@ -0,0 +1,14 @@
+package com.racingteam.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Cambios propuestos sobre un evento. Los campos nulos se toman del evento tal y como está.
+ */
+public record ConflictCheckRequest(
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Set<Long> participantIds,
+        Set<Long> vehicleIds) {
+}
@@ -0,0 +1,11 @@
+package com.racingteam.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por clave. {@code nextCursor} es nulo en la última página.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor) {
+}
@@ -0,0 +1,10 @@
+package com.racingteam.dto;
+
+import java.util.Set;
+
+public record DoubleBooking(
+        Long firstEventId,
+        Long secondEventId,
+        Set<Long> participantIds,
+        Set<Long> vehicleIds) {
+}
@@ -0,0 +1,13 @@
+package com.racingteam.dto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+public record EventConflict(
+        Long eventId,
+        String eventName,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Set<Long> participantIds,
+        Set<Long> vehicleIds) {
+}
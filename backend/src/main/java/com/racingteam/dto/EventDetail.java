@@ -0,0 +1,43 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.Event;
+import com.racingteam.model.EventStatus;
+import com.racingteam.model.EventType;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+public record EventDetail(
+        Long id,
+        String name,
+        String description,
+        EventType eventType,
+        EventStatus status,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        String location,
+        String circuitName,
+        String address,
+        Long teamId,
+        List<UserSummary> participants,
+        List<VehicleSummary> vehicles) {
+
+    // Requiere participantes y vehículos ya cargados (grafo Event.MEMBERS_GRAPH); se ordenan
+    // igual que la plantilla y la flota en el resumen del equipo
+    public static EventDetail from(Event event) {
+        return new EventDetail(event.getId(), event.getName(), event.getDescription(), event.getEventType(),
+                event.getStatus(), event.getStartDate(), event.getEndDate(), event.getLocation(),
+                event.getCircuitName(), event.getAddress(), event.getTeam().getId(),
+                event.getParticipants().stream()
+                        .map(UserSummary::from)
+                        .sorted(Comparator.comparing(UserSummary::lastName)
+                                .thenComparing(UserSummary::firstName)
+                                .thenComparing(UserSummary::id))
+                        .toList(),
+                event.getVehicles().stream()
+                        .map(VehicleSummary::from)
+                        .sorted(Comparator.comparing(VehicleSummary::name).thenComparing(VehicleSummary::id))
+                        .toList());
+    }
+}
@@ -0,0 +1,14 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.EventStatus;
+import com.racingteam.model.EventType;
+
+import java.time.LocalDateTime;
+
+public record EventFilter(
+        Long teamId,
+        EventStatus status,
+        EventType eventType,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
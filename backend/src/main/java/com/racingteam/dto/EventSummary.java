@@ -0,0 +1,18 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.EventStatus;
+import com.racingteam.model.EventType;
+
+import java.time.LocalDateTime;
+
+public record EventSummary(
+        Long id,
+        String name,
+        EventType eventType,
+        EventStatus status,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        String location,
+        String circuitName,
+        Long teamId) {
+}
@@ -0,0 +1,33 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.EventType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Uso estimado de un vehículo en uno de sus próximos eventos en pista y contadores proyectados
+ * al empezar y al terminar. En un evento ya empezado solo se proyecta lo que queda.
+ * {@code maintenanceDueAt} es el momento estimado en que se alcanza el mantenimiento cuando
+ * {@code issue} es {@link Issue#DUE_DURING_EVENT}.
+ */
+public record EventUsageProjection(
+        Long eventId,
+        String eventName,
+        EventType eventType,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        BigDecimal hoursAtStart,
+        BigDecimal hoursAtEnd,
+        BigDecimal kmAtStart,
+        BigDecimal kmAtEnd,
+        Issue issue,
+        LocalDateTime maintenanceDueAt) {
+
+    public enum Issue {
+        // El mantenimiento ya toca antes de empezar el evento
+        DUE_BEFORE_EVENT,
+        // Las horas o los kilómetros de mantenimiento se alcanzan durante el evento
+        DUE_DURING_EVENT
+    }
+}
@@ -0,0 +1,9 @@
+package com.racingteam.dto;
+
+import java.time.LocalDateTime;
+
+public record ExportFilter(
+        Long teamId,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
@@ -0,0 +1,41 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.EventType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Rollup financiero de una temporada con una entrada por equipo. El coste total suma el coste
+ * real de los eventos y el mantenimiento imputado a ellos; la desviación es ese total menos el
+ * presupuesto.
+ */
+public record FinanceRollupReport(
+        int season,
+        List<TeamRollup> teams) {
+
+    /**
+     * Totales de un equipo: de la temporada, por tipo de evento, por mes y por mes y tipo.
+     */
+    public record TeamRollup(
+            Long teamId,
+            Totals total,
+            List<Totals> byEventType,
+            List<Totals> byMonth,
+            List<Totals> byMonthAndEventType) {
+    }
+
+    /**
+     * {@code month} (1-12) y {@code eventType} son nulos cuando el total agrega esa dimensión.
+     */
+    public record Totals(
+            Integer month,
+            EventType eventType,
+            long eventCount,
+            BigDecimal budgetAllocated,
+            BigDecimal actualCost,
+            BigDecimal maintenanceCost,
+            BigDecimal totalCost,
+            BigDecimal deviation) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.racingteam.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación. Las filas con errores se descartan sin abortar el resto;
+ * solo se detallan las primeras, {@code errorsTruncated} indica si hubo más.
+ */
+public record ImportReport(
+        long received,
+        long imported,
+        long rejected,
+        List<ImportRowError> errors,
+        boolean errorsTruncated) {
+}
@@ -0,0 +1,18 @@
+package com.racingteam.dto;
+
+import com.racingteam.event.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de estado de un vehículo o evento enviado por el canal en directo. {@code previousStatus}
+ * es nulo si el nodo no conocía el estado anterior; {@code status} es nulo en los borrados.
+ */
+public record LiveStatusUpdate(
+        Long id,
+        Long teamId,
+        String status,
+        String previousStatus,
+        ChangeType changeType,
+        LocalDateTime changedAt) {
+}
@@ -0,0 +1,12 @@
+package com.racingteam.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * URL del canal en directo con un ticket de corta duración, para abrirla con EventSource.
+ * El ticket solo sirve para conectar antes de {@code expiresAt}.
+ */
+public record LiveTicket(
+        String streamUrl,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,11 @@
+package com.racingteam.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record LoginRequest(
+        @NotBlank(message = "El email es obligatorio")
+        String email,
+
+        @NotBlank(message = "La contraseña es obligatoria")
+        String password) {
+}
@@ -0,0 +1,9 @@
+package com.racingteam.dto;
+
+import com.racingteam.security.AuthenticatedUser;
+
+public record LoginResponse(
+        String token,
+        long expiresIn,
+        AuthenticatedUser user) {
+}
@@ -0,0 +1,21 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.MaintenanceType;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Coste e intervalos de mantenimiento de un vehículo ({@code vehicleId}) o de la flota de
+ * un equipo ({@code vehicleId} nulo). {@code season} nulo agrega todas las temporadas.
+ * {@code meanDaysBetweenCorrective} es nulo si ningún vehículo tiene dos correctivos.
+ */
+public record MaintenanceAnalytics(
+        Long vehicleId,
+        Long teamId,
+        Integer season,
+        long recordCount,
+        BigDecimal totalCost,
+        Map<MaintenanceType, BigDecimal> costByType,
+        BigDecimal meanDaysBetweenCorrective) {
+}
@@ -0,0 +1,21 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.MaintenanceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record MaintenanceImportRow(
+        LocalDateTime maintenanceDate,
+        String description,
+        MaintenanceType maintenanceType,
+        BigDecimal vehicleHoursAtMaintenance,
+        BigDecimal vehicleKmAtMaintenance,
+        BigDecimal cost,
+        String partsReplaced,
+        BigDecimal nextMaintenanceHours,
+        BigDecimal nextMaintenanceKm,
+        String notes,
+        Long vehicleId,
+        Long performedByUserId) {
+}
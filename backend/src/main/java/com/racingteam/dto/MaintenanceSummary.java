@@ -0,0 +1,18 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.MaintenanceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record MaintenanceSummary(
+        Long id,
+        LocalDateTime maintenanceDate,
+        MaintenanceType maintenanceType,
+        String description,
+        BigDecimal vehicleHoursAtMaintenance,
+        BigDecimal vehicleKmAtMaintenance,
+        BigDecimal cost,
+        Long vehicleId,
+        Long performedById) {
+}
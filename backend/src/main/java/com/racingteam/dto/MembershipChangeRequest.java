@@ -0,0 +1,19 @@
+package com.racingteam.dto;
+
+import java.util.Set;
+
+/**
+ * Altas y bajas de miembros de un evento por id. Solo se generan las filas que cambian.
+ */
+public record MembershipChangeRequest(
+        Set<Long> add,
+        Set<Long> remove) {
+
+    public Set<Long> toAdd() {
+        return add != null ? add : Set.of();
+    }
+
+    public Set<Long> toRemove() {
+        return remove != null ? remove : Set.of();
+    }
+}
@@ -0,0 +1,19 @@
+package com.racingteam.dto;
+
+/**
+ * Registro encontrado por la búsqueda de texto libre, con su relevancia. El título es el
+ * nombre del vehículo o del evento, o la descripción del mantenimiento.
+ */
+public record SearchResult(
+        Type type,
+        Long id,
+        String title,
+        double rank) {
+
+    // Los valores coinciden con entity_type de search_documents (V10)
+    public enum Type {
+        VEHICLE,
+        EVENT,
+        MAINTENANCE
+    }
+}
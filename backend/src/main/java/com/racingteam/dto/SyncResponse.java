@@ -0,0 +1,27 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.SyncEntityType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cambios del equipo desde la marca de agua anterior. El cliente aplica primero {@code deleted}
+ * y después el resto como altas o modificaciones, y guarda {@code watermark} para la siguiente
+ * petición. Una fila puede repetirse entre dos respuestas consecutivas.
+ *
+ * <p>Si {@code full} es verdadero la respuesta contiene todos los datos del equipo y sustituye
+ * a la copia local: ocurre en la primera sincronización y cuando la marca de agua es anterior
+ * a la retención de las lápidas.</p>
+ */
+public record SyncResponse(
+        LocalDateTime watermark,
+        boolean full,
+        List<TeamSummary> teams,
+        List<UserSummary> users,
+        List<VehicleSummary> vehicles,
+        List<EventSummary> events,
+        List<MaintenanceSummary> maintenanceRecords,
+        Map<SyncEntityType, List<Long>> deleted) {
+}
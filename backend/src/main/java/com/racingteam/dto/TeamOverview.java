@@ -0,0 +1,13 @@
+package com.racingteam.dto;
+
+import java.util.List;
+
+/**
+ * Pantalla de resumen del equipo: datos del equipo, plantilla, flota y próximos eventos.
+ */
+public record TeamOverview(
+        TeamSummary team,
+        List<UserSummary> members,
+        List<VehicleSummary> vehicles,
+        List<EventSummary> upcomingEvents) {
+}
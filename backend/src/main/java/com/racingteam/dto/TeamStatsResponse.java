@@ -0,0 +1,10 @@
+package com.racingteam.dto;
+
+public record TeamStatsResponse(
+        long totalVehicles,
+        long activeVehicles,
+        long totalUsers,
+        long upcomingEvents,
+        long maintenanceDue,
+        long totalEvents) {
+}
@@ -0,0 +1,22 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.Team;
+import com.racingteam.model.VehicleCategory;
+
+public record TeamSummary(
+        Long id,
+        String name,
+        String description,
+        String logoUrl,
+        VehicleCategory primaryCategory,
+        String contactEmail,
+        String contactPhone,
+        String headquartersLocation,
+        Boolean active) {
+
+    public static TeamSummary from(Team team) {
+        return new TeamSummary(team.getId(), team.getName(), team.getDescription(), team.getLogoUrl(),
+                team.getPrimaryCategory(), team.getContactEmail(), team.getContactPhone(),
+                team.getHeadquartersLocation(), team.getActive());
+    }
+}
@@ -0,0 +1,11 @@
+package com.racingteam.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record UsageBatchRequest(
+        @NotEmpty(message = "El lote de uso no puede estar vacío")
+        List<@Valid UsageDelta> deltas) {
+}
@@ -0,0 +1,21 @@
+package com.racingteam.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+public record UsageDelta(
+        @NotNull(message = "El vehículo es obligatorio")
+        Long vehicleId,
+
+        // Los contadores son DECIMAL(10,2): un delta mayor no es un uso real y desbordaría la columna
+        @PositiveOrZero(message = "Las horas de uso no pueden ser negativas")
+        @Digits(integer = 5, fraction = 2, message = "Las horas de uso admiten hasta 5 enteros y 2 decimales")
+        BigDecimal hours,
+
+        @PositiveOrZero(message = "Los kilómetros no pueden ser negativos")
+        @Digits(integer = 5, fraction = 2, message = "Los kilómetros admiten hasta 5 enteros y 2 decimales")
+        BigDecimal kilometers) {
+}
@@ -0,0 +1,8 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.UserRole;
+
+public record UserFilter(
+        Long teamId,
+        UserRole role) {
+}
@@ -0,0 +1,19 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+
+public record UserSummary(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        UserRole role,
+        Boolean active,
+        Long teamId) {
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getRole(), user.getActive(), user.getTeam() != null ? user.getTeam().getId() : null);
+    }
+}
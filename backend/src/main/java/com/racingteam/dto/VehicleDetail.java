@@ -0,0 +1,8 @@
+package com.racingteam.dto;
+
+import java.util.List;
+
+public record VehicleDetail(
+        VehicleSummary vehicle,
+        List<MaintenanceSummary> recentMaintenance) {
+}
@@ -0,0 +1,10 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+
+public record VehicleFilter(
+        Long teamId,
+        VehicleStatus status,
+        VehicleType vehicleType) {
+}
@@ -0,0 +1,24 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+
+import java.math.BigDecimal;
+
+public record VehicleImportRow(
+        String name,
+        VehicleType vehicleType,
+        String chassisNumber,
+        String engineNumber,
+        String registrationNumber,
+        String manufacturer,
+        String model,
+        Integer yearManufactured,
+        BigDecimal totalHours,
+        BigDecimal totalKilometers,
+        BigDecimal nextMaintenanceHours,
+        BigDecimal nextMaintenanceKm,
+        VehicleStatus status,
+        String notes,
+        Long teamId) {
+}
@@ -0,0 +1,32 @@
+package com.racingteam.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Proyección de horas y kilómetros de un vehículo a lo largo de sus próximos eventos en pista.
+ * El uso por hora de evento sale del histórico del propio vehículo, de la media del equipo si
+ * no tiene histórico suficiente o, en último caso, de la configuración ({@code *RateSource}).
+ * {@code atRisk} indica que algún evento tiene un problema de mantenimiento.
+ */
+public record VehicleReadiness(
+        Long vehicleId,
+        String name,
+        Long teamId,
+        BigDecimal totalHours,
+        BigDecimal totalKilometers,
+        BigDecimal nextMaintenanceHours,
+        BigDecimal nextMaintenanceKm,
+        BigDecimal hoursPerEventHour,
+        RateSource hoursRateSource,
+        BigDecimal kmPerEventHour,
+        RateSource kmRateSource,
+        boolean atRisk,
+        List<EventUsageProjection> events) {
+
+    public enum RateSource {
+        HISTORY,
+        TEAM_AVERAGE,
+        DEFAULT
+    }
+}
@@ -0,0 +1,28 @@
+package com.racingteam.dto;
+
+import com.racingteam.model.Vehicle;
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+
+import java.math.BigDecimal;
+
+public record VehicleSummary(
+        Long id,
+        String name,
+        VehicleType vehicleType,
+        VehicleStatus status,
+        String manufacturer,
+        String model,
+        BigDecimal totalHours,
+        BigDecimal totalKilometers,
+        Boolean maintenanceDue,
+        Boolean active,
+        Long teamId) {
+
+    public static VehicleSummary from(Vehicle vehicle) {
+        return new VehicleSummary(vehicle.getId(), vehicle.getName(), vehicle.getVehicleType(), vehicle.getStatus(),
+                vehicle.getManufacturer(), vehicle.getModel(), vehicle.getTotalHours(), vehicle.getTotalKilometers(),
+                vehicle.getMaintenanceDue(), vehicle.getActive(),
+                vehicle.getTeam() != null ? vehicle.getTeam().getId() : null);
+    }
+}
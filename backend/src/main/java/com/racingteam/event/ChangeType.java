@@ -0,0 +1,7 @@
+package com.racingteam.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
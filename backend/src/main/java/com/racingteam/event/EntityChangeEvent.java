@@ -0,0 +1,29 @@
+package com.racingteam.event;
+
+/**
+ * Evento de aplicación publicado cuando una entidad se persiste, actualiza o elimina.
+ * Los servicios que mantienen estado derivado (estadísticas, índices, cachés) lo
+ * escuchan en lugar de registrar cada uno su propio listener JPA.
+ */
+public class EntityChangeEvent {
+
+    private final Object entity;
+    private final ChangeType changeType;
+
+    public EntityChangeEvent(Object entity, ChangeType changeType) {
+        this.entity = entity;
+        this.changeType = changeType;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+}
@@ -0,0 +1,36 @@
+package com.racingteam.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA que traduce los callbacks del ciclo de vida en {@link EntityChangeEvent}.
+ * Hibernate lo obtiene del contexto de Spring, por lo que admite inyección por constructor.
+ */
+@Component
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EntityChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publisher.publishEvent(new EntityChangeEvent(entity, ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publisher.publishEvent(new EntityChangeEvent(entity, ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publisher.publishEvent(new EntityChangeEvent(entity, ChangeType.DELETED));
+    }
+}
@@ -0,0 +1,19 @@
+package com.racingteam.exception;
+
+import com.racingteam.dto.EventConflict;
+
+import java.util.List;
+
+public class SchedulingConflictException extends RuntimeException {
+
+    private final List<EventConflict> conflicts;
+
+    public SchedulingConflictException(List<EventConflict> conflicts) {
+        super("Conflicto de calendario con " + conflicts.size() + " evento(s)");
+        this.conflicts = conflicts;
+    }
+
+    public List<EventConflict> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,12 @@
+package com.racingteam.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    public SubscriberLimitExceededException(int limit) {
+        super("Se ha alcanzado el máximo de suscripciones en directo: " + limit);
+    }
+}
@@ -0,0 +1,95 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aviso emitido por el planificador de avisos. {@code occurrence} identifica el caso concreto
+ * (la fecha de caducidad o los umbrales de mantenimiento) y con el tipo y la entidad es única:
+ * es lo que impide que dos nodos emitan el mismo aviso.
+ *
+ * <p>Solo lectura: lo escribe {@code AlertService} por JDBC. Se mapea para que ddl-auto cree la
+ * tabla en H2 y validate compruebe su estructura.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "alerts", uniqueConstraints = @UniqueConstraint(name = "uk_alerts_occurrence",
+        columnNames = {"alert_type", "entity_id", "occurrence"}))
+public class Alert {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 30)
+    private AlertType alertType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Column(name = "occurrence", nullable = false, length = 100)
+    private String occurrence;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructores
+    public Alert() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public AlertType getAlertType() {
+        return alertType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public String getOccurrence() {
+        return occurrence;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,14 @@
+package com.racingteam.model;
+
+/**
+ * Avisos que emite el planificador de avisos.
+ */
+public enum AlertType {
+    // Queda menos del margen de aviso para que caduque la licencia
+    LICENSE_EXPIRING,
+    LICENSE_EXPIRED,
+    // Se estima que el vehículo alcanzará su mantenimiento en uno de sus próximos eventos
+    MAINTENANCE_PROJECTED,
+    // El vehículo ya ha alcanzado sus horas o kilómetros de mantenimiento
+    MAINTENANCE_DUE
+}
@@ -1,5 +1,6 @@
 package com.racingteam.model;
 
+import com.racingteam.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,16 +10,25 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "events")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
+// Pilotos y vehículos en una sola consulta; al ser conjuntos, el producto de ambos se deduplica
+@NamedEntityGraph(name = Event.MEMBERS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("participants"),
+    @NamedAttributeNode("vehicles")
+})
 public class Event {
 
+    public static final String MEMBERS_GRAPH = "Event.members";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_id_gen")
+    @SequenceGenerator(name = "events_id_gen", sequenceName = "events_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del evento es obligatorio")
@@ -93,7 +103,7 @@ public class Event {
         joinColumns = @JoinColumn(name = "event_id"),
         inverseJoinColumns = @JoinColumn(name = "user_id")
     )
-    private List<User> participants = new ArrayList<>();
+    private Set<User> participants = new HashSet<>();
 
     @ManyToMany
     @JoinTable(
@@ -101,7 +111,7 @@ public class Event {
         joinColumns = @JoinColumn(name = "event_id"),
         inverseJoinColumns = @JoinColumn(name = "vehicle_id")
     )
-    private List<Vehicle> vehicles = new ArrayList<>();
+    private Set<Vehicle> vehicles = new HashSet<>();
 
     // Constructores
     public Event() {}
@@ -131,24 +141,63 @@ public class Event {
         return java.time.Duration.between(startDate, endDate).toHours();
     }
 
-    public void addParticipant(User user) {
-        if (!participants.contains(user)) {
-            participants.add(user);
+    // Las colecciones son conjuntos por id: Hibernate solo inserta o borra las filas que cambian
+    // en event_participants/event_vehicles en lugar de recrear toda la tabla intermedia
+    public boolean addParticipant(User user) {
+        requirePersisted(user.getId());
+        return participants.add(user);
+    }
+
+    public boolean removeParticipant(User user) {
+        return participants.remove(user);
+    }
+
+    public int addParticipants(Collection<User> users) {
+        int added = 0;
+        for (User user : users) {
+            if (addParticipant(user)) {
+                added++;
+            }
         }
+        return added;
+    }
+
+    public int removeParticipantsById(Collection<Long> userIds) {
+        int before = participants.size();
+        participants.removeIf(user -> userIds.contains(user.getId()));
+        return before - participants.size();
+    }
+
+    public boolean addVehicle(Vehicle vehicle) {
+        requirePersisted(vehicle.getId());
+        return vehicles.add(vehicle);
     }
 
-    public void removeParticipant(User user) {
-        participants.remove(user);
+    public boolean removeVehicle(Vehicle vehicle) {
+        return vehicles.remove(vehicle);
     }
 
-    public void addVehicle(Vehicle vehicle) {
-        if (!vehicles.contains(vehicle)) {
-            vehicles.add(vehicle);
+    public int addVehicles(Collection<Vehicle> vehiclesToAdd) {
+        int added = 0;
+        for (Vehicle vehicle : vehiclesToAdd) {
+            if (addVehicle(vehicle)) {
+                added++;
+            }
         }
+        return added;
     }
 
-    public void removeVehicle(Vehicle vehicle) {
-        vehicles.remove(vehicle);
+    public int removeVehiclesById(Collection<Long> vehicleIds) {
+        int before = vehicles.size();
+        vehicles.removeIf(vehicle -> vehicleIds.contains(vehicle.getId()));
+        return before - vehicles.size();
+    }
+
+    // El hashCode de las entidades depende del id, así que solo se admiten entidades persistidas
+    private static void requirePersisted(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Solo se pueden asignar a un evento entidades ya guardadas");
+        }
     }
 
     // Getters y Setters
@@ -304,19 +353,37 @@ public class Event {
         this.team = team;
     }
 
-    public List<User> getParticipants() {
+    public Set<User> getParticipants() {
         return participants;
     }
 
-    public void setParticipants(List<User> participants) {
+    public void setParticipants(Set<User> participants) {
         this.participants = participants;
     }
 
-    public List<Vehicle> getVehicles() {
+    public Set<Vehicle> getVehicles() {
         return vehicles;
     }
 
-    public void setVehicles(List<Vehicle> vehicles) {
+    public void setVehicles(Set<Vehicle> vehicles) {
         this.vehicles = vehicles;
     }
+
+    // Igualdad por id, también con proxies, como en el resto de entidades. El hash solo es
+    // estable una vez persistida: los conjuntos de miembros deben contener entidades con id
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Event other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Coste de mantenimiento de un vehículo imputado a un evento en el que participó, con el
+ * equipo, la fecha de inicio y el tipo del evento con los que se sumó a {@link FinanceRollup}.
+ *
+ * <p>Solo lectura, como {@link FinanceRollup}: lo mantienen los triggers de V12.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "event_maintenance_attribution")
+public class EventMaintenanceAttribution {
+
+    @EmbeddedId
+    private EventMaintenanceAttributionId id;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    @Column(name = "maintenance_cents", nullable = false)
+    private Long maintenanceCents;
+
+    // Constructores
+    public EventMaintenanceAttribution() {}
+
+    // Getters
+    public EventMaintenanceAttributionId getId() {
+        return id;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Long getMaintenanceCents() {
+        return maintenanceCents;
+    }
+}
@@ -0,0 +1,50 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class EventMaintenanceAttributionId implements Serializable {
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    // Constructores
+    public EventMaintenanceAttributionId() {}
+
+    public EventMaintenanceAttributionId(Long eventId, Long vehicleId) {
+        this.eventId = eventId;
+        this.vehicleId = vehicleId;
+    }
+
+    // Getters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EventMaintenanceAttributionId other)) {
+            return false;
+        }
+        return Objects.equals(eventId, other.eventId) && Objects.equals(vehicleId, other.vehicleId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(eventId, vehicleId);
+    }
+}
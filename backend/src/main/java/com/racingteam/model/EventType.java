@@ -1,5 +1,7 @@
 package com.racingteam.model;
 
+import java.util.EnumSet;
+
 public enum EventType {
     RACE("Carrera", "Evento de competición oficial"),
     TEST("Test", "Sesión de pruebas y desarrollo"),
@@ -16,6 +18,15 @@ public enum EventType {
     TRACKDAY("Trackday", "Día de pista abierto"),
     OTHER("Otro", "Otro tipo de evento");
 
+    // Tablas de clasificación: contains() sobre un EnumSet es una comprobación de bit
+    private static final EnumSet<EventType> COMPETITIVE = EnumSet.of(RACE, QUALIFYING);
+    private static final EnumSet<EventType> ON_TRACK =
+            EnumSet.of(RACE, TEST, PRACTICE, QUALIFYING, SHAKEDOWN, TRACKDAY);
+    private static final EnumSet<EventType> REQUIRING_VEHICLE =
+            EnumSet.of(RACE, TEST, PRACTICE, QUALIFYING, SHAKEDOWN, TRACKDAY, MAINTENANCE);
+    private static final EnumSet<EventType> PUBLIC =
+            EnumSet.of(RACE, PRESENTATION, MEDIA, SPONSOR_EVENT);
+
     private final String displayName;
     private final String description;
 
@@ -33,19 +44,18 @@ public enum EventType {
     }
 
     public boolean isCompetitive() {
-        return this == RACE || this == QUALIFYING;
+        return COMPETITIVE.contains(this);
     }
 
     public boolean isOnTrack() {
-        return this == RACE || this == TEST || this == PRACTICE || 
-               this == QUALIFYING || this == SHAKEDOWN || this == TRACKDAY;
+        return ON_TRACK.contains(this);
     }
 
     public boolean requiresVehicle() {
-        return isOnTrack() || this == MAINTENANCE;
+        return REQUIRING_VEHICLE.contains(this);
     }
 
     public boolean isPublic() {
-        return this == RACE || this == PRESENTATION || this == MEDIA || this == SPONSOR_EVENT;
+        return PUBLIC.contains(this);
     }
 }
\ No newline at end of file
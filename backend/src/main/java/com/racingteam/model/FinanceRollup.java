@@ -0,0 +1,60 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Presupuesto, coste real y mantenimiento imputado de los eventos de un equipo por temporada,
+ * mes y tipo de evento, en céntimos.
+ *
+ * <p>Solo lectura: en PostgreSQL lo mantienen los triggers de V12 y {@code FinanceRollupService}
+ * corrige periódicamente cualquier desviación. Se mapea para que ddl-auto cree la tabla en H2 y
+ * validate compruebe su estructura.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "finance_rollups")
+public class FinanceRollup {
+
+    @EmbeddedId
+    private FinanceRollupId id;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(name = "budget_cents", nullable = false)
+    private Long budgetCents;
+
+    @Column(name = "actual_cost_cents", nullable = false)
+    private Long actualCostCents;
+
+    @Column(name = "maintenance_cents", nullable = false)
+    private Long maintenanceCents;
+
+    // Constructores
+    public FinanceRollup() {}
+
+    // Getters
+    public FinanceRollupId getId() {
+        return id;
+    }
+
+    public Integer getEventCount() {
+        return eventCount;
+    }
+
+    public Long getBudgetCents() {
+        return budgetCents;
+    }
+
+    public Long getActualCostCents() {
+        return actualCostCents;
+    }
+
+    public Long getMaintenanceCents() {
+        return maintenanceCents;
+    }
+}
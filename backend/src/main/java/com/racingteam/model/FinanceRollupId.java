@@ -0,0 +1,72 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class FinanceRollupId implements Serializable {
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Column(name = "season", nullable = false)
+    private Integer season;
+
+    @Column(name = "season_month", nullable = false)
+    private Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    // Constructores
+    public FinanceRollupId() {}
+
+    public FinanceRollupId(Long teamId, Integer season, Integer month, EventType eventType) {
+        this.teamId = teamId;
+        this.season = season;
+        this.month = month;
+        this.eventType = eventType;
+    }
+
+    // Getters
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public Integer getSeason() {
+        return season;
+    }
+
+    public Integer getMonth() {
+        return month;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FinanceRollupId other)) {
+            return false;
+        }
+        return Objects.equals(teamId, other.teamId)
+                && Objects.equals(season, other.season)
+                && Objects.equals(month, other.month)
+                && eventType == other.eventType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(teamId, season, month, eventType);
+    }
+}
@@ -0,0 +1,48 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Concesión de un trabajo programado que solo debe ejecutar un nodo a la vez: la tiene
+ * {@code owner} hasta {@code expiresAt} si no la renueva antes.
+ *
+ * <p>Solo lectura: la escribe {@code JobLeaseService} por JDBC. Se mapea para que ddl-auto
+ * cree la tabla en H2 y validate compruebe su estructura.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructores
+    public JobLease() {}
+
+    // Getters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
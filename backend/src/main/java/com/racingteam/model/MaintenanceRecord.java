@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class MaintenanceRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_records_id_gen")
+    @SequenceGenerator(name = "maintenance_records_id_gen", sequenceName = "maintenance_records_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "La fecha de mantenimiento es obligatoria")
@@ -204,4 +205,20 @@ public class MaintenanceRecord {
     public void setPerformedBy(User performedBy) {
         this.performedBy = performedBy;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MaintenanceRecord other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
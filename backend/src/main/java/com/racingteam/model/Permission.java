@@ -0,0 +1,29 @@
+package com.racingteam.model;
+
+/**
+ * Capacidades que puede tener un rol. Cada una ocupa un bit, de modo que un conjunto de
+ * permisos cabe en un int y se comprueba con una sola operación.
+ */
+public enum Permission {
+    MANAGE_TEAM,
+    MANAGE_FINANCES,
+    VIEW_FINANCES,
+    MANAGE_VEHICLES,
+    MANAGE_INVENTORY,
+    MANAGE_EVENTS;
+
+    private final int bit = 1 << ordinal();
+
+    public int bit() {
+        return bit;
+    }
+
+    // Máscara con todos los permisos indicados, para precalcularla en constantes
+    public static int mask(Permission... permissions) {
+        int mask = 0;
+        for (Permission permission : permissions) {
+            mask |= permission.bit;
+        }
+        return mask;
+    }
+}
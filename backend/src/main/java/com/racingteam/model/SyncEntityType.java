@@ -0,0 +1,13 @@
+package com.racingteam.model;
+
+/**
+ * Tipos de registro que publica la sincronización incremental. Los valores coinciden con
+ * los argumentos de los triggers de lápidas de V7.
+ */
+public enum SyncEntityType {
+    TEAM,
+    USER,
+    VEHICLE,
+    EVENT,
+    MAINTENANCE
+}
@@ -0,0 +1,65 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro borrado (o que ha pasado a otro equipo) que los clientes deben eliminar en la
+ * siguiente sincronización.
+ *
+ * <p>Solo lectura: en PostgreSQL las escriben los triggers de V7 y se purgan pasado el periodo
+ * de retención. Se mapea para que ddl-auto cree la tabla en H2 y validate compruebe su
+ * estructura.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "sync_tombstones")
+public class SyncTombstone {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructores
+    public SyncTombstone() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public SyncEntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.racingteam.model;
 
+import com.racingteam.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -13,11 +14,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "teams")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class Team {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "teams_id_gen")
+    @SequenceGenerator(name = "teams_id_gen", sequenceName = "teams_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del equipo es obligatorio")
@@ -186,4 +188,20 @@ public class Team {
     public void setEvents(List<Event> events) {
         this.events = events;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Team other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
@@ -1,21 +1,47 @@
 package com.racingteam.model;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.racingteam.model.Permission.MANAGE_EVENTS;
+import static com.racingteam.model.Permission.MANAGE_FINANCES;
+import static com.racingteam.model.Permission.MANAGE_INVENTORY;
+import static com.racingteam.model.Permission.MANAGE_TEAM;
+import static com.racingteam.model.Permission.MANAGE_VEHICLES;
+import static com.racingteam.model.Permission.VIEW_FINANCES;
+
 public enum UserRole {
-    MANAGER("Manager del Equipo", "Gestión completa del equipo"),
+    MANAGER("Manager del Equipo", "Gestión completa del equipo",
+            MANAGE_TEAM, MANAGE_FINANCES, VIEW_FINANCES, MANAGE_VEHICLES, MANAGE_INVENTORY, MANAGE_EVENTS),
     PILOT("Piloto", "Piloto del equipo"),
-    MECHANIC("Mecánico", "Mantenimiento y reparación de vehículos"),
-    ENGINEER("Ingeniero", "Análisis técnico y setup"),
-    LOGISTICS("Logística", "Gestión de viajes y transporte"),
-    FINANCE("Finanzas", "Gestión financiera y sponsors"),
+    MECHANIC("Mecánico", "Mantenimiento y reparación de vehículos", MANAGE_VEHICLES, MANAGE_INVENTORY),
+    ENGINEER("Ingeniero", "Análisis técnico y setup", MANAGE_VEHICLES),
+    LOGISTICS("Logística", "Gestión de viajes y transporte", MANAGE_INVENTORY, MANAGE_EVENTS),
+    FINANCE("Finanzas", "Gestión financiera y sponsors", MANAGE_FINANCES, VIEW_FINANCES),
     MEDIA("Medios", "Comunicación y redes sociales"),
     GUEST("Invitado", "Acceso limitado de solo lectura");
 
     private final String displayName;
     private final String description;
+    // Lista inmutable creada una sola vez por rol, compartida por todas las autenticaciones
+    private final List<GrantedAuthority> authorities;
+    // Permisos del rol como máscara de bits (ver Permission.bit)
+    private final int permissionMask;
+    private final Set<Permission> permissions;
 
-    UserRole(String displayName, String description) {
+    UserRole(String displayName, String description, Permission... permissions) {
         this.displayName = displayName;
         this.description = description;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + name()));
+        this.permissionMask = Permission.mask(permissions);
+        EnumSet<Permission> granted = EnumSet.noneOf(Permission.class);
+        granted.addAll(List.of(permissions));
+        this.permissions = Collections.unmodifiableSet(granted);
     }
 
     public String getDisplayName() {
@@ -26,29 +52,54 @@ public enum UserRole {
         return description;
     }
 
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public int getPermissionMask() {
+        return permissionMask;
+    }
+
     // Métodos para verificar permisos
+    public boolean has(Permission permission) {
+        return (permissionMask & permission.bit()) != 0;
+    }
+
+    // Comprueba varios permisos a la vez con una máscara de Permission.mask(...)
+    public boolean hasAll(int mask) {
+        return (permissionMask & mask) == mask;
+    }
+
+    public boolean hasAny(int mask) {
+        return (permissionMask & mask) != 0;
+    }
+
     public boolean canManageTeam() {
-        return this == MANAGER;
+        return has(MANAGE_TEAM);
     }
 
     public boolean canManageFinances() {
-        return this == MANAGER || this == FINANCE;
+        return has(MANAGE_FINANCES);
     }
 
     public boolean canManageVehicles() {
-        return this == MANAGER || this == MECHANIC || this == ENGINEER;
+        return has(MANAGE_VEHICLES);
     }
 
     public boolean canManageInventory() {
-        return this == MANAGER || this == MECHANIC || this == LOGISTICS;
+        return has(MANAGE_INVENTORY);
     }
 
     public boolean canManageEvents() {
-        return this == MANAGER || this == LOGISTICS;
+        return has(MANAGE_EVENTS);
     }
 
     public boolean canViewFinances() {
-        return this == MANAGER || this == FINANCE;
+        return has(VIEW_FINANCES);
     }
 
     public boolean isReadOnly() {
@@ -1,5 +1,6 @@
 package com.racingteam.model;
 
+import com.racingteam.event.EntityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,11 +17,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "vehicles")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityChangeListener.class})
 public class Vehicle {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicles_id_gen")
+    @SequenceGenerator(name = "vehicles_id_gen", sequenceName = "vehicles_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre del vehículo es obligatorio")
@@ -68,6 +70,17 @@ public class Vehicle {
     @Column(name = "next_maintenance_km", precision = 10, scale = 2)
     private BigDecimal nextMaintenanceKm;
 
+    // Proyección calculada por la base de datos (columnas generadas de V2; en H2 las crea
+    // db/h2/maintenance-projection.sql), refleja el estado al cargar
+    @Column(name = "hours_until_maintenance", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal hoursUntilMaintenance;
+
+    @Column(name = "km_until_maintenance", precision = 10, scale = 2, insertable = false, updatable = false)
+    private BigDecimal kmUntilMaintenance;
+
+    @Column(name = "maintenance_due", insertable = false, updatable = false)
+    private Boolean maintenanceDue;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private VehicleStatus status = VehicleStatus.AVAILABLE;
@@ -104,10 +117,16 @@ public class Vehicle {
 
     // Métodos de utilidad
     public boolean needsMaintenance() {
-        if (nextMaintenanceHours != null && totalHours.compareTo(nextMaintenanceHours) >= 0) {
+        return isMaintenanceDue(totalHours, nextMaintenanceHours, totalKilometers, nextMaintenanceKm);
+    }
+
+    // Misma regla que needsMaintenance() para proyecciones que no cargan la entidad
+    public static boolean isMaintenanceDue(BigDecimal totalHours, BigDecimal nextMaintenanceHours,
+                                           BigDecimal totalKilometers, BigDecimal nextMaintenanceKm) {
+        if (nextMaintenanceHours != null && totalHours != null && totalHours.compareTo(nextMaintenanceHours) >= 0) {
             return true;
         }
-        if (nextMaintenanceKm != null && totalKilometers.compareTo(nextMaintenanceKm) >= 0) {
+        if (nextMaintenanceKm != null && totalKilometers != null && totalKilometers.compareTo(nextMaintenanceKm) >= 0) {
             return true;
         }
         return false;
@@ -238,6 +257,18 @@ public class Vehicle {
         this.nextMaintenanceKm = nextMaintenanceKm;
     }
 
+    public BigDecimal getHoursUntilMaintenance() {
+        return hoursUntilMaintenance;
+    }
+
+    public BigDecimal getKmUntilMaintenance() {
+        return kmUntilMaintenance;
+    }
+
+    public Boolean getMaintenanceDue() {
+        return maintenanceDue;
+    }
+
     public VehicleStatus getStatus() {
         return status;
     }
@@ -293,4 +324,20 @@ public class Vehicle {
     public void setMaintenanceRecords(List<MaintenanceRecord> maintenanceRecords) {
         this.maintenanceRecords = maintenanceRecords;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Vehicle other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
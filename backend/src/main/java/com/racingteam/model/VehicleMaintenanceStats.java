@@ -0,0 +1,75 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de los registros de mantenimiento de un vehículo por temporada y tipo.
+ *
+ * <p>Solo lectura: en PostgreSQL lo mantiene el trigger de maintenance_records (V5) y
+ * {@code MaintenanceAnalyticsService} corrige periódicamente cualquier desviación. Se mapea
+ * para que ddl-auto cree la tabla en H2 y validate compruebe su estructura; las consultas de
+ * analítica agrupan directamente en SQL.</p>
+ */
+@Entity
+@Immutable
+@Table(name = "vehicle_maintenance_stats")
+public class VehicleMaintenanceStats {
+
+    @EmbeddedId
+    private VehicleMaintenanceStatsId id;
+
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    @Column(name = "total_cost", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalCost;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDateTime firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDateTime lastDate;
+
+    // Constructores
+    public VehicleMaintenanceStats() {}
+
+    // Getters
+    public VehicleMaintenanceStatsId getId() {
+        return id;
+    }
+
+    public Long getVehicleId() {
+        return id.getVehicleId();
+    }
+
+    public Integer getSeason() {
+        return id.getSeason();
+    }
+
+    public MaintenanceType getMaintenanceType() {
+        return id.getMaintenanceType();
+    }
+
+    public Integer getRecordCount() {
+        return recordCount;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public LocalDateTime getFirstDate() {
+        return firstDate;
+    }
+
+    public LocalDateTime getLastDate() {
+        return lastDate;
+    }
+}
@@ -0,0 +1,63 @@
+package com.racingteam.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class VehicleMaintenanceStatsId implements Serializable {
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "season", nullable = false)
+    private Integer season;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "maintenance_type", nullable = false, length = 50)
+    private MaintenanceType maintenanceType;
+
+    // Constructores
+    public VehicleMaintenanceStatsId() {}
+
+    public VehicleMaintenanceStatsId(Long vehicleId, Integer season, MaintenanceType maintenanceType) {
+        this.vehicleId = vehicleId;
+        this.season = season;
+        this.maintenanceType = maintenanceType;
+    }
+
+    // Getters
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public Integer getSeason() {
+        return season;
+    }
+
+    public MaintenanceType getMaintenanceType() {
+        return maintenanceType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VehicleMaintenanceStatsId other)) {
+            return false;
+        }
+        return Objects.equals(vehicleId, other.vehicleId)
+                && Objects.equals(season, other.season)
+                && maintenanceType == other.maintenanceType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vehicleId, season, maintenanceType);
+    }
+}
@@ -1,5 +1,10 @@
 package com.racingteam.model;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 public enum VehicleType {
     // COCHES - Fórmula
     FORMULA_1("Fórmula 1", VehicleCategory.CAR),
@@ -62,6 +67,21 @@ public enum VehicleType {
     SPORT("Sport", VehicleCategory.MOTORCYCLE),
     CLASSIC("Classic", VehicleCategory.MOTORCYCLE);
 
+    // Tipos de cada categoría, calculados una sola vez al cargar el enum
+    private static final Map<VehicleCategory, List<VehicleType>> BY_CATEGORY = new EnumMap<>(VehicleCategory.class);
+
+    static {
+        for (VehicleCategory category : VehicleCategory.values()) {
+            List<VehicleType> types = new ArrayList<>();
+            for (VehicleType type : values()) {
+                if (type.category == category) {
+                    types.add(type);
+                }
+            }
+            BY_CATEGORY.put(category, List.copyOf(types));
+        }
+    }
+
     private final String displayName;
     private final VehicleCategory category;
 
@@ -78,10 +98,13 @@ public enum VehicleType {
         return category;
     }
 
+    // Lista inmutable compartida: consultarla no reserva memoria
+    public static List<VehicleType> typesOf(VehicleCategory category) {
+        return BY_CATEGORY.get(category);
+    }
+
     // Método para obtener todos los tipos de una categoría
     public static VehicleType[] getByCategory(VehicleCategory category) {
-        return java.util.Arrays.stream(values())
-                .filter(type -> type.getCategory() == category)
-                .toArray(VehicleType[]::new);
+        return typesOf(category).toArray(new VehicleType[0]);
     }
 }
\ No newline at end of file
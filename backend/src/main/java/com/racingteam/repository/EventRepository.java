@@ -0,0 +1,78 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.EventSummary;
+import com.racingteam.model.Event;
+import com.racingteam.repository.projection.BookedMemberView;
+import com.racingteam.repository.projection.CalendarEventView;
+import com.racingteam.repository.projection.EventMemberView;
+import com.racingteam.repository.projection.EventStatsView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
+
+    @Query("select e.id as id, e.team.id as teamId, e.startDate as startDate from Event e")
+    List<EventStatsView> findAllStatsViews();
+
+    // Eventos que ocupan calendario: todos salvo los cancelados
+    @Query("select e.id as id, e.team.id as teamId, e.name as name, e.startDate as startDate, e.endDate as endDate " +
+           "from Event e where e.status <> com.racingteam.model.EventStatus.CANCELLED")
+    List<CalendarEventView> findAllCalendarViews();
+
+    @Query("select e.id as eventId, p.id as memberId from Event e join e.participants p " +
+           "where e.status <> com.racingteam.model.EventStatus.CANCELLED")
+    List<EventMemberView> findAllParticipantLinks();
+
+    @Query("select e.id as eventId, v.id as memberId from Event e join e.vehicles v " +
+           "where e.status <> com.racingteam.model.EventStatus.CANCELLED")
+    List<EventMemberView> findAllVehicleLinks();
+
+    // Reservas que se solapan con [startDate, endDate) leídas de la base de datos, no del índice
+    String OVERLAPPING_BOOKINGS_SELECT =
+            "select e.id as eventId, e.name as name, e.startDate as startDate, e.endDate as endDate, " +
+            "m.id as memberId from Event e join ";
+    String OVERLAPPING_BOOKINGS_WHERE =
+            " m where e.team.id = :teamId and e.id <> :eventId " +
+            "and e.status <> com.racingteam.model.EventStatus.CANCELLED " +
+            "and e.startDate < :endDate and e.endDate > :startDate and m.id in :memberIds";
+
+    @Query(OVERLAPPING_BOOKINGS_SELECT + "e.participants" + OVERLAPPING_BOOKINGS_WHERE)
+    List<BookedMemberView> findOverlappingParticipantBookings(@Param("teamId") Long teamId,
+                                                              @Param("eventId") Long eventId,
+                                                              @Param("startDate") LocalDateTime startDate,
+                                                              @Param("endDate") LocalDateTime endDate,
+                                                              @Param("memberIds") Collection<Long> memberIds);
+
+    @Query(OVERLAPPING_BOOKINGS_SELECT + "e.vehicles" + OVERLAPPING_BOOKINGS_WHERE)
+    List<BookedMemberView> findOverlappingVehicleBookings(@Param("teamId") Long teamId,
+                                                          @Param("eventId") Long eventId,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate,
+                                                          @Param("memberIds") Collection<Long> memberIds);
+
+    @Query("select new com.racingteam.dto.EventSummary(e.id, e.name, e.eventType, e.status, e.startDate, e.endDate, " +
+           "e.location, e.circuitName, e.team.id) " +
+           "from Event e where e.team.id = :teamId and e.updatedAt >= :since order by e.id")
+    List<EventSummary> findSummariesChangedSince(@Param("teamId") Long teamId, @Param("since") LocalDateTime since);
+
+    @Query("select new com.racingteam.dto.EventSummary(e.id, e.name, e.eventType, e.status, e.startDate, e.endDate, " +
+           "e.location, e.circuitName, e.team.id) " +
+           "from Event e where e.team.id = :teamId and e.endDate >= :from order by e.startDate, e.id")
+    List<EventSummary> findUpcomingSummaries(@Param("teamId") Long teamId, @Param("from") LocalDateTime from, Limit limit);
+
+    @Query("select e.team.id from Event e where e.id = :id")
+    Optional<Long> findTeamIdById(@Param("id") Long id);
+
+    @EntityGraph(Event.MEMBERS_GRAPH)
+    Optional<Event> findWithMembersById(Long id);
+}
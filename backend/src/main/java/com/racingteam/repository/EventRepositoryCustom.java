@@ -0,0 +1,12 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.EventFilter;
+import com.racingteam.dto.EventSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    List<EventSummary> findSummariesAfter(EventFilter filter, LocalDateTime afterStartDate, Long afterId, int limit);
+}
@@ -0,0 +1,40 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.EventFilter;
+import com.racingteam.dto.EventSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class EventRepositoryImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventSummary> findSummariesAfter(EventFilter filter, LocalDateTime afterStartDate, Long afterId, int limit) {
+        JpqlConditions conditions = new JpqlConditions()
+                .eq("e.team.id", "teamId", filter.teamId())
+                .eq("e.status", "status", filter.status())
+                .eq("e.eventType", "eventType", filter.eventType());
+        if (filter.from() != null) {
+            conditions.add("e.startDate >= :from", "from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add("e.startDate < :to", "to", filter.to());
+        }
+        if (afterStartDate != null) {
+            // (start_date, id) > (:afterStartDate, :afterId) con un rango indexable sobre start_date
+            conditions.add("e.startDate >= :afterStartDate", "afterStartDate", afterStartDate)
+                      .add("(e.startDate > :afterStartDate or e.id > :afterId)", "afterId", afterId);
+        }
+        String jpql = "select new com.racingteam.dto.EventSummary(e.id, e.name, e.eventType, e.status, " +
+                "e.startDate, e.endDate, e.location, e.circuitName, e.team.id) " +
+                "from Event e" + conditions.where() + " order by e.startDate, e.id";
+        return conditions.applyTo(entityManager.createQuery(jpql, EventSummary.class))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,41 @@
+package com.racingteam.repository;
+
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumula condiciones WHERE opcionales para consultas JPQL dinámicas. Los filtros nulos no
+ * generan condición, de modo que el planificador solo ve los predicados que realmente aplican
+ * y puede elegir el índice de cada columna.
+ */
+final class JpqlConditions {
+
+    private final List<String> conditions = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    JpqlConditions eq(String path, String parameter, Object value) {
+        if (value != null) {
+            add(path + " = :" + parameter, parameter, value);
+        }
+        return this;
+    }
+
+    JpqlConditions add(String condition, String parameter, Object value) {
+        conditions.add(condition);
+        parameters.put(parameter, value);
+        return this;
+    }
+
+    String where() {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    <T> TypedQuery<T> applyTo(TypedQuery<T> query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,19 @@
+package com.racingteam.repository;
+
+import com.racingteam.model.SyncTombstone;
+import com.racingteam.repository.projection.SyncTombstoneView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("select t.entityType as entityType, t.entityId as entityId from SyncTombstone t " +
+           "where t.teamId = :teamId and t.deletedAt >= :since order by t.id")
+    List<SyncTombstoneView> findChangedSince(@Param("teamId") Long teamId, @Param("since") LocalDateTime since);
+}
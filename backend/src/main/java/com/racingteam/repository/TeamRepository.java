@@ -0,0 +1,20 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.TeamSummary;
+import com.racingteam.model.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    @Query("select new com.racingteam.dto.TeamSummary(t.id, t.name, t.description, t.logoUrl, t.primaryCategory, " +
+           "t.contactEmail, t.contactPhone, t.headquartersLocation, t.active) " +
+           "from Team t where t.id = :teamId and t.updatedAt >= :since")
+    List<TeamSummary> findSummariesChangedSince(@Param("teamId") Long teamId, @Param("since") LocalDateTime since);
+}
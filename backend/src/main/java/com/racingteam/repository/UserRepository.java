@@ -0,0 +1,39 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.UserSummary;
+import com.racingteam.model.User;
+import com.racingteam.repository.projection.UserStatsView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    Optional<User> findByEmail(String email);
+
+    @Query("select u.id as id, u.team.id as teamId from User u")
+    List<UserStatsView> findAllStatsViews();
+
+    @Query("select new com.racingteam.dto.UserSummary(u.id, u.email, u.firstName, u.lastName, u.role, u.active, " +
+           "u.team.id) from User u where u.team.id = :teamId and u.updatedAt >= :since order by u.id")
+    List<UserSummary> findSummariesChangedSince(@Param("teamId") Long teamId, @Param("since") LocalDateTime since);
+
+    @Query("select new com.racingteam.dto.UserSummary(u.id, u.email, u.firstName, u.lastName, u.role, u.active, " +
+           "u.team.id) from User u where u.team.id = :teamId order by u.lastName, u.firstName, u.id")
+    List<UserSummary> findSummariesByTeam(@Param("teamId") Long teamId);
+
+    // SELECT ... FOR UPDATE hasta el fin de la transacción; en orden de id para que dos
+    // transacciones que bloquean los mismos usuarios no se interbloqueen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id in :ids order by u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.UserFilter;
+import com.racingteam.dto.UserSummary;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    List<UserSummary> findSummariesAfter(UserFilter filter, Long afterId, int limit);
+}
@@ -0,0 +1,30 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.UserFilter;
+import com.racingteam.dto.UserSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserSummary> findSummariesAfter(UserFilter filter, Long afterId, int limit) {
+        JpqlConditions conditions = new JpqlConditions()
+                .eq("u.team.id", "teamId", filter.teamId())
+                .eq("u.role", "role", filter.role());
+        if (afterId != null) {
+            conditions.add("u.id > :afterId", "afterId", afterId);
+        }
+        String jpql = "select new com.racingteam.dto.UserSummary(u.id, u.email, u.firstName, u.lastName, " +
+                "u.role, u.active, u.team.id) " +
+                "from User u" + conditions.where() + " order by u.id";
+        return conditions.applyTo(entityManager.createQuery(jpql, UserSummary.class))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
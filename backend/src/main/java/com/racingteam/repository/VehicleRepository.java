@@ -0,0 +1,68 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.MaintenanceSummary;
+import com.racingteam.dto.VehicleSummary;
+import com.racingteam.model.Vehicle;
+import com.racingteam.repository.projection.MaintenanceDueView;
+import com.racingteam.repository.projection.VehicleStatsView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, VehicleRepositoryCustom {
+
+    // Proyección ligera para reconstruir las estadísticas sin hidratar entidades
+    @Query("select v.id as id, v.team.id as teamId, v.active as active, " +
+           "v.totalHours as totalHours, v.totalKilometers as totalKilometers, " +
+           "v.nextMaintenanceHours as nextMaintenanceHours, v.nextMaintenanceKm as nextMaintenanceKm " +
+           "from Vehicle v")
+    List<VehicleStatsView> findAllStatsViews();
+
+    // Filtra por la columna generada maintenance_due para usar el índice parcial
+    @Query("select v.id as id, v.name as name, v.vehicleType as vehicleType, v.status as status, " +
+           "v.team.id as teamId, v.totalHours as totalHours, v.totalKilometers as totalKilometers, " +
+           "v.hoursUntilMaintenance as hoursUntilMaintenance, v.kmUntilMaintenance as kmUntilMaintenance " +
+           "from Vehicle v where v.maintenanceDue = true and v.team.id = :teamId " +
+           "order by v.hoursUntilMaintenance asc nulls last, v.id")
+    List<MaintenanceDueView> findMaintenanceDueByTeam(@Param("teamId") Long teamId);
+
+    @Query("select new com.racingteam.dto.VehicleSummary(v.id, v.name, v.vehicleType, v.status, v.manufacturer, " +
+           "v.model, v.totalHours, v.totalKilometers, v.maintenanceDue, v.active, v.team.id) " +
+           "from Vehicle v where v.team.id = :teamId and v.updatedAt >= :since order by v.id")
+    List<VehicleSummary> findSummariesChangedSince(@Param("teamId") Long teamId, @Param("since") LocalDateTime since);
+
+    // Los registros de mantenimiento se sincronizan con los vehículos del equipo al que pertenecen
+    @Query("select new com.racingteam.dto.MaintenanceSummary(m.id, m.maintenanceDate, m.maintenanceType, " +
+           "m.description, m.vehicleHoursAtMaintenance, m.vehicleKmAtMaintenance, m.cost, v.id, m.performedBy.id) " +
+           "from MaintenanceRecord m join m.vehicle v " +
+           "where v.team.id = :teamId and m.updatedAt >= :since order by m.id")
+    List<MaintenanceSummary> findMaintenanceSummariesChangedSince(@Param("teamId") Long teamId,
+                                                                  @Param("since") LocalDateTime since);
+
+    @Query("select new com.racingteam.dto.VehicleSummary(v.id, v.name, v.vehicleType, v.status, v.manufacturer, " +
+           "v.model, v.totalHours, v.totalKilometers, v.maintenanceDue, v.active, v.team.id) " +
+           "from Vehicle v where v.team.id = :teamId order by v.name, v.id")
+    List<VehicleSummary> findSummariesByTeam(@Param("teamId") Long teamId);
+
+    // Los más recientes primero; usa idx_maintenance_vehicle_date
+    @Query("select new com.racingteam.dto.MaintenanceSummary(m.id, m.maintenanceDate, m.maintenanceType, " +
+           "m.description, m.vehicleHoursAtMaintenance, m.vehicleKmAtMaintenance, m.cost, m.vehicle.id, " +
+           "m.performedBy.id) " +
+           "from MaintenanceRecord m where m.vehicle.id = :vehicleId order by m.maintenanceDate desc, m.id desc")
+    List<MaintenanceSummary> findRecentMaintenanceSummaries(@Param("vehicleId") Long vehicleId, Limit limit);
+
+    // SELECT ... FOR UPDATE hasta el fin de la transacción; en orden de id para que dos
+    // transacciones que bloquean los mismos vehículos no se interbloqueen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from Vehicle v where v.id in :ids order by v.id")
+    List<Vehicle> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.VehicleFilter;
+import com.racingteam.dto.VehicleSummary;
+
+import java.util.List;
+
+public interface VehicleRepositoryCustom {
+
+    List<VehicleSummary> findSummariesAfter(VehicleFilter filter, Long afterId, int limit);
+}
@@ -0,0 +1,31 @@
+package com.racingteam.repository;
+
+import com.racingteam.dto.VehicleFilter;
+import com.racingteam.dto.VehicleSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.List;
+
+class VehicleRepositoryImpl implements VehicleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<VehicleSummary> findSummariesAfter(VehicleFilter filter, Long afterId, int limit) {
+        JpqlConditions conditions = new JpqlConditions()
+                .eq("v.team.id", "teamId", filter.teamId())
+                .eq("v.status", "status", filter.status())
+                .eq("v.vehicleType", "vehicleType", filter.vehicleType());
+        if (afterId != null) {
+            conditions.add("v.id > :afterId", "afterId", afterId);
+        }
+        String jpql = "select new com.racingteam.dto.VehicleSummary(v.id, v.name, v.vehicleType, v.status, " +
+                "v.manufacturer, v.model, v.totalHours, v.totalKilometers, v.maintenanceDue, v.active, v.team.id) " +
+                "from Vehicle v" + conditions.where() + " order by v.id";
+        return conditions.applyTo(entityManager.createQuery(jpql, VehicleSummary.class))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.racingteam.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface BookedMemberView {
+
+    Long getEventId();
+
+    String getName();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getMemberId();
+}
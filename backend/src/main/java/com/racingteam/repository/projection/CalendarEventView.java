@@ -0,0 +1,16 @@
+package com.racingteam.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface CalendarEventView {
+
+    Long getId();
+
+    Long getTeamId();
+
+    String getName();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
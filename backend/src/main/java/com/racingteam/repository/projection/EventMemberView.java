@@ -0,0 +1,8 @@
+package com.racingteam.repository.projection;
+
+public interface EventMemberView {
+
+    Long getEventId();
+
+    Long getMemberId();
+}
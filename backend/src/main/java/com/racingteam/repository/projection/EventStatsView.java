@@ -0,0 +1,12 @@
+package com.racingteam.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface EventStatsView {
+
+    Long getId();
+
+    Long getTeamId();
+
+    LocalDateTime getStartDate();
+}
@@ -0,0 +1,27 @@
+package com.racingteam.repository.projection;
+
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.model.VehicleType;
+
+import java.math.BigDecimal;
+
+public interface MaintenanceDueView {
+
+    Long getId();
+
+    String getName();
+
+    VehicleType getVehicleType();
+
+    VehicleStatus getStatus();
+
+    Long getTeamId();
+
+    BigDecimal getTotalHours();
+
+    BigDecimal getTotalKilometers();
+
+    BigDecimal getHoursUntilMaintenance();
+
+    BigDecimal getKmUntilMaintenance();
+}
@@ -0,0 +1,10 @@
+package com.racingteam.repository.projection;
+
+import com.racingteam.model.SyncEntityType;
+
+public interface SyncTombstoneView {
+
+    SyncEntityType getEntityType();
+
+    Long getEntityId();
+}
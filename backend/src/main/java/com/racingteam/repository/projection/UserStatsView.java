@@ -0,0 +1,8 @@
+package com.racingteam.repository.projection;
+
+public interface UserStatsView {
+
+    Long getId();
+
+    Long getTeamId();
+}
@@ -0,0 +1,20 @@
+package com.racingteam.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface VehicleStatsView {
+
+    Long getId();
+
+    Long getTeamId();
+
+    Boolean getActive();
+
+    BigDecimal getTotalHours();
+
+    BigDecimal getTotalKilometers();
+
+    BigDecimal getNextMaintenanceHours();
+
+    BigDecimal getNextMaintenanceKm();
+}
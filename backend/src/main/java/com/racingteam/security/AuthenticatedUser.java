@@ -0,0 +1,40 @@
+package com.racingteam.security;
+
+import com.racingteam.model.UserRole;
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * Principal construido a partir de los claims del token, sin consultar la tabla de usuarios.
+ *
+ * <p>El claim del equipo delimita lo que el usuario puede consultar: los endpoints con datos
+ * de equipo resuelven el equipo con {@link #teamScope(Long)} en lugar de confiar en el
+ * parámetro de la petición.</p>
+ */
+public record AuthenticatedUser(
+        Long userId,
+        Long teamId,
+        String email,
+        UserRole role) {
+
+    /**
+     * Equipo del usuario. Sin equipo no hay datos que consultar y se responde 403.
+     */
+    public Long requireTeamId() {
+        if (teamId == null) {
+            throw new AccessDeniedException("El usuario no pertenece a ningún equipo");
+        }
+        return teamId;
+    }
+
+    /**
+     * Equipo al que se limita una consulta: el del usuario, se pida o no. Pedir otro equipo se
+     * rechaza con 403 en lugar de devolver sus datos.
+     */
+    public Long teamScope(Long requestedTeamId) {
+        Long ownTeamId = requireTeamId();
+        if (requestedTeamId != null && !requestedTeamId.equals(ownTeamId)) {
+            throw new AccessDeniedException("Sin acceso a los datos del equipo " + requestedTeamId);
+        }
+        return ownTeamId;
+    }
+}
@@ -0,0 +1,125 @@
+package com.racingteam.security;
+
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Emisión y verificación de tokens JWT. La clave y el parser se construyen una sola vez; el
+ * parser de jjwt es inmutable y seguro entre hilos.
+ *
+ * <p>Además del token de acceso se emiten tokens de uso restringido para clientes que no pueden
+ * enviar la cabecera Authorization y lo llevan en la URL (suscripciones de calendario y el
+ * EventSource del canal en directo). Llevan un propósito que {@link #verify(String)} rechaza,
+ * así que no sirven como token de acceso.</p>
+ */
+@Service
+public class JwtService {
+
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_TEAM_ID = "tid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_PURPOSE = "pur";
+
+    public static final String PURPOSE_CALENDAR = "calendar";
+    public static final String PURPOSE_LIVE = "live";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expirationMillis;
+
+    public JwtService(@Value("${spring.security.jwt.secret}") String secret,
+                      @Value("${spring.security.jwt.expiration}") long expirationMillis) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.expirationMillis = expirationMillis;
+    }
+
+    public String issueToken(User user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_TEAM_ID, user.getTeam() != null ? user.getTeam().getId() : null)
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusMillis(expirationMillis)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Token de uso restringido a {@code purpose}, con los mismos datos del usuario que el de acceso.
+     */
+    public String issueUrlToken(AuthenticatedUser principal, String purpose, Duration validity) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(principal.email())
+                .claim(CLAIM_USER_ID, principal.userId())
+                .claim(CLAIM_TEAM_ID, principal.teamId())
+                .claim(CLAIM_ROLE, principal.role().name())
+                .claim(CLAIM_PURPOSE, purpose)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(validity)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Verifica firma y caducidad de un token de acceso. Lanza {@link JwtException} si el token no
+     * es válido o es de uso restringido.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.get(CLAIM_PURPOSE) != null) {
+            throw new JwtException("Token de uso restringido");
+        }
+        return verified(claims);
+    }
+
+    /**
+     * Verifica un token emitido con {@link #issueUrlToken} para {@code purpose}.
+     */
+    public VerifiedToken verifyUrlToken(String token, String purpose) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (!purpose.equals(claims.get(CLAIM_PURPOSE, String.class))) {
+            throw new JwtException("Token emitido para otro uso");
+        }
+        return verified(claims);
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    private static VerifiedToken verified(Claims claims) {
+        AuthenticatedUser principal = new AuthenticatedUser(
+                toLong(claims.get(CLAIM_USER_ID)),
+                toLong(claims.get(CLAIM_TEAM_ID)),
+                claims.getSubject(),
+                UserRole.valueOf(claims.get(CLAIM_ROLE, String.class)));
+        return new VerifiedToken(claims.getId(), claims.getExpiration().toInstant(), principal);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    public record VerifiedToken(String tokenId, Instant expiresAt, AuthenticatedUser principal) {
+    }
+}
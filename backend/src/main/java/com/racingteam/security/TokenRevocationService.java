@@ -0,0 +1,57 @@
+package com.racingteam.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lista local de tokens revocados (logout). Cada entrada caduca cuando lo haría el propio
+ * token, así que el conjunto solo contiene tokens que aún serían válidos.
+ *
+ * <p>No hay tamaño máximo: al llenarse, Caffeine desalojaría revocaciones vigentes y esos
+ * tokens volverían a ser válidos. El tamaño lo acotan los logouts dentro de la vida de un
+ * token.</p>
+ */
+@Service
+public class TokenRevocationService {
+
+    private final boolean enabled;
+    private final Cache<String, Instant> revoked;
+
+    public TokenRevocationService(@Value("${app.security.revocation.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Instant>() {
+                    @Override
+                    public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(tokenId, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (enabled && tokenId != null) {
+            revoked.put(tokenId, expiresAt);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return enabled && tokenId != null && revoked.getIfPresent(tokenId) != null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.racingteam.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Autentica con un token de uso restringido ({@link JwtService#issueUrlToken}) pasado como
+ * parámetro de la URL, para clientes que no pueden enviar la cabecera Authorization. Solo se
+ * acepta en las rutas indicadas y con el propósito con el que se emitió; si la petición ya viene
+ * autenticada con un token de acceso no hace nada.
+ */
+public class UrlTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final String purpose;
+    private final String parameter;
+    private final RequestMatcher paths;
+
+    public UrlTokenAuthenticationFilter(JwtService jwtService, TokenRevocationService revocationService,
+                                        String purpose, String parameter, RequestMatcher paths) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.purpose = purpose;
+        this.parameter = parameter;
+        this.paths = paths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = request.getParameter(parameter);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null && paths.matches(request)) {
+            try {
+                JwtService.VerifiedToken verified = jwtService.verifyUrlToken(token, purpose);
+                if (!revocationService.isRevoked(verified.tokenId())) {
+                    AuthenticatedUser principal = verified.principal();
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            principal, verified, principal.role().getAuthorities()));
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Hay una instancia por propósito en la misma cadena: con el nombre de la clase solo actuaría la primera
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return super.getAlreadyFilteredAttributeName() + "." + purpose;
+    }
+}
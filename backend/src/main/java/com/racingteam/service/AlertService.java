@@ -0,0 +1,513 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.AlertSummary;
+import com.racingteam.dto.EventUsageProjection;
+import com.racingteam.dto.VehicleReadiness;
+import com.racingteam.exception.ResourceNotFoundException;
+import com.racingteam.model.AlertType;
+import com.racingteam.model.Vehicle;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avisos de licencias que caducan o han caducado y de vehículos que han alcanzado o se estima
+ * que alcanzarán su mantenimiento ({@link AlertType}).
+ *
+ * <p>Los avisos pendientes se guardan en una {@link DueQueue} por fecha de vencimiento y un
+ * único temporizador se programa para el primero: el nodo no despierta hasta que vence algo. La
+ * cola se carga entera al tomar la concesión y cada {@code rescan-interval}, que es cuando se
+ * recogen también las proyecciones de {@link FleetReadinessService}. En cada pasada de
+ * {@code refresh-interval} solo se leen los usuarios y vehículos con updated_at posterior a la
+ * pasada anterior, de cualquier nodo o escritos por JDBC.</p>
+ *
+ * <p>Solo planifica el nodo con la concesión de {@link JobLeaseService}, que se renueva en cada
+ * pasada. Emitir un aviso es insertar su fila en alerts: la clave única por ocurrencia (V13)
+ * impide que se emita dos veces aunque, al cambiar la concesión de nodo, dos nodos lleguen a
+ * tenerla a la vez.</p>
+ */
+@Service
+public class AlertService {
+
+    static final String JOB = "alerts";
+
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    private static final int MAX_MESSAGE_LENGTH = 255;
+
+    private static final String LICENSES_SQL =
+            "SELECT u.id, u.team_id, u.first_name, u.last_name, u.license_expiry, u.active FROM users u WHERE ";
+
+    private static final String VEHICLES_SQL =
+            "SELECT v.id, v.team_id, v.name, v.total_hours, v.total_kilometers, " +
+            "v.next_maintenance_hours, v.next_maintenance_km, v.active FROM vehicles v WHERE ";
+
+    // Solo las ocurrencias de usuarios y vehículos que aún se planifican
+    private static final String CLAIMED_SQL =
+            "SELECT a.alert_type, a.entity_id, a.occurrence FROM alerts a JOIN users u ON u.id = a.entity_id " +
+            "WHERE a.alert_type IN ('LICENSE_EXPIRING', 'LICENSE_EXPIRED') " +
+            "AND u.active = TRUE AND u.license_expiry IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT a.alert_type, a.entity_id, a.occurrence FROM alerts a JOIN vehicles v ON v.id = a.entity_id " +
+            "WHERE a.alert_type IN ('MAINTENANCE_PROJECTED', 'MAINTENANCE_DUE') AND v.active = TRUE";
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO alerts (alert_type, entity_id, team_id, occurrence, due_at, message, node_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String ALERTS_SQL =
+            "SELECT id, alert_type, entity_id, due_at, message, created_at FROM alerts WHERE team_id = ? ";
+
+    private static final String LATEST_SQL = ALERTS_SQL + "ORDER BY id DESC LIMIT ?";
+
+    // Ascendente: con más de limit nuevos, el siguiente cursor sigue donde se quedó este
+    private static final String AFTER_SQL = ALERTS_SQL + "AND id > ? ORDER BY id LIMIT ?";
+
+    private static final RowMapper<LicenseRow> LICENSE_ROW = (rs, rowNum) -> new LicenseRow(
+            rs.getLong(1), rs.getLong(2), rs.getString(3) + " " + rs.getString(4),
+            rs.getObject(5, LocalDateTime.class), rs.getBoolean(6));
+
+    private static final RowMapper<VehicleRow> VEHICLE_ROW = (rs, rowNum) -> new VehicleRow(
+            rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getBigDecimal(4), rs.getBigDecimal(5),
+            rs.getBigDecimal(6), rs.getBigDecimal(7), rs.getBoolean(8));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLeaseService leaseService;
+    private final FleetReadinessService fleetReadinessService;
+    private final boolean enabled;
+    private final Duration licenseWarning;
+    private final Duration maintenanceWarning;
+    private final Duration leaseDuration;
+    private final Duration rescanInterval;
+    private final Duration inFlightMargin;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final ScheduledExecutorService timer;
+
+    // Todo lo siguiente se protege con this
+    private final DueQueue<Key, PendingAlert> queue = new DueQueue<>();
+    private final Set<Occurrence> claimed = new HashSet<>();
+    private boolean leader;
+    private LocalDateTime lastRescan;
+    private LocalDateTime watermark;
+    private ScheduledFuture<?> wakeUp;
+    private LocalDateTime wakeUpAt;
+
+    public AlertService(JdbcTemplate jdbcTemplate,
+                        JobLeaseService leaseService,
+                        FleetReadinessService fleetReadinessService,
+                        @Value("${app.alerts.enabled:true}") boolean enabled,
+                        @Value("${app.alerts.license-warning:30d}") Duration licenseWarning,
+                        @Value("${app.alerts.maintenance-warning:7d}") Duration maintenanceWarning,
+                        @Value("${app.alerts.lease-duration:3m}") Duration leaseDuration,
+                        @Value("${app.alerts.rescan-interval:1h}") Duration rescanInterval,
+                        @Value("${app.alerts.in-flight-margin:30s}") Duration inFlightMargin,
+                        @Value("${app.alerts.default-limit:50}") int defaultLimit,
+                        @Value("${app.alerts.max-limit:200}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseService = leaseService;
+        this.fleetReadinessService = fleetReadinessService;
+        this.enabled = enabled;
+        this.licenseWarning = licenseWarning;
+        this.maintenanceWarning = maintenanceWarning;
+        this.leaseDuration = leaseDuration;
+        this.rescanInterval = rescanInterval;
+        this.inFlightMargin = inFlightMargin;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("alerts-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        boolean wasLeader;
+        synchronized (this) {
+            wasLeader = leader;
+            leader = false;
+        }
+        if (wasLeader) {
+            releaseLease();
+        }
+    }
+
+    /**
+     * Avisos del equipo. Sin {@code afterId}, los más recientes primero; con él, los posteriores a
+     * ese aviso del más antiguo al más reciente: el cliente pasa como siguiente {@code afterId} el
+     * último recibido y repite mientras reciba {@code limit} avisos, sin saltarse ninguno.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public List<AlertSummary> getAlerts(Long teamId, Long afterId, Integer limit) {
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        RowMapper<AlertSummary> mapper = (rs, rowNum) -> new AlertSummary(
+                rs.getLong(1), AlertType.valueOf(rs.getString(2)), rs.getLong(3),
+                rs.getObject(4, LocalDateTime.class), rs.getString(5), rs.getObject(6, LocalDateTime.class));
+        return afterId != null
+                ? jdbcTemplate.query(AFTER_SQL, mapper, teamId, afterId, size)
+                : jdbcTemplate.query(LATEST_SQL, mapper, teamId, size);
+    }
+
+    /**
+     * Renueva o toma la concesión y actualiza la cola: entera si acaba de tomarla o toca
+     * replanificar, y si no solo con los usuarios y vehículos cambiados. Sin la concesión vacía
+     * la cola. Si al tomarla no consigue planificar, la suelta para que lo intente otro nodo.
+     */
+    @Scheduled(fixedDelayString = "${app.alerts.refresh-interval:60000}",
+               initialDelayString = "${app.alerts.initial-delay:30000}")
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!leaseService.tryAcquire(JOB, leaseDuration)) {
+            stepDown();
+            return;
+        }
+        boolean takingOver;
+        boolean fullRescan;
+        synchronized (this) {
+            takingOver = !leader;
+            if (takingOver) {
+                log.info("Este nodo ({}) pasa a planificar los avisos", leaseService.nodeId());
+            }
+            fullRescan = takingOver || lastRescan == null || !lastRescan.plus(rescanInterval).isAfter(now);
+            leader = true;
+        }
+        try {
+            if (fullRescan) {
+                rescan(now);
+            } else {
+                refreshChanged(now);
+            }
+        } catch (RuntimeException e) {
+            // Sin una primera planificación completa la cola está vacía: quedarse con la concesión
+            // dejaría los avisos sin emitir
+            if (takingOver) {
+                stepDown();
+                releaseLease();
+            }
+            throw e;
+        }
+        arm();
+    }
+
+    public synchronized boolean isLeader() {
+        return leader;
+    }
+
+    // Avisos programados en este nodo
+    public synchronized int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Emite los avisos vencidos y devuelve cuántos ha emitido este nodo. Lo llama el
+     * temporizador al vencer el primero de la cola.
+     */
+    public int fireDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingAlert> due;
+        synchronized (this) {
+            if (!leader) {
+                return 0;
+            }
+            due = queue.pollDue(now);
+        }
+        int emitted = 0;
+        for (PendingAlert alert : due) {
+            try {
+                if (claim(alert)) {
+                    emitted++;
+                }
+            } catch (DataAccessException e) {
+                log.warn("No se ha podido emitir el aviso {} de {}: {}", alert.type(), alert.entityId(), e.getMessage());
+                synchronized (this) {
+                    // Salvo que mientras tanto se haya vuelto a programar con datos nuevos
+                    if (leader && queue.get(alert.key()) == null) {
+                        queue.schedule(alert.key(), now.plus(RETRY_DELAY), alert);
+                    }
+                }
+            }
+        }
+        arm();
+        return emitted;
+    }
+
+    private void rescan(LocalDateTime now) {
+        Set<Occurrence> alreadyClaimed = new HashSet<>();
+        jdbcTemplate.query(CLAIMED_SQL, rs -> {
+            alreadyClaimed.add(new Occurrence(AlertType.valueOf(rs.getString(1)), rs.getLong(2), rs.getString(3)));
+        });
+        List<LicenseRow> licenses = jdbcTemplate.query(
+                LICENSES_SQL + "u.active = TRUE AND u.license_expiry IS NOT NULL", LICENSE_ROW);
+        List<VehicleRow> vehicles = jdbcTemplate.query(VEHICLES_SQL + "v.active = TRUE", VEHICLE_ROW);
+        Map<Long, VehicleReadiness> projections = project(vehicles);
+        synchronized (this) {
+            if (!leader) {
+                return;
+            }
+            queue.clear();
+            claimed.clear();
+            claimed.addAll(alreadyClaimed);
+            licenses.forEach(license -> scheduleLicense(license, now));
+            vehicles.forEach(vehicle -> scheduleMaintenance(vehicle, true, projections.get(vehicle.id()), now));
+            lastRescan = now;
+            watermark = now.minus(inFlightMargin);
+        }
+        log.debug("Avisos replanificados: {} pendientes", pendingCount());
+    }
+
+    // Las proyecciones se conservan hasta la próxima replanificación completa, salvo que el
+    // vehículo cambie de umbrales, deje de estar activo o ya necesite el mantenimiento
+    private void refreshChanged(LocalDateTime now) {
+        LocalDateTime since;
+        synchronized (this) {
+            since = watermark;
+        }
+        Timestamp changedAfter = Timestamp.valueOf(since);
+        List<LicenseRow> licenses = jdbcTemplate.query(LICENSES_SQL + "u.updated_at > ?", LICENSE_ROW, changedAfter);
+        List<VehicleRow> vehicles = jdbcTemplate.query(VEHICLES_SQL + "v.updated_at > ?", VEHICLE_ROW, changedAfter);
+        synchronized (this) {
+            if (!leader) {
+                return;
+            }
+            licenses.forEach(license -> scheduleLicense(license, now));
+            vehicles.forEach(vehicle -> scheduleMaintenance(vehicle, false, null, now));
+            watermark = now.minus(inFlightMargin);
+        }
+    }
+
+    // Vehículos en riesgo de los equipos con vehículos activos
+    private Map<Long, VehicleReadiness> project(List<VehicleRow> vehicles) {
+        Set<Long> teamIds = new LinkedHashSet<>();
+        vehicles.forEach(vehicle -> teamIds.add(vehicle.teamId()));
+        Map<Long, VehicleReadiness> projections = new HashMap<>();
+        for (Long teamId : teamIds) {
+            try {
+                fleetReadinessService.getTeamReadiness(teamId, true)
+                        .forEach(readiness -> projections.put(readiness.vehicleId(), readiness));
+            } catch (ResourceNotFoundException e) {
+                // Equipo borrado después de leer sus vehículos
+            }
+        }
+        return projections;
+    }
+
+    private void scheduleLicense(LicenseRow license, LocalDateTime now) {
+        queue.cancel(new Key(AlertType.LICENSE_EXPIRING, license.id()));
+        queue.cancel(new Key(AlertType.LICENSE_EXPIRED, license.id()));
+        if (!license.active() || license.expiry() == null) {
+            return;
+        }
+        String occurrence = license.expiry().toString();
+        String expiry = license.expiry().format(DATE);
+        // Si ya ha caducado basta con el aviso de caducada
+        if (now.isBefore(license.expiry())) {
+            schedule(new PendingAlert(AlertType.LICENSE_EXPIRING, license.id(), license.teamId(), occurrence,
+                    license.expiry().minus(licenseWarning),
+                    "La licencia de " + license.name() + " caduca el " + expiry));
+        }
+        schedule(new PendingAlert(AlertType.LICENSE_EXPIRED, license.id(), license.teamId(), occurrence,
+                license.expiry(), "La licencia de " + license.name() + " ha caducado el " + expiry));
+    }
+
+    /**
+     * Con {@code replanned} la proyección viene de la replanificación completa ({@code readiness}
+     * es null si el vehículo no está en riesgo); sin ella se conserva la que hubiera en la cola.
+     */
+    private void scheduleMaintenance(VehicleRow vehicle, boolean replanned, VehicleReadiness readiness,
+                                     LocalDateTime now) {
+        Key dueKey = new Key(AlertType.MAINTENANCE_DUE, vehicle.id());
+        Key projectedKey = new Key(AlertType.MAINTENANCE_PROJECTED, vehicle.id());
+        queue.cancel(dueKey);
+        if (!vehicle.active()) {
+            queue.cancel(projectedKey);
+            return;
+        }
+        String occurrence = thresholds(vehicle.nextMaintenanceHours(), vehicle.nextMaintenanceKm());
+        if (Vehicle.isMaintenanceDue(vehicle.totalHours(), vehicle.nextMaintenanceHours(),
+                vehicle.totalKilometers(), vehicle.nextMaintenanceKm())) {
+            queue.cancel(projectedKey);
+            schedule(new PendingAlert(AlertType.MAINTENANCE_DUE, vehicle.id(), vehicle.teamId(), occurrence, now,
+                    "El vehículo " + vehicle.name() + " ha alcanzado sus horas o kilómetros de mantenimiento"));
+            return;
+        }
+        if (!replanned) {
+            PendingAlert pending = queue.get(projectedKey);
+            if (pending != null && !pending.occurrence().equals(occurrence)) {
+                queue.cancel(projectedKey);
+            }
+            return;
+        }
+        queue.cancel(projectedKey);
+        // Una planificación anterior a los umbrales actuales se descarta hasta la siguiente
+        if (readiness == null
+                || !occurrence.equals(thresholds(readiness.nextMaintenanceHours(), readiness.nextMaintenanceKm()))) {
+            return;
+        }
+        for (EventUsageProjection event : readiness.events()) {
+            if (event.issue() == null) {
+                continue;
+            }
+            LocalDateTime reachedAt = event.issue() == EventUsageProjection.Issue.DUE_DURING_EVENT
+                    && event.maintenanceDueAt() != null ? event.maintenanceDueAt() : event.startDate();
+            schedule(new PendingAlert(AlertType.MAINTENANCE_PROJECTED, vehicle.id(), vehicle.teamId(), occurrence,
+                    reachedAt.minus(maintenanceWarning),
+                    "Se estima que el vehículo " + vehicle.name() + " alcanzará su mantenimiento el "
+                            + reachedAt.format(DATE) + " en el evento " + event.eventName()));
+            return;
+        }
+    }
+
+    // Lo ya emitido no se vuelve a programar
+    private void schedule(PendingAlert alert) {
+        if (!claimed.contains(alert.occurrenceKey())) {
+            queue.schedule(alert.key(), alert.dueAt(), alert);
+        }
+    }
+
+    private boolean claim(PendingAlert alert) {
+        try {
+            jdbcTemplate.update(CLAIM_SQL, alert.type().name(), alert.entityId(), alert.teamId(), alert.occurrence(),
+                    Timestamp.valueOf(alert.dueAt()), truncate(alert.message()), leaseService.nodeId());
+        } catch (DuplicateKeyException e) {
+            // Lo ha emitido otro nodo mientras los dos tenían la concesión
+            remember(alert);
+            return false;
+        }
+        remember(alert);
+        log.warn("Aviso {} del equipo {}: {}", alert.type(), alert.teamId(), alert.message());
+        return true;
+    }
+
+    private synchronized void remember(PendingAlert alert) {
+        if (leader) {
+            claimed.add(alert.occurrenceKey());
+        }
+    }
+
+    private synchronized void stepDown() {
+        if (leader) {
+            log.info("Este nodo ({}) deja de planificar los avisos", leaseService.nodeId());
+        }
+        leader = false;
+        queue.clear();
+        claimed.clear();
+        lastRescan = null;
+        watermark = null;
+        arm();
+    }
+
+    private void releaseLease() {
+        try {
+            leaseService.release(JOB);
+        } catch (DataAccessException e) {
+            log.warn("No se ha podido soltar la concesión de avisos: {}", e.getMessage());
+        }
+    }
+
+    // Programa el temporizador para el primer vencimiento de la cola, si ha cambiado
+    private synchronized void arm() {
+        LocalDateTime next = leader ? queue.nextDue() : null;
+        if (wakeUp != null && !wakeUp.isDone() && Objects.equals(next, wakeUpAt)) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        wakeUp = null;
+        wakeUpAt = next;
+        if (next == null || timer.isShutdown()) {
+            return;
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), next).toMillis());
+        wakeUp = timer.schedule(this::wake, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Si el temporizador se adelanta a la fecha de la cola, arm() tiene que volver a programarlo:
+    // mientras se ejecuta, el wakeUp en curso aún no está terminado
+    private void wake() {
+        synchronized (this) {
+            wakeUp = null;
+            wakeUpAt = null;
+        }
+        try {
+            fireDue();
+        } catch (RuntimeException e) {
+            log.error("Error al emitir los avisos vencidos", e);
+            synchronized (this) {
+                wakeUpAt = null;
+                if (leader && !timer.isShutdown()) {
+                    wakeUp = timer.schedule(this::wake, RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    private static String thresholds(BigDecimal hours, BigDecimal kilometers) {
+        return "h=" + plain(hours) + ";km=" + plain(kilometers);
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros().toPlainString() : "-";
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private record Key(AlertType type, long entityId) {
+    }
+
+    private record Occurrence(AlertType type, long entityId, String occurrence) {
+    }
+
+    private record PendingAlert(AlertType type, long entityId, long teamId, String occurrence,
+                                LocalDateTime dueAt, String message) {
+
+        Key key() {
+            return new Key(type, entityId);
+        }
+
+        Occurrence occurrenceKey() {
+            return new Occurrence(type, entityId, occurrence);
+        }
+    }
+
+    private record LicenseRow(long id, long teamId, String name, LocalDateTime expiry, boolean active) {
+    }
+
+    private record VehicleRow(long id, long teamId, String name, BigDecimal totalHours, BigDecimal totalKilometers,
+                              BigDecimal nextMaintenanceHours, BigDecimal nextMaintenanceKm, boolean active) {
+    }
+}
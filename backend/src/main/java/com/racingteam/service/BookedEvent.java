@@ -0,0 +1,25 @@
+package com.racingteam.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+/**
+ * Vista inmutable de un evento dentro del índice de calendario: ventana temporal (también en
+ * segundos para comparar sin crear objetos) y los pilotos y vehículos que tiene reservados.
+ */
+record BookedEvent(long eventId, Long teamId, String name,
+                   LocalDateTime startDate, LocalDateTime endDate, long start, long end,
+                   Set<Long> participantIds, Set<Long> vehicleIds) {
+
+    static BookedEvent of(long eventId, Long teamId, String name, LocalDateTime startDate, LocalDateTime endDate,
+                          Set<Long> participantIds, Set<Long> vehicleIds) {
+        return new BookedEvent(eventId, teamId, name, startDate, endDate,
+                toEpochSecond(startDate), toEpochSecond(endDate),
+                Set.copyOf(participantIds), Set.copyOf(vehicleIds));
+    }
+
+    static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,26 @@
+package com.racingteam.service;
+
+import com.racingteam.model.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final ReferenceDataService referenceDataService;
+
+    public CachedUserDetailsService(ReferenceDataService referenceDataService) {
+        this.referenceDataService = referenceDataService;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) {
+        User user = referenceDataService.findUserByEmail(email);
+        if (user == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + email);
+        }
+        return user;
+    }
+}
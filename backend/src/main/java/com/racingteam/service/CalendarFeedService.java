@@ -0,0 +1,216 @@
+package com.racingteam.service;
+
+import com.racingteam.config.CacheConfig;
+import com.racingteam.dto.CalendarFeed;
+import com.racingteam.model.Event;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Feeds iCalendar por equipo y por piloto pensados para sondeo frecuente desde dispositivos.
+ *
+ * <p>La versión de un feed se obtiene de una consulta que solo lee (id, updated_at) de sus
+ * eventos, cubierta por índice. La ETag es un resumen de esa lista: cambia con cualquier alta,
+ * baja o modificación, aunque la transacción que la hizo confirme después de otra más reciente,
+ * algo que el máximo de updated_at no detecta porque PostgreSQL lo fija al inicio de la
+ * transacción. Si coincide con If-None-Match no se renderiza nada.</p>
+ *
+ * <p>Cada bloque VEVENT se guarda en caché con el updated_at con el que se generó; al
+ * renderizar solo se cargan y formatean los eventos nuevos o modificados.</p>
+ *
+ * <p>Los clientes de calendario no envían la cabecera Authorization: se suscriben a una URL con
+ * un token de calendario de larga duración. Como el token puede sobrevivir a un cambio de
+ * equipo o a la baja del usuario, cada petición comprueba contra el usuario actual que sigue
+ * teniendo acceso al feed.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class CalendarFeedService {
+
+    private static final String TEAM_VERSIONS_SQL =
+            "SELECT id, updated_at FROM events WHERE team_id = ? AND end_date >= ? ORDER BY id";
+
+    private static final String USER_VERSIONS_SQL =
+            "SELECT e.id, e.updated_at FROM event_participants p JOIN events e ON e.id = p.event_id " +
+            "WHERE p.user_id = ? AND e.end_date >= ? ORDER BY e.id";
+
+    private final EventRepository eventRepository;
+    private final ReferenceDataService referenceDataService;
+    private final JwtService jwtService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache renderedEvents;
+    private final ICalendarWriter writer;
+    private final String refreshInterval;
+    private final int historyDays;
+    private final Duration tokenValidity;
+
+    public CalendarFeedService(EventRepository eventRepository,
+                               ReferenceDataService referenceDataService,
+                               JwtService jwtService,
+                               JdbcTemplate jdbcTemplate,
+                               CacheManager cacheManager,
+                               @Value("${app.calendar.feed.refresh-interval:PT15M}") Duration refreshInterval,
+                               @Value("${app.calendar.feed.history-days:180}") int historyDays,
+                               @Value("${app.calendar.feed.uid-domain:racing-team-management}") String uidDomain,
+                               @Value("${app.calendar.feed.token-validity:365d}") Duration tokenValidity) {
+        this.eventRepository = eventRepository;
+        this.referenceDataService = referenceDataService;
+        this.jwtService = jwtService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.renderedEvents = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CALENDAR_EVENTS));
+        this.writer = new ICalendarWriter(ZoneId.systemDefault(), uidDomain);
+        this.refreshInterval = refreshInterval.toString();
+        this.historyDays = historyDays;
+        this.tokenValidity = tokenValidity;
+    }
+
+    /**
+     * Token de calendario para las URLs de suscripción del usuario.
+     */
+    public String issueFeedToken(AuthenticatedUser principal) {
+        return jwtService.issueUrlToken(principal, JwtService.PURPOSE_CALENDAR, tokenValidity);
+    }
+
+    /**
+     * Si el usuario sigue activo y, con {@code teamId}, si sigue siendo de ese equipo.
+     */
+    public boolean canSubscribe(AuthenticatedUser principal, Long teamId) {
+        User user = referenceDataService.findUserByEmail(principal.email());
+        if (user == null || !user.getId().equals(principal.userId()) || !Boolean.TRUE.equals(user.getActive())) {
+            return false;
+        }
+        return teamId == null || (user.getTeam() != null && teamId.equals(user.getTeam().getId()));
+    }
+
+    /**
+     * ETag del feed del equipo sin renderizarlo, para responder 304 a los dispositivos al día.
+     */
+    public String getTeamFeedTag(Long teamId) {
+        Team team = referenceDataService.getTeam(teamId);
+        return tag(team.getName(), teamVersions(teamId));
+    }
+
+    public CalendarFeed getTeamFeed(Long teamId) {
+        Team team = referenceDataService.getTeam(teamId);
+        return render(team.getName(), teamVersions(teamId));
+    }
+
+    public String getUserFeedTag(Long userId, String calendarName) {
+        return tag(calendarName, userVersions(userId));
+    }
+
+    public CalendarFeed getUserFeed(Long userId, String calendarName) {
+        return render(calendarName, userVersions(userId));
+    }
+
+    private List<EventVersion> teamVersions(Long teamId) {
+        return jdbcTemplate.query(TEAM_VERSIONS_SQL, EventVersion::read, teamId, historyStart());
+    }
+
+    private List<EventVersion> userVersions(Long userId) {
+        return jdbcTemplate.query(USER_VERSIONS_SQL, EventVersion::read, userId, historyStart());
+    }
+
+    // Se publican los eventos que terminaron en los últimos días configurados y todos los futuros
+    private Timestamp historyStart() {
+        return Timestamp.valueOf(LocalDate.now().minusDays(historyDays).atStartOfDay());
+    }
+
+    private CalendarFeed render(String calendarName, List<EventVersion> versions) {
+        Map<Long, String> blocks = new HashMap<>(versions.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (EventVersion version : versions) {
+            RenderedEvent cached = renderedEvents.get(version.id(), RenderedEvent.class);
+            if (cached != null && Objects.equals(cached.updatedAt(), version.updatedAt())) {
+                blocks.put(version.id(), cached.block());
+            } else {
+                missing.add(version.id());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, LocalDateTime> updatedAtById = new HashMap<>(missing.size() * 2);
+            versions.forEach(version -> updatedAtById.put(version.id(), version.updatedAt()));
+            for (Event event : eventRepository.findAllById(missing)) {
+                // Se guarda con el updated_at leído en la consulta de versiones: si el evento ha
+                // cambiado entre ambas, la próxima petición ve otra versión y lo vuelve a generar
+                LocalDateTime updatedAt = updatedAtById.get(event.getId());
+                String block = writer.vevent(event, updatedAt);
+                renderedEvents.put(event.getId(), new RenderedEvent(updatedAt, block));
+                blocks.put(event.getId(), block);
+            }
+        }
+
+        StringBuilder body = new StringBuilder(writer.header(calendarName, refreshInterval));
+        for (EventVersion version : versions) {
+            String block = blocks.get(version.id());
+            if (block != null) {
+                body.append(block);
+            }
+        }
+        body.append(writer.footer());
+        return new CalendarFeed(tag(calendarName, versions), body.toString());
+    }
+
+    private String tag(String calendarName, List<EventVersion> versions) {
+        MessageDigest digest = sha256();
+        digest.update(calendarName.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES + Integer.BYTES);
+        for (EventVersion version : versions) {
+            LocalDateTime updatedAt = version.updatedAt();
+            buffer.clear();
+            buffer.putLong(version.id());
+            buffer.putLong(updatedAt != null ? updatedAt.toEpochSecond(ZoneOffset.UTC) : 0);
+            buffer.putInt(updatedAt != null ? updatedAt.getNano() : 0);
+            digest.update(buffer.array());
+        }
+        return "\"" + versions.size() + "-" +
+                Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()).substring(0, 22) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record EventVersion(long id, LocalDateTime updatedAt) {
+
+        static EventVersion read(ResultSet rs, int rowNum) throws SQLException {
+            Timestamp updatedAt = rs.getTimestamp(2);
+            return new EventVersion(rs.getLong(1), updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        }
+    }
+
+    private record RenderedEvent(LocalDateTime updatedAt, String block) {
+    }
+}
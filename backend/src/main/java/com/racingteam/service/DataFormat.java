@@ -0,0 +1,20 @@
+package com.racingteam.service;
+
+/**
+ * Formatos de intercambio de datos para importaciones y exportaciones. Ambos se procesan fila a
+ * fila, sin construir el documento completo en memoria.
+ */
+public enum DataFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    DataFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,90 @@
+package com.racingteam.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Cola de elementos por fecha de vencimiento (montículo mínimo) con un elemento como mucho por
+ * clave. Volver a programar o cancelar una clave no busca su entrada en el montículo: la deja
+ * ahí y se descarta al llegar a la cabeza, y el montículo se reconstruye cuando las entradas
+ * descartadas superan a las vigentes.
+ *
+ * <p>No es segura entre hilos: la sincroniza quien la usa.</p>
+ */
+final class DueQueue<K, T> {
+
+    private static final int MIN_COMPACT_SIZE = 64;
+
+    private final PriorityQueue<Entry<K, T>> heap = new PriorityQueue<>(
+            Comparator.<Entry<K, T>, LocalDateTime>comparing(Entry::dueAt).thenComparingLong(Entry::sequence));
+    private final Map<K, Entry<K, T>> current = new HashMap<>();
+    private long sequence;
+
+    int size() {
+        return current.size();
+    }
+
+    T get(K key) {
+        Entry<K, T> entry = current.get(key);
+        return entry != null ? entry.item() : null;
+    }
+
+    // Sustituye lo que hubiera programado para la clave
+    void schedule(K key, LocalDateTime dueAt, T item) {
+        Entry<K, T> entry = new Entry<>(key, dueAt, item, sequence++);
+        current.put(key, entry);
+        heap.add(entry);
+        if (heap.size() > MIN_COMPACT_SIZE && heap.size() > 2 * current.size()) {
+            heap.clear();
+            heap.addAll(current.values());
+        }
+    }
+
+    void cancel(K key) {
+        current.remove(key);
+    }
+
+    void clear() {
+        current.clear();
+        heap.clear();
+    }
+
+    /**
+     * Vencimiento más próximo, o null si no queda nada programado.
+     */
+    LocalDateTime nextDue() {
+        Entry<K, T> head = head();
+        return head != null ? head.dueAt() : null;
+    }
+
+    /**
+     * Saca de la cola y devuelve, por orden de vencimiento, lo que vence en {@code now} o antes.
+     */
+    List<T> pollDue(LocalDateTime now) {
+        List<T> due = new ArrayList<>();
+        Entry<K, T> head;
+        while ((head = head()) != null && !head.dueAt().isAfter(now)) {
+            heap.poll();
+            current.remove(head.key());
+            due.add(head.item());
+        }
+        return due;
+    }
+
+    // Descarta las entradas sustituidas o canceladas que hayan llegado a la cabeza
+    private Entry<K, T> head() {
+        Entry<K, T> head;
+        while ((head = heap.peek()) != null && current.get(head.key()) != head) {
+            heap.poll();
+        }
+        return head;
+    }
+
+    private record Entry<K, T>(K key, LocalDateTime dueAt, T item, long sequence) {
+    }
+}
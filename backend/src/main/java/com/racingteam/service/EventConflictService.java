@@ -0,0 +1,269 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.DoubleBooking;
+import com.racingteam.dto.EventConflict;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.Event;
+import com.racingteam.model.EventStatus;
+import com.racingteam.model.User;
+import com.racingteam.model.Vehicle;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.projection.BookedMemberView;
+import com.racingteam.repository.projection.CalendarEventView;
+import com.racingteam.repository.projection.EventMemberView;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice de calendario en memoria por equipo para detectar pilotos y vehículos reservados en
+ * eventos que se solapan.
+ *
+ * <p>Cada equipo tiene un {@link EventIntervalTree}; las consultas de solape cuestan
+ * O(log n + k). El índice se actualiza con los cambios de {@link Event} y se reconstruye
+ * periódicamente desde la base de datos, ya que Hibernate no notifica al propietario cuando
+ * solo cambia una colección {@code @ManyToMany}. Como en {@link TeamStatsService}, los cambios
+ * que llegan mientras se reconstruye se aplican también sobre el índice nuevo antes de
+ * sustituir al anterior; cada uno reemplaza la entrada de su evento, así que repetir uno que la
+ * lectura ya incluía no altera nada.</p>
+ */
+@Service
+public class EventConflictService {
+
+    private final EventRepository eventRepository;
+
+    private volatile Index index = new Index();
+
+    // Cambios recibidos durante una reconstrucción; null si no hay ninguna en curso
+    private final Object changeLock = new Object();
+    private List<Consumer<Index>> receivedDuringRebuild;
+
+    public EventConflictService(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Eventos del mismo equipo que se solapan con {@code [startDate, endDate)} y comparten
+     * alguno de los pilotos o vehículos indicados.
+     */
+    public List<EventConflict> findConflicts(Long teamId, Long excludedEventId,
+                                             LocalDateTime startDate, LocalDateTime endDate,
+                                             Set<Long> participantIds, Set<Long> vehicleIds) {
+        List<EventConflict> conflicts = new ArrayList<>();
+        if (participantIds.isEmpty() && vehicleIds.isEmpty()) {
+            return conflicts;
+        }
+        for (BookedEvent other : index.overlapping(teamId, startDate, endDate)) {
+            if (excludedEventId != null && other.eventId() == excludedEventId) {
+                continue;
+            }
+            Set<Long> users = intersection(participantIds, other.participantIds());
+            Set<Long> vehicles = intersection(vehicleIds, other.vehicleIds());
+            if (!users.isEmpty() || !vehicles.isEmpty()) {
+                conflicts.add(new EventConflict(other.eventId(), other.name(),
+                        other.startDate(), other.endDate(), users, vehicles));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Igual que {@link #findConflicts} pero leyendo las reservas de la base de datos. El índice
+     * se actualiza al confirmar cada transacción, así que no ve las asignaciones de otra que
+     * acaba de confirmar ni de las que aún están en curso: quien asigna debe bloquear antes las
+     * filas de los pilotos y vehículos y volver a comprobar aquí.
+     */
+    public List<EventConflict> findConflictsInDatabase(Long teamId, Long excludedEventId,
+                                                       LocalDateTime startDate, LocalDateTime endDate,
+                                                       Set<Long> participantIds, Set<Long> vehicleIds) {
+        Map<Long, EventConflict> conflicts = new LinkedHashMap<>();
+        if (!participantIds.isEmpty()) {
+            for (BookedMemberView booking : eventRepository.findOverlappingParticipantBookings(
+                    teamId, excludedEventId, startDate, endDate, participantIds)) {
+                conflictFor(conflicts, booking).participantIds().add(booking.getMemberId());
+            }
+        }
+        if (!vehicleIds.isEmpty()) {
+            for (BookedMemberView booking : eventRepository.findOverlappingVehicleBookings(
+                    teamId, excludedEventId, startDate, endDate, vehicleIds)) {
+                conflictFor(conflicts, booking).vehicleIds().add(booking.getMemberId());
+            }
+        }
+        return new ArrayList<>(conflicts.values());
+    }
+
+    private static EventConflict conflictFor(Map<Long, EventConflict> conflicts, BookedMemberView booking) {
+        return conflicts.computeIfAbsent(booking.getEventId(), id -> new EventConflict(id, booking.getName(),
+                booking.getStartDate(), booking.getEndDate(), new HashSet<>(), new HashSet<>()));
+    }
+
+    /**
+     * Pares de eventos dentro de {@code [from, to)} que comparten piloto o vehículo.
+     */
+    public List<DoubleBooking> findDoubleBookings(Long teamId, LocalDateTime from, LocalDateTime to) {
+        // overlapping() devuelve los eventos ordenados por inicio, así que basta con barrer
+        // hacia delante mientras el siguiente empiece antes de que termine el actual
+        List<BookedEvent> events = index.overlapping(teamId, from, to);
+        List<DoubleBooking> bookings = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            BookedEvent first = events.get(i);
+            for (int j = i + 1; j < events.size() && events.get(j).start() < first.end(); j++) {
+                BookedEvent second = events.get(j);
+                Set<Long> users = intersection(first.participantIds(), second.participantIds());
+                Set<Long> vehicles = intersection(first.vehicleIds(), second.vehicleIds());
+                if (!users.isEmpty() || !vehicles.isEmpty()) {
+                    bookings.add(new DoubleBooking(first.eventId(), second.eventId(), users, vehicles));
+                }
+            }
+        }
+        return bookings;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent change) {
+        if (!(change.getEntity() instanceof Event event)) {
+            return;
+        }
+        Long id = event.getId();
+        Consumer<Index> apply;
+        if (change.isDeleted() || event.getStatus() == EventStatus.CANCELLED) {
+            apply = target -> target.remove(id);
+        } else {
+            // Si la colección no está cargada (null) se conservan los miembros ya indexados
+            Long teamId = event.getTeam() != null ? event.getTeam().getId() : null;
+            String name = event.getName();
+            LocalDateTime startDate = event.getStartDate();
+            LocalDateTime endDate = event.getEndDate();
+            Set<Long> participantIds = Hibernate.isInitialized(event.getParticipants())
+                    ? participantIdsOf(event.getParticipants()) : null;
+            Set<Long> vehicleIds = Hibernate.isInitialized(event.getVehicles())
+                    ? vehicleIdsOf(event.getVehicles()) : null;
+            apply = target -> target.put(id, teamId, name, startDate, endDate, participantIds, vehicleIds);
+        }
+        synchronized (changeLock) {
+            apply.accept(index);
+            if (receivedDuringRebuild != null) {
+                receivedDuringRebuild.add(apply);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.calendar.index-rebuild-interval:900000}",
+               initialDelayString = "${app.calendar.index-rebuild-interval:900000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        // Se empieza a registrar antes de leer: lo confirmado antes ya está en la lectura
+        List<Consumer<Index>> received = new ArrayList<>();
+        synchronized (changeLock) {
+            receivedDuringRebuild = received;
+        }
+        Map<Long, Set<Long>> participants = groupByEvent(eventRepository.findAllParticipantLinks());
+        Map<Long, Set<Long>> vehicles = groupByEvent(eventRepository.findAllVehicleLinks());
+
+        Index fresh = new Index();
+        for (CalendarEventView view : eventRepository.findAllCalendarViews()) {
+            fresh.put(BookedEvent.of(view.getId(), view.getTeamId(), view.getName(),
+                    view.getStartDate(), view.getEndDate(),
+                    participants.getOrDefault(view.getId(), Set.of()),
+                    vehicles.getOrDefault(view.getId(), Set.of())));
+        }
+        synchronized (changeLock) {
+            received.forEach(apply -> apply.accept(fresh));
+            receivedDuringRebuild = null;
+            index = fresh;
+        }
+    }
+
+    private static Map<Long, Set<Long>> groupByEvent(List<EventMemberView> links) {
+        Map<Long, Set<Long>> grouped = new HashMap<>();
+        for (EventMemberView link : links) {
+            grouped.computeIfAbsent(link.getEventId(), id -> new HashSet<>()).add(link.getMemberId());
+        }
+        return grouped;
+    }
+
+    private static Set<Long> intersection(Set<Long> candidates, Set<Long> booked) {
+        Set<Long> shared = new HashSet<>();
+        Set<Long> smaller = candidates.size() <= booked.size() ? candidates : booked;
+        Set<Long> larger = smaller == candidates ? booked : candidates;
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                shared.add(id);
+            }
+        }
+        return shared;
+    }
+
+    static Set<Long> participantIdsOf(Collection<User> users) {
+        Set<Long> ids = new HashSet<>();
+        users.forEach(user -> ids.add(user.getId()));
+        return ids;
+    }
+
+    static Set<Long> vehicleIdsOf(Collection<Vehicle> vehicles) {
+        Set<Long> ids = new HashSet<>();
+        vehicles.forEach(vehicle -> ids.add(vehicle.getId()));
+        return ids;
+    }
+
+    private static final class Index {
+
+        private final Map<Long, EventIntervalTree> trees = new ConcurrentHashMap<>();
+        private final Map<Long, BookedEvent> events = new HashMap<>();
+
+        // Miembros null: se conservan los ya indexados para el evento
+        synchronized void put(Long eventId, Long teamId, String name, LocalDateTime startDate,
+                              LocalDateTime endDate, Set<Long> participantIds, Set<Long> vehicleIds) {
+            BookedEvent previous = events.get(eventId);
+            put(BookedEvent.of(eventId, teamId, name, startDate, endDate,
+                    participantIds != null ? participantIds : previous != null ? previous.participantIds() : Set.of(),
+                    vehicleIds != null ? vehicleIds : previous != null ? previous.vehicleIds() : Set.of()));
+        }
+
+        synchronized void put(BookedEvent event) {
+            remove(event.eventId());
+            if (event.teamId() == null || event.startDate() == null || event.endDate() == null) {
+                return;
+            }
+            events.put(event.eventId(), event);
+            trees.computeIfAbsent(event.teamId(), id -> new EventIntervalTree()).insert(event);
+        }
+
+        synchronized void remove(Long eventId) {
+            BookedEvent previous = events.remove(eventId);
+            if (previous != null) {
+                trees.get(previous.teamId()).remove(previous);
+            }
+        }
+
+        synchronized List<BookedEvent> overlapping(Long teamId, LocalDateTime from, LocalDateTime to) {
+            List<BookedEvent> result = new ArrayList<>();
+            EventIntervalTree tree = trees.get(teamId);
+            if (tree != null) {
+                tree.forEachOverlapping(BookedEvent.toEpochSecond(from), BookedEvent.toEpochSecond(to), result::add);
+            }
+            return result;
+        }
+    }
+}
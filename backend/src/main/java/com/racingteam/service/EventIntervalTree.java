@@ -0,0 +1,169 @@
+package com.racingteam.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Árbol de intervalos (AVL aumentado con el fin máximo de cada subárbol) sobre los eventos
+ * reservados de un equipo. Las claves se ordenan por inicio y id; los intervalos son
+ * semiabiertos, de modo que dos eventos consecutivos no se solapan.
+ */
+final class EventIntervalTree {
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(BookedEvent event) {
+        root = insert(root, event);
+    }
+
+    void remove(BookedEvent event) {
+        root = remove(root, event);
+    }
+
+    /**
+     * Recorre en orden de inicio los eventos que se solapan con {@code [from, to)}, descartando
+     * los subárboles cuyo fin máximo no alcanza {@code from} o cuyo inicio ya supera {@code to}.
+     */
+    void forEachOverlapping(long from, long to, Consumer<BookedEvent> action) {
+        visit(root, from, to, action);
+    }
+
+    private static void visit(Node node, long from, long to, Consumer<BookedEvent> action) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        visit(node.left, from, to, action);
+        if (node.event.start() < to) {
+            if (node.event.end() > from) {
+                action.accept(node.event);
+            }
+            visit(node.right, from, to, action);
+        }
+    }
+
+    private Node insert(Node node, BookedEvent event) {
+        if (node == null) {
+            size++;
+            return new Node(event);
+        }
+        int cmp = compare(event, node.event);
+        if (cmp < 0) {
+            node.left = insert(node.left, event);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, event);
+        } else {
+            node.event = event;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, BookedEvent event) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(event, node.event);
+        if (cmp < 0) {
+            node.left = remove(node.left, event);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, event);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.event = successor.event;
+            node.right = removeMin(node.right);
+        }
+        return balance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(BookedEvent a, BookedEvent b) {
+        int cmp = Long.compare(a.start(), b.start());
+        return cmp != 0 ? cmp : Long.compare(a.eventId(), b.eventId());
+    }
+
+    private static Node balance(Node node) {
+        node.update();
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static final class Node {
+
+        private BookedEvent event;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private long maxEnd;
+
+        Node(BookedEvent event) {
+            this.event = event;
+            this.maxEnd = event.end();
+        }
+
+        void update() {
+            height = 1 + Math.max(height(left), height(right));
+            long max = event.end();
+            if (left != null) {
+                max = Math.max(max, left.maxEnd);
+            }
+            if (right != null) {
+                max = Math.max(max, right.maxEnd);
+            }
+            maxEnd = max;
+        }
+    }
+}
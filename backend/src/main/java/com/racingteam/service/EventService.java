@@ -0,0 +1,185 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.ConflictCheckRequest;
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.DoubleBooking;
+import com.racingteam.dto.EventConflict;
+import com.racingteam.dto.EventDetail;
+import com.racingteam.dto.EventFilter;
+import com.racingteam.dto.EventSummary;
+import com.racingteam.dto.MembershipChangeRequest;
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.exception.ResourceNotFoundException;
+import com.racingteam.exception.SchedulingConflictException;
+import com.racingteam.model.Event;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.Vehicle;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class EventService {
+
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final VehicleRepository vehicleRepository;
+    private final EventConflictService conflictService;
+    private final ApplicationEventPublisher publisher;
+
+    public EventService(EventRepository eventRepository,
+                        UserRepository userRepository,
+                        VehicleRepository vehicleRepository,
+                        EventConflictService conflictService,
+                        ApplicationEventPublisher publisher) {
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.conflictService = conflictService;
+        this.publisher = publisher;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<EventSummary> findPage(EventFilter filter, String cursor, Integer limit) {
+        KeysetCursor.DateAndId after = KeysetCursor.decodeDateAndId(cursor);
+        return KeysetCursor.page(limit, rows -> eventRepository.findSummariesAfter(filter,
+                        after != null ? after.dateTime() : null, after != null ? after.id() : null, rows),
+                event -> KeysetCursor.encodeDateAndId(event.startDate(), event.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public Long getTeamId(Long eventId) {
+        return eventRepository.findTeamIdById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", eventId));
+    }
+
+    // Evento con pilotos y vehículos en una sola consulta
+    @Transactional(readOnly = true)
+    public EventDetail getDetail(Long eventId) {
+        return EventDetail.from(getEventWithMembers(eventId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventConflict> checkConflicts(Long eventId, ConflictCheckRequest request) {
+        Event event = getEventWithMembers(eventId);
+        ConflictCheckRequest proposed = request != null ? request : new ConflictCheckRequest(null, null, null, null);
+        return conflictService.findConflicts(event.getTeam().getId(), event.getId(),
+                proposed.startDate() != null ? proposed.startDate() : event.getStartDate(),
+                proposed.endDate() != null ? proposed.endDate() : event.getEndDate(),
+                proposed.participantIds() != null
+                        ? proposed.participantIds()
+                        : EventConflictService.participantIdsOf(event.getParticipants()),
+                proposed.vehicleIds() != null
+                        ? proposed.vehicleIds()
+                        : EventConflictService.vehicleIdsOf(event.getVehicles()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DoubleBooking> findDoubleBookings(Long teamId, LocalDateTime from, LocalDateTime to) {
+        return conflictService.findDoubleBookings(teamId, from, to);
+    }
+
+    /**
+     * Añade un piloto al evento. Si ya está reservado en otro evento solapado se lanza
+     * {@link SchedulingConflictException}, salvo que se fuerce la asignación.
+     */
+    public void addParticipant(Long eventId, Long userId, boolean force) {
+        updateParticipants(eventId, new MembershipChangeRequest(Set.of(userId), null), force);
+    }
+
+    public void addVehicle(Long eventId, Long vehicleId, boolean force) {
+        updateVehicles(eventId, new MembershipChangeRequest(Set.of(vehicleId), null), force);
+    }
+
+    /**
+     * Aplica en bloque altas y bajas de pilotos. Los usuarios se cargan con una sola consulta
+     * y la comprobación de conflictos cubre todas las altas a la vez. Los usuarios de otro
+     * equipo se tratan como inexistentes.
+     *
+     * <p>Los usuarios que se añaden quedan bloqueados hasta el fin de la transacción, así que
+     * dos asignaciones simultáneas del mismo piloto se ejecutan una detrás de otra y la
+     * segunda ve la reserva de la primera.</p>
+     */
+    public void updateParticipants(Long eventId, MembershipChangeRequest change, boolean force) {
+        Event event = getEvent(eventId);
+        List<User> users = change.toAdd().isEmpty() ? List.of()
+                : loadAll(userRepository.findAllByIdForUpdate(change.toAdd()), User::getId, User::getTeam,
+                        event.getTeam().getId(), change.toAdd(), "Usuario");
+        if (!force) {
+            ensureNoConflicts(event, change.toAdd(), Set.of());
+        }
+        int changed = event.removeParticipantsById(change.toRemove()) + event.addParticipants(users);
+        if (changed > 0) {
+            membershipChanged(event);
+        }
+    }
+
+    public void updateVehicles(Long eventId, MembershipChangeRequest change, boolean force) {
+        Event event = getEvent(eventId);
+        List<Vehicle> vehicles = change.toAdd().isEmpty() ? List.of()
+                : loadAll(vehicleRepository.findAllByIdForUpdate(change.toAdd()), Vehicle::getId, Vehicle::getTeam,
+                        event.getTeam().getId(), change.toAdd(), "Vehículo");
+        if (!force) {
+            ensureNoConflicts(event, Set.of(), change.toAdd());
+        }
+        int changed = event.removeVehiclesById(change.toRemove()) + event.addVehicles(vehicles);
+        if (changed > 0) {
+            membershipChanged(event);
+        }
+    }
+
+    // Solo cuentan los miembros del equipo del evento; el id del proxy del equipo no lo inicializa
+    private static <T> List<T> loadAll(List<T> found, Function<T, Long> idOf, Function<T, Team> teamOf,
+                                       Long teamId, Set<Long> requested, String resource) {
+        Set<Long> foundIds = found.stream()
+                .filter(member -> teamOf.apply(member) != null && teamId.equals(teamOf.apply(member).getId()))
+                .map(idOf)
+                .collect(Collectors.toSet());
+        if (foundIds.size() != requested.size()) {
+            Long missing = requested.stream().filter(id -> !foundIds.contains(id)).findFirst().orElse(null);
+            throw new ResourceNotFoundException(resource, missing);
+        }
+        return found;
+    }
+
+    // El índice en memoria descarta sin ir a la base de datos los conflictos ya confirmados; la
+    // consulta posterior, con los miembros ya bloqueados, cubre los que el índice aún no ha visto
+    private void ensureNoConflicts(Event event, Set<Long> participantIds, Set<Long> vehicleIds) {
+        List<EventConflict> conflicts = conflictService.findConflicts(event.getTeam().getId(), event.getId(),
+                event.getStartDate(), event.getEndDate(), participantIds, vehicleIds);
+        if (conflicts.isEmpty()) {
+            conflicts = conflictService.findConflictsInDatabase(event.getTeam().getId(), event.getId(),
+                    event.getStartDate(), event.getEndDate(), participantIds, vehicleIds);
+        }
+        if (!conflicts.isEmpty()) {
+            throw new SchedulingConflictException(conflicts);
+        }
+    }
+
+    // Hibernate no lanza @PostUpdate cuando solo cambia una colección, así que se avisa a mano
+    private void membershipChanged(Event event) {
+        publisher.publishEvent(new EntityChangeEvent(event, ChangeType.UPDATED));
+    }
+
+    private Event getEvent(Long eventId) {
+        return eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", eventId));
+    }
+
+    private Event getEventWithMembers(Long eventId) {
+        return eventRepository.findWithMembersById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evento", eventId));
+    }
+}
@@ -0,0 +1,159 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Escribe la fila actual de un {@link ResultSet} en el formato de exportación. Las columnas se
+ * toman de los alias de la consulta, así que la misma clase sirve para cualquier exportación.
+ * No cierra el flujo de salida: eso corresponde a quien lo abrió.
+ */
+abstract class ExportRowWriter {
+
+    protected final String[] columns;
+
+    protected ExportRowWriter(ResultSetMetaData metaData) throws SQLException {
+        columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+        }
+    }
+
+    static ExportRowWriter create(DataFormat format, ResultSetMetaData metaData,
+                                  OutputStream out, JsonFactory jsonFactory) throws SQLException, IOException {
+        return switch (format) {
+            case CSV -> new Csv(metaData, out);
+            case NDJSON -> new Ndjson(metaData, out, jsonFactory);
+        };
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+    abstract void flush() throws IOException;
+
+    // Las marcas de tiempo se exportan en ISO-8601, igual que en la API JSON
+    protected static Object readValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value;
+    }
+
+    private static final class Csv extends ExportRowWriter {
+
+        private final Writer writer;
+
+        private Csv(ResultSetMetaData metaData, OutputStream out) throws SQLException {
+            super(metaData);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = readValue(rs, i + 1);
+                if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: entre comillas solo si hace falta, duplicando las comillas internas
+        private void writeField(String field) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < field.length() && !quote; i++) {
+                char c = field.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class Ndjson extends ExportRowWriter {
+
+        private final JsonGenerator generator;
+
+        private Ndjson(ResultSetMetaData metaData, OutputStream out, JsonFactory jsonFactory)
+                throws SQLException, IOException {
+            super(metaData);
+            this.generator = jsonFactory.createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeHeader() {
+            // Cada línea lleva sus propios nombres de campo
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = readValue(rs, i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long || value instanceof Integer) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.ExportFilter;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Exportación masiva del histórico de mantenimiento y de las finanzas de eventos.
+ *
+ * <p>Las filas se leen con un cursor JDBC de solo avance (fetch size configurado, dentro de una
+ * transacción de solo lectura para que PostgreSQL no materialice el resultado) y se escriben
+ * directamente en el flujo de salida. No se cargan entidades, así que la memoria usada no depende
+ * del número de filas exportadas. Los datos del vehículo y del mecánico vienen en la misma
+ * consulta, sin consultas adicionales por fila.</p>
+ */
+@Service
+public class ExportService {
+
+    private static final String MAINTENANCE_SQL =
+            "SELECT m.id AS maintenance_id, m.maintenance_date, m.maintenance_type, m.description, " +
+            "m.vehicle_hours_at_maintenance, m.vehicle_km_at_maintenance, m.cost, m.parts_replaced, " +
+            "v.id AS vehicle_id, v.name AS vehicle_name, v.vehicle_type, v.team_id, " +
+            "u.id AS performed_by_id, u.first_name || ' ' || u.last_name AS performed_by_name " +
+            "FROM maintenance_records m " +
+            "JOIN vehicles v ON v.id = m.vehicle_id " +
+            "LEFT JOIN users u ON u.id = m.performed_by_user_id";
+
+    private static final String FINANCES_SQL =
+            "SELECT e.id AS event_id, e.name AS event_name, e.event_type, e.status, e.start_date, e.end_date, " +
+            "e.team_id, e.budget_allocated, e.actual_cost, e.actual_cost - e.budget_allocated AS deviation " +
+            "FROM events e";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe los registros de mantenimiento que cumplen el filtro, ordenados por fecha.
+     * Devuelve el número de filas exportadas.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public long exportMaintenance(ExportFilter filter, DataFormat format, OutputStream out) {
+        SqlConditions conditions = new SqlConditions()
+                .add("v.team_id = ?", filter.teamId())
+                .add("m.maintenance_date >= ?", filter.from())
+                .add("m.maintenance_date < ?", filter.to());
+        return export(MAINTENANCE_SQL + conditions.where() + " ORDER BY m.maintenance_date, m.id",
+                conditions.params(), format, out);
+    }
+
+    /**
+     * Escribe presupuesto, coste real y desviación de los eventos que cumplen el filtro.
+     * Devuelve el número de filas exportadas.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public long exportFinances(ExportFilter filter, DataFormat format, OutputStream out) {
+        SqlConditions conditions = new SqlConditions()
+                .add("e.team_id = ?", filter.teamId())
+                .add("e.start_date >= ?", filter.from())
+                .add("e.start_date < ?", filter.to());
+        return export(FINANCES_SQL + conditions.where() + " ORDER BY e.start_date, e.id",
+                conditions.params(), format, out);
+    }
+
+    private long export(String sql, Object[] params, DataFormat format, OutputStream out) {
+        return readOnlyTransaction.execute(status -> jdbcTemplate.query(sql, rs -> {
+            try {
+                ExportRowWriter writer = ExportRowWriter.create(format, rs.getMetaData(), out,
+                        objectMapper.getFactory());
+                writer.writeHeader();
+                long rows = 0;
+                while (rs.next()) {
+                    writer.writeRow(rs);
+                    rows++;
+                }
+                writer.flush();
+                return rows;
+            } catch (IOException e) {
+                // Normalmente el cliente ha cortado la descarga; se aborta la consulta
+                throw new UncheckedIOException(e);
+            }
+        }, params));
+    }
+}
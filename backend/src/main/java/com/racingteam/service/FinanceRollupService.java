@@ -0,0 +1,251 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.FinanceRollupReport;
+import com.racingteam.dto.FinanceRollupReport.TeamRollup;
+import com.racingteam.dto.FinanceRollupReport.Totals;
+import com.racingteam.model.EventType;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rollups financieros de los eventos por equipo, temporada, mes y tipo de evento, leídos del
+ * agregado {@code finance_rollups}.
+ *
+ * <p>El agregado guarda presupuesto, coste real y mantenimiento imputado en céntimos, y los
+ * triggers de V12 lo actualizan con cada escritura sumando y restando enteros. Aquí los totales
+ * por tipo, por mes y de la temporada también se acumulan en céntimos con {@code long}; solo la
+ * respuesta los convierte a {@link BigDecimal} con dos decimales, así que coinciden exactamente
+ * con sumar los importes originales. El mantenimiento se imputa al último evento del vehículo
+ * que empezó antes que el mantenimiento (ver V12).</p>
+ *
+ * <p>Un job periódico compara el agregado y la imputación con un recálculo completo y reconstruye
+ * los equipos que no coincidan. Sin PostgreSQL no hay triggers: el agregado se carga al arrancar
+ * y después solo se actualiza con ese job.</p>
+ */
+@Service
+public class FinanceRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(FinanceRollupService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private static final String ROLLUP_COLUMNS =
+            "team_id, season, season_month, event_type, event_count, budget_cents, actual_cost_cents, maintenance_cents";
+
+    private static final String ATTRIBUTION_COLUMNS =
+            "event_id, vehicle_id, team_id, start_date, event_type, maintenance_cents";
+
+    // Cada vehículo, en cada evento en el que participa, cubre desde el inicio del evento hasta el
+    // inicio del siguiente; los filtros por equipo van fuera para que LEAD vea todos los eventos
+    private static final String RECOMPUTE_ATTRIBUTION_SELECT =
+            "SELECT ve.event_id, ve.vehicle_id, ve.team_id, ve.start_date, ve.event_type, " +
+            "CAST(COALESCE(SUM(m.cost), 0) * 100 AS BIGINT) AS maintenance_cents " +
+            "FROM (SELECT ev.event_id, ev.vehicle_id, e.team_id, e.start_date, e.event_type, " +
+            "LEAD(e.start_date) OVER (PARTITION BY ev.vehicle_id ORDER BY e.start_date, e.id) AS next_start " +
+            "FROM event_vehicles ev JOIN events e ON e.id = ev.event_id) ve " +
+            "LEFT JOIN maintenance_records m ON m.vehicle_id = ve.vehicle_id " +
+            "AND m.maintenance_date >= ve.start_date " +
+            "AND (ve.next_start IS NULL OR m.maintenance_date < ve.next_start) ";
+
+    private static final String RECOMPUTE_ATTRIBUTION_GROUP_BY =
+            " GROUP BY ve.event_id, ve.vehicle_id, ve.team_id, ve.start_date, ve.event_type";
+
+    private static final String RECOMPUTE_ATTRIBUTION = RECOMPUTE_ATTRIBUTION_SELECT + RECOMPUTE_ATTRIBUTION_GROUP_BY;
+
+    private static final String RECOMPUTE_ROLLUP_SELECT =
+            "SELECT team_id, CAST(EXTRACT(YEAR FROM start_date) AS INTEGER) AS season, " +
+            "CAST(EXTRACT(MONTH FROM start_date) AS INTEGER) AS season_month, event_type, " +
+            "CAST(SUM(event_count) AS INTEGER) AS event_count, CAST(SUM(budget_cents) AS BIGINT) AS budget_cents, " +
+            "CAST(SUM(actual_cost_cents) AS BIGINT) AS actual_cost_cents, " +
+            "CAST(SUM(maintenance_cents) AS BIGINT) AS maintenance_cents " +
+            "FROM (SELECT team_id, start_date, event_type, 1 AS event_count, " +
+            "CAST(COALESCE(budget_allocated, 0) * 100 AS BIGINT) AS budget_cents, " +
+            "CAST(COALESCE(actual_cost, 0) * 100 AS BIGINT) AS actual_cost_cents, " +
+            "CAST(0 AS BIGINT) AS maintenance_cents FROM events " +
+            "UNION ALL " +
+            "SELECT team_id, start_date, event_type, 0, CAST(0 AS BIGINT), CAST(0 AS BIGINT), maintenance_cents " +
+            "FROM (" + RECOMPUTE_ATTRIBUTION + ") a) contributions ";
+
+    private static final String RECOMPUTE_ROLLUP_GROUP_BY =
+            " GROUP BY team_id, CAST(EXTRACT(YEAR FROM start_date) AS INTEGER), " +
+            "CAST(EXTRACT(MONTH FROM start_date) AS INTEGER), event_type";
+
+    private static final String RECOMPUTE_ROLLUP = RECOMPUTE_ROLLUP_SELECT + RECOMPUTE_ROLLUP_GROUP_BY;
+
+    // Equipos cuyas filas del agregado o de la imputación no coinciden con el recálculo
+    private static final String STALE_TEAMS_SQL =
+            "SELECT team_id FROM (SELECT " + ROLLUP_COLUMNS + " FROM finance_rollups " +
+            "EXCEPT " + RECOMPUTE_ROLLUP + ") stale_rollups " +
+            "UNION " +
+            "SELECT team_id FROM (" + RECOMPUTE_ROLLUP + " " +
+            "EXCEPT SELECT " + ROLLUP_COLUMNS + " FROM finance_rollups) missing_rollups " +
+            "UNION " +
+            "SELECT team_id FROM (SELECT " + ATTRIBUTION_COLUMNS + " FROM event_maintenance_attribution " +
+            "EXCEPT " + RECOMPUTE_ATTRIBUTION + ") stale_attribution " +
+            "UNION " +
+            "SELECT team_id FROM (" + RECOMPUTE_ATTRIBUTION + " " +
+            "EXCEPT SELECT " + ATTRIBUTION_COLUMNS + " FROM event_maintenance_attribution) missing_attribution";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean postgres;
+
+    public FinanceRollupService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                                @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+    }
+
+    // Se invoca a través del proxy, así que la reconciliación corre en esta transacción
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        if (!postgres) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Rollup de la temporada para un equipo o, con {@code teamId} nulo, para todos los equipos
+     * con eventos en ella.
+     */
+    @Transactional(readOnly = true)
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public FinanceRollupReport getRollups(Long teamId, int season) {
+        SqlConditions conditions = new SqlConditions()
+                .add("season = ?", season)
+                .add("team_id = ?", teamId);
+        Map<Long, TeamTotals> teams = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT team_id, season_month, event_type, event_count, budget_cents, " +
+                "actual_cost_cents, maintenance_cents FROM finance_rollups" + conditions.where() +
+                " ORDER BY team_id, season_month", rs -> {
+                    teams.computeIfAbsent(rs.getLong(1), id -> new TeamTotals())
+                            .add(rs.getInt(2), EventType.valueOf(rs.getString(3)),
+                                    rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7));
+                }, conditions.params());
+
+        List<TeamRollup> rollups = new ArrayList<>(teams.size());
+        teams.forEach((id, totals) -> rollups.add(totals.toRollup(id)));
+        return new FinanceRollupReport(season, rollups);
+    }
+
+    /**
+     * Compara el agregado y la imputación con un recálculo completo desde events, event_vehicles
+     * y maintenance_records, y reconstruye los equipos que difieren. Devuelve cuántos se han
+     * corregido; cero mientras los triggers mantengan el invariante. Tras archivar temporadas
+     * corrige los equipos con eventos archivados.
+     */
+    @Scheduled(fixedDelayString = "${app.finance.reconcile-interval:3600000}",
+               initialDelayString = "${app.finance.reconcile-interval:3600000}")
+    @Transactional
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public int reconcile() {
+        List<Long> stale = jdbcTemplate.queryForList(STALE_TEAMS_SQL, Long.class);
+        for (int from = 0; from < stale.size(); from += REBUILD_BATCH_SIZE) {
+            rebuild(stale.subList(from, Math.min(from + REBUILD_BATCH_SIZE, stale.size())));
+        }
+        if (!stale.isEmpty()) {
+            log.warn("Rollup financiero corregido para {} equipos", stale.size());
+        }
+        return stale.size();
+    }
+
+    private void rebuild(List<Long> teamIds) {
+        Map<String, Object> params = Map.of("ids", teamIds);
+        // Bloquea los equipos y sus vehículos para que ningún evento ni mantenimiento nuevo se
+        // cuele entre el borrado y la inserción
+        namedJdbcTemplate.queryForList(
+                "SELECT id FROM teams WHERE id IN (:ids) ORDER BY id FOR UPDATE", params, Long.class);
+        namedJdbcTemplate.queryForList(
+                "SELECT id FROM vehicles WHERE team_id IN (:ids) ORDER BY id FOR UPDATE", params, Long.class);
+        namedJdbcTemplate.update("DELETE FROM finance_rollups WHERE team_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM event_maintenance_attribution WHERE team_id IN (:ids)", params);
+        namedJdbcTemplate.update("INSERT INTO event_maintenance_attribution (" + ATTRIBUTION_COLUMNS + ") " +
+                RECOMPUTE_ATTRIBUTION_SELECT + "WHERE ve.team_id IN (:ids)" + RECOMPUTE_ATTRIBUTION_GROUP_BY, params);
+        namedJdbcTemplate.update("INSERT INTO finance_rollups (" + ROLLUP_COLUMNS + ") " +
+                RECOMPUTE_ROLLUP_SELECT + "WHERE team_id IN (:ids)" + RECOMPUTE_ROLLUP_GROUP_BY, params);
+    }
+
+    /**
+     * Acumuladores en céntimos de un equipo. Las filas del agregado son como mucho doce meses
+     * por catorce tipos, así que los totales se calculan al leer.
+     */
+    private static final class TeamTotals {
+
+        private final Accumulator total = new Accumulator(null, null);
+        private final Map<EventType, Accumulator> byEventType = new EnumMap<>(EventType.class);
+        private final Map<Integer, Accumulator> byMonth = new TreeMap<>();
+        private final Map<Integer, Map<EventType, Accumulator>> byMonthAndEventType = new TreeMap<>();
+
+        void add(int month, EventType eventType, long events, long budget, long actual, long maintenance) {
+            total.add(events, budget, actual, maintenance);
+            byEventType.computeIfAbsent(eventType, type -> new Accumulator(null, type))
+                    .add(events, budget, actual, maintenance);
+            byMonth.computeIfAbsent(month, m -> new Accumulator(m, null))
+                    .add(events, budget, actual, maintenance);
+            byMonthAndEventType.computeIfAbsent(month, m -> new EnumMap<>(EventType.class))
+                    .computeIfAbsent(eventType, type -> new Accumulator(month, type))
+                    .add(events, budget, actual, maintenance);
+        }
+
+        TeamRollup toRollup(Long teamId) {
+            List<Totals> detail = new ArrayList<>();
+            byMonthAndEventType.values().forEach(types -> types.values().forEach(cell -> detail.add(cell.toTotals())));
+            return new TeamRollup(teamId, total.toTotals(),
+                    byEventType.values().stream().map(Accumulator::toTotals).toList(),
+                    byMonth.values().stream().map(Accumulator::toTotals).toList(),
+                    detail);
+        }
+    }
+
+    private static final class Accumulator {
+
+        private final Integer month;
+        private final EventType eventType;
+        private long eventCount;
+        private long budgetCents;
+        private long actualCostCents;
+        private long maintenanceCents;
+
+        Accumulator(Integer month, EventType eventType) {
+            this.month = month;
+            this.eventType = eventType;
+        }
+
+        void add(long events, long budget, long actual, long maintenance) {
+            eventCount += events;
+            budgetCents += budget;
+            actualCostCents += actual;
+            maintenanceCents += maintenance;
+        }
+
+        Totals toTotals() {
+            long totalCents = actualCostCents + maintenanceCents;
+            return new Totals(month, eventType, eventCount, toAmount(budgetCents), toAmount(actualCostCents),
+                    toAmount(maintenanceCents), toAmount(totalCents), toAmount(totalCents - budgetCents));
+        }
+
+        private static BigDecimal toAmount(long cents) {
+            return BigDecimal.valueOf(cents, 2);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.VehicleReadiness;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.exception.ResourceNotFoundException;
+import com.racingteam.model.Event;
+import com.racingteam.model.EventType;
+import com.racingteam.model.MaintenanceRecord;
+import com.racingteam.model.Team;
+import com.racingteam.model.Vehicle;
+import com.racingteam.service.ReadinessProjector.Assignment;
+import com.racingteam.service.ReadinessProjector.PlannedVehicle;
+import com.racingteam.service.ReadinessProjector.Planned;
+import com.racingteam.service.ReadinessProjector.Rates;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Planificación de disponibilidad de la flota: qué vehículos alcanzarán sus horas o kilómetros
+ * de mantenimiento durante los próximos eventos en pista ({@link EventType#isOnTrack()}) a los
+ * que están asignados.
+ *
+ * <p>La planificación de un equipo se carga con tres consultas (vehículos, asignaciones a
+ * eventos y primera lectura de mantenimiento de cada vehículo dentro del histórico) y se
+ * calcula en paralelo por vehículo en un {@link ForkJoinPool} propio. Se guarda en memoria y,
+ * cuando cambia un vehículo o un evento, solo se recalculan los vehículos afectados al pedirla
+ * la próxima vez. Un replanificado periódico completo recoge lo que no genera cambios de
+ * entidad: el paso del tiempo, el uso registrado por lotes y los cambios en las asignaciones
+ * de un evento.</p>
+ *
+ * <p>Cada equipo se planifica bajo su propio cerrojo: las cargas de un equipo no esperan a las de
+ * otro y dos peticiones del mismo equipo no recalculan lo mismo a la vez.</p>
+ */
+@Service
+public class FleetReadinessService {
+
+    private static final String ON_TRACK_TYPES = Arrays.stream(EventType.values())
+            .filter(EventType::isOnTrack)
+            .map(type -> "'" + type.name() + "'")
+            .reduce((a, b) -> a + ", " + b)
+            .orElseThrow();
+
+    private static final String VEHICLES_SQL =
+            "SELECT v.id, v.name, v.team_id, v.total_hours, v.total_kilometers, " +
+            "v.next_maintenance_hours, v.next_maintenance_km FROM vehicles v WHERE v.active = TRUE AND ";
+
+    // Ordenadas por inicio, así la lista de cada vehículo queda ya ordenada
+    private static final String ASSIGNMENTS_SQL =
+            "SELECT ev.vehicle_id, e.id, e.name, e.event_type, e.start_date, e.end_date " +
+            "FROM events e JOIN event_vehicles ev ON ev.event_id = e.id " +
+            "WHERE e.event_type IN (" + ON_TRACK_TYPES + ") AND e.status <> 'CANCELLED' " +
+            "AND e.end_date > :historyStart AND e.start_date < :horizonEnd AND ";
+
+    // Los contadores solo crecen, así que la lectura mínima es la más antigua
+    private static final String READINGS_SQL =
+            "SELECT m.vehicle_id, " +
+            "MIN(CASE WHEN m.vehicle_hours_at_maintenance IS NOT NULL THEN m.maintenance_date END), " +
+            "MIN(m.vehicle_hours_at_maintenance), " +
+            "MIN(CASE WHEN m.vehicle_km_at_maintenance IS NOT NULL THEN m.maintenance_date END), " +
+            "MIN(m.vehicle_km_at_maintenance) " +
+            "FROM maintenance_records m JOIN vehicles v ON v.id = m.vehicle_id " +
+            "WHERE m.maintenance_date >= :historyStart AND ";
+
+    private final ReferenceDataService referenceDataService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final Duration history;
+    private final Duration horizon;
+    private final double defaultHoursPerEventHour;
+    private final double defaultKmPerEventHour;
+
+    private final Map<Long, TeamPlan> plans = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> staleVehicles = new ConcurrentHashMap<>();
+    // ReentrantLock y no synchronized: con hilos virtuales, esperar un monitor durante las
+    // consultas fijaría el hilo portador
+    private final Map<Long, ReentrantLock> teamLocks = new ConcurrentHashMap<>();
+
+    public FleetReadinessService(ReferenceDataService referenceDataService,
+                                 NamedParameterJdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.fleet-readiness.parallelism:0}") int parallelism,
+                                 @Value("${app.fleet-readiness.history:365d}") Duration history,
+                                 @Value("${app.fleet-readiness.horizon:365d}") Duration horizon,
+                                 @Value("${app.fleet-readiness.default-hours-per-event-hour:0.5}") double defaultHoursPerEventHour,
+                                 @Value("${app.fleet-readiness.default-km-per-event-hour:80}") double defaultKmPerEventHour) {
+        this.referenceDataService = referenceDataService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("readiness-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+        this.history = history;
+        this.horizon = horizon;
+        this.defaultHoursPerEventHour = defaultHoursPerEventHour;
+        this.defaultKmPerEventHour = defaultKmPerEventHour;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Vehículos activos del equipo con su proyección, ordenados por nombre. Con
+     * {@code atRiskOnly} solo los que tienen algún problema de mantenimiento.
+     */
+    public List<VehicleReadiness> getTeamReadiness(Long teamId, boolean atRiskOnly) {
+        referenceDataService.getTeam(teamId);
+        return byName(currentPlan(teamId), atRiskOnly);
+    }
+
+    public VehicleReadiness getVehicleReadiness(Long vehicleId) {
+        Vehicle vehicle = referenceDataService.getVehicle(vehicleId);
+        VehicleReadiness readiness = currentPlan(teamIdOf(vehicle.getTeam())).vehicles().get(vehicleId);
+        if (readiness == null) {
+            // Vehículo inactivo: no se planifica
+            throw new ResourceNotFoundException("Vehículo", vehicleId);
+        }
+        return readiness;
+    }
+
+    /**
+     * Vuelve a planificar todos los vehículos del equipo y descarta los cambios pendientes.
+     * Devuelve los vehículos ordenados por nombre.
+     */
+    public List<VehicleReadiness> replan(Long teamId) {
+        ReentrantLock lock = lockFor(teamId);
+        lock.lock();
+        try {
+            return byName(replanTeam(teamId), false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<VehicleReadiness> byName(TeamPlan plan, boolean atRiskOnly) {
+        return plan.vehicles().values().stream()
+                .filter(vehicle -> !atRiskOnly || vehicle.atRisk())
+                .sorted(Comparator.comparing(VehicleReadiness::name).thenComparing(VehicleReadiness::vehicleId))
+                .toList();
+    }
+
+    private TeamPlan replanTeam(Long teamId) {
+        staleVehicles.remove(teamId);
+        LocalDateTime now = LocalDateTime.now();
+        List<PlannedVehicle> vehicles = load(now, "v.team_id = :teamId", "e.team_id = :teamId",
+                new MapSqlParameterSource("teamId", teamId));
+        Planned planned = ReadinessProjector.plan(pool, vehicles, null,
+                defaultHoursPerEventHour, defaultKmPerEventHour, now);
+        Map<Long, VehicleReadiness> byId = new HashMap<>();
+        planned.vehicles().forEach(vehicle -> byId.put(vehicle.vehicleId(), vehicle));
+        TeamPlan plan = new TeamPlan(Map.copyOf(byId), planned.fallback());
+        plans.put(teamId, plan);
+        return plan;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent change) {
+        if (change.getEntity() instanceof Vehicle vehicle) {
+            // Si ha cambiado de equipo también sale de la planificación del anterior
+            plans.forEach((teamId, plan) -> {
+                if (plan.vehicles().containsKey(vehicle.getId())) {
+                    markStale(teamId, Set.of(vehicle.getId()));
+                }
+            });
+            markStale(teamIdOf(vehicle.getTeam()), Set.of(vehicle.getId()));
+        } else if (change.getEntity() instanceof MaintenanceRecord record && record.getVehicle() != null) {
+            // Un mantenimiento nuevo cambia la primera lectura del histórico y con ella el ritmo de uso
+            Long vehicleId = record.getVehicle().getId();
+            plans.forEach((teamId, plan) -> {
+                if (plan.vehicles().containsKey(vehicleId)) {
+                    markStale(teamId, Set.of(vehicleId));
+                }
+            });
+        } else if (change.getEntity() instanceof Event event) {
+            Long teamId = teamIdOf(event.getTeam());
+            TeamPlan plan = teamId != null ? plans.get(teamId) : null;
+            if (plan == null) {
+                return;
+            }
+            Set<Long> affected = new HashSet<>();
+            plan.vehicles().values().forEach(vehicle -> {
+                if (vehicle.events().stream().anyMatch(projected -> projected.eventId().equals(event.getId()))) {
+                    affected.add(vehicle.vehicleId());
+                }
+            });
+            // Si la colección no está cargada, las asignaciones nuevas llegan con el replanificado
+            if (Hibernate.isInitialized(event.getVehicles())) {
+                event.getVehicles().forEach(vehicle -> affected.add(vehicle.getId()));
+            }
+            markStale(teamId, affected);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.fleet-readiness.replan-interval:900000}",
+               initialDelayString = "${app.fleet-readiness.replan-interval:900000}")
+    public void invalidateAll() {
+        plans.clear();
+        staleVehicles.clear();
+    }
+
+    private TeamPlan currentPlan(Long teamId) {
+        TeamPlan plan = plans.get(teamId);
+        Set<Long> stale = staleVehicles.get(teamId);
+        if (plan != null && (stale == null || stale.isEmpty())) {
+            return plan;
+        }
+        ReentrantLock lock = lockFor(teamId);
+        lock.lock();
+        try {
+            // Se devuelve el plan recién calculado: invalidateAll() puede vaciar el mapa sin el cerrojo
+            plan = plans.get(teamId);
+            return plan == null ? replanTeam(teamId) : replanVehicles(teamId, plan);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long teamId) {
+        return teamLocks.computeIfAbsent(teamId, id -> new ReentrantLock());
+    }
+
+    // Solo los vehículos marcados; la media del equipo se conserva de la última planificación completa
+    private TeamPlan replanVehicles(Long teamId, TeamPlan plan) {
+        Set<Long> stale = staleVehicles.get(teamId);
+        if (stale == null || stale.isEmpty()) {
+            return plan;
+        }
+        Set<Long> ids = new HashSet<>(stale);
+        // Los que se marquen mientras se recalcula quedan para la próxima vez
+        stale.removeAll(ids);
+        LocalDateTime now = LocalDateTime.now();
+        List<PlannedVehicle> vehicles = load(now, "v.id IN (:ids)", "ev.vehicle_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+        Planned planned = ReadinessProjector.plan(pool, vehicles, plan.fallback(),
+                defaultHoursPerEventHour, defaultKmPerEventHour, now);
+        Map<Long, VehicleReadiness> byId = new HashMap<>(plan.vehicles());
+        byId.keySet().removeAll(ids);
+        planned.vehicles().forEach(vehicle -> {
+            if (teamId.equals(vehicle.teamId())) {
+                byId.put(vehicle.vehicleId(), vehicle);
+            }
+        });
+        TeamPlan replanned = new TeamPlan(Map.copyOf(byId), plan.fallback());
+        plans.put(teamId, replanned);
+        return replanned;
+    }
+
+    private void markStale(Long teamId, Collection<Long> vehicleIds) {
+        if (teamId == null || vehicleIds.isEmpty() || !plans.containsKey(teamId)) {
+            return;
+        }
+        staleVehicles.computeIfAbsent(teamId, id -> ConcurrentHashMap.newKeySet()).addAll(vehicleIds);
+    }
+
+    private List<PlannedVehicle> load(LocalDateTime now, String vehicleCondition, String assignmentCondition,
+                                      MapSqlParameterSource params) {
+        params.addValue("historyStart", now.minus(history))
+              .addValue("horizonEnd", now.plus(horizon));
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, PlannedVehicle> vehicles = new LinkedHashMap<>();
+            jdbcTemplate.query(VEHICLES_SQL + vehicleCondition, params, rs -> {
+                long id = rs.getLong(1);
+                vehicles.put(id, new PlannedVehicle(id, rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getBigDecimal(5), rs.getBigDecimal(6), rs.getBigDecimal(7)));
+            });
+            if (vehicles.isEmpty()) {
+                return List.of();
+            }
+            jdbcTemplate.query(ASSIGNMENTS_SQL + assignmentCondition + " ORDER BY e.start_date, e.id", params, rs -> {
+                PlannedVehicle vehicle = vehicles.get(rs.getLong(1));
+                if (vehicle == null) {
+                    return;
+                }
+                Assignment assignment = Assignment.of(rs.getLong(2), rs.getString(3),
+                        EventType.valueOf(rs.getString(4)), rs.getObject(5, LocalDateTime.class),
+                        rs.getObject(6, LocalDateTime.class));
+                (assignment.endDate().isAfter(now) ? vehicle.upcoming : vehicle.past).add(assignment);
+                // Un evento en curso también cuenta como histórico hasta ahora
+                if (assignment.startDate().isBefore(now) && assignment.endDate().isAfter(now)) {
+                    vehicle.past.add(assignment);
+                }
+            });
+            jdbcTemplate.query(READINGS_SQL + vehicleCondition + " GROUP BY m.vehicle_id", params, rs -> {
+                PlannedVehicle vehicle = vehicles.get(rs.getLong(1));
+                if (vehicle != null) {
+                    vehicle.firstHoursReadingDate = rs.getObject(2, LocalDateTime.class);
+                    vehicle.firstHoursReading = rs.getBigDecimal(3);
+                    vehicle.firstKmReadingDate = rs.getObject(4, LocalDateTime.class);
+                    vehicle.firstKmReading = rs.getBigDecimal(5);
+                }
+            });
+            return new ArrayList<>(vehicles.values());
+        });
+    }
+
+    private static Long teamIdOf(Team team) {
+        return team != null ? team.getId() : null;
+    }
+
+    private record TeamPlan(Map<Long, VehicleReadiness> vehicles, Rates fallback) {
+    }
+}
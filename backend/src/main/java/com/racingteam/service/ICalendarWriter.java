@@ -0,0 +1,130 @@
+package com.racingteam.service;
+
+import com.racingteam.model.Event;
+import com.racingteam.model.EventStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.StringJoiner;
+
+/**
+ * Formato iCalendar (RFC 5545) de los eventos. Las fechas se guardan como hora local del
+ * servidor y se publican en UTC, así el feed no necesita definiciones VTIMEZONE.
+ */
+final class ICalendarWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final ZoneId zone;
+    private final String uidDomain;
+
+    ICalendarWriter(ZoneId zone, String uidDomain) {
+        this.zone = zone;
+        this.uidDomain = uidDomain;
+    }
+
+    String header(String calendarName, String refreshInterval) {
+        StringBuilder out = new StringBuilder(256);
+        line(out, "BEGIN:VCALENDAR");
+        line(out, "VERSION:2.0");
+        line(out, "PRODID:-//Racing Team Management//Calendario//ES");
+        line(out, "CALSCALE:GREGORIAN");
+        line(out, "METHOD:PUBLISH");
+        line(out, "X-WR-CALNAME:" + escape(calendarName));
+        line(out, "REFRESH-INTERVAL;VALUE=DURATION:" + refreshInterval);
+        line(out, "X-PUBLISHED-TTL:" + refreshInterval);
+        return out.toString();
+    }
+
+    String footer() {
+        return "END:VCALENDAR" + CRLF;
+    }
+
+    /**
+     * Bloque VEVENT completo. DTSTAMP es la última modificación, de modo que el bloque solo
+     * depende del evento y se puede reutilizar mientras no cambie updated_at.
+     */
+    String vevent(Event event, LocalDateTime updatedAt) {
+        StringBuilder out = new StringBuilder(512);
+        line(out, "BEGIN:VEVENT");
+        line(out, "UID:event-" + event.getId() + "@" + uidDomain);
+        line(out, "DTSTAMP:" + utc(updatedAt != null ? updatedAt : event.getCreatedAt()));
+        if (updatedAt != null) {
+            line(out, "LAST-MODIFIED:" + utc(updatedAt));
+        }
+        line(out, "DTSTART:" + utc(event.getStartDate()));
+        line(out, "DTEND:" + utc(event.getEndDate()));
+        line(out, "SUMMARY:" + escape(event.getName()));
+        if (event.getDescription() != null && !event.getDescription().isBlank()) {
+            line(out, "DESCRIPTION:" + escape(event.getDescription()));
+        }
+        String location = location(event);
+        if (!location.isEmpty()) {
+            line(out, "LOCATION:" + escape(location));
+        }
+        line(out, "CATEGORIES:" + escape(event.getEventType().getDisplayName()));
+        line(out, "STATUS:" + status(event.getStatus()));
+        line(out, "END:VEVENT");
+        return out.toString();
+    }
+
+    // Los eventos cancelados se publican como CANCELLED para que los dispositivos los retiren
+    private static String status(EventStatus status) {
+        return switch (status) {
+            case CANCELLED -> "CANCELLED";
+            case PLANNED, POSTPONED -> "TENTATIVE";
+            default -> "CONFIRMED";
+        };
+    }
+
+    private static String location(Event event) {
+        StringJoiner location = new StringJoiner(", ");
+        for (String part : new String[]{event.getCircuitName(), event.getLocation(), event.getAddress()}) {
+            if (part != null && !part.isBlank()) {
+                location.add(part);
+            }
+        }
+        return location.toString();
+    }
+
+    private String utc(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT);
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ';' -> escaped.append("\\;");
+                case ',' -> escaped.append("\\,");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Las líneas de más de 75 octetos se pliegan con CRLF y un espacio, sin partir caracteres
+    private static void line(StringBuilder out, String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.append(CRLF).append(' ');
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.append(CRLF);
+    }
+}
@@ -0,0 +1,195 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee filas de una importación de una en una, sin cargar la entrada completa. Cada fila se
+ * devuelve como un mapa campo → valor; una fila mal formada se devuelve con su error para que
+ * se informe junto con las demás en lugar de abortar la importación.
+ */
+abstract class ImportRowReader {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    protected final BufferedReader reader;
+
+    protected ImportRowReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    static ImportRowReader create(DataFormat format, InputStream in, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new Csv(in);
+            case NDJSON -> new Ndjson(in, objectMapper);
+        };
+    }
+
+    /**
+     * Siguiente fila, o {@code null} al final de la entrada.
+     */
+    abstract RawRow next() throws IOException;
+
+    // Línea en la que empieza la última fila leída o intentada
+    abstract long line();
+
+    record RawRow(long line, Map<String, Object> values, String error) {
+
+        static RawRow invalid(long line, String error) {
+            return new RawRow(line, null, error);
+        }
+    }
+
+    // RFC 4180: la primera fila son los nombres de campo y los valores entre comillas pueden
+    // contener comas, comillas dobladas y saltos de línea. Un campo vacío se lee como null.
+    private static final class Csv extends ImportRowReader {
+
+        private String[] header;
+        private long line = 1;
+        private long recordStart = 1;
+
+        private Csv(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        RawRow next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = names.stream().map(String::strip).toArray(String[]::new);
+            }
+            long start = line;
+            List<String> fields = readRecord();
+            while (fields != null && fields.size() == 1 && fields.get(0) == null) {
+                // Línea en blanco
+                start = line;
+                fields = readRecord();
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != header.length) {
+                return RawRow.invalid(start, "Se esperaban " + header.length + " columnas y hay " + fields.size());
+            }
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                values.put(header[i], fields.get(i));
+            }
+            return new RawRow(start, values, null);
+        }
+
+        @Override
+        long line() {
+            return recordStart;
+        }
+
+        private List<String> readRecord() throws IOException {
+            recordStart = line;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Comillas sin cerrar en el registro de la línea " + recordStart);
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    fields.add(toValue(field, wasQuoted));
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(toValue(field, wasQuoted));
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+
+        private static String toValue(StringBuilder field, boolean wasQuoted) {
+            return field.isEmpty() && !wasQuoted ? null : field.toString();
+        }
+    }
+
+    // Un objeto JSON por línea; las líneas vacías se ignoran
+    private static final class Ndjson extends ImportRowReader {
+
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        private Ndjson(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        RawRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                Map<String, Object> values = objectMapper.readValue(text, JSON_OBJECT);
+                return values != null ? new RawRow(line, values, null) : RawRow.invalid(line, "Se esperaba un objeto JSON");
+            } catch (JsonProcessingException e) {
+                return RawRow.invalid(line, "JSON no válido: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        long line() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.ImportReport;
+import com.racingteam.dto.ImportRowError;
+import com.racingteam.dto.MaintenanceImportRow;
+import com.racingteam.dto.VehicleImportRow;
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.MaintenanceRecord;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.Vehicle;
+import com.racingteam.service.ImportRowReader.RawRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Importación masiva de vehículos y registros de mantenimiento desde CSV o NDJSON.
+ *
+ * <p>La entrada se lee en bloques. Cada bloque se valida en un hilo del pool de importación con
+ * las mismas restricciones Jakarta de las entidades, comprobando además con una sola consulta que
+ * existen los equipos, vehículos o usuarios a los que hace referencia. Las filas válidas se
+ * insertan con un {@code batchUpdate} JDBC por bloque, en el orden de la entrada. Hibernate
+ * también agruparía los INSERT (secuencias pooled-lo, lotes de {@code jdbc.batch_size}), pero
+ * mantendría cada fila como entidad gestionada y pasaría por sus listeners; aquí cada fila es un
+ * lote de parámetros. Los ids se reservan como en pooled-lo, un {@code nextval} por cada
+ * {@value #ID_BLOCK} filas, y van explícitos en el INSERT. Las filas con errores se descartan y
+ * se informan sin abortar la importación.</p>
+ *
+ * <p>Solo se importa en el equipo de quien llama: las filas de otro equipo, o que hacen referencia
+ * a vehículos o usuarios de otro equipo, se rechazan como cualquier otro error de fila.</p>
+ *
+ * <p>Como los INSERT no pasan por JPA, por cada fila insertada se publica el mismo
+ * {@link EntityChangeEvent} que publicaría Hibernate, dentro de la transacción del bloque, para
+ * que el estado derivado (estadísticas, cachés, planificación) se actualice al confirmarla.</p>
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    // Como el allocationSize de las entidades y el INCREMENT BY de las secuencias (V4)
+    private static final int ID_BLOCK = 50;
+
+    private static final String INSERT_VEHICLE_SQL =
+            "INSERT INTO vehicles (id, name, vehicle_type, chassis_number, engine_number, registration_number, " +
+            "manufacturer, model, year_manufactured, total_hours, total_kilometers, next_maintenance_hours, " +
+            "next_maintenance_km, status, notes, active, team_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MAINTENANCE_SQL =
+            "INSERT INTO maintenance_records (id, maintenance_date, description, maintenance_type, " +
+            "vehicle_hours_at_maintenance, vehicle_km_at_maintenance, cost, parts_replaced, " +
+            "next_maintenance_hours, next_maintenance_km, notes, vehicle_id, performed_by_user_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher publisher;
+    private final SequenceSupport sequenceSupport;
+    private final ExecutorService workers;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxReportedErrors;
+
+    private final ImportTarget<VehicleImportRow, Vehicle> vehicleTarget = new ImportTarget<>(
+            VehicleImportRow.class,
+            ImportService::toVehicle,
+            List.of(new Reference<>("teams", "id", VehicleImportRow::teamId,
+                    "El equipo es obligatorio", "El equipo no existe", "El equipo no es el tuyo")),
+            "vehicles_id_seq",
+            INSERT_VEHICLE_SQL,
+            ImportService::bindVehicle,
+            Vehicle::getId,
+            Vehicle::setId);
+
+    private final ImportTarget<MaintenanceImportRow, MaintenanceRecord> maintenanceTarget = new ImportTarget<>(
+            MaintenanceImportRow.class,
+            ImportService::toMaintenanceRecord,
+            List.of(new Reference<>("vehicles", "team_id", MaintenanceImportRow::vehicleId,
+                            "El vehículo es obligatorio", "El vehículo no existe",
+                            "El vehículo es de otro equipo"),
+                    new Reference<>("users", "team_id", MaintenanceImportRow::performedByUserId,
+                            null, "El usuario que realizó el mantenimiento no existe",
+                            "El usuario que realizó el mantenimiento es de otro equipo")),
+            "maintenance_records_id_seq",
+            INSERT_MAINTENANCE_SQL,
+            ImportService::bindMaintenanceRecord,
+            MaintenanceRecord::getId,
+            MaintenanceRecord::setId);
+
+    public ImportService(JdbcTemplate jdbcTemplate,
+                         NamedParameterJdbcTemplate namedJdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         ApplicationEventPublisher publisher,
+                         EntityManagerFactory entityManagerFactory,
+                         @Value("${app.import.chunk-size:500}") int chunkSize,
+                         @Value("${app.import.workers:0}") int workers,
+                         @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.publisher = publisher;
+        // La sintaxis de nextval de la base de datos, la misma que usa Hibernate
+        this.sequenceSupport = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport();
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("import-"));
+        // Limita los bloques leídos pero aún sin insertar, y con ello la memoria de una importación
+        this.maxChunksInFlight = threads * 2;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Importa vehículos en el equipo {@code teamId}.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public ImportReport importVehicles(InputStream in, DataFormat format, Long teamId) {
+        return run(ImportRowReader.create(format, in, objectMapper), vehicleTarget, teamId);
+    }
+
+    /**
+     * Importa registros de mantenimiento de vehículos del equipo {@code teamId}.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public ImportReport importMaintenanceRecords(InputStream in, DataFormat format, Long teamId) {
+        return run(ImportRowReader.create(format, in, objectMapper), maintenanceTarget, teamId);
+    }
+
+    private <R, E> ImportReport run(ImportRowReader reader, ImportTarget<R, E> target, Long teamId) {
+        ReportBuilder report = new ReportBuilder(maxReportedErrors);
+        Deque<Future<ValidatedChunk<E>>> inFlight = new ArrayDeque<>();
+        ImportRowError readFailure = null;
+        try {
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            try {
+                RawRow row;
+                while ((row = reader.next()) != null) {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        if (inFlight.size() == maxChunksInFlight) {
+                            write(await(inFlight.poll()), target, report);
+                        }
+                        List<RawRow> rows = chunk;
+                        inFlight.add(workers.submit(() -> validate(rows, target, teamId)));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            } catch (IOException e) {
+                // Entrada cortada o mal formada: se guarda lo leído hasta aquí y se informa al final
+                readFailure = new ImportRowError(reader.line(), List.of("No se pudo leer la entrada: " + e.getMessage()));
+            }
+            if (!chunk.isEmpty()) {
+                List<RawRow> rows = chunk;
+                inFlight.add(workers.submit(() -> validate(rows, target, teamId)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.poll()), target, report);
+            }
+            if (readFailure != null) {
+                report.error(readFailure.line(), readFailure.messages());
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return report.build();
+    }
+
+    private <R, E> ValidatedChunk<E> validate(List<RawRow> rows, ImportTarget<R, E> target, Long teamId) {
+        List<Candidate<R, E>> candidates = new ArrayList<>(rows.size());
+        List<ImportRowError> errors = new ArrayList<>();
+        for (RawRow row : rows) {
+            if (row.error() != null) {
+                errors.add(new ImportRowError(row.line(), List.of(row.error())));
+                continue;
+            }
+            R parsed;
+            try {
+                parsed = objectMapper.convertValue(row.values(), target.rowType());
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowError(row.line(), List.of(conversionError(e))));
+                continue;
+            }
+            E entity = target.toEntity().apply(parsed);
+            List<String> messages = new ArrayList<>();
+            for (ConstraintViolation<E> violation : validator.validate(entity)) {
+                messages.add(violation.getMessage());
+            }
+            for (Reference<R> reference : target.references()) {
+                if (reference.requiredMessage() != null && reference.id().apply(parsed) == null) {
+                    messages.add(reference.requiredMessage());
+                }
+            }
+            candidates.add(new Candidate<>(row.line(), parsed, entity, messages));
+        }
+
+        for (Reference<R> reference : target.references()) {
+            checkReference(reference, candidates, teamId);
+        }
+
+        List<Candidate<R, E>> valid = new ArrayList<>(candidates.size());
+        for (Candidate<R, E> candidate : candidates) {
+            if (candidate.messages().isEmpty()) {
+                valid.add(candidate);
+            } else {
+                errors.add(new ImportRowError(candidate.line(), candidate.messages()));
+            }
+        }
+        errors.sort(Comparator.comparingLong(ImportRowError::line));
+        return new ValidatedChunk<>(rows.size(), valid.stream().map(Candidate::entity).toList(),
+                valid.stream().map(Candidate::line).toList(), errors);
+    }
+
+    // Una sola consulta por bloque y referencia, en lugar de una por fila
+    private <R, E> void checkReference(Reference<R> reference, List<Candidate<R, E>> candidates, Long teamId) {
+        Set<Long> ids = new HashSet<>();
+        for (Candidate<R, E> candidate : candidates) {
+            Long id = reference.id().apply(candidate.row());
+            if (id != null && candidate.messages().isEmpty()) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> owners = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, " + reference.teamColumn() + " FROM " + reference.table() +
+                " WHERE id IN (:ids)", Map.of("ids", ids), rs -> {
+                    owners.put(rs.getLong(1), rs.getObject(2, Long.class));
+                });
+        for (Candidate<R, E> candidate : candidates) {
+            Long id = reference.id().apply(candidate.row());
+            if (id == null || !ids.contains(id)) {
+                continue;
+            }
+            if (!owners.containsKey(id)) {
+                candidate.messages().add(reference.missingMessage());
+            } else if (!teamId.equals(owners.get(id))) {
+                candidate.messages().add(reference.foreignTeamMessage());
+            }
+        }
+    }
+
+    private <E> void write(ValidatedChunk<E> chunk, ImportTarget<?, E> target, ReportBuilder report) {
+        report.received += chunk.received();
+        chunk.errors().forEach(error -> report.error(error.line(), error.messages()));
+        if (chunk.entities().isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            insert(chunk.entities(), target, now);
+            report.imported += chunk.entities().size();
+        } catch (DataAccessException e) {
+            // Se reintenta fila a fila para localizar las que fallan sin perder el resto del bloque
+            log.debug("Fallo al insertar un bloque de la importación, se reintenta fila a fila: {}", e.getMessage());
+            for (int i = 0; i < chunk.entities().size(); i++) {
+                E entity = chunk.entities().get(i);
+                try {
+                    insert(List.of(entity), target, now);
+                    report.imported++;
+                } catch (DataAccessException rowFailure) {
+                    report.error(chunk.lines().get(i), List.of("No se pudo guardar la fila: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta las entidades en lote en una transacción y publica su {@link EntityChangeEvent}, que
+     * los servicios con estado derivado atienden al confirmarse.
+     */
+    private <E> void insert(List<E> entities, ImportTarget<?, E> target, Timestamp now) {
+        transactionTemplate.executeWithoutResult(status -> {
+            assignIds(entities, target);
+            jdbcTemplate.batchUpdate(target.insertSql(), entities, entities.size(),
+                    (ps, entity) -> target.binder().bind(ps, entity, now));
+            entities.forEach(entity -> publisher.publishEvent(new EntityChangeEvent(entity, ChangeType.CREATED)));
+        });
+    }
+
+    /**
+     * Reserva los ids como el optimizador pooled-lo: cada {@code nextval} devuelve el primero de un
+     * bloque [valor, valor + 49] que nadie más usa. Las filas que ya tienen id lo conservan: al
+     * reintentar fila a fila un bloque fallido no se gastan más valores de la secuencia.
+     */
+    private <E> void assignIds(List<E> entities, ImportTarget<?, E> target) {
+        String nextValSql = sequenceSupport.getSequenceNextValString(target.sequence());
+        long next = 0;
+        int remaining = 0;
+        for (E entity : entities) {
+            if (target.idGetter().apply(entity) != null) {
+                continue;
+            }
+            if (remaining == 0) {
+                next = jdbcTemplate.queryForObject(nextValSql, Long.class);
+                remaining = ID_BLOCK;
+            }
+            target.idSetter().accept(entity, next++);
+            remaining--;
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al validar un bloque de la importación", e.getCause());
+        }
+    }
+
+    private static String conversionError(IllegalArgumentException e) {
+        if (e.getCause() instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            return "Valor no válido para '" + mapping.getPath().get(0).getFieldName() + "'";
+        }
+        return "Fila no válida: " + e.getMessage();
+    }
+
+    // Conversión de filas a entidades, para validarlas con sus restricciones
+
+    private static Vehicle toVehicle(VehicleImportRow row) {
+        Vehicle vehicle = new Vehicle(row.name(), row.vehicleType());
+        vehicle.setChassisNumber(row.chassisNumber());
+        vehicle.setEngineNumber(row.engineNumber());
+        vehicle.setRegistrationNumber(row.registrationNumber());
+        vehicle.setManufacturer(row.manufacturer());
+        vehicle.setModel(row.model());
+        vehicle.setYearManufactured(row.yearManufactured());
+        if (row.totalHours() != null) {
+            vehicle.setTotalHours(row.totalHours());
+        }
+        if (row.totalKilometers() != null) {
+            vehicle.setTotalKilometers(row.totalKilometers());
+        }
+        vehicle.setNextMaintenanceHours(row.nextMaintenanceHours());
+        vehicle.setNextMaintenanceKm(row.nextMaintenanceKm());
+        if (row.status() != null) {
+            vehicle.setStatus(row.status());
+        }
+        vehicle.setNotes(row.notes());
+        if (row.teamId() != null) {
+            Team team = new Team();
+            team.setId(row.teamId());
+            vehicle.setTeam(team);
+        }
+        return vehicle;
+    }
+
+    private static MaintenanceRecord toMaintenanceRecord(MaintenanceImportRow row) {
+        MaintenanceRecord record = new MaintenanceRecord(row.maintenanceDate(), row.description(), row.maintenanceType());
+        record.setVehicleHoursAtMaintenance(row.vehicleHoursAtMaintenance());
+        record.setVehicleKmAtMaintenance(row.vehicleKmAtMaintenance());
+        record.setCost(row.cost());
+        record.setPartsReplaced(row.partsReplaced());
+        record.setNextMaintenanceHours(row.nextMaintenanceHours());
+        record.setNextMaintenanceKm(row.nextMaintenanceKm());
+        record.setNotes(row.notes());
+        if (row.vehicleId() != null) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(row.vehicleId());
+            record.setVehicle(vehicle);
+        }
+        if (row.performedByUserId() != null) {
+            User user = new User();
+            user.setId(row.performedByUserId());
+            record.setPerformedBy(user);
+        }
+        return record;
+    }
+
+    private static void bindVehicle(PreparedStatement ps, Vehicle vehicle, Timestamp now) throws SQLException {
+        ps.setLong(1, vehicle.getId());
+        ps.setString(2, vehicle.getName());
+        ps.setString(3, vehicle.getVehicleType().name());
+        ps.setString(4, vehicle.getChassisNumber());
+        ps.setString(5, vehicle.getEngineNumber());
+        ps.setString(6, vehicle.getRegistrationNumber());
+        ps.setString(7, vehicle.getManufacturer());
+        ps.setString(8, vehicle.getModel());
+        ps.setObject(9, vehicle.getYearManufactured(), Types.INTEGER);
+        ps.setBigDecimal(10, vehicle.getTotalHours());
+        ps.setBigDecimal(11, vehicle.getTotalKilometers());
+        ps.setBigDecimal(12, vehicle.getNextMaintenanceHours());
+        ps.setBigDecimal(13, vehicle.getNextMaintenanceKm());
+        ps.setString(14, vehicle.getStatus().name());
+        ps.setString(15, vehicle.getNotes());
+        ps.setBoolean(16, vehicle.getActive());
+        ps.setLong(17, vehicle.getTeam().getId());
+        ps.setTimestamp(18, now);
+        ps.setTimestamp(19, now);
+    }
+
+    private static void bindMaintenanceRecord(PreparedStatement ps, MaintenanceRecord record, Timestamp now)
+            throws SQLException {
+        ps.setLong(1, record.getId());
+        ps.setTimestamp(2, Timestamp.valueOf(record.getMaintenanceDate()));
+        ps.setString(3, record.getDescription());
+        ps.setString(4, record.getMaintenanceType().name());
+        ps.setBigDecimal(5, record.getVehicleHoursAtMaintenance());
+        ps.setBigDecimal(6, record.getVehicleKmAtMaintenance());
+        ps.setBigDecimal(7, record.getCost());
+        ps.setString(8, record.getPartsReplaced());
+        ps.setBigDecimal(9, record.getNextMaintenanceHours());
+        ps.setBigDecimal(10, record.getNextMaintenanceKm());
+        ps.setString(11, record.getNotes());
+        ps.setLong(12, record.getVehicle().getId());
+        ps.setObject(13, record.getPerformedBy() != null ? record.getPerformedBy().getId() : null, Types.BIGINT);
+        ps.setTimestamp(14, now);
+        ps.setTimestamp(15, now);
+    }
+
+    @FunctionalInterface
+    private interface Binder<E> {
+        void bind(PreparedStatement ps, E entity, Timestamp now) throws SQLException;
+    }
+
+    private record ImportTarget<R, E>(Class<R> rowType,
+                                      Function<R, E> toEntity,
+                                      List<Reference<R>> references,
+                                      String sequence,
+                                      String insertSql,
+                                      Binder<E> binder,
+                                      Function<E, Long> idGetter,
+                                      BiConsumer<E, Long> idSetter) {
+    }
+
+    // Clave ajena de la fila y columna con el equipo de la fila referenciada; requiredMessage nulo si es opcional
+    private record Reference<R>(String table, String teamColumn, Function<R, Long> id,
+                                String requiredMessage, String missingMessage, String foreignTeamMessage) {
+    }
+
+    private record Candidate<R, E>(long line, R row, E entity, List<String> messages) {
+    }
+
+    private record ValidatedChunk<E>(int received, List<E> entities, List<Long> lines, List<ImportRowError> errors) {
+    }
+
+    private static final class ReportBuilder {
+
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private ReportBuilder(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void error(long line, List<String> messages) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowError(line, List.copyOf(messages)));
+            }
+        }
+
+        private ImportReport build() {
+            return new ImportReport(received, imported, rejected, errors, rejected > errors.size());
+        }
+    }
+}
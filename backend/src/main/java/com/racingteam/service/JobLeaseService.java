@@ -0,0 +1,73 @@
+package com.racingteam.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Concesiones en base de datos para los trabajos programados que solo debe ejecutar un nodo a
+ * la vez (V13). Quien tiene la concesión la renueva en cada pasada; si un nodo cae, otro la
+ * toma cuando vence.
+ *
+ * <p>Las fechas de vencimiento las pone el reloj de cada nodo: la duración de la concesión debe
+ * ser bastante mayor que el desfase entre relojes.</p>
+ */
+@Service
+public class JobLeaseService {
+
+    // En PostgreSQL dos nodos que renuevan a la vez se esperan por la fila y el segundo vuelve
+    // a evaluar la condición con la versión que ha dejado el primero
+    private static final String RENEW_SQL =
+            "UPDATE job_leases SET owner = ?, expires_at = ? " +
+            "WHERE job_name = ? AND (owner = ? OR expires_at < ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO job_leases (job_name, owner, expires_at) VALUES (?, ?, ?)";
+
+    private static final String RELEASE_SQL =
+            "DELETE FROM job_leases WHERE job_name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+
+    public JobLeaseService(JdbcTemplate jdbcTemplate, @Value("${app.jobs.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Toma o renueva la concesión de {@code jobName} durante {@code duration}. Devuelve false si
+     * la tiene otro nodo y aún no ha vencido.
+     */
+    public boolean tryAcquire(String jobName, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(duration));
+        if (jdbcTemplate.update(RENEW_SQL, nodeId, expiresAt, jobName, nodeId, Timestamp.valueOf(now)) > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, jobName, nodeId, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // La tiene otro nodo
+            return false;
+        }
+    }
+
+    /**
+     * Suelta la concesión si es de este nodo, para que otro la tome sin esperar a que venza.
+     */
+    public void release(String jobName) {
+        jdbcTemplate.update(RELEASE_SQL, jobName, nodeId);
+    }
+}
@@ -0,0 +1,95 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.CursorPage;
+import com.racingteam.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Codificación opaca de la última clave devuelta en una página. El cliente solo la reenvía;
+ * así se puede cambiar el formato sin romper el contrato de la API.
+ */
+final class KeysetCursor {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Página de como mucho {@code limit} filas. {@code query} recibe cuántas filas leer: se
+     * pide una de más para saber si hay página siguiente sin contar el total, y en ese caso
+     * el cursor es la clave de la última fila devuelta.
+     */
+    static <T> CursorPage<T> page(Integer limit, IntFunction<List<T>> query, Function<T, String> cursorOf) {
+        int pageSize = clampLimit(limit);
+        List<T> rows = query.apply(pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, cursorOf.apply(page.get(pageSize - 1)));
+    }
+
+    static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    static Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    static String encodeDateAndId(LocalDateTime dateTime, Long id) {
+        return encode(dateTime + SEPARATOR + id);
+    }
+
+    /**
+     * Devuelve {@code null} si no hay cursor, o la fecha y el id de la última fila vista.
+     */
+    static DateAndId decodeDateAndId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = decode(cursor);
+            int separator = value.indexOf(SEPARATOR);
+            return new DateAndId(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    record DateAndId(LocalDateTime dateTime, Long id) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.dto.LiveStatusUpdate;
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.exception.SubscriberLimitExceededException;
+import com.racingteam.model.Event;
+import com.racingteam.model.Team;
+import com.racingteam.model.Vehicle;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.security.JwtService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canal en directo (Server-Sent Events) con los cambios de estado de vehículos y eventos de
+ * cada equipo, alimentado por {@link EntityChangeEvent} una vez confirmada la transacción.
+ *
+ * <p>Cada cambio se serializa una sola vez y se encola en los suscriptores de su equipo. El
+ * envío lo hace un pool pequeño de hilos propio, así que la transacción que publica no espera a
+ * ninguna conexión. Un envío bloqueado por un cliente que no lee no quita el hilo a los demás:
+ * el pool añade otro mientras dure (ver {@link LiveSubscriber}). Se desconecta al suscriptor
+ * cuya cola se llena y, en cada latido, al que lleva más de {@code app.live.send-timeout} con
+ * un envío sin terminar.
+ * Solo se publican transiciones de estado: el último estado conocido de cada vehículo y evento
+ * se guarda en memoria, y tras un reinicio el primer cambio de cada uno se envía siempre. Las
+ * altas solo se anotan: una importación crea cientos de filas de golpe y llenaría la cola de
+ * todos los suscriptores del equipo.</p>
+ */
+@Service
+public class LiveStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatusService.class);
+
+    static final String VEHICLE_STATUS = "vehicle-status";
+    static final String EVENT_STATUS = "event-status";
+
+    private final Map<Long, Set<LiveSubscriber>> subscribersByTeam = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, String> vehicleStatuses = new ConcurrentHashMap<>();
+    private final Map<Long, String> eventStatuses = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+    private final JwtService jwtService;
+    private final ForkJoinPool dispatcher;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Duration ticketValidity;
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("ping").build();
+
+    public LiveStatusService(ObjectMapper objectMapper,
+                             JwtService jwtService,
+                             @Value("${app.live.buffer-size:64}") int bufferSize,
+                             @Value("${app.live.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${app.live.timeout:30m}") Duration timeout,
+                             @Value("${app.live.dispatcher-threads:4}") int dispatcherThreads,
+                             @Value("${app.live.max-blocked-sends:64}") int maxBlockedSends,
+                             @Value("${app.live.send-timeout:10s}") Duration sendTimeout,
+                             @Value("${app.live.ticket-validity:60s}") Duration ticketValidity) {
+        this.objectMapper = objectMapper;
+        this.jwtService = jwtService;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.ticketValidity = ticketValidity;
+        // Con maxBlockedSends envíos bloqueados a la vez deja de añadir hilos y el siguiente espera
+        this.dispatcher = new ForkJoinPool(dispatcherThreads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("live-" + thread.getPoolIndex());
+            return thread;
+        }, null, true, 0, dispatcherThreads + maxBlockedSends, 1, pool -> true, 60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cierra las conexiones al empezar el apagado, antes de que se detenga el servidor web, para
+     * que los clientes vean un final de respuesta normal y reconecten.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeSubscribers() {
+        subscribersByTeam.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (unregister(subscriber)) {
+                subscriber.close();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Abre una suscripción a los cambios del equipo. La conexión se cierra al vencer el timeout;
+     * el EventSource del navegador reconecta solo.
+     */
+    public SseEmitter subscribe(Long teamId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new SubscriberLimitExceededException(maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        LiveSubscriber subscriber = new LiveSubscriber(teamId, emitter, bufferSize, dispatcher);
+        try {
+            // Confirma la suscripción al cliente antes de que pueda llegar ningún cambio
+            subscriber.start(heartbeat);
+        } catch (IOException e) {
+            subscriberCount.decrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+        // Spring MVC termina la respuesta tras estos callbacks; completarla aquí otra vez fallaría
+        Runnable ended = () -> {
+            unregister(subscriber);
+            subscriber.detach();
+        };
+        emitter.onCompletion(ended);
+        emitter.onTimeout(ended);
+        emitter.onError(e -> ended.run());
+        subscribersByTeam.computeIfAbsent(teamId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Ticket de corta duración para abrir la suscripción con {@code ?ticket=}, porque el
+     * EventSource del navegador no puede enviar la cabecera Authorization. Solo se comprueba al
+     * conectar: si caduca, la reconexión automática recibe 401 y el cliente pide otro.
+     */
+    public String issueTicket(AuthenticatedUser principal) {
+        return jwtService.issueUrlToken(principal, JwtService.PURPOSE_LIVE, ticketValidity);
+    }
+
+    public Duration getTicketValidity() {
+        return ticketValidity;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Suscriptores desconectados por no leer al ritmo de los cambios o con un envío bloqueado
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent change) {
+        Object entity = change.getEntity();
+        if (entity instanceof Vehicle vehicle) {
+            publishIfChanged(VEHICLE_STATUS, vehicleStatuses, vehicle.getId(), teamIdOf(vehicle.getTeam()),
+                    vehicle.getStatus() != null ? vehicle.getStatus().name() : null, change.getChangeType());
+        } else if (entity instanceof Event event) {
+            publishIfChanged(EVENT_STATUS, eventStatuses, event.getId(), teamIdOf(event.getTeam()),
+                    event.getStatus() != null ? event.getStatus().name() : null, change.getChangeType());
+        }
+    }
+
+    /**
+     * Mantiene abiertas las conexiones a través de proxies y detecta antes los clientes caídos.
+     * Desconecta además a los suscriptores con un envío bloqueado más de {@code send-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval:20000}",
+               initialDelayString = "${app.live.heartbeat-interval:20000}")
+    public void heartbeat() {
+        subscribersByTeam.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (!subscriber.isStalled(sendTimeoutNanos)) {
+                deliver(subscriber);
+            } else if (unregister(subscriber) && subscriber.close()) {
+                droppedCount.incrementAndGet();
+                log.debug("Suscriptor en directo del equipo {} desconectado por envío bloqueado",
+                        subscriber.getTeamId());
+            }
+        }));
+    }
+
+    private void publishIfChanged(String eventName, Map<Long, String> lastStatuses, Long id, Long teamId,
+                                  String status, ChangeType changeType) {
+        String previous = changeType == ChangeType.DELETED ? lastStatuses.remove(id) : lastStatuses.put(id, status);
+        if (changeType == ChangeType.CREATED
+                || (changeType == ChangeType.UPDATED && Objects.equals(previous, status))) {
+            return;
+        }
+        Set<LiveSubscriber> subscribers = teamId != null ? subscribersByTeam.get(teamId) : null;
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        LiveStatusUpdate update = new LiveStatusUpdate(id, teamId, changeType == ChangeType.DELETED ? null : status,
+                previous, changeType, LocalDateTime.now());
+        Set<DataWithMediaType> message;
+        try {
+            message = SseEmitter.event()
+                    .id(String.valueOf(sequence.incrementAndGet()))
+                    .name(eventName)
+                    .data(objectMapper.writeValueAsString(update), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cambio de estado", e);
+        }
+        subscribers.forEach(subscriber -> deliver(subscriber, message));
+    }
+
+    private void deliver(LiveSubscriber subscriber) {
+        deliver(subscriber, heartbeat);
+    }
+
+    private void deliver(LiveSubscriber subscriber, Set<DataWithMediaType> message) {
+        // Si ya estaba cerrado es que falló el envío, no que se llenara la cola
+        if (!subscriber.offer(message) && unregister(subscriber) && subscriber.close()) {
+            droppedCount.incrementAndGet();
+            log.debug("Suscriptor en directo del equipo {} desconectado por cola llena", subscriber.getTeamId());
+        }
+    }
+
+    // Idempotente: lo llaman tanto los callbacks del emitter como quien detecta la cola llena
+    private boolean unregister(LiveSubscriber subscriber) {
+        Set<LiveSubscriber> subscribers = subscribersByTeam.get(subscriber.getTeamId());
+        if (subscribers == null || !subscribers.remove(subscriber)) {
+            return false;
+        }
+        // El conjunto vacío del equipo se conserva: quitarlo competiría con una suscripción nueva
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static Long teamIdOf(Team team) {
+        return team != null ? team.getId() : null;
+    }
+}
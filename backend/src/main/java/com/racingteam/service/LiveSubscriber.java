@@ -0,0 +1,179 @@
+package com.racingteam.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexión SSE con su cola de mensajes pendientes.
+ *
+ * <p>Quien publica solo encola, nunca escribe en el socket: el envío lo hace un hilo del
+ * despachador, como mucho uno a la vez por suscriptor. Si la cola se llena el cliente no está
+ * leyendo al ritmo de los cambios y se le desconecta; al reconectar recibe el estado con una
+ * petición normal.</p>
+ *
+ * <p>La escritura es bloqueante: cuando un cliente deja de leer y se llena el búfer del socket,
+ * el envío ocupa su hilo hasta el timeout de escritura del conector. Por eso se hace dentro de
+ * {@link ForkJoinPool#managedBlock}: el despachador añade un hilo mientras dure y los demás
+ * suscriptores siguen recibiendo. {@link #isStalled} permite desconectar antes al cliente.</p>
+ */
+final class LiveSubscriber {
+
+    private final Long teamId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> pending;
+    private final Executor dispatcher;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean sending;
+    private volatile long sendStartedAt;
+
+    LiveSubscriber(Long teamId, SseEmitter emitter, int bufferSize, Executor dispatcher) {
+        this.teamId = teamId;
+        this.emitter = emitter;
+        this.pending = new ArrayBlockingQueue<>(bufferSize);
+        this.dispatcher = dispatcher;
+    }
+
+    Long getTeamId() {
+        return teamId;
+    }
+
+    /**
+     * Primer mensaje, enviado antes de devolver el emitter a Spring MVC. Se guarda y lo escribe
+     * el hilo de la petición al inicializar la respuesta, que así queda confirmada antes de que
+     * el despachador escriba desde otro hilo: Tomcat no admite que dos hilos escriban a la vez
+     * las cabeceras.
+     */
+    void start(Set<DataWithMediaType> message) throws IOException {
+        emitter.send(message);
+    }
+
+    /**
+     * Encola el mensaje ya serializado. Devuelve false si el suscriptor está cerrado o su cola
+     * llena, en cuyo caso quien publica debe descartarlo.
+     */
+    boolean offer(Set<DataWithMediaType> message) {
+        if (closed.get() || !pending.offer(message)) {
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Marca el suscriptor como cerrado y completa la respuesta en el despachador: complete()
+     * espera a que termine un envío en curso y no debe bloquear a quien publica.
+     * Devuelve false si ya estaba cerrado.
+     */
+    boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        pending.clear();
+        dispatcher.execute(() -> blocking(emitter::complete));
+        return true;
+    }
+
+    /**
+     * Si un envío lleva más de {@code timeoutNanos} sin terminar: el cliente no está leyendo.
+     */
+    boolean isStalled(long timeoutNanos) {
+        return sending && System.nanoTime() - sendStartedAt > timeoutNanos;
+    }
+
+    // La respuesta ya ha terminado (desconexión, timeout o error): solo deja de aceptar mensajes
+    void detach() {
+        closed.set(true);
+        pending.clear();
+    }
+
+    private void drain() {
+        while (true) {
+            Set<DataWithMediaType> message = pending.poll();
+            if (message == null) {
+                draining.set(false);
+                // Un mensaje encolado justo después del poll no ha lanzado otro drenado
+                if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (closed.get()) {
+                continue;
+            }
+            try {
+                send(message);
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o respuesta ya completada: el callback del emitter lo da de baja
+                closed.set(true);
+                pending.clear();
+            }
+        }
+    }
+
+    private void send(Set<DataWithMediaType> message) throws IOException {
+        sendStartedAt = System.nanoTime();
+        sending = true;
+        try {
+            IOException failure = blocking(() -> emitter.send(message));
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            sending = false;
+        }
+    }
+
+    // Ejecuta la acción dentro de managedBlock (fuera de un ForkJoinPool, sin más) y devuelve su error
+    private static IOException blocking(Write write) {
+        Blocker blocker = new Blocker(write);
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return blocker.failure;
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static final class Blocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Write write;
+        private boolean done;
+        private IOException failure;
+
+        Blocker(Write write) {
+            this.write = write;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                write.run();
+            } catch (IOException e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.MaintenanceAnalytics;
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.Vehicle;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analítica de coste e intervalos de mantenimiento leída del agregado
+ * {@code vehicle_maintenance_stats}, sin recorrer los registros de cada vehículo.
+ *
+ * <p>El agregado guarda, por vehículo, temporada y tipo, el número de registros, la suma del
+ * coste y las fechas primera y última. Con eso el tiempo medio entre correctivos es exacto para
+ * cualquier conjunto de temporadas: (última - primera) / (correctivos - 1). Las consultas agrupan
+ * en la base de datos, así que la variante de flota devuelve una fila por tipo y otra por vehículo
+ * con correctivos. Un job periódico compara el agregado con un recálculo completo y reconstruye
+ * los vehículos que no coincidan.</p>
+ *
+ * <p>H2 no tiene los triggers de V5: allí el agregado se carga al arrancar con esa misma
+ * reconciliación y después se pone al día con cada pasada del job.</p>
+ */
+@Service
+public class MaintenanceAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceAnalyticsService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final BigDecimal SECONDS_PER_DAY = BigDecimal.valueOf(Duration.ofDays(1).toSeconds());
+
+    private static final String STATS_FROM = " FROM vehicle_maintenance_stats s";
+    private static final String STATS_BY_TEAM_FROM = STATS_FROM + " JOIN vehicles v ON v.id = s.vehicle_id";
+
+    private static final String STATS_COLUMNS =
+            "vehicle_id, season, maintenance_type, record_count, total_cost, first_date, last_date";
+
+    private static final String RECOMPUTE_SELECT =
+            "SELECT vehicle_id, CAST(EXTRACT(YEAR FROM maintenance_date) AS INTEGER) AS season, " +
+            "maintenance_type, CAST(COUNT(*) AS INTEGER) AS record_count, " +
+            "COALESCE(SUM(cost), 0) AS total_cost, " +
+            "MIN(maintenance_date) AS first_date, MAX(maintenance_date) AS last_date " +
+            "FROM maintenance_records ";
+
+    private static final String RECOMPUTE_GROUP_BY =
+            " GROUP BY vehicle_id, CAST(EXTRACT(YEAR FROM maintenance_date) AS INTEGER), maintenance_type";
+
+    // Vehículos cuyas filas del agregado no coinciden con el recálculo, en cualquier sentido
+    private static final String STALE_VEHICLES_SQL =
+            "SELECT vehicle_id FROM (SELECT " + STATS_COLUMNS + " FROM vehicle_maintenance_stats " +
+            "EXCEPT " + RECOMPUTE_SELECT + RECOMPUTE_GROUP_BY + ") stale " +
+            "UNION " +
+            "SELECT vehicle_id FROM (" + RECOMPUTE_SELECT + RECOMPUTE_GROUP_BY + " " +
+            "EXCEPT SELECT " + STATS_COLUMNS + " FROM vehicle_maintenance_stats) missing";
+
+    private final ReferenceDataService referenceDataService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean postgres;
+
+    public MaintenanceAnalyticsService(ReferenceDataService referenceDataService,
+                                       JdbcTemplate jdbcTemplate,
+                                       NamedParameterJdbcTemplate namedJdbcTemplate,
+                                       @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.referenceDataService = referenceDataService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+    }
+
+    // Se invoca a través del proxy, así que la reconciliación corre en esta transacción
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        if (!postgres) {
+            reconcile();
+        }
+    }
+
+    // Transaccional para que las consultas JDBC usen la conexión que open-in-view ya retiene en la
+    // petición; sin transacción cada consulta pide una segunda conexión al pool y, con tantas
+    // peticiones concurrentes como conexiones, todas esperan a la vez
+    @Transactional(readOnly = true)
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public MaintenanceAnalytics getVehicleAnalytics(Long vehicleId, Integer season) {
+        Vehicle vehicle = referenceDataService.getVehicle(vehicleId);
+        Long teamId = vehicle.getTeam() != null ? vehicle.getTeam().getId() : null;
+        return analytics(vehicleId, teamId, season, STATS_FROM,
+                new SqlConditions().add("s.vehicle_id = ?", vehicleId));
+    }
+
+    @Transactional(readOnly = true)
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public MaintenanceAnalytics getFleetAnalytics(Long teamId, Integer season) {
+        return analytics(null, teamId, season, teamId != null ? STATS_BY_TEAM_FROM : STATS_FROM,
+                new SqlConditions().add("v.team_id = ?", teamId));
+    }
+
+    private MaintenanceAnalytics analytics(Long vehicleId, Long teamId, Integer season, String from,
+                                           SqlConditions conditions) {
+        conditions.add("s.season = ?", season);
+        TypeTotals totals = new TypeTotals();
+        jdbcTemplate.query("SELECT s.maintenance_type, SUM(s.record_count), SUM(s.total_cost)" + from +
+                conditions.where() + " GROUP BY s.maintenance_type", totals, conditions.params());
+
+        conditions.add("s.maintenance_type = ?", MaintenanceType.CORRECTIVE.name());
+        CorrectiveIntervals corrective = new CorrectiveIntervals();
+        jdbcTemplate.query("SELECT SUM(s.record_count), MIN(s.first_date), MAX(s.last_date)" + from +
+                conditions.where() + " GROUP BY s.vehicle_id HAVING SUM(s.record_count) > 1",
+                corrective, conditions.params());
+
+        return new MaintenanceAnalytics(vehicleId, teamId, season, totals.recordCount, totals.totalCost,
+                totals.costByType, corrective.meanDays());
+    }
+
+    /**
+     * Compara el agregado con un recálculo completo desde maintenance_records y reconstruye los
+     * vehículos que difieren. Devuelve cuántos se han corregido; cero mientras el trigger
+     * mantenga el invariante.
+     */
+    @Scheduled(fixedDelayString = "${app.maintenance-analytics.reconcile-interval:3600000}",
+               initialDelayString = "${app.maintenance-analytics.reconcile-interval:3600000}")
+    @Transactional
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public int reconcile() {
+        List<Long> stale = jdbcTemplate.queryForList(STALE_VEHICLES_SQL, Long.class);
+        for (int from = 0; from < stale.size(); from += REBUILD_BATCH_SIZE) {
+            rebuild(stale.subList(from, Math.min(from + REBUILD_BATCH_SIZE, stale.size())));
+        }
+        if (!stale.isEmpty()) {
+            log.warn("Agregado de mantenimiento corregido para {} vehículos", stale.size());
+        }
+        return stale.size();
+    }
+
+    private void rebuild(List<Long> vehicleIds) {
+        Map<String, Object> params = Map.of("ids", vehicleIds);
+        // Bloquea los vehículos para que ningún registro nuevo se cuele entre el borrado y la inserción
+        namedJdbcTemplate.queryForList(
+                "SELECT id FROM vehicles WHERE id IN (:ids) ORDER BY id FOR UPDATE", params, Long.class);
+        namedJdbcTemplate.update("DELETE FROM vehicle_maintenance_stats WHERE vehicle_id IN (:ids)", params);
+        namedJdbcTemplate.update("INSERT INTO vehicle_maintenance_stats (" + STATS_COLUMNS + ") " +
+                RECOMPUTE_SELECT + "WHERE vehicle_id IN (:ids)" + RECOMPUTE_GROUP_BY, params);
+    }
+
+    private static final class TypeTotals implements RowCallbackHandler {
+
+        private final Map<MaintenanceType, BigDecimal> costByType = new EnumMap<>(MaintenanceType.class);
+        private long recordCount;
+        private BigDecimal totalCost = BigDecimal.ZERO;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            BigDecimal cost = rs.getBigDecimal(3);
+            costByType.put(MaintenanceType.valueOf(rs.getString(1)), cost);
+            recordCount += rs.getLong(2);
+            totalCost = totalCost.add(cost);
+        }
+    }
+
+    /**
+     * Una fila por vehículo con al menos dos correctivos. El intervalo medio de la flota es la
+     * suma de los intervalos de cada vehículo dividida entre el número total de intervalos.
+     */
+    private static final class CorrectiveIntervals implements RowCallbackHandler {
+
+        private long intervals;
+        private long seconds;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            intervals += rs.getLong(1) - 1;
+            seconds += Duration.between(rs.getObject(2, LocalDateTime.class),
+                    rs.getObject(3, LocalDateTime.class)).toSeconds();
+        }
+
+        BigDecimal meanDays() {
+            if (intervals == 0) {
+                return null;
+            }
+            return BigDecimal.valueOf(seconds)
+                    .divide(SECONDS_PER_DAY.multiply(BigDecimal.valueOf(intervals)), 2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.racingteam.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+
+/**
+ * Mantenimiento de las particiones por temporada de events y maintenance_records (V11).
+ *
+ * <p>Cada pasada crea las particiones de la temporada actual y de las {@code years-ahead}
+ * siguientes, y saca de la partición DEFAULT las temporadas que hayan ido llegando, por ejemplo
+ * con una importación de histórico. Si {@code archive-after-years} es mayor que cero, además
+ * separa las temporadas más antiguas y las deja de solo lectura en el esquema archive: sus
+ * eventos y mantenimientos dejan de verse en la aplicación, en la búsqueda, en la analítica
+ * de mantenimiento y en los rollups financieros.</p>
+ *
+ * <p>Sacar filas de DEFAULT bloquea events o maintenance_records por completo mientras se
+ * mueven, así que la pasada se programa con {@code cron}, por defecto de madrugada, y no al
+ * arrancar. Si la tabla está en uso, V11 renuncia al bloqueo en lugar de hacer esperar a las
+ * peticiones y se reintenta en la pasada siguiente.</p>
+ *
+ * <p>Sin PostgreSQL no hay particiones y no hace nada.</p>
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FinanceRollupService financeRollupService;
+    private final boolean postgres;
+    private final int yearsAhead;
+    private final int archiveAfterYears;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       FinanceRollupService financeRollupService,
+                                       @Value("${spring.datasource.url:}") String datasourceUrl,
+                                       @Value("${app.partitions.years-ahead:2}") int yearsAhead,
+                                       @Value("${app.partitions.archive-after-years:0}") int archiveAfterYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.financeRollupService = financeRollupService;
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+        this.yearsAhead = yearsAhead;
+        this.archiveAfterYears = archiveAfterYears;
+    }
+
+    @Scheduled(cron = "${app.partitions.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        if (!postgres) {
+            return;
+        }
+        try {
+            ensurePartitions();
+        } catch (CannotAcquireLockException e) {
+            log.warn("Tablas particionadas en uso, las particiones se crearán en la próxima pasada: {}", e.getMessage());
+            return;
+        }
+        if (archiveAfterYears > 0) {
+            archiveSeasonsBefore(Year.now().getValue() - archiveAfterYears);
+        }
+    }
+
+    /**
+     * Crea las particiones que falten y devuelve cuántas ha creado.
+     *
+     * @throws CannotAcquireLockException si hay filas que sacar de DEFAULT y la tabla está en uso
+     */
+    public int ensurePartitions() {
+        if (!postgres) {
+            return 0;
+        }
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_season_partitions(?)", Integer.class, yearsAhead);
+        if (created != null && created > 0) {
+            log.info("Creadas {} particiones de temporada", created);
+        }
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Archiva las temporadas anteriores a {@code season} y devuelve cuántas particiones ha
+     * archivado. Las fechas de esas temporadas que se escriban después van a la partición
+     * DEFAULT. Los rollups financieros de los equipos afectados se recalculan sin los eventos
+     * archivados.
+     */
+    public int archiveSeasonsBefore(int season) {
+        if (!postgres) {
+            return 0;
+        }
+        Integer archived = jdbcTemplate.queryForObject("SELECT archive_season_partitions(?)", Integer.class, season);
+        if (archived != null && archived > 0) {
+            log.info("Archivadas {} particiones de temporadas anteriores a {}", archived, season);
+            financeRollupService.reconcile();
+        }
+        return archived != null ? archived : 0;
+    }
+}
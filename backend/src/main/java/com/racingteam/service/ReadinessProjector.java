@@ -0,0 +1,246 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.EventUsageProjection;
+import com.racingteam.dto.EventUsageProjection.Issue;
+import com.racingteam.dto.VehicleReadiness;
+import com.racingteam.dto.VehicleReadiness.RateSource;
+import com.racingteam.model.EventType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Cálculo de la planificación de disponibilidad sobre datos ya cargados, sin acceso a base de
+ * datos, para poder repartirlo entre los hilos de un {@link ForkJoinPool}.
+ *
+ * <p>El uso por hora de evento de un vehículo es lo que han subido sus contadores desde la
+ * lectura más antigua de sus mantenimientos dentro del histórico, dividido entre las horas de
+ * eventos en pista que ha tenido desde entonces. La proyección avanza por sus próximos eventos
+ * en orden, sumando a los contadores la duración de cada uno por ese uso.</p>
+ */
+final class ReadinessProjector {
+
+    private static final int LEAF_SIZE = 32;
+    private static final double SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    // Con menos horas de evento en el histórico la estimación es demasiado ruidosa
+    private static final double MIN_HISTORY_EVENT_HOURS = 1.0;
+
+    private ReadinessProjector() {
+    }
+
+    /**
+     * Asignación de un vehículo a un evento en pista. Las fechas en segundos evitan crear
+     * objetos al comparar.
+     */
+    record Assignment(long eventId, String name, EventType type,
+                      LocalDateTime startDate, LocalDateTime endDate, long start, long end) {
+
+        static Assignment of(long eventId, String name, EventType type,
+                             LocalDateTime startDate, LocalDateTime endDate) {
+            return new Assignment(eventId, name, type, startDate, endDate,
+                    BookedEvent.toEpochSecond(startDate), BookedEvent.toEpochSecond(endDate));
+        }
+    }
+
+    /**
+     * Datos de un vehículo para planificar: contadores, umbrales de mantenimiento, primera
+     * lectura del histórico y sus eventos en pista, pasados y próximos, ordenados por inicio.
+     */
+    static final class PlannedVehicle {
+
+        final long id;
+        final String name;
+        final Long teamId;
+        final BigDecimal totalHours;
+        final BigDecimal totalKilometers;
+        final BigDecimal nextMaintenanceHours;
+        final BigDecimal nextMaintenanceKm;
+        final List<Assignment> past = new ArrayList<>();
+        final List<Assignment> upcoming = new ArrayList<>();
+        LocalDateTime firstHoursReadingDate;
+        BigDecimal firstHoursReading;
+        LocalDateTime firstKmReadingDate;
+        BigDecimal firstKmReading;
+
+        // Uso por hora de evento según el histórico; NaN si no hay datos suficientes
+        double historyHoursRate = Double.NaN;
+        double historyKmRate = Double.NaN;
+
+        PlannedVehicle(long id, String name, Long teamId, BigDecimal totalHours, BigDecimal totalKilometers,
+                       BigDecimal nextMaintenanceHours, BigDecimal nextMaintenanceKm) {
+            this.id = id;
+            this.name = name;
+            this.teamId = teamId;
+            this.totalHours = totalHours;
+            this.totalKilometers = totalKilometers;
+            this.nextMaintenanceHours = nextMaintenanceHours;
+            this.nextMaintenanceKm = nextMaintenanceKm;
+        }
+
+        void estimateHistoryRates(long now) {
+            historyHoursRate = historyRate(totalHours, firstHoursReadingDate, firstHoursReading, now);
+            historyKmRate = historyRate(totalKilometers, firstKmReadingDate, firstKmReading, now);
+        }
+
+        private double historyRate(BigDecimal current, LocalDateTime readingDate, BigDecimal reading, long now) {
+            if (current == null || readingDate == null || reading == null) {
+                return Double.NaN;
+            }
+            long from = BookedEvent.toEpochSecond(readingDate);
+            long seconds = 0;
+            for (Assignment event : past) {
+                long start = Math.max(event.start(), from);
+                long end = Math.min(event.end(), now);
+                if (end > start) {
+                    seconds += end - start;
+                }
+            }
+            double eventHours = seconds / SECONDS_PER_HOUR;
+            double used = current.subtract(reading).doubleValue();
+            return eventHours < MIN_HISTORY_EVENT_HOURS || used < 0 ? Double.NaN : used / eventHours;
+        }
+    }
+
+    /**
+     * Uso por hora de evento que se aplica a los vehículos sin histórico: la media de los que
+     * sí lo tienen o, si no hay ninguno, el valor por defecto.
+     */
+    record Rates(double hours, RateSource hoursSource, double km, RateSource kmSource) {
+
+        static Rates fallback(List<PlannedVehicle> vehicles, double defaultHours, double defaultKm) {
+            double hours = 0;
+            double km = 0;
+            int hoursCount = 0;
+            int kmCount = 0;
+            for (PlannedVehicle vehicle : vehicles) {
+                if (!Double.isNaN(vehicle.historyHoursRate)) {
+                    hours += vehicle.historyHoursRate;
+                    hoursCount++;
+                }
+                if (!Double.isNaN(vehicle.historyKmRate)) {
+                    km += vehicle.historyKmRate;
+                    kmCount++;
+                }
+            }
+            return new Rates(hoursCount > 0 ? hours / hoursCount : defaultHours,
+                    hoursCount > 0 ? RateSource.TEAM_AVERAGE : RateSource.DEFAULT,
+                    kmCount > 0 ? km / kmCount : defaultKm,
+                    kmCount > 0 ? RateSource.TEAM_AVERAGE : RateSource.DEFAULT);
+        }
+    }
+
+    /**
+     * Planifica los vehículos en dos pasadas paralelas: primero el uso según el histórico de
+     * cada uno y después, con la media del equipo como respaldo, la proyección. Si
+     * {@code fallback} es nulo se calcula a partir de estos mismos vehículos.
+     */
+    static Planned plan(ForkJoinPool pool, List<PlannedVehicle> vehicles, Rates fallback,
+                        double defaultHours, double defaultKm, LocalDateTime now) {
+        long nowSeconds = BookedEvent.toEpochSecond(now);
+        pool.invoke(new RangeTask(0, vehicles.size(), i -> vehicles.get(i).estimateHistoryRates(nowSeconds)));
+        Rates rates = fallback != null ? fallback : Rates.fallback(vehicles, defaultHours, defaultKm);
+        VehicleReadiness[] results = new VehicleReadiness[vehicles.size()];
+        pool.invoke(new RangeTask(0, vehicles.size(), i -> results[i] = project(vehicles.get(i), rates, nowSeconds)));
+        return new Planned(List.of(results), rates);
+    }
+
+    record Planned(List<VehicleReadiness> vehicles, Rates fallback) {
+    }
+
+    static VehicleReadiness project(PlannedVehicle vehicle, Rates fallback, long now) {
+        boolean hoursFromHistory = !Double.isNaN(vehicle.historyHoursRate);
+        boolean kmFromHistory = !Double.isNaN(vehicle.historyKmRate);
+        double hoursRate = hoursFromHistory ? vehicle.historyHoursRate : fallback.hours();
+        double kmRate = kmFromHistory ? vehicle.historyKmRate : fallback.km();
+        double hoursThreshold = toDouble(vehicle.nextMaintenanceHours);
+        double kmThreshold = toDouble(vehicle.nextMaintenanceKm);
+
+        double hours = vehicle.totalHours != null ? vehicle.totalHours.doubleValue() : 0;
+        double km = vehicle.totalKilometers != null ? vehicle.totalKilometers.doubleValue() : 0;
+        boolean atRisk = false;
+        List<EventUsageProjection> events = new ArrayList<>(vehicle.upcoming.size());
+        for (Assignment event : vehicle.upcoming) {
+            long start = Math.max(event.start(), now);
+            double eventHours = (event.end() - start) / SECONDS_PER_HOUR;
+            double hoursAtEnd = hours + eventHours * hoursRate;
+            double kmAtEnd = km + eventHours * kmRate;
+
+            Issue issue = null;
+            LocalDateTime dueAt = null;
+            if (hours >= hoursThreshold || km >= kmThreshold) {
+                issue = Issue.DUE_BEFORE_EVENT;
+            } else if (hoursAtEnd >= hoursThreshold || kmAtEnd >= kmThreshold) {
+                issue = Issue.DUE_DURING_EVENT;
+                // Fracción del evento en la que se alcanza el primero de los dos umbrales
+                double fraction = Math.min(crossing(hours, hoursAtEnd, hoursThreshold),
+                        crossing(km, kmAtEnd, kmThreshold));
+                dueAt = event.endDate().minusSeconds(Math.round((1 - fraction) * (event.end() - start)));
+            }
+            atRisk |= issue != null;
+            events.add(new EventUsageProjection(event.eventId(), event.name(), event.type(),
+                    event.startDate(), event.endDate(), scaled(hours), scaled(hoursAtEnd),
+                    scaled(km), scaled(kmAtEnd), issue, dueAt));
+            hours = hoursAtEnd;
+            km = kmAtEnd;
+        }
+        return new VehicleReadiness(vehicle.id, vehicle.name, vehicle.teamId,
+                vehicle.totalHours, vehicle.totalKilometers,
+                vehicle.nextMaintenanceHours, vehicle.nextMaintenanceKm,
+                scaled(hoursRate), hoursFromHistory ? RateSource.HISTORY : fallback.hoursSource(),
+                scaled(kmRate), kmFromHistory ? RateSource.HISTORY : fallback.kmSource(),
+                atRisk, events);
+    }
+
+    // Fracción del tramo [from, to] en la que se alcanza el umbral; 1 si no se alcanza
+    private static double crossing(double from, double to, double threshold) {
+        if (to < threshold || to <= from) {
+            return 1;
+        }
+        return (threshold - from) / (to - from);
+    }
+
+    // Sin umbral definido nunca se alcanza
+    private static double toDouble(BigDecimal threshold) {
+        return threshold != null ? threshold.doubleValue() : Double.POSITIVE_INFINITY;
+    }
+
+    private static BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Aplica una acción a cada índice de un rango dividiéndolo por la mitad hasta bloques de
+     * {@value #LEAF_SIZE}, que es lo que reparte el pool entre sus hilos.
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, action), new RangeTask(middle, to, action));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.racingteam.service;
+
+import com.racingteam.config.CacheConfig;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.exception.ResourceNotFoundException;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.Vehicle;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lectura con caché de equipos, vehículos y usuarios (por email, para la autenticación).
+ *
+ * <p>Las instancias cacheadas están desasociadas del contexto de persistencia: sus campos
+ * simples y los ids de sus relaciones son accesibles, pero las colecciones perezosas no.
+ * Quien necesite las relaciones debe cargarlas con los repositorios.</p>
+ *
+ * <p>Las entradas se invalidan con los cambios de JPA; quien escriba con JDBC filas que
+ * pueden estar en caché debe invalidarlas al confirmar, p. ej. con {@link #evictVehicles}.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReferenceDataService {
+
+    private final TeamRepository teamRepository;
+    private final VehicleRepository vehicleRepository;
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    // Email con el que está en caché cada usuario, para invalidarlo aunque haya cambiado
+    private final Map<Long, String> cachedEmails = new ConcurrentHashMap<>();
+
+    public ReferenceDataService(TeamRepository teamRepository,
+                                VehicleRepository vehicleRepository,
+                                UserRepository userRepository,
+                                CacheManager cacheManager) {
+        this.teamRepository = teamRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Cacheable(CacheConfig.TEAMS)
+    public Team getTeam(Long id) {
+        return teamRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Equipo", id));
+    }
+
+    @Cacheable(CacheConfig.VEHICLES)
+    public Vehicle getVehicle(Long id) {
+        return vehicleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Vehículo", id));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, unless = "#result == null")
+    public User findUserByEmail(String email) {
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user != null) {
+            cachedEmails.put(user.getId(), email);
+        }
+        return user;
+    }
+
+    public void evictVehicles(Collection<Long> vehicleIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.VEHICLES);
+        if (cache != null) {
+            vehicleIds.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * Invalida la entrada de la entidad modificada una vez confirmada la transacción.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent change) {
+        Object entity = change.getEntity();
+        if (entity instanceof Team team) {
+            evict(CacheConfig.TEAMS, team.getId());
+        } else if (entity instanceof Vehicle vehicle) {
+            evict(CacheConfig.VEHICLES, vehicle.getId());
+        } else if (entity instanceof User user) {
+            evictUser(user);
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void evictUser(User user) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_BY_EMAIL);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(user.getEmail());
+        // Si cambió el email la entrada antigua sigue bajo la clave anterior
+        String cachedEmail = cachedEmails.remove(user.getId());
+        if (cachedEmail != null) {
+            cache.evict(cachedEmail);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.SearchResult;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda de texto libre en vehículos, eventos y mantenimientos de un equipo.
+ *
+ * <p>En PostgreSQL se consulta {@code search_documents} (V10), que los triggers mantienen con un
+ * tsvector por registro. Cada palabra buscada se compara como prefijo y, si es lo bastante
+ * larga, también con las palabras más parecidas del vocabulario por trigramas, para tolerar
+ * erratas. Los documentos que cumplen todas las palabras se ordenan por relevancia, pero solo
+ * se ordenan los primeros {@code max-candidates}: una búsqueda muy poco selectiva devuelve
+ * resultados relevantes aunque no necesariamente los mejores.</p>
+ *
+ * <p>Con otras bases de datos (H2 en desarrollo y tests) se busca con LIKE sobre las tablas de
+ * origen, sin tolerar erratas y distinguiendo acentos, y la relevancia se calcula aquí con los
+ * mismos pesos.</p>
+ */
+@Service
+public class SearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MIN_VOCABULARY_WORD_LENGTH = 3;
+
+    // Igual que search_vector() en V10
+    private static final Pattern POSTGRES_SEPARATORS = Pattern.compile("[-/_.]+");
+    private static final Pattern FALLBACK_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Pesos de ts_rank por defecto para A, B y C
+    private static final double WEIGHT_A = 1.0;
+    private static final double WEIGHT_B = 0.4;
+    private static final double WEIGHT_C = 0.2;
+
+    // Parámetros: texto, longitud mínima y número de alternativas por errata, equipo, tipo (dos
+    // veces, puede ser nulo), candidatos y límite
+    private static final String POSTGRES_SEARCH_SQL =
+            "WITH tokens AS (" +
+            "  SELECT DISTINCT t.lexeme AS token FROM unnest(to_tsvector('racing_search', ?)) AS t" +
+            "), clauses AS (" +
+            "  SELECT '(' || quote_literal(token) || ':*' || COALESCE((" +
+            "    SELECT string_agg(' | ' || quote_literal(s.word), '') FROM (" +
+            "      SELECT word FROM search_words WHERE length(token) >= ? AND word % token" +
+            "      ORDER BY word <-> token LIMIT ?) s), '') || ')' AS clause" +
+            "  FROM tokens" +
+            "), query AS (" +
+            "  SELECT CAST(string_agg(clause, ' & ') AS tsquery) AS q FROM clauses" +
+            ") " +
+            "SELECT c.entity_type, c.entity_id, c.title, ts_rank(c.document, (SELECT q FROM query)) AS rank " +
+            "FROM (" +
+            "  SELECT d.entity_type, d.entity_id, d.title, d.document FROM search_documents d" +
+            "  WHERE d.team_id = ? AND d.document @@ (SELECT q FROM query)" +
+            "  AND (CAST(? AS VARCHAR) IS NULL OR d.entity_type = ?)" +
+            "  LIMIT ?" +
+            ") c " +
+            "ORDER BY rank DESC, c.entity_type, c.entity_id " +
+            "LIMIT ?";
+
+    // Una sola sentencia y ordenada: con varios nodos ejecutando el job no hay interbloqueos
+    private static final String LOCK_VOCABULARY_WATERMARK_SQL =
+            "SELECT refreshed_at FROM search_vocabulary_refresh FOR UPDATE";
+
+    private static final String REFRESH_VOCABULARY_SQL =
+            "INSERT INTO search_words (word) " +
+            "SELECT DISTINCT w.word FROM search_documents d, unnest(tsvector_to_array(d.document)) AS w(word) " +
+            "WHERE d.updated_at >= ? AND length(w.word) >= " + MIN_VOCABULARY_WORD_LENGTH + " " +
+            "ORDER BY w.word " +
+            "ON CONFLICT DO NOTHING";
+
+    // Hora de inicio de la transacción, la misma que ponen los triggers en updated_at
+    private static final String ADVANCE_VOCABULARY_WATERMARK_SQL =
+            "UPDATE search_vocabulary_refresh SET refreshed_at = LOCALTIMESTAMP";
+
+    private static final List<FallbackSource> FALLBACK_SOURCES = List.of(
+            new FallbackSource(SearchResult.Type.VEHICLE, "vehicles v WHERE v.team_id = ?", "v.id", "v.name",
+                    List.of("v.name", "v.chassis_number", "v.engine_number", "v.notes"),
+                    new double[]{WEIGHT_A, WEIGHT_A, WEIGHT_A, WEIGHT_C}),
+            new FallbackSource(SearchResult.Type.EVENT, "events e WHERE e.team_id = ?", "e.id", "e.name",
+                    List.of("e.name", "e.circuit_name", "e.location", "e.description"),
+                    new double[]{WEIGHT_A, WEIGHT_B, WEIGHT_B, WEIGHT_C}),
+            new FallbackSource(SearchResult.Type.MAINTENANCE,
+                    "maintenance_records m JOIN vehicles v ON v.id = m.vehicle_id WHERE v.team_id = ?",
+                    "m.id", "m.description",
+                    List.of("m.description", "m.parts_replaced", "m.notes"),
+                    new double[]{WEIGHT_A, WEIGHT_B, WEIGHT_C}));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean postgres;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxCandidates;
+    private final int fuzzyMinLength;
+    private final int fuzzyAlternatives;
+    private final Duration inFlightMargin;
+
+    public SearchService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${spring.datasource.url:}") String datasourceUrl,
+                         @Value("${app.search.default-limit:20}") int defaultLimit,
+                         @Value("${app.search.max-limit:100}") int maxLimit,
+                         @Value("${app.search.max-candidates:2000}") int maxCandidates,
+                         @Value("${app.search.fuzzy-min-length:4}") int fuzzyMinLength,
+                         @Value("${app.search.fuzzy-alternatives:3}") int fuzzyAlternatives,
+                         @Value("${app.search.in-flight-margin:5m}") Duration inFlightMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxCandidates = maxCandidates;
+        this.fuzzyMinLength = fuzzyMinLength;
+        this.fuzzyAlternatives = fuzzyAlternatives;
+        this.inFlightMargin = inFlightMargin;
+    }
+
+    /**
+     * Registros del equipo que contienen todas las palabras de {@code query}, de más a menos
+     * relevantes. {@code type} restringe la búsqueda a un tipo de registro.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public List<SearchResult> search(Long teamId, String query, SearchResult.Type type, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        return postgres ? searchPostgres(teamId, text, type, size) : searchFallback(teamId, text, type, size);
+    }
+
+    private List<SearchResult> searchPostgres(Long teamId, String text, SearchResult.Type type, int size) {
+        String typeName = type != null ? type.name() : null;
+        return jdbcTemplate.query(POSTGRES_SEARCH_SQL,
+                (rs, rowNum) -> new SearchResult(SearchResult.Type.valueOf(rs.getString("entity_type")),
+                        rs.getLong("entity_id"), rs.getString("title"), rs.getDouble("rank")),
+                POSTGRES_SEPARATORS.matcher(text).replaceAll(" "), fuzzyMinLength, fuzzyAlternatives,
+                teamId, typeName, typeName, maxCandidates, size);
+    }
+
+    private List<SearchResult> searchFallback(Long teamId, String text, SearchResult.Type type, int size) {
+        List<String> tokens = Arrays.stream(FALLBACK_SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<SearchResult> results = new ArrayList<>();
+        for (FallbackSource source : FALLBACK_SOURCES) {
+            if (type == null || type == source.type()) {
+                results.addAll(source.search(jdbcTemplate, teamId, tokens, maxCandidates));
+            }
+        }
+        return results.stream()
+                .sorted(Comparator.comparingDouble(SearchResult::rank).reversed()
+                        .thenComparing(SearchResult::type)
+                        .thenComparing(SearchResult::id))
+                .limit(size)
+                .toList();
+    }
+
+    /**
+     * Añade al vocabulario las palabras de los documentos modificados desde la última pasada.
+     * updated_at es la hora de inicio de la transacción que escribió el documento, así que se
+     * vuelve atrás un margen para no perder las que aún no habían confirmado. Las palabras que
+     * dejan de usarse se quedan: solo sugieren alternativas que no encuentran nada.
+     *
+     * <p>La marca de agua está en {@code search_vocabulary_refresh} (V15), así que sobrevive a
+     * los reinicios; la fila queda bloqueada durante la pasada y los nodos se turnan.</p>
+     */
+    @Scheduled(fixedDelayString = "${app.search.vocabulary-refresh-interval:60000}",
+               initialDelayString = "${app.search.vocabulary-refresh-interval:60000}")
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public int refreshVocabulary() {
+        if (!postgres) {
+            return 0;
+        }
+        int added = transactionTemplate.execute(status -> {
+            Timestamp watermark = jdbcTemplate.queryForObject(LOCK_VOCABULARY_WATERMARK_SQL, Timestamp.class);
+            // Sin marca todavía se recorren todos los documentos
+            Timestamp since = watermark != null
+                    ? Timestamp.valueOf(watermark.toLocalDateTime().minus(inFlightMargin))
+                    : new Timestamp(0);
+            int inserted = jdbcTemplate.update(REFRESH_VOCABULARY_SQL, since);
+            jdbcTemplate.update(ADVANCE_VOCABULARY_WATERMARK_SQL);
+            return inserted;
+        });
+        if (added > 0) {
+            log.debug("Añadidas {} palabras al vocabulario de búsqueda", added);
+        }
+        return added;
+    }
+
+    /**
+     * Tabla de origen para la búsqueda sin PostgreSQL: {@code from} filtra por equipo con el
+     * primer parámetro y {@code columns} son los campos en los que se busca, con sus pesos.
+     */
+    private record FallbackSource(SearchResult.Type type, String from, String idColumn, String titleColumn,
+                                  List<String> columns, double[] weights) {
+
+        List<SearchResult> search(JdbcTemplate jdbcTemplate, Long teamId, List<String> tokens, int maxCandidates) {
+            StringBuilder sql = new StringBuilder("SELECT ").append(idColumn).append(", ").append(titleColumn)
+                    .append(", ").append(String.join(", ", columns))
+                    .append(" FROM ").append(from);
+            List<Object> args = new ArrayList<>();
+            args.add(teamId);
+            for (String token : tokens) {
+                sql.append(" AND (");
+                for (int i = 0; i < columns.size(); i++) {
+                    sql.append(i > 0 ? " OR " : "").append("LOWER(").append(columns.get(i)).append(") LIKE ?");
+                    args.add("%" + token + "%");
+                }
+                sql.append(")");
+            }
+            sql.append(" LIMIT ").append(maxCandidates);
+            return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+                double rank = 0;
+                for (String token : tokens) {
+                    double best = 0;
+                    for (int i = 0; i < columns.size(); i++) {
+                        String value = rs.getString(i + 3);
+                        if (value != null && value.toLowerCase(Locale.ROOT).contains(token)) {
+                            best = Math.max(best, weights[i]);
+                        }
+                    }
+                    rank += best;
+                }
+                return new SearchResult(type, rs.getLong(1), rs.getString(2), rank);
+            }, args.toArray());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.racingteam.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Condiciones SQL con parámetros posicionales; las de valor nulo se omiten.
+ */
+final class SqlConditions {
+
+    private final List<String> clauses = new ArrayList<>();
+    private final List<Object> params = new ArrayList<>();
+
+    SqlConditions add(String clause, Object value) {
+        if (value != null) {
+            clauses.add(clause);
+            params.add(value);
+        }
+        return this;
+    }
+
+    String where() {
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    Object[] params() {
+        return params.toArray();
+    }
+}
@@ -0,0 +1,134 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.SyncResponse;
+import com.racingteam.model.SyncEntityType;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.SyncTombstoneRepository;
+import com.racingteam.repository.TeamRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.repository.projection.SyncTombstoneView;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cambios de un equipo desde una marca de agua sobre updated_at, para que el cliente solo
+ * descargue lo que ha cambiado.
+ *
+ * <p>En PostgreSQL updated_at es la hora de inicio de la transacción que escribió la fila, y esa
+ * transacción puede confirmar después de que otra lectura ya haya avanzado la marca. Por eso la
+ * marca que se devuelve no es la hora actual sino el inicio de la transacción abierta más
+ * antigua, leído antes que los datos: cualquier fila que aún no sea visible tendrá un updated_at
+ * igual o posterior y llegará en la siguiente petición. A cambio, algunas filas se repiten.</p>
+ *
+ * <p>Las lápidas y el updated_at de las altas los ponen triggers de PostgreSQL (V7, V11, V14).
+ * En otras bases de datos (H2 en desarrollo y pruebas) no hay triggers ni, por tanto, registro
+ * de borrados: allí cada sincronización es completa, con la hora actual como marca de agua.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+
+    private static final LocalDateTime FULL_SYNC_SINCE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Excluye la propia conexión, que no escribe, y los procesos internos como autovacuum
+    private static final String POSTGRES_WATERMARK_SQL =
+            "SELECT CAST(LEAST(statement_timestamp(), COALESCE(MIN(xact_start), statement_timestamp())) " +
+            "AS TIMESTAMP) FROM pg_stat_activity " +
+            "WHERE datname = current_database() AND backend_type = 'client backend' " +
+            "AND xact_start IS NOT NULL AND pid <> pg_backend_pid()";
+
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final VehicleRepository vehicleRepository;
+    private final EventRepository eventRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final Duration tombstoneRetention;
+
+    public SyncService(TeamRepository teamRepository,
+                       UserRepository userRepository,
+                       VehicleRepository vehicleRepository,
+                       EventRepository eventRepository,
+                       SyncTombstoneRepository tombstoneRepository,
+                       JdbcTemplate jdbcTemplate,
+                       @Value("${spring.datasource.url:}") String datasourceUrl,
+                       @Value("${app.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.eventRepository = eventRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Filas del equipo creadas, modificadas o borradas desde {@code since}. Sin marca de agua, con
+     * una anterior a la retención de las lápidas o sin PostgreSQL, devuelve todos los datos del equipo.
+     */
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public SyncResponse getChanges(Long teamId, LocalDateTime since) {
+        // La marca se lee antes que los datos; ver la documentación de la clase
+        LocalDateTime watermark = watermark();
+        boolean full = !postgres || since == null || since.isBefore(LocalDateTime.now().minus(tombstoneRetention));
+        LocalDateTime from = full ? FULL_SYNC_SINCE : since;
+
+        Map<SyncEntityType, List<Long>> deleted = new EnumMap<>(SyncEntityType.class);
+        if (!full) {
+            for (SyncTombstoneView tombstone : tombstoneRepository.findChangedSince(teamId, from)) {
+                deleted.computeIfAbsent(tombstone.getEntityType(), type -> new ArrayList<>()).add(tombstone.getEntityId());
+            }
+        }
+        return new SyncResponse(watermark, full,
+                teamRepository.findSummariesChangedSince(teamId, from),
+                userRepository.findSummariesChangedSince(teamId, from),
+                vehicleRepository.findSummariesChangedSince(teamId, from),
+                eventRepository.findSummariesChangedSince(teamId, from),
+                vehicleRepository.findMaintenanceSummariesChangedSince(teamId, from),
+                deleted);
+    }
+
+    private LocalDateTime watermark() {
+        if (postgres) {
+            return jdbcTemplate.queryForObject(POSTGRES_WATERMARK_SQL, LocalDateTime.class);
+        }
+        return LocalDateTime.now();
+    }
+
+    /**
+     * Borra las lápidas más antiguas que la retención. Un cliente con una marca de agua anterior
+     * recibe una sincronización completa, así que nunca se pierde un borrado.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.purge-interval:86400000}",
+               initialDelayString = "${app.sync.purge-interval:86400000}")
+    @Transactional
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public int purgeTombstones() {
+        int purged = jdbcTemplate.update("DELETE FROM sync_tombstones WHERE deleted_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(tombstoneRetention)));
+        if (purged > 0) {
+            log.info("Purgadas {} lápidas de sincronización", purged);
+        }
+        return purged;
+    }
+}
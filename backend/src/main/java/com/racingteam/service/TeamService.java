@@ -0,0 +1,49 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.TeamOverview;
+import com.racingteam.dto.TeamSummary;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pantallas de equipo construidas con proyecciones DTO: una consulta por lista y ninguna
+ * entidad hidratada, así que no hay relaciones perezosas que recorrer.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamService {
+
+    private final ReferenceDataService referenceDataService;
+    private final UserRepository userRepository;
+    private final VehicleRepository vehicleRepository;
+    private final EventRepository eventRepository;
+    private final int upcomingEvents;
+
+    public TeamService(ReferenceDataService referenceDataService,
+                       UserRepository userRepository,
+                       VehicleRepository vehicleRepository,
+                       EventRepository eventRepository,
+                       @Value("${app.screens.team-overview.upcoming-events:10}") int upcomingEvents) {
+        this.referenceDataService = referenceDataService;
+        this.userRepository = userRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.eventRepository = eventRepository;
+        this.upcomingEvents = upcomingEvents;
+    }
+
+    // Los próximos eventos incluyen los que están en curso
+    public TeamOverview getOverview(Long teamId) {
+        TeamSummary team = TeamSummary.from(referenceDataService.getTeam(teamId));
+        return new TeamOverview(team,
+                userRepository.findSummariesByTeam(teamId),
+                vehicleRepository.findSummariesByTeam(teamId),
+                eventRepository.findUpcomingSummaries(teamId, LocalDateTime.now(), Limit.of(upcomingEvents)));
+    }
+}
@@ -0,0 +1,292 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.TeamStatsResponse;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.Event;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.Vehicle;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.repository.projection.EventStatsView;
+import com.racingteam.repository.projection.UserStatsView;
+import com.racingteam.repository.projection.VehicleStatsView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Contadores por equipo para el dashboard, mantenidos en memoria a partir de los
+ * cambios de {@link Vehicle}, {@link User} y {@link Event}.
+ *
+ * <p>Por cada entidad se guarda una instantánea mínima de lo que aporta a los contadores,
+ * de forma que una actualización solo aplica la diferencia. Un job periódico reconstruye
+ * todo desde la base de datos para corregir cualquier desviación (rollbacks, cambios
+ * hechos fuera de JPA, etc.). Los cambios que llegan mientras se reconstruye se aplican
+ * también sobre el estado nuevo antes de sustituir al anterior: como cada uno fija la
+ * instantánea de su entidad, repetir uno que la lectura ya incluía no altera nada.</p>
+ */
+@Service
+public class TeamStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamStatsService.class);
+
+    private final VehicleRepository vehicleRepository;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+
+    private volatile State state = new State();
+
+    // Cambios recibidos durante una reconstrucción; null si no hay ninguna en curso
+    private final Object changeLock = new Object();
+    private List<Consumer<State>> receivedDuringReload;
+
+    public TeamStatsService(VehicleRepository vehicleRepository,
+                            UserRepository userRepository,
+                            EventRepository eventRepository) {
+        this.vehicleRepository = vehicleRepository;
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+    }
+
+    public TeamStatsResponse getStats(Long teamId) {
+        TeamCounters counters = state.teams.get(teamId);
+        return counters != null ? counters.toResponse(LocalDateTime.now()) : new TeamStatsResponse(0, 0, 0, 0, 0, 0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent change) {
+        Object entity = change.getEntity();
+        Consumer<State> apply;
+        if (entity instanceof Vehicle vehicle) {
+            Long id = vehicle.getId();
+            VehicleSnapshot snapshot = change.isDeleted() ? null : VehicleSnapshot.of(vehicle);
+            apply = target -> target.applyVehicle(id, snapshot);
+        } else if (entity instanceof User user) {
+            Long id = user.getId();
+            Long teamId = change.isDeleted() ? null : teamIdOf(user.getTeam());
+            apply = target -> target.applyUser(id, teamId);
+        } else if (entity instanceof Event event) {
+            Long id = event.getId();
+            EventSnapshot snapshot = change.isDeleted() ? null : EventSnapshot.of(event);
+            apply = target -> target.applyEvent(id, snapshot);
+        } else {
+            return;
+        }
+        synchronized (changeLock) {
+            apply.accept(state);
+            if (receivedDuringReload != null) {
+                receivedDuringReload.add(apply);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+    }
+
+    /**
+     * Reconstruye los contadores desde la base de datos con proyecciones ligeras y los
+     * sustituye de forma atómica, con los cambios recibidos durante la lectura ya aplicados.
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:300000}",
+               initialDelayString = "${app.stats.reconcile-interval:300000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        // Se empieza a registrar antes de leer: lo confirmado antes ya está en la lectura
+        List<Consumer<State>> received = new ArrayList<>();
+        synchronized (changeLock) {
+            receivedDuringReload = received;
+        }
+        State fresh = new State();
+        for (VehicleStatsView view : vehicleRepository.findAllStatsViews()) {
+            fresh.applyVehicle(view.getId(), VehicleSnapshot.of(view));
+        }
+        for (UserStatsView view : userRepository.findAllStatsViews()) {
+            fresh.applyUser(view.getId(), view.getTeamId());
+        }
+        for (EventStatsView view : eventRepository.findAllStatsViews()) {
+            fresh.applyEvent(view.getId(), new EventSnapshot(view.getTeamId(), view.getStartDate()));
+        }
+
+        State previous;
+        synchronized (changeLock) {
+            received.forEach(apply -> apply.accept(fresh));
+            receivedDuringReload = null;
+            previous = state;
+            state = fresh;
+        }
+        if (!previous.teams.isEmpty() && !previous.sameCountersAs(fresh)) {
+            log.info("Estadísticas de equipos corregidas tras la reconciliación");
+        }
+    }
+
+    private static Long teamIdOf(Team team) {
+        return team != null ? team.getId() : null;
+    }
+
+    private record VehicleSnapshot(Long teamId, boolean active, boolean maintenanceDue) {
+
+        static VehicleSnapshot of(Vehicle vehicle) {
+            return new VehicleSnapshot(teamIdOf(vehicle.getTeam()),
+                    Boolean.TRUE.equals(vehicle.getActive()),
+                    vehicle.needsMaintenance());
+        }
+
+        static VehicleSnapshot of(VehicleStatsView view) {
+            return new VehicleSnapshot(view.getTeamId(),
+                    Boolean.TRUE.equals(view.getActive()),
+                    Vehicle.isMaintenanceDue(view.getTotalHours(), view.getNextMaintenanceHours(),
+                            view.getTotalKilometers(), view.getNextMaintenanceKm()));
+        }
+    }
+
+    private record EventSnapshot(Long teamId, LocalDateTime startDate) {
+
+        static EventSnapshot of(Event event) {
+            return new EventSnapshot(teamIdOf(event.getTeam()), event.getStartDate());
+        }
+    }
+
+    /**
+     * Instantáneas por entidad y contadores por equipo. Las escrituras se serializan sobre
+     * la propia instancia; las lecturas solo bloquean los contadores del equipo consultado.
+     */
+    private static final class State {
+
+        private final Map<Long, TeamCounters> teams = new ConcurrentHashMap<>();
+        private final Map<Long, VehicleSnapshot> vehicles = new HashMap<>();
+        private final Map<Long, Long> users = new HashMap<>();
+        private final Map<Long, EventSnapshot> events = new HashMap<>();
+
+        synchronized void applyVehicle(Long id, VehicleSnapshot current) {
+            VehicleSnapshot previous = current != null ? vehicles.put(id, current) : vehicles.remove(id);
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+            if (previous != null && previous.teamId() != null) {
+                countersFor(previous.teamId()).addVehicle(-1, previous.active(), previous.maintenanceDue());
+            }
+            if (current != null && current.teamId() != null) {
+                countersFor(current.teamId()).addVehicle(1, current.active(), current.maintenanceDue());
+            }
+        }
+
+        synchronized void applyUser(Long id, Long teamId) {
+            Long previous = teamId != null ? users.put(id, teamId) : users.remove(id);
+            if (Objects.equals(previous, teamId)) {
+                return;
+            }
+            if (previous != null) {
+                countersFor(previous).addUser(-1);
+            }
+            if (teamId != null) {
+                countersFor(teamId).addUser(1);
+            }
+        }
+
+        synchronized void applyEvent(Long id, EventSnapshot current) {
+            EventSnapshot previous = current != null ? events.put(id, current) : events.remove(id);
+            if (Objects.equals(previous, current)) {
+                return;
+            }
+            if (previous != null && previous.teamId() != null) {
+                countersFor(previous.teamId()).removeEvent(previous.startDate());
+            }
+            if (current != null && current.teamId() != null) {
+                countersFor(current.teamId()).addEvent(current.startDate());
+            }
+        }
+
+        boolean sameCountersAs(State other) {
+            LocalDateTime now = LocalDateTime.now();
+            if (!teams.keySet().equals(other.teams.keySet())) {
+                return false;
+            }
+            for (Entry<Long, TeamCounters> entry : teams.entrySet()) {
+                if (!entry.getValue().toResponse(now).equals(other.teams.get(entry.getKey()).toResponse(now))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private TeamCounters countersFor(Long teamId) {
+            return teams.computeIfAbsent(teamId, id -> new TeamCounters());
+        }
+    }
+
+    /**
+     * Contadores de un equipo. Los eventos próximos se guardan como multiconjunto ordenado
+     * por fecha de inicio: al leer se descartan los que ya han empezado, con coste amortizado
+     * constante.
+     */
+    private static final class TeamCounters {
+
+        private long totalVehicles;
+        private long activeVehicles;
+        private long maintenanceDue;
+        private long totalUsers;
+        private long totalEvents;
+        private long upcomingEvents;
+        private final TreeMap<LocalDateTime, Integer> upcomingStarts = new TreeMap<>();
+
+        synchronized void addVehicle(int delta, boolean active, boolean due) {
+            totalVehicles += delta;
+            if (active) {
+                activeVehicles += delta;
+            }
+            if (due) {
+                maintenanceDue += delta;
+            }
+        }
+
+        synchronized void addUser(int delta) {
+            totalUsers += delta;
+        }
+
+        synchronized void addEvent(LocalDateTime startDate) {
+            totalEvents++;
+            if (startDate != null && startDate.isAfter(LocalDateTime.now())) {
+                upcomingStarts.merge(startDate, 1, Integer::sum);
+                upcomingEvents++;
+            }
+        }
+
+        synchronized void removeEvent(LocalDateTime startDate) {
+            totalEvents--;
+            if (startDate != null && upcomingStarts.containsKey(startDate)) {
+                upcomingStarts.computeIfPresent(startDate, (key, count) -> count > 1 ? count - 1 : null);
+                upcomingEvents--;
+            }
+        }
+
+        synchronized TeamStatsResponse toResponse(LocalDateTime now) {
+            Entry<LocalDateTime, Integer> first;
+            while ((first = upcomingStarts.firstEntry()) != null && !first.getKey().isAfter(now)) {
+                upcomingStarts.pollFirstEntry();
+                upcomingEvents -= first.getValue();
+            }
+            return new TeamStatsResponse(totalVehicles, activeVehicles, totalUsers,
+                    upcomingEvents, maintenanceDue, totalEvents);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.UsageDelta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Registro local de los deltas de uso aceptados y todavía no volcados a la base de datos.
+ *
+ * <p>Los deltas se añaden al segmento activo y se sincronizan a disco antes de confirmar la
+ * petición. Al volcar, el segmento activo se sella con un número de secuencia y solo se borra
+ * cuando el UPDATE ha hecho commit. Tras una caída se vuelven a leer todos los segmentos, por
+ * lo que un delta puede aplicarse más de una vez pero nunca se pierde.</p>
+ *
+ * <p>Cada delta es una línea terminada en salto de línea. Una caída a mitad de escritura deja
+ * una última línea sin terminar: al leer se descarta y, en el segmento activo, se trunca antes
+ * de seguir añadiendo, para que el siguiente delta no se pegue al fragmento.</p>
+ */
+@Component
+public class UsageWriteAheadLog {
+
+    private static final String ACTIVE_SEGMENT = "usage-wal.log";
+    private static final String SEALED_PREFIX = "usage-wal-";
+    // Deltas que la base de datos rechaza; no se recuperan al arrancar
+    private static final String DEAD_LETTER = "usage-dead-letter.log";
+
+    private final Path directory;
+    // ReentrantLock y no synchronized: con hilos virtuales, esperar un monitor durante el
+    // force() fijaría el hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private long nextSequence;
+
+    public UsageWriteAheadLog(@Value("${app.usage.wal-dir:${java.io.tmpdir}/racing-usage-wal}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public List<UsageDelta> recover() {
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<UsageDelta> deltas = new ArrayList<>();
+            for (Path segment : sealedSegments()) {
+                nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+                readInto(segment, deltas);
+            }
+            Path active = directory.resolve(ACTIVE_SEGMENT);
+            if (Files.exists(active)) {
+                long complete = readInto(active, deltas);
+                if (complete < Files.size(active)) {
+                    try (FileChannel torn = FileChannel.open(active, StandardOpenOption.WRITE)) {
+                        torn.truncate(complete);
+                        torn.force(false);
+                    }
+                }
+            }
+            return deltas;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recuperar el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void append(List<UsageDelta> deltas) {
+        ByteBuffer buffer = ByteBuffer.wrap(lines(deltas).getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            FileChannel active = activeChannel();
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            active.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sella el segmento activo y devuelve todos los segmentos sellados, que contienen
+     * exactamente los deltas pendientes de volcar.
+     */
+    public List<Path> seal() {
+        lock.lock();
+        try {
+            closeActive();
+            Path active = directory.resolve(ACTIVE_SEGMENT);
+            if (Files.exists(active)) {
+                Files.move(active, directory.resolve(SEALED_PREFIX + nextSequence++ + ".log"),
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            return sealedSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo sellar el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sustituye los segmentos sellados por uno nuevo con solo los deltas que quedan pendientes
+     * y devuelve los segmentos resultantes. El nuevo se sincroniza antes de borrar los anteriores.
+     */
+    public List<Path> replace(List<Path> segments, List<UsageDelta> remaining) {
+        lock.lock();
+        try {
+            Path segment = directory.resolve(SEALED_PREFIX + nextSequence++ + ".log");
+            write(segment, remaining);
+            for (Path previous : segments) {
+                Files.deleteIfExists(previous);
+            }
+            return sealedSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo reescribir el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aparta un delta que la base de datos rechaza en el registro de descartes, con el motivo,
+     * para revisarlo a mano sin bloquear el resto.
+     */
+    public void quarantine(UsageDelta delta, String reason) {
+        String line = format(delta) + ';' + reason.replace('\n', ' ') + '\n';
+        lock.lock();
+        try (FileChannel deadLetter = FileChannel.open(directory.resolve(DEAD_LETTER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                deadLetter.write(buffer);
+            }
+            deadLetter.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el registro de descartes de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void delete(List<Path> segments) {
+        lock.lock();
+        try {
+            for (Path segment : segments) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo borrar el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closeActive();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cerrar el registro de uso", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void write(Path segment, List<UsageDelta> deltas) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines(deltas).getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static String lines(List<UsageDelta> deltas) {
+        StringBuilder lines = new StringBuilder(deltas.size() * 32);
+        for (UsageDelta delta : deltas) {
+            lines.append(format(delta)).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private static String format(UsageDelta delta) {
+        return delta.vehicleId() + ";" + plain(delta.hours()) + ";" + plain(delta.kilometers());
+    }
+
+    private FileChannel activeChannel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(ACTIVE_SEGMENT),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeActive() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private List<Path> sealedSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEALED_PREFIX))
+                        .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                        .toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEALED_PREFIX.length(), name.length() - ".log".length()));
+    }
+
+    // Devuelve los bytes que ocupan las líneas completas del segmento
+    private static long readInto(Path segment, List<UsageDelta> deltas) throws IOException {
+        byte[] content = Files.readAllBytes(segment);
+        int complete = content.length;
+        // Lo que sigue al último salto de línea es la escritura interrumpida por una caída
+        while (complete > 0 && content[complete - 1] != '\n') {
+            complete--;
+        }
+        new String(content, 0, complete, StandardCharsets.UTF_8).lines().forEach(line -> {
+            String[] fields = line.split(";");
+            if (fields.length == 3) {
+                deltas.add(new UsageDelta(Long.valueOf(fields[0]), new BigDecimal(fields[1]), new BigDecimal(fields[2])));
+            }
+        });
+        return complete;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "0";
+    }
+}
@@ -0,0 +1,25 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.UserFilter;
+import com.racingteam.dto.UserSummary;
+import com.racingteam.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class UserService {
+
+    private final UserRepository userRepository;
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public CursorPage<UserSummary> findPage(UserFilter filter, String cursor, Integer limit) {
+        Long afterId = KeysetCursor.decodeId(cursor);
+        return KeysetCursor.page(limit, rows -> userRepository.findSummariesAfter(filter, afterId, rows),
+                user -> KeysetCursor.encodeId(user.id()));
+    }
+}
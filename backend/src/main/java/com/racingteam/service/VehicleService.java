@@ -0,0 +1,57 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.CursorPage;
+import com.racingteam.dto.VehicleDetail;
+import com.racingteam.dto.VehicleFilter;
+import com.racingteam.dto.VehicleSummary;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.repository.projection.MaintenanceDueView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class VehicleService {
+
+    private final VehicleRepository vehicleRepository;
+    private final ReferenceDataService referenceDataService;
+    private final int defaultMaintenanceLimit;
+    private final int maxMaintenanceLimit;
+
+    public VehicleService(VehicleRepository vehicleRepository,
+                          ReferenceDataService referenceDataService,
+                          @Value("${app.screens.vehicle-detail.maintenance-limit:10}") int defaultMaintenanceLimit,
+                          @Value("${app.screens.vehicle-detail.max-maintenance-limit:100}") int maxMaintenanceLimit) {
+        this.vehicleRepository = vehicleRepository;
+        this.referenceDataService = referenceDataService;
+        this.defaultMaintenanceLimit = defaultMaintenanceLimit;
+        this.maxMaintenanceLimit = maxMaintenanceLimit;
+    }
+
+    /**
+     * Ficha del vehículo con sus últimos mantenimientos. El vehículo sale de la caché de
+     * referencia y los mantenimientos de una proyección limitada, sin cargar la colección.
+     */
+    public VehicleDetail getDetail(Long vehicleId, Integer maintenanceLimit) {
+        VehicleSummary vehicle = VehicleSummary.from(referenceDataService.getVehicle(vehicleId));
+        int limit = maintenanceLimit == null || maintenanceLimit <= 0
+                ? defaultMaintenanceLimit
+                : Math.min(maintenanceLimit, maxMaintenanceLimit);
+        return new VehicleDetail(vehicle,
+                vehicleRepository.findRecentMaintenanceSummaries(vehicleId, Limit.of(limit)));
+    }
+
+    public List<MaintenanceDueView> findMaintenanceDue(Long teamId) {
+        return vehicleRepository.findMaintenanceDueByTeam(teamId);
+    }
+
+    public CursorPage<VehicleSummary> findPage(VehicleFilter filter, String cursor, Integer limit) {
+        Long afterId = KeysetCursor.decodeId(cursor);
+        return KeysetCursor.page(limit, rows -> vehicleRepository.findSummariesAfter(filter, afterId, rows),
+                vehicle -> KeysetCursor.encodeId(vehicle.id()));
+    }
+}
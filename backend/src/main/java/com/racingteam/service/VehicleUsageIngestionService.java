@@ -0,0 +1,303 @@
+package com.racingteam.service;
+
+import com.racingteam.config.MetricsConfig;
+import com.racingteam.dto.UsageDelta;
+import com.racingteam.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingesta de horas y kilómetros de uso enviados desde el muro de boxes.
+ *
+ * <p>Los deltas se registran en {@link UsageWriteAheadLog}, se acumulan por vehículo en memoria
+ * y se vuelcan periódicamente con un único UPDATE incremental en lote, en lugar de cargar y
+ * guardar cada {@code Vehicle}. Si el volumen pendiente supera el límite configurado, las nuevas
+ * peticiones se rechazan hasta que el siguiente volcado libere espacio.</p>
+ *
+ * <p>Los deltas de vehículos que no existen o son de otro equipo se rechazan al recibirlos. Si aun así el UPDATE en
+ * lote falla por un error que no se arregla reintentando (por ejemplo un contador que desborda
+ * la columna), el lote se vuelca fila a fila y las filas rechazadas se apartan en el registro de
+ * descartes de {@link UsageWriteAheadLog}; solo se reintentan los errores transitorios.</p>
+ *
+ * <p>El UPDATE no pasa por JPA, así que las estadísticas derivadas de las entidades se ponen al
+ * día en su reconciliación periódica.</p>
+ */
+@Service
+public class VehicleUsageIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(VehicleUsageIngestionService.class);
+
+    private static final String UPDATE_USAGE_SQL =
+            "UPDATE vehicles SET total_hours = COALESCE(total_hours, 0) + ?, " +
+            "total_kilometers = COALESCE(total_kilometers, 0) + ? WHERE id = ?";
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UsageWriteAheadLog writeAheadLog;
+    private final ReferenceDataService referenceDataService;
+    private final int maxPendingDeltas;
+
+    // El submit escribe y sincroniza el registro local con el cerrojo tomado; con hilos
+    // virtuales un monitor fijaría el hilo portador durante toda la escritura
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Long, UsageTotals> buffer = new HashMap<>();
+    private int pendingDeltas;
+    private PendingBatch inFlight;
+    // Un solo volcado a la vez: el lote en curso se aplica fuera de lock y otro volcado que lo
+    // encontrara lo aplicaría de nuevo. También espera al programado antes del volcado de cierre.
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private boolean closed;
+
+    public VehicleUsageIngestionService(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        UsageWriteAheadLog writeAheadLog,
+                                        ReferenceDataService referenceDataService,
+                                        @Value("${app.usage.max-pending-deltas:100000}") int maxPendingDeltas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.writeAheadLog = writeAheadLog;
+        this.referenceDataService = referenceDataService;
+        this.maxPendingDeltas = maxPendingDeltas;
+    }
+
+    @PostConstruct
+    public void recover() {
+        List<UsageDelta> recovered = writeAheadLog.recover();
+        lock.lock();
+        try {
+            recovered.forEach(this::fold);
+            pendingDeltas += recovered.size();
+        } finally {
+            lock.unlock();
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recuperados {} deltas de uso pendientes del registro local", recovered.size());
+        }
+    }
+
+    /**
+     * Acepta un lote de deltas de los vehículos del equipo. Devuelve {@code false} sin registrar
+     * nada si el lote no cabe en el límite de deltas pendientes.
+     *
+     * @throws ResourceNotFoundException si algún delta es de un vehículo que no existe o que no
+     *                                   es del equipo
+     */
+    public boolean submit(Long teamId, List<UsageDelta> deltas) {
+        requireTeamVehicles(teamId, deltas);
+        lock.lock();
+        try {
+            if (pendingDeltas + deltas.size() > maxPendingDeltas) {
+                return false;
+            }
+            writeAheadLog.append(deltas);
+            deltas.forEach(this::fold);
+            pendingDeltas += deltas.size();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingDeltas() {
+        lock.lock();
+        try {
+            return pendingDeltas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.usage.flush-interval:1000}")
+    @Timed(MetricsConfig.JDBC_OPERATIONS)
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (!closed) {
+                flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flush();
+            closed = true;
+            writeAheadLog.close();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        PendingBatch batch;
+        lock.lock();
+        try {
+            // Un lote fallido se reintenta tal cual antes de sellar nuevos deltas
+            if (inFlight == null) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                inFlight = new PendingBatch(buffer, writeAheadLog.seal(), pendingDeltas);
+                buffer = new HashMap<>();
+            }
+            batch = inFlight;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            apply(batch.totals());
+        } catch (DataAccessException e) {
+            if (isTransient(e)) {
+                log.warn("No se pudo volcar el uso de {} vehículos, se reintentará: {}",
+                        batch.totals().size(), e.getMessage());
+                return;
+            }
+            log.warn("El volcado en lote del uso de {} vehículos ha fallado, se vuelca fila a fila: {}",
+                    batch.totals().size(), e.getMessage());
+            Map<Long, UsageTotals> retry = applyRowByRow(batch.totals());
+            if (!retry.isEmpty()) {
+                // Solo queda pendiente lo que ha fallado por un error transitorio
+                List<Path> segments = writeAheadLog.replace(batch.segments(), toDeltas(retry));
+                lock.lock();
+                try {
+                    pendingDeltas -= batch.deltaCount() - retry.size();
+                    inFlight = new PendingBatch(retry, segments, retry.size());
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+
+        writeAheadLog.delete(batch.segments());
+        lock.lock();
+        try {
+            pendingDeltas -= batch.deltaCount();
+            inFlight = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(Map<Long, UsageTotals> totals) {
+        // Orden por id para que dos nodos volcando a la vez bloqueen filas en el mismo orden
+        List<Entry<Long, UsageTotals>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Entry.comparingByKey());
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPDATE_USAGE_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setBigDecimal(1, row.getValue().hours);
+                    ps.setBigDecimal(2, row.getValue().kilometers);
+                    ps.setLong(3, row.getKey());
+                }));
+        // El UPDATE no pasa por JPA: los vehículos en caché tienen los totales anteriores
+        referenceDataService.evictVehicles(totals.keySet());
+    }
+
+    /**
+     * Vuelca cada vehículo en su propia transacción. Las filas que la base de datos rechaza se
+     * apartan en el registro de descartes; se devuelven las que han fallado por un error
+     * transitorio, para reintentarlas.
+     */
+    private Map<Long, UsageTotals> applyRowByRow(Map<Long, UsageTotals> totals) {
+        Map<Long, UsageTotals> retry = new HashMap<>();
+        List<Entry<Long, UsageTotals>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Entry.comparingByKey());
+        for (Entry<Long, UsageTotals> row : rows) {
+            try {
+                apply(Map.of(row.getKey(), row.getValue()));
+            } catch (DataAccessException e) {
+                if (isTransient(e)) {
+                    retry.put(row.getKey(), row.getValue());
+                } else {
+                    log.error("Uso del vehículo {} rechazado ({} h, {} km), se aparta en el registro de descartes: {}",
+                            row.getKey(), row.getValue().hours, row.getValue().kilometers, e.getMessage());
+                    writeAheadLog.quarantine(toDelta(row.getKey(), row.getValue()), e.getMessage());
+                }
+            }
+        }
+        return retry;
+    }
+
+    // Caídas de la conexión o del servidor, bloqueos y tiempos de espera: reintentar puede funcionar
+    private static boolean isTransient(DataAccessException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void requireTeamVehicles(Long teamId, List<UsageDelta> deltas) {
+        List<Long> ids = deltas.stream().map(UsageDelta::vehicleId).distinct().toList();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(teamId);
+            args.addAll(chunk);
+            Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM vehicles WHERE team_id = ? " +
+                    "AND id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+                    Long.class, args.toArray()));
+            for (Long id : chunk) {
+                if (!existing.contains(id)) {
+                    throw new ResourceNotFoundException("Vehículo", id);
+                }
+            }
+        }
+    }
+
+    private static List<UsageDelta> toDeltas(Map<Long, UsageTotals> totals) {
+        return totals.entrySet().stream().map(row -> toDelta(row.getKey(), row.getValue())).toList();
+    }
+
+    private static UsageDelta toDelta(Long vehicleId, UsageTotals totals) {
+        return new UsageDelta(vehicleId, totals.hours, totals.kilometers);
+    }
+
+    private void fold(UsageDelta delta) {
+        UsageTotals totals = buffer.computeIfAbsent(delta.vehicleId(), id -> new UsageTotals());
+        if (delta.hours() != null) {
+            totals.hours = totals.hours.add(delta.hours());
+        }
+        if (delta.kilometers() != null) {
+            totals.kilometers = totals.kilometers.add(delta.kilometers());
+        }
+    }
+
+    private static final class UsageTotals {
+        private BigDecimal hours = BigDecimal.ZERO;
+        private BigDecimal kilometers = BigDecimal.ZERO;
+    }
+
+    private record PendingBatch(Map<Long, UsageTotals> totals, List<Path> segments, int deltaCount) {
+    }
+}
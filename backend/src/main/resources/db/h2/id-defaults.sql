@@ -0,0 +1,13 @@
+-- Con ddl-auto Hibernate crea las columnas id sin valor por defecto. Se replica el nextval()
+-- de las columnas BIGSERIAL de PostgreSQL para que las inserciones JDBC sin id (importación
+-- masiva) funcionen también sobre H2.
+
+ALTER TABLE teams ALTER COLUMN id SET DEFAULT NEXT VALUE FOR teams_id_seq;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_id_seq;
+ALTER TABLE vehicles ALTER COLUMN id SET DEFAULT NEXT VALUE FOR vehicles_id_seq;
+ALTER TABLE maintenance_records ALTER COLUMN id SET DEFAULT NEXT VALUE FOR maintenance_records_id_seq;
+ALTER TABLE events ALTER COLUMN id SET DEFAULT NEXT VALUE FOR events_id_seq;
+
+-- alerts no tiene generador en la entidad (solo se escribe por JDBC), así que tampoco secuencia
+CREATE SEQUENCE IF NOT EXISTS alerts_id_seq;
+ALTER TABLE alerts ALTER COLUMN id SET DEFAULT NEXT VALUE FOR alerts_id_seq;
@@ -0,0 +1,18 @@
+-- Con ddl-auto Hibernate crea las columnas de la proyección de V2 como columnas normales, que
+-- nadie escribe y quedan a NULL. Se vuelven a crear como columnas calculadas con las mismas
+-- expresiones que en PostgreSQL, para que /vehicles/maintenance-due y los resúmenes se comporten
+-- igual sobre H2. H2 no tiene índices parciales: idx_vehicles_maintenance_due no se replica.
+
+ALTER TABLE vehicles DROP COLUMN hours_until_maintenance;
+ALTER TABLE vehicles DROP COLUMN km_until_maintenance;
+ALTER TABLE vehicles DROP COLUMN maintenance_due;
+
+ALTER TABLE vehicles ADD COLUMN hours_until_maintenance DECIMAL(10,2)
+    GENERATED ALWAYS AS (next_maintenance_hours - COALESCE(total_hours, 0));
+ALTER TABLE vehicles ADD COLUMN km_until_maintenance DECIMAL(10,2)
+    GENERATED ALWAYS AS (next_maintenance_km - COALESCE(total_kilometers, 0));
+ALTER TABLE vehicles ADD COLUMN maintenance_due BOOLEAN
+    GENERATED ALWAYS AS (
+        COALESCE(total_hours >= next_maintenance_hours, false)
+        OR COALESCE(total_kilometers >= next_maintenance_km, false)
+    ) NOT NULL;
@@ -0,0 +1,177 @@
+-- Búsqueda de texto libre sobre vehículos, eventos y mantenimientos: un documento tsvector por
+-- registro, mantenido por triggers, y un vocabulario con trigramas para tolerar erratas.
+-- Las tres extensiones son "trusted" desde PostgreSQL 13: basta con ser dueño de la base de datos.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Sin diccionario de idioma: los textos mezclan español e inglés y los números de chasis y
+-- de motor tienen que quedar tal cual. Solo se pasan a minúsculas y se quitan los acentos.
+CREATE TEXT SEARCH CONFIGURATION racing_search (COPY = simple);
+ALTER TEXT SEARCH CONFIGURATION racing_search
+    ALTER MAPPING FOR hword, hword_part, word WITH unaccent, simple;
+
+-- entity_type toma los mismos valores que las lápidas de V7. El equipo de un mantenimiento es
+-- el de su vehículo, copiado aquí para filtrar por equipo en el mismo índice.
+CREATE TABLE search_documents (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    team_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    document TSVECTOR NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+-- btree_gin permite poner team_id en el mismo índice GIN que el documento
+CREATE INDEX idx_search_documents_team_document ON search_documents USING GIN (team_id, document);
+CREATE INDEX idx_search_documents_updated_at ON search_documents(updated_at);
+
+-- Palabras de los documentos. Lo alimenta SearchService periódicamente en lugar de los
+-- triggers: varias transacciones insertando las mismas palabras nuevas en distinto orden
+-- podrían bloquearse entre sí.
+CREATE TABLE search_words (
+    word TEXT PRIMARY KEY
+);
+
+-- GiST y no GIN para que "ORDER BY word <-> ?" devuelva las más parecidas desde el índice
+CREATE INDEX idx_search_words_trgm ON search_words USING GIST (word gist_trgm_ops);
+
+CREATE OR REPLACE FUNCTION upsert_search_document(p_type TEXT, p_id BIGINT, p_team_id BIGINT,
+                                                  p_title TEXT, p_document TSVECTOR)
+RETURNS VOID AS $$
+BEGIN
+    INSERT INTO search_documents (entity_type, entity_id, team_id, title, document, updated_at)
+    VALUES (p_type, p_id, p_team_id, LEFT(COALESCE(p_title, ''), 255), p_document, CURRENT_TIMESTAMP)
+    ON CONFLICT (entity_type, entity_id) DO UPDATE
+        SET team_id = EXCLUDED.team_id,
+            title = EXCLUDED.title,
+            document = EXCLUDED.document,
+            updated_at = EXCLUDED.updated_at;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Guiones, barras, puntos y guiones bajos separan palabras: "WDB-123-45" se indexa como wdb,
+-- 123 y 45 en lugar de como wdb, -123 y -45, que el analizador tomaría por números negativos.
+-- SearchService aplica lo mismo al texto buscado.
+CREATE OR REPLACE FUNCTION search_vector(p_text TEXT, p_weight "char")
+RETURNS TSVECTOR AS $$
+    SELECT setweight(to_tsvector('racing_search',
+                                 regexp_replace(COALESCE(p_text, ''), '[-/_.]+', ' ', 'g')), p_weight);
+$$ LANGUAGE sql STABLE;
+
+-- Pesos: A identificadores y nombres, B circuito, lugar y piezas, C textos libres
+CREATE OR REPLACE FUNCTION vehicle_search_document(v vehicles)
+RETURNS TSVECTOR AS $$
+    SELECT search_vector(concat_ws(' ', v.name, v.chassis_number, v.engine_number), 'A')
+        || search_vector(v.notes, 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION event_search_document(e events)
+RETURNS TSVECTOR AS $$
+    SELECT search_vector(e.name, 'A')
+        || search_vector(concat_ws(' ', e.circuit_name, e.location), 'B')
+        || search_vector(e.description, 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION maintenance_search_document(m maintenance_records)
+RETURNS TSVECTOR AS $$
+    SELECT search_vector(m.description, 'A')
+        || search_vector(m.parts_replaced, 'B')
+        || search_vector(m.notes, 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION sync_vehicle_search_document()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM search_documents WHERE entity_type = 'VEHICLE' AND entity_id = OLD.id;
+        RETURN NULL;
+    END IF;
+    PERFORM upsert_search_document('VEHICLE', NEW.id, NEW.team_id, NEW.name, vehicle_search_document(NEW));
+    -- Los mantenimientos del vehículo pasan con él al nuevo equipo
+    IF TG_OP = 'UPDATE' AND OLD.team_id IS DISTINCT FROM NEW.team_id THEN
+        UPDATE search_documents SET team_id = NEW.team_id, updated_at = CURRENT_TIMESTAMP
+        WHERE entity_type = 'MAINTENANCE'
+          AND entity_id IN (SELECT id FROM maintenance_records WHERE vehicle_id = NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sync_event_search_document()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM search_documents WHERE entity_type = 'EVENT' AND entity_id = OLD.id;
+        RETURN NULL;
+    END IF;
+    PERFORM upsert_search_document('EVENT', NEW.id, NEW.team_id, NEW.name, event_search_document(NEW));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sync_maintenance_search_document()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_team_id BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM search_documents WHERE entity_type = 'MAINTENANCE' AND entity_id = OLD.id;
+        RETURN NULL;
+    END IF;
+    SELECT team_id INTO v_team_id FROM vehicles WHERE id = NEW.vehicle_id;
+    PERFORM upsert_search_document('MAINTENANCE', NEW.id, v_team_id, NEW.description,
+                                   maintenance_search_document(NEW));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Las actualizaciones solo reindexan si cambia un campo indexado: los UPDATE de horas y
+-- kilómetros de la ingesta de uso no pasan por aquí.
+CREATE TRIGGER vehicles_search_document AFTER INSERT OR DELETE ON vehicles
+    FOR EACH ROW EXECUTE FUNCTION sync_vehicle_search_document();
+
+CREATE TRIGGER vehicles_search_document_update AFTER UPDATE ON vehicles
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name
+        OR OLD.chassis_number IS DISTINCT FROM NEW.chassis_number
+        OR OLD.engine_number IS DISTINCT FROM NEW.engine_number
+        OR OLD.notes IS DISTINCT FROM NEW.notes
+        OR OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION sync_vehicle_search_document();
+
+CREATE TRIGGER events_search_document AFTER INSERT OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION sync_event_search_document();
+
+CREATE TRIGGER events_search_document_update AFTER UPDATE ON events
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name
+        OR OLD.description IS DISTINCT FROM NEW.description
+        OR OLD.circuit_name IS DISTINCT FROM NEW.circuit_name
+        OR OLD.location IS DISTINCT FROM NEW.location
+        OR OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION sync_event_search_document();
+
+CREATE TRIGGER maintenance_records_search_document AFTER INSERT OR DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION sync_maintenance_search_document();
+
+CREATE TRIGGER maintenance_records_search_document_update AFTER UPDATE ON maintenance_records
+    FOR EACH ROW WHEN (OLD.description IS DISTINCT FROM NEW.description
+        OR OLD.parts_replaced IS DISTINCT FROM NEW.parts_replaced
+        OR OLD.notes IS DISTINCT FROM NEW.notes
+        OR OLD.vehicle_id IS DISTINCT FROM NEW.vehicle_id)
+    EXECUTE FUNCTION sync_maintenance_search_document();
+
+-- Datos existentes
+INSERT INTO search_documents (entity_type, entity_id, team_id, title, document)
+SELECT 'VEHICLE', v.id, v.team_id, LEFT(v.name, 255), vehicle_search_document(v) FROM vehicles v;
+
+INSERT INTO search_documents (entity_type, entity_id, team_id, title, document)
+SELECT 'EVENT', e.id, e.team_id, LEFT(e.name, 255), event_search_document(e) FROM events e;
+
+INSERT INTO search_documents (entity_type, entity_id, team_id, title, document)
+SELECT 'MAINTENANCE', m.id, v.team_id, LEFT(m.description, 255), maintenance_search_document(m)
+FROM maintenance_records m JOIN vehicles v ON v.id = m.vehicle_id;
+
+INSERT INTO search_words (word)
+SELECT word FROM ts_stat('SELECT document FROM search_documents') WHERE length(word) >= 3;
@@ -0,0 +1,359 @@
+-- Particionado por temporada (año natural) de events por start_date y de maintenance_records
+-- por maintenance_date. Cada temporada tiene su propia tabla e índices, las consultas por rango
+-- de fechas solo leen las temporadas afectadas y las temporadas antiguas se pueden archivar.
+--
+-- Las fechas sin partición (temporadas muy lejanas o ya archivadas) van a la partición DEFAULT.
+-- PartitionMaintenanceService llama periódicamente a ensure_season_partitions, que crea las
+-- temporadas siguientes y saca de DEFAULT las que hayan ido llegando.
+
+-- Temporadas archivadas: no se vuelven a crear aunque lleguen filas con esas fechas
+CREATE TABLE partition_archive (
+    table_name VARCHAR(63) NOT NULL,
+    season INTEGER NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (table_name, season)
+);
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE OR REPLACE FUNCTION partition_key_column(p_table TEXT)
+RETURNS TEXT AS $$
+    SELECT CASE p_table WHEN 'events' THEN 'start_date' WHEN 'maintenance_records' THEN 'maintenance_date' END;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Crea la partición de una temporada. Si DEFAULT ya tiene filas de esa temporada se separa
+-- DEFAULT, se mueven las filas a la nueva tabla y se vuelven a adjuntar las dos: separadas no
+-- tienen triggers, así que mover las filas no genera lápidas ni altera los agregados.
+--
+-- Separar DEFAULT toma ACCESS EXCLUSIVE sobre la tabla padre hasta el final de la transacción,
+-- también mientras se mueven las filas, y mientras espera ese bloqueo también esperan todas
+-- las lecturas y escrituras que lleguen detrás. Por eso el bloqueo se pide con lock_timeout:
+-- si la tabla está en uso la llamada falla enseguida y se reintenta en la siguiente pasada,
+-- que PartitionMaintenanceService programa fuera de horas.
+CREATE OR REPLACE FUNCTION create_season_partition(p_table TEXT, p_season INTEGER)
+RETURNS BOOLEAN AS $$
+DECLARE
+    v_column TEXT := partition_key_column(p_table);
+    v_partition TEXT := p_table || '_y' || p_season;
+    v_default TEXT := p_table || '_default';
+    v_from TIMESTAMP := make_timestamp(p_season, 1, 1, 0, 0, 0);
+    v_to TIMESTAMP := make_timestamp(p_season + 1, 1, 1, 0, 0, 0);
+    v_pending BOOLEAN;
+BEGIN
+    IF to_regclass(v_partition) IS NOT NULL
+            OR EXISTS (SELECT 1 FROM partition_archive WHERE table_name = p_table AND season = p_season) THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= $1 AND %I < $2)', v_default, v_column, v_column)
+        INTO v_pending USING v_from, v_to;
+    IF NOT v_pending THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       v_partition, p_table, v_from, v_to);
+        RETURN TRUE;
+    END IF;
+
+    PERFORM set_config('lock_timeout', '5s', true);
+    EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', p_table, v_default);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_partition, p_table);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) ' ||
+                   'INSERT INTO %I SELECT * FROM moved', v_default, v_column, v_column, v_partition)
+        USING v_from, v_to;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   p_table, v_partition, v_from, v_to);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', p_table, v_default);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones de la temporada actual y las p_years_ahead siguientes, y de las temporadas no
+-- archivadas que tengan filas en DEFAULT. El bloqueo evita que dos nodos creen la misma tabla.
+CREATE OR REPLACE FUNCTION ensure_season_partitions(p_years_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_table TEXT;
+    v_season INTEGER;
+    v_current INTEGER := EXTRACT(YEAR FROM CURRENT_DATE);
+    v_created INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('season_partitions'));
+    FOREACH v_table IN ARRAY ARRAY['events', 'maintenance_records'] LOOP
+        FOR v_season IN
+            SELECT s FROM generate_series(v_current, v_current + p_years_ahead) AS s
+            UNION
+            SELECT CAST(y AS INTEGER) FROM unnest(default_partition_seasons(v_table)) AS y
+        LOOP
+            IF create_season_partition(v_table, v_season) THEN
+                v_created := v_created + 1;
+            END IF;
+        END LOOP;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION default_partition_seasons(p_table TEXT)
+RETURNS INTEGER[] AS $$
+DECLARE
+    v_seasons INTEGER[];
+BEGIN
+    EXECUTE format('SELECT array_agg(DISTINCT CAST(EXTRACT(YEAR FROM %I) AS INTEGER)) FROM %I',
+                   partition_key_column(p_table), p_table || '_default')
+        INTO v_seasons;
+    RETURN COALESCE(v_seasons, ARRAY[]::INTEGER[]);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Las particiones archivadas son de solo lectura, también para el dueño de la base de datos
+CREATE OR REPLACE FUNCTION reject_archived_write()
+RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'La tabla %.% está archivada y es de solo lectura', TG_TABLE_SCHEMA, TG_TABLE_NAME
+        USING ERRCODE = 'read_only_sql_transaction';
+END;
+$$ LANGUAGE plpgsql;
+
+-- Separa las temporadas anteriores a p_before_season y las mueve al esquema archive. Las
+-- claves ajenas se quitan para que borrar un equipo o un vehículo no intente escribir en el
+-- archivo. Los registros archivados salen de la búsqueda y los mantenimientos también del
+-- agregado de V5, que la reconciliación recalcula solo con maintenance_records. Las
+-- asignaciones de pilotos y vehículos a los eventos archivados se quedan en sus tablas.
+CREATE OR REPLACE FUNCTION archive_season_partitions(p_before_season INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_table TEXT;
+    v_partition TEXT;
+    v_season INTEGER;
+    v_constraint TEXT;
+    v_archived INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('season_partitions'));
+    FOREACH v_table IN ARRAY ARRAY['events', 'maintenance_records'] LOOP
+        FOR v_partition, v_season IN
+            SELECT c.relname, CAST(substring(c.relname FROM '_y([0-9]+)$') AS INTEGER)
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass(v_table) AND c.relname ~ '_y[0-9]+$'
+            ORDER BY 2
+        LOOP
+            CONTINUE WHEN v_season >= p_before_season;
+            EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', v_table, v_partition);
+            FOR v_constraint IN
+                SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(v_partition) AND contype = 'f'
+            LOOP
+                EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_partition, v_constraint);
+            END LOOP;
+            EXECUTE format('ALTER TABLE %I SET SCHEMA archive', v_partition);
+            EXECUTE format('CREATE TRIGGER reject_archived_write BEFORE INSERT OR UPDATE OR DELETE OR TRUNCATE ' ||
+                           'ON archive.%I FOR EACH STATEMENT EXECUTE FUNCTION reject_archived_write()', v_partition);
+            EXECUTE format('DELETE FROM search_documents d USING archive.%I a ' ||
+                           'WHERE d.entity_type = $1 AND d.entity_id = a.id', v_partition)
+                USING CASE v_table WHEN 'events' THEN 'EVENT' ELSE 'MAINTENANCE' END;
+            IF v_table = 'maintenance_records' THEN
+                DELETE FROM vehicle_maintenance_stats WHERE season = v_season;
+            END IF;
+            INSERT INTO partition_archive (table_name, season) VALUES (v_table, v_season);
+            v_archived := v_archived + 1;
+        END LOOP;
+    END LOOP;
+    RETURN v_archived;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Tablas nuevas con las mismas columnas, valores por defecto y CHECK que las actuales. La clave
+-- primaria tiene que incluir la columna de particionado; los ids siguen siendo únicos porque
+-- salen de la secuencia, que pasa a las tablas nuevas.
+ALTER TABLE events RENAME TO events_unpartitioned;
+ALTER TABLE maintenance_records RENAME TO maintenance_records_unpartitioned;
+ALTER SEQUENCE events_id_seq OWNED BY NONE;
+ALTER SEQUENCE maintenance_records_id_seq OWNED BY NONE;
+
+CREATE TABLE events (LIKE events_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (start_date);
+CREATE TABLE events_default PARTITION OF events DEFAULT;
+
+CREATE TABLE maintenance_records (LIKE maintenance_records_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (maintenance_date);
+CREATE TABLE maintenance_records_default PARTITION OF maintenance_records DEFAULT;
+
+-- Una partición por cada temporada con datos y hasta dos temporadas por delante
+SELECT create_season_partition('events', CAST(s AS INTEGER))
+FROM generate_series(
+    LEAST((SELECT MIN(EXTRACT(YEAR FROM start_date)) FROM events_unpartitioned), EXTRACT(YEAR FROM CURRENT_DATE)),
+    EXTRACT(YEAR FROM CURRENT_DATE) + 2) AS s;
+
+SELECT create_season_partition('maintenance_records', CAST(s AS INTEGER))
+FROM generate_series(
+    LEAST((SELECT MIN(EXTRACT(YEAR FROM maintenance_date)) FROM maintenance_records_unpartitioned),
+          EXTRACT(YEAR FROM CURRENT_DATE)),
+    EXTRACT(YEAR FROM CURRENT_DATE) + 2) AS s;
+
+-- Sin triggers todavía: se conservan updated_at y los agregados, documentos y lápidas actuales
+INSERT INTO events SELECT * FROM events_unpartitioned;
+INSERT INTO maintenance_records SELECT * FROM maintenance_records_unpartitioned;
+
+-- Las asignaciones no pueden tener clave ajena a una tabla particionada sin incluir start_date.
+-- La sustituyen los triggers de más abajo.
+ALTER TABLE event_participants DROP CONSTRAINT event_participants_event_id_fkey;
+ALTER TABLE event_vehicles DROP CONSTRAINT event_vehicles_event_id_fkey;
+
+-- Las funciones de V10 reciben la fila de la tabla antigua
+DROP FUNCTION event_search_document(events_unpartitioned);
+DROP FUNCTION maintenance_search_document(maintenance_records_unpartitioned);
+
+DROP TABLE events_unpartitioned;
+DROP TABLE maintenance_records_unpartitioned;
+
+ALTER SEQUENCE events_id_seq OWNED BY events.id;
+ALTER SEQUENCE maintenance_records_id_seq OWNED BY maintenance_records.id;
+
+ALTER TABLE events ADD PRIMARY KEY (id, start_date);
+ALTER TABLE events ADD FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE CASCADE;
+
+ALTER TABLE maintenance_records ADD PRIMARY KEY (id, maintenance_date);
+ALTER TABLE maintenance_records ADD FOREIGN KEY (vehicle_id) REFERENCES vehicles(id) ON DELETE CASCADE;
+ALTER TABLE maintenance_records ADD FOREIGN KEY (performed_by_user_id) REFERENCES users(id) ON DELETE SET NULL;
+
+-- Los mismos índices que antes, ahora uno por partición
+CREATE INDEX idx_events_start_date ON events(start_date);
+CREATE INDEX idx_events_status ON events(status);
+CREATE INDEX idx_events_type ON events(event_type);
+CREATE INDEX idx_events_team_start_id ON events(team_id, start_date, id);
+CREATE INDEX idx_events_team_updated_at ON events(team_id, updated_at);
+CREATE INDEX idx_events_team_end_date ON events(team_id, end_date) INCLUDE (id, updated_at);
+
+CREATE INDEX idx_maintenance_vehicle_id ON maintenance_records(vehicle_id);
+CREATE INDEX idx_maintenance_date ON maintenance_records(maintenance_date);
+CREATE INDEX idx_maintenance_type ON maintenance_records(maintenance_type);
+CREATE INDEX idx_maintenance_vehicle_type_date ON maintenance_records(vehicle_id, maintenance_type, maintenance_date);
+CREATE INDEX idx_maintenance_updated_at ON maintenance_records(updated_at);
+CREATE INDEX idx_maintenance_vehicle_date ON maintenance_records(vehicle_id, maintenance_date DESC, id DESC);
+
+CREATE OR REPLACE FUNCTION event_search_document(e events)
+RETURNS TSVECTOR AS $$
+    SELECT search_vector(e.name, 'A')
+        || search_vector(concat_ws(' ', e.circuit_name, e.location), 'B')
+        || search_vector(e.description, 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION maintenance_search_document(m maintenance_records)
+RETURNS TSVECTOR AS $$
+    SELECT search_vector(m.description, 'A')
+        || search_vector(m.parts_replaced, 'B')
+        || search_vector(m.notes, 'C');
+$$ LANGUAGE sql STABLE;
+
+-- Un UPDATE que cambia la fecha de temporada mueve la fila de partición: PostgreSQL lo ejecuta
+-- como DELETE más INSERT y dispara los triggers AFTER DELETE y AFTER INSERT, no AFTER UPDATE.
+-- Los triggers de borrado comprueban si la fila sigue existiendo para no tratarlo como un borrado.
+CREATE OR REPLACE FUNCTION record_sync_tombstone()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_team_id BIGINT;
+BEGIN
+    -- IF anidados: cada condición solo se evalúa con el tipo de fila que tiene esas columnas
+    IF TG_OP = 'DELETE' THEN
+        IF TG_ARGV[0] = 'EVENT' THEN
+            IF EXISTS (SELECT 1 FROM events WHERE id = OLD.id AND team_id = OLD.team_id) THEN
+                RETURN NULL;
+            END IF;
+        ELSIF TG_ARGV[0] = 'MAINTENANCE' THEN
+            IF EXISTS (SELECT 1 FROM maintenance_records WHERE id = OLD.id) THEN
+                RETURN NULL;
+            END IF;
+        END IF;
+    END IF;
+    IF TG_ARGV[0] = 'TEAM' THEN
+        v_team_id := OLD.id;
+    ELSIF TG_ARGV[0] = 'MAINTENANCE' THEN
+        SELECT team_id INTO v_team_id FROM vehicles WHERE id = OLD.vehicle_id;
+    ELSE
+        v_team_id := OLD.team_id;
+    END IF;
+    IF v_team_id IS NOT NULL THEN
+        INSERT INTO sync_tombstones (entity_type, entity_id, team_id) VALUES (TG_ARGV[0], OLD.id, v_team_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sustituye el ON DELETE CASCADE de las claves ajenas de las asignaciones
+CREATE OR REPLACE FUNCTION delete_event_assignments()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM events WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM event_participants WHERE event_id = OLD.id;
+    DELETE FROM event_vehicles WHERE event_id = OLD.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sustituye la comprobación de las claves ajenas. FOR KEY SHARE bloquea el borrado del evento
+-- hasta que termine la transacción, como haría la clave ajena.
+CREATE OR REPLACE FUNCTION check_event_assignment()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM 1 FROM events WHERE id = NEW.event_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'El evento % no existe', NEW.event_id
+            USING ERRCODE = 'foreign_key_violation', TABLE = TG_TABLE_NAME;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER event_participants_check_event BEFORE INSERT OR UPDATE OF event_id ON event_participants
+    FOR EACH ROW EXECUTE FUNCTION check_event_assignment();
+
+CREATE TRIGGER event_vehicles_check_event BEFORE INSERT OR UPDATE OF event_id ON event_vehicles
+    FOR EACH ROW EXECUTE FUNCTION check_event_assignment();
+
+-- Triggers de V5, V7 y V10 sobre las tablas nuevas
+CREATE TRIGGER update_events_updated_at BEFORE INSERT OR UPDATE ON events
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER events_delete_assignments AFTER DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION delete_event_assignments();
+
+CREATE TRIGGER events_sync_tombstone AFTER DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('EVENT');
+
+CREATE TRIGGER events_sync_team_change AFTER UPDATE OF team_id ON events
+    FOR EACH ROW WHEN (OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION record_sync_tombstone('EVENT');
+
+CREATE TRIGGER events_search_document AFTER INSERT OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION sync_event_search_document();
+
+CREATE TRIGGER events_search_document_update AFTER UPDATE ON events
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name
+        OR OLD.description IS DISTINCT FROM NEW.description
+        OR OLD.circuit_name IS DISTINCT FROM NEW.circuit_name
+        OR OLD.location IS DISTINCT FROM NEW.location
+        OR OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION sync_event_search_document();
+
+CREATE TRIGGER update_maintenance_records_updated_at BEFORE INSERT OR UPDATE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER maintenance_records_stats
+    AFTER INSERT OR UPDATE OR DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION maintenance_records_stats_trigger();
+
+CREATE TRIGGER maintenance_records_sync_tombstone AFTER DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('MAINTENANCE');
+
+CREATE TRIGGER maintenance_records_search_document AFTER INSERT OR DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION sync_maintenance_search_document();
+
+CREATE TRIGGER maintenance_records_search_document_update AFTER UPDATE ON maintenance_records
+    FOR EACH ROW WHEN (OLD.description IS DISTINCT FROM NEW.description
+        OR OLD.parts_replaced IS DISTINCT FROM NEW.parts_replaced
+        OR OLD.notes IS DISTINCT FROM NEW.notes
+        OR OLD.vehicle_id IS DISTINCT FROM NEW.vehicle_id)
+    EXECUTE FUNCTION sync_maintenance_search_document();
+
+ANALYZE events;
+ANALYZE maintenance_records;
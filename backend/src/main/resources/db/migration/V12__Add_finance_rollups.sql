@@ -0,0 +1,304 @@
+-- Rollup financiero por equipo, temporada, mes y tipo de evento. Los importes se guardan en
+-- céntimos como BIGINT: sumar y restar es exacto y no hay que reescalar decimales. Lo mantienen
+-- los triggers de events, event_vehicles y maintenance_records en la misma transacción que la
+-- escritura, incluidas las inserciones JDBC de la importación masiva.
+--
+-- El mantenimiento de un vehículo se imputa al último evento en el que participó que empezó
+-- antes o a la vez que el mantenimiento (con la misma fecha de inicio, al de id mayor). El
+-- mantenimiento anterior al primer evento del vehículo no se imputa a ninguno.
+--
+-- Sin claves ajenas: comprobarlas desde los triggers bloquearía teams mientras se escribe en
+-- events o maintenance_records, el orden inverso al de crear particiones (V11). Al borrar un
+-- equipo o un vehículo los triggers vacían sus filas.
+--
+-- Cada escritura reescribe filas de las dos tablas: con fillfactor 70 queda hueco en la página
+-- para que la nueva versión se quede en ella sin tocar los índices (HOT).
+
+CREATE TABLE finance_rollups (
+    team_id BIGINT NOT NULL,
+    season INTEGER NOT NULL,
+    season_month INTEGER NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    event_count INTEGER NOT NULL,
+    budget_cents BIGINT NOT NULL,
+    actual_cost_cents BIGINT NOT NULL,
+    maintenance_cents BIGINT NOT NULL,
+    PRIMARY KEY (team_id, season, season_month, event_type)
+) WITH (fillfactor = 70);
+
+-- Rollup de una temporada para todos los equipos
+CREATE INDEX idx_finance_rollups_season_team ON finance_rollups(season, team_id);
+
+-- Mantenimiento imputado a cada par evento-vehículo, con la clave de rollup del evento tal como
+-- se sumó. Al cambiar el evento se resta de esa clave y se suma a la nueva sin releer el estado
+-- anterior; también sirve para encontrar el evento de un mantenimiento sin leer events.
+CREATE TABLE event_maintenance_attribution (
+    event_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    team_id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    maintenance_cents BIGINT NOT NULL,
+    PRIMARY KEY (event_id, vehicle_id)
+) WITH (fillfactor = 70);
+
+CREATE INDEX idx_event_maintenance_attribution_vehicle
+    ON event_maintenance_attribution(vehicle_id, start_date, event_id);
+
+CREATE INDEX idx_event_maintenance_attribution_team ON event_maintenance_attribution(team_id);
+
+CREATE OR REPLACE FUNCTION to_cents(p_amount DECIMAL)
+RETURNS BIGINT AS $$
+    SELECT CAST(COALESCE(p_amount, 0) * 100 AS BIGINT);
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Suma los deltas a la clave del evento. Si ninguno es positivo solo se actualiza, y una fila que
+-- se queda a cero se elimina.
+CREATE OR REPLACE FUNCTION apply_finance_rollup(p_team_id BIGINT, p_start_date TIMESTAMP, p_event_type VARCHAR,
+                                                p_events INTEGER, p_budget BIGINT, p_actual BIGINT,
+                                                p_maintenance BIGINT)
+RETURNS VOID AS $$
+DECLARE
+    v_season INTEGER := EXTRACT(YEAR FROM p_start_date);
+    v_month INTEGER := EXTRACT(MONTH FROM p_start_date);
+BEGIN
+    IF p_events > 0 OR p_budget > 0 OR p_actual > 0 OR p_maintenance > 0 THEN
+        INSERT INTO finance_rollups AS r
+            (team_id, season, season_month, event_type, event_count, budget_cents, actual_cost_cents,
+             maintenance_cents)
+        VALUES (p_team_id, v_season, v_month, p_event_type, p_events, p_budget, p_actual, p_maintenance)
+        ON CONFLICT (team_id, season, season_month, event_type) DO UPDATE
+            SET event_count = r.event_count + EXCLUDED.event_count,
+                budget_cents = r.budget_cents + EXCLUDED.budget_cents,
+                actual_cost_cents = r.actual_cost_cents + EXCLUDED.actual_cost_cents,
+                maintenance_cents = r.maintenance_cents + EXCLUDED.maintenance_cents;
+        RETURN;
+    END IF;
+    IF p_events = 0 AND p_budget = 0 AND p_actual = 0 AND p_maintenance = 0 THEN
+        RETURN;
+    END IF;
+
+    UPDATE finance_rollups
+    SET event_count = event_count + p_events,
+        budget_cents = budget_cents + p_budget,
+        actual_cost_cents = actual_cost_cents + p_actual,
+        maintenance_cents = maintenance_cents + p_maintenance
+    WHERE team_id = p_team_id AND season = v_season AND season_month = v_month AND event_type = p_event_type;
+
+    DELETE FROM finance_rollups
+    WHERE team_id = p_team_id AND season = v_season AND season_month = v_month AND event_type = p_event_type
+      AND event_count = 0 AND budget_cents = 0 AND actual_cost_cents = 0 AND maintenance_cents = 0;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recalcula la imputación de un vehículo para los eventos que empiezan entre p_from y p_to y
+-- para el anterior a p_from, cuyo tramo termina donde empieza el siguiente. Quien la llama
+-- incluye en el intervalo la fecha de inicio antigua y la nueva de cada evento que cambia.
+CREATE OR REPLACE FUNCTION refresh_maintenance_attribution(p_vehicle_id BIGINT, p_from TIMESTAMP, p_to TIMESTAMP)
+RETURNS VOID AS $$
+DECLARE
+    v_lower TIMESTAMP;
+    v_row RECORD;
+BEGIN
+    SELECT COALESCE(LEAST(
+        (SELECT MAX(start_date) FROM event_maintenance_attribution
+         WHERE vehicle_id = p_vehicle_id AND start_date < p_from),
+        (SELECT MAX(e.start_date) FROM event_vehicles ev JOIN events e ON e.id = ev.event_id
+         WHERE ev.vehicle_id = p_vehicle_id AND e.start_date < p_from)), p_from)
+    INTO v_lower;
+
+    FOR v_row IN
+        DELETE FROM event_maintenance_attribution
+        WHERE vehicle_id = p_vehicle_id AND start_date BETWEEN v_lower AND p_to
+        RETURNING team_id, start_date, event_type, maintenance_cents
+    LOOP
+        PERFORM apply_finance_rollup(v_row.team_id, v_row.start_date, v_row.event_type, 0, 0, 0,
+                                     -v_row.maintenance_cents);
+    END LOOP;
+
+    FOR v_row IN
+        SELECT ve.event_id, ve.team_id, ve.start_date, ve.event_type,
+               (SELECT to_cents(SUM(m.cost)) FROM maintenance_records m
+                WHERE m.vehicle_id = p_vehicle_id
+                  AND m.maintenance_date >= ve.start_date
+                  AND (ve.next_start IS NULL OR m.maintenance_date < ve.next_start)) AS maintenance_cents
+        FROM (SELECT e.id AS event_id, e.team_id, e.start_date, e.event_type,
+                     LEAD(e.start_date) OVER (ORDER BY e.start_date, e.id) AS next_start
+              FROM event_vehicles ev JOIN events e ON e.id = ev.event_id
+              WHERE ev.vehicle_id = p_vehicle_id AND e.start_date >= v_lower) ve
+        WHERE ve.start_date <= p_to
+    LOOP
+        INSERT INTO event_maintenance_attribution
+            (event_id, vehicle_id, team_id, start_date, event_type, maintenance_cents)
+        VALUES (v_row.event_id, p_vehicle_id, v_row.team_id, v_row.start_date, v_row.event_type,
+                v_row.maintenance_cents);
+        PERFORM apply_finance_rollup(v_row.team_id, v_row.start_date, v_row.event_type, 0, 0, 0,
+                                     v_row.maintenance_cents);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un cambio de partición ejecuta los triggers de borrado e inserción en lugar del de
+-- actualización: se resta con la fila antigua y se suma con la nueva, que es lo mismo.
+CREATE OR REPLACE FUNCTION events_finance_rollup_trigger()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_event_id BIGINT;
+    v_from TIMESTAMP;
+    v_to TIMESTAMP;
+    v_vehicle_id BIGINT;
+BEGIN
+    IF TG_OP = 'UPDATE'
+            AND OLD.team_id = NEW.team_id
+            AND OLD.start_date = NEW.start_date
+            AND OLD.event_type = NEW.event_type
+            AND OLD.budget_allocated IS NOT DISTINCT FROM NEW.budget_allocated
+            AND OLD.actual_cost IS NOT DISTINCT FROM NEW.actual_cost THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_finance_rollup(OLD.team_id, OLD.start_date, OLD.event_type, -1,
+                                     -to_cents(OLD.budget_allocated), -to_cents(OLD.actual_cost), 0);
+        v_event_id := OLD.id;
+        v_from := OLD.start_date;
+        v_to := OLD.start_date;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_finance_rollup(NEW.team_id, NEW.start_date, NEW.event_type, 1,
+                                     to_cents(NEW.budget_allocated), to_cents(NEW.actual_cost), 0);
+        v_event_id := NEW.id;
+        v_from := LEAST(v_from, NEW.start_date);
+        v_to := GREATEST(v_to, NEW.start_date);
+    END IF;
+
+    -- Solo importes: la imputación del mantenimiento no cambia
+    IF TG_OP = 'UPDATE'
+            AND OLD.team_id = NEW.team_id
+            AND OLD.start_date = NEW.start_date
+            AND OLD.event_type = NEW.event_type THEN
+        RETURN NULL;
+    END IF;
+    FOR v_vehicle_id IN
+        SELECT vehicle_id FROM event_maintenance_attribution WHERE event_id = v_event_id
+        UNION
+        SELECT vehicle_id FROM event_vehicles WHERE event_id = v_event_id
+    LOOP
+        PERFORM refresh_maintenance_attribution(v_vehicle_id, v_from, v_to);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER events_finance_rollup
+    AFTER INSERT OR UPDATE OR DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION events_finance_rollup_trigger();
+
+-- Asignar o quitar un vehículo cambia su tramo en torno al inicio del evento, que puede estar
+-- ya borrado: entonces se usa la fecha guardada en la imputación.
+CREATE OR REPLACE FUNCTION refresh_event_vehicle_attribution(p_event_id BIGINT, p_vehicle_id BIGINT)
+RETURNS VOID AS $$
+DECLARE
+    v_from TIMESTAMP;
+    v_to TIMESTAMP;
+BEGIN
+    SELECT MIN(start_date), MAX(start_date) INTO v_from, v_to
+    FROM (SELECT start_date FROM event_maintenance_attribution
+          WHERE event_id = p_event_id AND vehicle_id = p_vehicle_id
+          UNION ALL
+          SELECT start_date FROM events WHERE id = p_event_id) dates;
+    IF v_from IS NOT NULL THEN
+        PERFORM refresh_maintenance_attribution(p_vehicle_id, v_from, v_to);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION event_vehicles_finance_rollup_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM refresh_event_vehicle_attribution(OLD.event_id, OLD.vehicle_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM refresh_event_vehicle_attribution(NEW.event_id, NEW.vehicle_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER event_vehicles_finance_rollup
+    AFTER INSERT OR UPDATE OR DELETE ON event_vehicles
+    FOR EACH ROW EXECUTE FUNCTION event_vehicles_finance_rollup_trigger();
+
+-- Un mantenimiento solo mueve su coste al evento que lo tiene en su tramo: una búsqueda por
+-- índice y dos actualizaciones, sin recalcular nada
+CREATE OR REPLACE FUNCTION apply_maintenance_attribution(p_vehicle_id BIGINT, p_date TIMESTAMP, p_cents BIGINT)
+RETURNS VOID AS $$
+DECLARE
+    v_team_id BIGINT;
+    v_start_date TIMESTAMP;
+    v_event_type VARCHAR;
+BEGIN
+    IF p_cents = 0 THEN
+        RETURN;
+    END IF;
+    UPDATE event_maintenance_attribution a
+    SET maintenance_cents = a.maintenance_cents + p_cents
+    FROM (SELECT event_id FROM event_maintenance_attribution
+          WHERE vehicle_id = p_vehicle_id AND start_date <= p_date
+          ORDER BY start_date DESC, event_id DESC
+          LIMIT 1) latest
+    WHERE a.event_id = latest.event_id AND a.vehicle_id = p_vehicle_id
+    RETURNING a.team_id, a.start_date, a.event_type INTO v_team_id, v_start_date, v_event_type;
+    IF FOUND THEN
+        PERFORM apply_finance_rollup(v_team_id, v_start_date, v_event_type, 0, 0, 0, p_cents);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintenance_records_finance_rollup_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+            AND OLD.vehicle_id = NEW.vehicle_id
+            AND OLD.maintenance_date = NEW.maintenance_date
+            AND OLD.cost IS NOT DISTINCT FROM NEW.cost THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_maintenance_attribution(OLD.vehicle_id, OLD.maintenance_date, -to_cents(OLD.cost));
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_maintenance_attribution(NEW.vehicle_id, NEW.maintenance_date, to_cents(NEW.cost));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER maintenance_records_finance_rollup
+    AFTER INSERT OR UPDATE OR DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION maintenance_records_finance_rollup_trigger();
+
+-- Carga inicial con los datos existentes
+INSERT INTO event_maintenance_attribution
+    (event_id, vehicle_id, team_id, start_date, event_type, maintenance_cents)
+SELECT ve.event_id, ve.vehicle_id, ve.team_id, ve.start_date, ve.event_type, to_cents(SUM(m.cost))
+FROM (SELECT ev.event_id, ev.vehicle_id, e.team_id, e.start_date, e.event_type,
+             LEAD(e.start_date) OVER (PARTITION BY ev.vehicle_id ORDER BY e.start_date, e.id) AS next_start
+      FROM event_vehicles ev JOIN events e ON e.id = ev.event_id) ve
+LEFT JOIN maintenance_records m ON m.vehicle_id = ve.vehicle_id
+    AND m.maintenance_date >= ve.start_date
+    AND (ve.next_start IS NULL OR m.maintenance_date < ve.next_start)
+GROUP BY ve.event_id, ve.vehicle_id, ve.team_id, ve.start_date, ve.event_type;
+
+INSERT INTO finance_rollups
+    (team_id, season, season_month, event_type, event_count, budget_cents, actual_cost_cents, maintenance_cents)
+SELECT team_id, CAST(EXTRACT(YEAR FROM start_date) AS INTEGER), CAST(EXTRACT(MONTH FROM start_date) AS INTEGER),
+       event_type, SUM(event_count), SUM(budget_cents), SUM(actual_cost_cents), SUM(maintenance_cents)
+FROM (SELECT team_id, start_date, event_type, 1 AS event_count, to_cents(budget_allocated) AS budget_cents,
+             to_cents(actual_cost) AS actual_cost_cents, 0 AS maintenance_cents
+      FROM events
+      UNION ALL
+      SELECT team_id, start_date, event_type, 0, 0, 0, maintenance_cents
+      FROM event_maintenance_attribution) contributions
+GROUP BY team_id, CAST(EXTRACT(YEAR FROM start_date) AS INTEGER), CAST(EXTRACT(MONTH FROM start_date) AS INTEGER),
+         event_type;
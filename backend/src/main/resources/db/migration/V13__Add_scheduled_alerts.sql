@@ -0,0 +1,37 @@
+-- Avisos de caducidad de licencias y de mantenimiento que emite AlertService.
+--
+-- Solo un nodo planifica los avisos a la vez: el que tiene la concesión del trabajo en
+-- job_leases, que renueva mientras sigue vivo. Si deja de renovarla, otro nodo la toma al
+-- vencer. Entre tanto puede haber dos nodos que se creen con la concesión; por eso emitir un
+-- aviso es insertar su fila y la clave única (tipo, entidad, ocurrencia) hace que solo uno lo
+-- consiga. La ocurrencia identifica el caso concreto (la fecha de caducidad de la licencia o
+-- los umbrales de mantenimiento del vehículo), así que al renovar la licencia o registrar el
+-- mantenimiento el siguiente aviso es uno nuevo.
+--
+-- Sin claves ajenas: los avisos son histórico y se conservan aunque se borre la entidad.
+
+CREATE TABLE job_leases (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(100) NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE alerts (
+    id BIGSERIAL PRIMARY KEY,
+    alert_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    team_id BIGINT NOT NULL,
+    occurrence VARCHAR(100) NOT NULL,
+    due_at TIMESTAMP NOT NULL,
+    message VARCHAR(255) NOT NULL,
+    node_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_alerts_occurrence UNIQUE (alert_type, entity_id, occurrence)
+);
+
+-- Avisos de un equipo, los más recientes primero
+CREATE INDEX idx_alerts_team_id ON alerts(team_id, id);
+
+-- Refresco incremental de la planificación: usuarios y vehículos cambiados de cualquier equipo
+CREATE INDEX idx_users_updated_at ON users(updated_at);
+CREATE INDEX idx_vehicles_updated_at ON vehicles(updated_at);
@@ -0,0 +1,24 @@
+-- Un vehículo que cambia de equipo se lleva sus mantenimientos. vehicles_sync_team_change (V7)
+-- solo deja la lápida del vehículo: los clientes del equipo anterior conservaban sus registros
+-- y los del equipo nuevo no los recibían si su updated_at era anterior a su marca de agua.
+--
+-- Para el equipo anterior cada registro es un borrado y recibe su lápida. Para el nuevo se
+-- toca updated_at (update_maintenance_records_updated_at pone la hora de la transacción) y los
+-- registros llegan en la siguiente sincronización. Los de temporadas archivadas ya no están en
+-- maintenance_records y no se sincronizan.
+
+CREATE OR REPLACE FUNCTION sync_vehicle_maintenance_team_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF OLD.team_id IS NOT NULL THEN
+        INSERT INTO sync_tombstones (entity_type, entity_id, team_id)
+        SELECT 'MAINTENANCE', id, OLD.team_id FROM maintenance_records WHERE vehicle_id = NEW.id;
+    END IF;
+    UPDATE maintenance_records SET updated_at = CURRENT_TIMESTAMP WHERE vehicle_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER vehicles_sync_maintenance_team_change AFTER UPDATE OF team_id ON vehicles
+    FOR EACH ROW WHEN (OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION sync_vehicle_maintenance_team_change();
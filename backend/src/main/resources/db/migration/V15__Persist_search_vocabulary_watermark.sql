@@ -0,0 +1,13 @@
+-- Marca de agua del vocabulario de búsqueda (SearchService.refreshVocabulary). En memoria se
+-- perdía al reiniciar y la primera pasada solo miraba el margen de transacciones en curso: las
+-- palabras de los documentos escritos mientras el nodo estaba parado no llegaban nunca a
+-- search_words. Guardada aquí la comparten todos los nodos.
+--
+-- Una sola fila. Nula hasta la primera pasada, que recorre todos los documentos.
+
+CREATE TABLE search_vocabulary_refresh (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    refreshed_at TIMESTAMP
+);
+
+INSERT INTO search_vocabulary_refresh (id, refreshed_at) VALUES (TRUE, NULL);
@@ -0,0 +1,18 @@
+-- Proyección persistida de lo que falta para el próximo mantenimiento de cada vehículo.
+-- Son columnas generadas: se recalculan en cada INSERT/UPDATE, incluidos los UPDATE
+-- incrementales de horas y kilómetros que no pasan por JPA.
+
+ALTER TABLE vehicles
+    ADD COLUMN hours_until_maintenance DECIMAL(10,2)
+        GENERATED ALWAYS AS (next_maintenance_hours - COALESCE(total_hours, 0)) STORED,
+    ADD COLUMN km_until_maintenance DECIMAL(10,2)
+        GENERATED ALWAYS AS (next_maintenance_km - COALESCE(total_kilometers, 0)) STORED,
+    ADD COLUMN maintenance_due BOOLEAN NOT NULL
+        GENERATED ALWAYS AS (
+            COALESCE(total_hours >= next_maintenance_hours, false)
+            OR COALESCE(total_kilometers >= next_maintenance_km, false)
+        ) STORED;
+
+-- Índice parcial: solo contiene los vehículos que necesitan mantenimiento
+CREATE INDEX idx_vehicles_maintenance_due ON vehicles(team_id, hours_until_maintenance)
+    WHERE maintenance_due;
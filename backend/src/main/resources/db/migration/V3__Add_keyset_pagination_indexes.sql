@@ -0,0 +1,11 @@
+-- Índices compuestos para la paginación por clave: cada página es un rango contiguo del
+-- índice filtrado por equipo, sin ordenar ni saltar filas con OFFSET.
+
+CREATE INDEX idx_events_team_start_id ON events(team_id, start_date, id);
+CREATE INDEX idx_vehicles_team_id_id ON vehicles(team_id, id);
+CREATE INDEX idx_users_team_id_id ON users(team_id, id);
+
+-- Los índices simples por team_id quedan cubiertos por el prefijo de los compuestos
+DROP INDEX idx_events_team_id;
+DROP INDEX idx_vehicles_team_id;
+DROP INDEX idx_users_team_id;
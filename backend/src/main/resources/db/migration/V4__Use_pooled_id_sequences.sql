@@ -0,0 +1,24 @@
+-- Identificadores por bloques de secuencia (optimizador pooled-lo de Hibernate)
+--
+-- Las secuencias creadas por BIGSERIAL pasan a avanzar de 50 en 50: cada nextval reserva un
+-- bloque completo [valor, valor + 49] que Hibernate asigna en memoria, de modo que los INSERT
+-- ya no necesitan leer el id generado y pueden agruparse en lotes JDBC.
+--
+-- Las columnas conservan su DEFAULT nextval(...), así que los INSERT por JDBC sin id siguen
+-- funcionando: consumen un bloque entero y nunca coinciden con ids asignados por Hibernate.
+-- Cada secuencia se sitúa justo por encima del mayor id existente.
+
+ALTER SEQUENCE teams_id_seq INCREMENT BY 50;
+SELECT setval('teams_id_seq', COALESCE((SELECT MAX(id) FROM teams), 0) + 1, false);
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+
+ALTER SEQUENCE vehicles_id_seq INCREMENT BY 50;
+SELECT setval('vehicles_id_seq', COALESCE((SELECT MAX(id) FROM vehicles), 0) + 1, false);
+
+ALTER SEQUENCE maintenance_records_id_seq INCREMENT BY 50;
+SELECT setval('maintenance_records_id_seq', COALESCE((SELECT MAX(id) FROM maintenance_records), 0) + 1, false);
+
+ALTER SEQUENCE events_id_seq INCREMENT BY 50;
+SELECT setval('events_id_seq', COALESCE((SELECT MAX(id) FROM events), 0) + 1, false);
@@ -0,0 +1,99 @@
+-- Agregado de mantenimiento por vehículo, temporada (año natural) y tipo. Lo mantienen
+-- los triggers de maintenance_records en la misma transacción que la escritura, incluidas
+-- las inserciones JDBC de la importación masiva que no pasan por JPA.
+
+CREATE TABLE vehicle_maintenance_stats (
+    vehicle_id BIGINT NOT NULL,
+    season INTEGER NOT NULL,
+    maintenance_type VARCHAR(50) NOT NULL,
+    record_count INTEGER NOT NULL,
+    total_cost DECIMAL(14,2) NOT NULL,
+    first_date TIMESTAMP NOT NULL,
+    last_date TIMESTAMP NOT NULL,
+    PRIMARY KEY (vehicle_id, season, maintenance_type),
+    FOREIGN KEY (vehicle_id) REFERENCES vehicles(id) ON DELETE CASCADE
+);
+
+-- Recalcular las fechas extremas de un grupo tras un borrado solo lee ese grupo
+CREATE INDEX idx_maintenance_vehicle_type_date ON maintenance_records(vehicle_id, maintenance_type, maintenance_date);
+
+-- Suma (p_sign = 1) o resta (p_sign = -1) un registro de su grupo. Las altas son un upsert
+-- incremental; las bajas solo releen el grupo si el registro era la primera o la última fecha.
+CREATE OR REPLACE FUNCTION apply_maintenance_stats(p_vehicle_id BIGINT, p_date TIMESTAMP,
+                                                   p_type VARCHAR, p_cost DECIMAL, p_sign INTEGER)
+RETURNS VOID AS $$
+DECLARE
+    v_season INTEGER := EXTRACT(YEAR FROM p_date);
+    v_count INTEGER;
+    v_first TIMESTAMP;
+    v_last TIMESTAMP;
+BEGIN
+    IF p_sign > 0 THEN
+        INSERT INTO vehicle_maintenance_stats AS s
+            (vehicle_id, season, maintenance_type, record_count, total_cost, first_date, last_date)
+        VALUES (p_vehicle_id, v_season, p_type, 1, COALESCE(p_cost, 0), p_date, p_date)
+        ON CONFLICT (vehicle_id, season, maintenance_type) DO UPDATE
+            SET record_count = s.record_count + 1,
+                total_cost = s.total_cost + EXCLUDED.total_cost,
+                first_date = LEAST(s.first_date, EXCLUDED.first_date),
+                last_date = GREATEST(s.last_date, EXCLUDED.last_date);
+        RETURN;
+    END IF;
+
+    UPDATE vehicle_maintenance_stats
+    SET record_count = record_count - 1,
+        total_cost = total_cost - COALESCE(p_cost, 0)
+    WHERE vehicle_id = p_vehicle_id AND season = v_season AND maintenance_type = p_type
+    RETURNING record_count, first_date, last_date INTO v_count, v_first, v_last;
+
+    IF NOT FOUND THEN
+        -- El vehículo se está borrando y su agregado ya se eliminó en cascada
+        RETURN;
+    ELSIF v_count <= 0 THEN
+        DELETE FROM vehicle_maintenance_stats
+        WHERE vehicle_id = p_vehicle_id AND season = v_season AND maintenance_type = p_type;
+    ELSIF p_date = v_first OR p_date = v_last THEN
+        UPDATE vehicle_maintenance_stats
+        SET (first_date, last_date) = (
+            SELECT MIN(m.maintenance_date), MAX(m.maintenance_date)
+            FROM maintenance_records m
+            WHERE m.vehicle_id = p_vehicle_id
+              AND m.maintenance_type = p_type
+              AND m.maintenance_date >= make_timestamp(v_season, 1, 1, 0, 0, 0)
+              AND m.maintenance_date < make_timestamp(v_season + 1, 1, 1, 0, 0, 0))
+        WHERE vehicle_id = p_vehicle_id AND season = v_season AND maintenance_type = p_type;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION maintenance_records_stats_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+            AND OLD.vehicle_id = NEW.vehicle_id
+            AND OLD.maintenance_date = NEW.maintenance_date
+            AND OLD.maintenance_type = NEW.maintenance_type
+            AND OLD.cost IS NOT DISTINCT FROM NEW.cost THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM apply_maintenance_stats(OLD.vehicle_id, OLD.maintenance_date, OLD.maintenance_type, OLD.cost, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM apply_maintenance_stats(NEW.vehicle_id, NEW.maintenance_date, NEW.maintenance_type, NEW.cost, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER maintenance_records_stats
+    AFTER INSERT OR UPDATE OR DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION maintenance_records_stats_trigger();
+
+-- Carga inicial con los registros existentes
+INSERT INTO vehicle_maintenance_stats
+    (vehicle_id, season, maintenance_type, record_count, total_cost, first_date, last_date)
+SELECT vehicle_id, CAST(EXTRACT(YEAR FROM maintenance_date) AS INTEGER), maintenance_type,
+       COUNT(*), COALESCE(SUM(cost), 0), MIN(maintenance_date), MAX(maintenance_date)
+FROM maintenance_records
+GROUP BY vehicle_id, CAST(EXTRACT(YEAR FROM maintenance_date) AS INTEGER), maintenance_type;
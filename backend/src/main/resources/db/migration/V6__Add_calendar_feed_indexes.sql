@@ -0,0 +1,7 @@
+-- La versión de un feed de calendario se calcula con un recorrido solo de índice:
+-- (id, updated_at) de los eventos del equipo o del piloto que aún no han caducado.
+
+CREATE INDEX idx_events_team_end_date ON events(team_id, end_date) INCLUDE (id, updated_at);
+
+-- La clave primaria empieza por event_id y no sirve para buscar los eventos de un piloto
+CREATE INDEX idx_event_participants_user_id ON event_participants(user_id, event_id);
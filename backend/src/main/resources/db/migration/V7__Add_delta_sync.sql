@@ -0,0 +1,99 @@
+-- Sincronización incremental por updated_at: índices para leer los cambios de un equipo,
+-- updated_at fijado por la base de datos también al insertar y lápidas para los borrados.
+
+-- Hasta ahora updated_at solo lo fijaba el trigger al actualizar; en las altas llegaba con el
+-- reloj de la aplicación. Con el reloj de la base de datos en ambos casos el valor nunca es
+-- anterior al inicio de la transacción que escribió la fila, que es lo que garantiza la marca
+-- de agua de /sync.
+DROP TRIGGER update_teams_updated_at ON teams;
+DROP TRIGGER update_users_updated_at ON users;
+DROP TRIGGER update_vehicles_updated_at ON vehicles;
+DROP TRIGGER update_maintenance_records_updated_at ON maintenance_records;
+DROP TRIGGER update_events_updated_at ON events;
+
+CREATE TRIGGER update_teams_updated_at BEFORE INSERT OR UPDATE ON teams
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_users_updated_at BEFORE INSERT OR UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_vehicles_updated_at BEFORE INSERT OR UPDATE ON vehicles
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_maintenance_records_updated_at BEFORE INSERT OR UPDATE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_events_updated_at BEFORE INSERT OR UPDATE ON events
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+-- Las filas antiguas sin updated_at quedan con su fecha de creación
+UPDATE teams SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE users SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE vehicles SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE maintenance_records SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE events SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX idx_users_team_updated_at ON users(team_id, updated_at);
+CREATE INDEX idx_vehicles_team_updated_at ON vehicles(team_id, updated_at);
+CREATE INDEX idx_events_team_updated_at ON events(team_id, updated_at);
+CREATE INDEX idx_maintenance_updated_at ON maintenance_records(updated_at);
+
+-- Una fila por registro borrado, o que ha dejado de pertenecer a un equipo
+CREATE TABLE sync_tombstones (
+    id BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(30) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    team_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_sync_tombstones_team_deleted_at ON sync_tombstones(team_id, deleted_at);
+
+-- TG_ARGV[0] es el tipo de entidad. Los mantenimientos toman el equipo de su vehículo; si el
+-- vehículo se está borrando en la misma operación su propia lápida ya cubre sus registros.
+CREATE OR REPLACE FUNCTION record_sync_tombstone()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_team_id BIGINT;
+BEGIN
+    IF TG_ARGV[0] = 'TEAM' THEN
+        v_team_id := OLD.id;
+    ELSIF TG_ARGV[0] = 'MAINTENANCE' THEN
+        SELECT team_id INTO v_team_id FROM vehicles WHERE id = OLD.vehicle_id;
+    ELSE
+        v_team_id := OLD.team_id;
+    END IF;
+    IF v_team_id IS NOT NULL THEN
+        INSERT INTO sync_tombstones (entity_type, entity_id, team_id) VALUES (TG_ARGV[0], OLD.id, v_team_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER teams_sync_tombstone AFTER DELETE ON teams
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('TEAM');
+
+CREATE TRIGGER users_sync_tombstone AFTER DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('USER');
+
+CREATE TRIGGER vehicles_sync_tombstone AFTER DELETE ON vehicles
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('VEHICLE');
+
+CREATE TRIGGER events_sync_tombstone AFTER DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('EVENT');
+
+CREATE TRIGGER maintenance_records_sync_tombstone AFTER DELETE ON maintenance_records
+    FOR EACH ROW EXECUTE FUNCTION record_sync_tombstone('MAINTENANCE');
+
+-- Cambiar de equipo es un borrado para los clientes del equipo anterior
+CREATE TRIGGER users_sync_team_change AFTER UPDATE OF team_id ON users
+    FOR EACH ROW WHEN (OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION record_sync_tombstone('USER');
+
+CREATE TRIGGER vehicles_sync_team_change AFTER UPDATE OF team_id ON vehicles
+    FOR EACH ROW WHEN (OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION record_sync_tombstone('VEHICLE');
+
+CREATE TRIGGER events_sync_team_change AFTER UPDATE OF team_id ON events
+    FOR EACH ROW WHEN (OLD.team_id IS DISTINCT FROM NEW.team_id)
+    EXECUTE FUNCTION record_sync_tombstone('EVENT');
@@ -0,0 +1,4 @@
+-- Últimos mantenimientos de un vehículo para su ficha: el índice devuelve las filas ya
+-- ordenadas y la consulta se detiene al llegar al límite.
+
+CREATE INDEX idx_maintenance_vehicle_date ON maintenance_records(vehicle_id, maintenance_date DESC, id DESC);
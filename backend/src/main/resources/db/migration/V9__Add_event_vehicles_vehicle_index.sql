@@ -0,0 +1,3 @@
+-- Asignaciones a eventos de un vehículo concreto (replanificado incremental de disponibilidad);
+-- la clave primaria (event_id, vehicle_id) solo sirve para buscar por evento
+CREATE INDEX idx_event_vehicles_vehicle_id ON event_vehicles(vehicle_id, event_id);
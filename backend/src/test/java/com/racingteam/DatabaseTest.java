@@ -0,0 +1,62 @@
+package com.racingteam;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filas de prueba insertadas por JDBC, sin pasar por los listeners de JPA, comunes a las pruebas
+ * sobre H2 y sobre PostgreSQL.
+ */
+public abstract class DatabaseTest {
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    protected Long insertTeam() {
+        return insert("INSERT INTO teams (name, primary_category, active, created_at, updated_at) " +
+                "VALUES (?, 'CAR', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", "Equipo " + UUID.randomUUID());
+    }
+
+    protected Long insertUser(Long teamId) {
+        return insert("INSERT INTO users (email, password, first_name, last_name, role, active, team_id, " +
+                "created_at, updated_at) VALUES (?, 'secret', 'Piloto', 'Prueba', 'PILOT', true, ?, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", UUID.randomUUID() + "@test.local", teamId);
+    }
+
+    protected Long insertVehicle(Long teamId) {
+        return insert("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, total_hours, " +
+                "total_kilometers, created_at, updated_at) VALUES (?, 'GT3', 'AVAILABLE', true, ?, 0, 0, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", "Vehículo " + UUID.randomUUID(), teamId);
+    }
+
+    protected Long insertEvent(Long teamId, LocalDateTime start, LocalDateTime end) {
+        return insert("INSERT INTO events (name, event_type, start_date, end_date, status, team_id, " +
+                "created_at, updated_at) VALUES (?, 'RACE', ?, ?, 'PLANNED', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                "Evento " + UUID.randomUUID(), Timestamp.valueOf(start), Timestamp.valueOf(end), teamId);
+    }
+
+    protected Long insertMaintenance(Long vehicleId, LocalDateTime date) {
+        return insert("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "vehicle_id, created_at, updated_at) VALUES (?, 'Revisión', 'PREVENTIVE', ?, CURRENT_TIMESTAMP, " +
+                "CURRENT_TIMESTAMP)", Timestamp.valueOf(date), vehicleId);
+    }
+
+    private Long insert(String sql, Object... args) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"});
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+}
@@ -0,0 +1,62 @@
+package com.racingteam;
+
+import com.racingteam.model.UserRole;
+import com.racingteam.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+
+/**
+ * Aplicación completa sobre H2 en memoria con el esquema generado por Hibernate, como el perfil
+ * test. La base de datos se fija aquí porque las variables SPRING_DATASOURCE_* del entorno
+ * (la de docker-compose apunta a PostgreSQL) tienen prioridad sobre application.yml.
+ *
+ * <p>Todas las clases que heredan de esta comparten el mismo contexto y la misma base de
+ * datos: cada prueba crea su propio equipo para no depender de las demás.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class H2IntegrationTest extends DatabaseTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        h2Database(registry, "integration");
+    }
+
+    // También para las pruebas con otro contexto, cada una con su propia base de datos
+    public static void h2Database(DynamicPropertyRegistry registry, String name) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.defer-datasource-initialization", () -> "true");
+        registry.add("spring.sql.init.schema-locations",
+                () -> "classpath:db/h2/id-defaults.sql,classpath:db/h2/maintenance-projection.sql");
+        registry.add("app.usage.wal-dir", () -> "target/test-wal-" + name);
+    }
+
+    // Petición autenticada como lo haría JwtAuthenticationFilter con un token de ese usuario
+    protected static RequestPostProcessor as(Long userId, Long teamId, UserRole role) {
+        return as(new AuthenticatedUser(userId, teamId, "user" + userId + "@test.local", role));
+    }
+
+    protected static RequestPostProcessor as(AuthenticatedUser principal) {
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null,
+                principal.role().getAuthorities()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.racingteam;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Aplicación completa sobre la base de datos PostgreSQL de TEST_DATASOURCE_URL (con
+ * TEST_DATASOURCE_USERNAME y TEST_DATASOURCE_PASSWORD), con el esquema de las migraciones de
+ * Flyway: triggers, particiones por temporada y lápidas de sincronización, que H2 no tiene. Cada
+ * clase de prueba lleva
+ * {@code @EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = "jdbc:postgresql:.*")}
+ * (JUnit no la hereda) para omitirse sin PostgreSQL.
+ *
+ * <p>Al arrancar el contexto se vacían los esquemas public y archive y se aplican todas las
+ * migraciones desde cero. Por eso la base de datos es una variable propia de las pruebas y no
+ * SPRING_DATASOURCE_URL, que en docker-compose es la de la aplicación; si ambas coinciden el
+ * contexto no arranca. Como en {@link H2IntegrationTest}, cada prueba crea su propio equipo.</p>
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.flyway.schemas=public,archive",
+        "spring.flyway.clean-disabled=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "app.usage.wal-dir=target/test-wal-postgres",
+        "management.server.port=0"
+})
+@Import(PostgresIntegrationTest.CleanMigration.class)
+public abstract class PostgresIntegrationTest extends DatabaseTest {
+
+    private static final String URL = System.getenv("TEST_DATASOURCE_URL");
+
+    // Prevalece sobre las variables SPRING_DATASOURCE_* del entorno
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> System.getenv("TEST_DATASOURCE_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("TEST_DATASOURCE_PASSWORD"));
+    }
+
+    @TestConfiguration
+    static class CleanMigration {
+
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                requireTestDatabase();
+                flyway.clean();
+                flyway.migrate();
+            };
+        }
+    }
+
+    // Antes de cada flyway.clean(), también en las estrategias de migración de las subclases
+    protected static void requireTestDatabase() {
+        if (URL.equals(System.getenv("SPRING_DATASOURCE_URL"))) {
+            throw new IllegalStateException("TEST_DATASOURCE_URL es la base de datos de la aplicación");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.racingteam.config;
+
+import com.racingteam.DatabaseTest;
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.service.SyncService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Actuator en su propio puerto y métricas de los servicios que usan JdbcTemplate, sobre un
+ * servidor real: con MockMvc no se arranca el puerto de gestión. Las pruebas de Spring Boot
+ * desactivan por defecto la exportación de métricas y con ella el endpoint de Prometheus.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsTest extends DatabaseTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        H2IntegrationTest.h2Database(registry, "metrics");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SyncService syncService;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void actuatorIsOnlyOnTheManagementPort() throws Exception {
+        assertNotEquals(port, managementPort);
+        assertEquals(401, get("http://localhost:" + port + "/api/actuator/prometheus").statusCode());
+        assertEquals(401, get("http://localhost:" + port + "/api/actuator/health").statusCode());
+
+        assertEquals(200, get("http://localhost:" + managementPort + "/actuator/health").statusCode());
+        HttpResponse<String> scrape = get("http://localhost:" + managementPort + "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("http_server_requests"));
+        // El resto de endpoints sigue necesitando token también en el puerto de gestión
+        assertEquals(401, get("http://localhost:" + managementPort + "/actuator/metrics").statusCode());
+    }
+
+    @Test
+    void jdbcTemplateServicesAreTimed() {
+        Long teamId = insertTeam();
+        syncService.getChanges(teamId, null);
+
+        Timer timer = meterRegistry.find(MetricsConfig.JDBC_OPERATIONS)
+                .tag("class", SyncService.class.getName())
+                .tag("method", "getChanges")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
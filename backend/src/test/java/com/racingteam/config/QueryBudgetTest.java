@@ -0,0 +1,170 @@
+package com.racingteam.config;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.MaintenanceType;
+import com.racingteam.model.UserRole;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sentencias SQL de cada pantalla con {@link QueryBudget}, contadas por
+ * {@link QueryBudgetInterceptor} con las cachés vacías. Los datos tienen bastantes pilotos,
+ * vehículos, mantenimientos y eventos con miembros para que un N+1 supere el presupuesto.
+ */
+class QueryBudgetTest extends H2IntegrationTest {
+
+    private static final MaintenanceType[] TYPES = MaintenanceType.values();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    private Long teamId;
+    private Long userId;
+    private Long vehicleId;
+    private Long eventId;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        List<Long> members = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            members.add(insertUser(teamId));
+        }
+        userId = members.get(0);
+        List<Long> vehicles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            vehicles.add(insertVehicle(teamId));
+        }
+        vehicleId = vehicles.get(0);
+
+        List<Object[]> records = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        for (Long vehicle : vehicles) {
+            for (int r = 0; r < 40; r++) {
+                records.add(new Object[]{Timestamp.valueOf(start.plusDays(r * 7L)), TYPES[r % TYPES.length].name(),
+                        BigDecimal.valueOf(50 + r), vehicle, members.get(r % members.size())});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, cost, " +
+                "vehicle_id, performed_by_user_id, created_at, updated_at) VALUES (?, 'Revisión', ?, ?, ?, ?, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", records);
+
+        List<Long> events = new ArrayList<>();
+        LocalDateTime firstEvent = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 20; i++) {
+            Long event = insertEvent(teamId, firstEvent.plusDays(i * 7L), firstEvent.plusDays(i * 7L).plusHours(6));
+            for (Long member : members.subList(i % 20, i % 20 + 10)) {
+                jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", event, member);
+            }
+            for (Long vehicle : vehicles.subList(i % 15, i % 15 + 5)) {
+                jdbc.update("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", event, vehicle);
+            }
+            events.add(event);
+        }
+        eventId = events.get(events.size() / 2);
+
+        for (int i = 0; i < 5; i++) {
+            jdbc.update("INSERT INTO alerts (alert_type, entity_id, team_id, occurrence, due_at, message, node_id, " +
+                    "created_at) VALUES ('MAINTENANCE_DUE', ?, ?, 'test', CURRENT_TIMESTAMP, 'Revisión pendiente', " +
+                    "'test', CURRENT_TIMESTAMP)", vehicles.get(i), teamId);
+        }
+    }
+
+    @Test
+    void screensStayWithinTheirQueryBudget() throws Exception {
+        Set<String> checked = new HashSet<>();
+        checked.add(assertWithinBudget(get("/teams/{id}/overview", teamId)));
+        checked.add(assertWithinBudget(get("/events/{id}", eventId)));
+        checked.add(assertWithinBudget(get("/vehicles/{id}/detail", vehicleId)));
+        checked.add(assertWithinBudget(get("/alerts")));
+        checked.add(assertWithinBudget(get("/alerts").param("afterId", "0")));
+
+        // Un presupuesto nuevo necesita su pantalla en esta prueba
+        Set<String> budgeted = handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.hasMethodAnnotation(QueryBudget.class))
+                .map(MetricsConfig::endpointName)
+                .collect(Collectors.toSet());
+        assertEquals(budgeted, checked);
+    }
+
+    @Test
+    void jdbcTemplateStatementsAreCounted() {
+        queryCounter.start();
+        int count;
+        try {
+            jdbc.queryForObject("SELECT COUNT(*) FROM alerts WHERE team_id = ?", Long.class, teamId);
+            jdbc.batchUpdate("UPDATE alerts SET message = ? WHERE team_id = ?",
+                    List.of(new Object[]{"Revisión", teamId}, new Object[]{"Revisión pendiente", teamId}));
+        } finally {
+            count = queryCounter.stop();
+        }
+        // El lote cuenta como una sola sentencia
+        assertEquals(2, count);
+    }
+
+    // Devuelve el endpoint comprobado
+    private String assertWithinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Map<String, Double> before = recordedQueries();
+
+        MvcResult result = mockMvc.perform(request.with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        assertNotNull(budget, handler + " no declara @QueryBudget");
+        String endpoint = MetricsConfig.endpointName(handler);
+        double count = recordedQueries().getOrDefault(endpoint, 0.0) - before.getOrDefault(endpoint, 0.0);
+        // Una pantalla sin sentencias contadas es que el recuento no ve su acceso a datos
+        assertTrue(count > 0, endpoint + " no registró ninguna sentencia SQL");
+        assertTrue(count <= budget.value(),
+                endpoint + " ejecutó " + (int) count + " sentencias SQL con un presupuesto de " + budget.value());
+        return endpoint;
+    }
+
+    // Total de sentencias registradas por endpoint hasta ahora
+    private Map<String, Double> recordedQueries() {
+        Map<String, Double> totals = new HashMap<>();
+        for (DistributionSummary summary : meterRegistry.find(QueryBudgetInterceptor.QUERIES).summaries()) {
+            totals.put(summary.getId().getTag(MetricsConfig.ENDPOINT), summary.totalAmount());
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,50 @@
+package com.racingteam.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlowQueryListenerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowQueryListener listener = new SlowQueryListener(
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class),
+            200);
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void countsStatementsOverTheThresholdByEndpoint() {
+        MDC.put(MetricsConfig.ENDPOINT, "TeamController.getOverview");
+        listener.afterQuery(execution(250), List.of(new QueryInfo("SELECT * FROM teams WHERE id = ?")));
+        listener.afterQuery(execution(150), List.of(new QueryInfo("SELECT * FROM teams WHERE id = ?")));
+        MDC.remove(MetricsConfig.ENDPOINT);
+        listener.afterQuery(execution(300), List.of(new QueryInfo("DELETE FROM sync_tombstones WHERE deleted_at < ?")));
+
+        assertEquals(1, count("TeamController.getOverview"));
+        assertEquals(1, count(MetricsConfig.NO_ENDPOINT));
+    }
+
+    private double count(String endpoint) {
+        return meterRegistry.counter(SlowQueryListener.SLOW_QUERIES, MetricsConfig.ENDPOINT, endpoint).count();
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsedMillis);
+        return execution;
+    }
+}
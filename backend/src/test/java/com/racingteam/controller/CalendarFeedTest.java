@@ -0,0 +1,101 @@
+package com.racingteam.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.config.CacheConfig;
+import com.racingteam.model.UserRole;
+import com.racingteam.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CalendarFeedTest extends H2IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long teamId;
+    private Long otherTeamId;
+    private Long userId;
+    private String email;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        otherTeamId = insertTeam();
+        userId = insertUser(teamId);
+        email = jdbc.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId);
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+        insertEvent(teamId, start, start.plusHours(2));
+    }
+
+    @Test
+    void subscriptionUrlsWorkWithoutTheAuthorizationHeader() throws Exception {
+        JsonNode subscription = subscribe();
+
+        mockMvc.perform(feed(subscription.get("teamFeedUrl").asText()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("BEGIN:VEVENT")));
+        mockMvc.perform(feed(subscription.get("userFeedUrl").asText()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("BEGIN:VCALENDAR")));
+    }
+
+    @Test
+    void feedsNeedATokenForTheTeam() throws Exception {
+        String token = token(subscribe().get("teamFeedUrl").asText());
+
+        mockMvc.perform(get("/events/calendar/teams/{teamId}.ics", teamId))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/events/calendar/teams/{teamId}.ics", otherTeamId).param("token", token))
+                .andExpect(status().isForbidden());
+        // Sigue siendo válido pero el usuario ya no es del equipo
+        jdbc.update("UPDATE users SET team_id = ? WHERE id = ?", otherTeamId, userId);
+        cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).evict(email);
+        mockMvc.perform(get("/events/calendar/teams/{teamId}.ics", teamId).param("token", token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void calendarTokenIsNotAnAccessToken() throws Exception {
+        String token = token(subscribe().get("userFeedUrl").asText());
+
+        mockMvc.perform(get("/vehicles").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/vehicles").param("token", token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode subscribe() throws Exception {
+        String body = mockMvc.perform(get("/events/calendar/subscription")
+                        .with(as(new AuthenticatedUser(userId, teamId, email, UserRole.PILOT))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static MockHttpServletRequestBuilder feed(String url) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+        return get(uri.getPath()).param("token", uri.getQueryParams().getFirst("token"));
+    }
+
+    private static String token(String url) {
+        return UriComponentsBuilder.fromUriString(url).build().getQueryParams().getFirst("token");
+    }
+}
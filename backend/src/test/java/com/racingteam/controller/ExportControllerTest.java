@@ -0,0 +1,66 @@
+package com.racingteam.controller;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExportControllerTest extends H2IntegrationTest {
+
+    private Long teamId;
+    private Long otherTeamId;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        otherTeamId = insertTeam();
+        userId = insertUser(teamId);
+        LocalDateTime start = LocalDateTime.now().plusDays(5).withNano(0);
+        insertEvent(teamId, start, start.plusHours(2));
+        insertEvent(otherTeamId, start, start.plusHours(2));
+    }
+
+    @Test
+    void exportsOnlyTheCallersTeam() throws Exception {
+        byte[] body = mockMvc.perform(get("/exports/finances").with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String[] lines = gunzip(body).strip().split("\n");
+        // Cabecera y el único evento del equipo
+        assertEquals(2, lines.length);
+    }
+
+    @Test
+    void anotherTeamIsForbidden() throws Exception {
+        mockMvc.perform(get("/exports/maintenance").param("teamId", otherTeamId.toString())
+                        .with(as(userId, teamId, UserRole.MECHANIC)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/exports/finances").param("teamId", otherTeamId.toString())
+                        .with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void financesNeedTheFinancePermission() throws Exception {
+        mockMvc.perform(get("/exports/finances").with(as(userId, teamId, UserRole.PILOT)))
+                .andExpect(status().isForbidden());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.racingteam.controller;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.UserRole;
+import com.racingteam.service.TeamStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ImportControllerTest extends H2IntegrationTest {
+
+    @Autowired
+    private TeamStatsService teamStatsService;
+
+    private Long teamId;
+    private Long otherTeamId;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        otherTeamId = insertTeam();
+        userId = insertUser(teamId);
+    }
+
+    @Test
+    void vehiclesOfAnotherTeamAreRejected() throws Exception {
+        // La segunda fila desborda total_hours: el bloque falla y se reintenta fila a fila
+        String csv = "name,vehicleType,totalHours,teamId\n" +
+                "Propio,GT3,10," + teamId + "\n" +
+                "Desbordado,GT3,1000000000000," + teamId + "\n" +
+                "Ajeno,GT3,10," + otherTeamId + "\n";
+
+        mockMvc.perform(post("/import/vehicles").content(csv).with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(4))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("El equipo no es el tuyo"))
+                .andExpect(jsonPath("$.errors[1].line").value(3));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM vehicles WHERE team_id = ?", teamId));
+        assertEquals(0, count("SELECT COUNT(*) FROM vehicles WHERE team_id = ?", otherTeamId));
+        // Las estadísticas recogen la fila insertada sin esperar a la reconciliación
+        assertEquals(1, teamStatsService.getStats(teamId).totalVehicles());
+    }
+
+    @Test
+    void maintenanceOfAnotherTeamsVehicleIsRejected() throws Exception {
+        Long vehicleId = insertVehicle(teamId);
+        Long otherVehicleId = insertVehicle(otherTeamId);
+        Long otherUserId = insertUser(otherTeamId);
+        String csv = "maintenanceDate,description,maintenanceType,vehicleId,performedByUserId\n" +
+                "2024-03-01T09:00,Revisión,PREVENTIVE," + vehicleId + "," + userId + "\n" +
+                "2024-03-01T09:00,Revisión,PREVENTIVE," + otherVehicleId + ",\n" +
+                "2024-03-01T09:00,Revisión,PREVENTIVE," + vehicleId + "," + otherUserId + "\n";
+
+        mockMvc.perform(post("/import/maintenance").content(csv).with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("El vehículo es de otro equipo"))
+                .andExpect(jsonPath("$.errors[1].messages[0]")
+                        .value("El usuario que realizó el mantenimiento es de otro equipo"));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM maintenance_records WHERE vehicle_id = ?", otherVehicleId));
+    }
+
+    @Test
+    void importedRowsTakeTheirIdsFromPooledBlocks() throws Exception {
+        StringBuilder csv = new StringBuilder("name,vehicleType,teamId\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("Importado ").append(i).append(",GT3,").append(teamId).append('\n');
+        }
+
+        mockMvc.perform(post("/import/vehicles").content(csv.toString()).with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(120));
+
+        // Un nextval por cada 50 filas: los ids son consecutivos dentro de cada bloque
+        List<Long> ids = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id", Long.class,
+                teamId);
+        assertEquals(120, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            if (i % 50 != 0) {
+                assertEquals(ids.get(i - 1) + 1, ids.get(i));
+            }
+        }
+    }
+
+    @Test
+    void callerWithoutTeamIsForbidden() throws Exception {
+        mockMvc.perform(post("/import/vehicles").content("name,vehicleType,teamId\n")
+                        .with(as(userId, null, UserRole.MANAGER)))
+                .andExpect(status().isForbidden());
+    }
+
+    private int count(String sql, Long id) {
+        return jdbc.queryForObject(sql, Integer.class, id);
+    }
+}
@@ -0,0 +1,313 @@
+package com.racingteam.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.DatabaseTest;
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleStatus;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.security.AuthenticatedUser;
+import com.racingteam.security.JwtService;
+import com.racingteam.service.LiveStatusService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Canal en directo sobre un servidor real: SSE, el ticket de EventSource y clientes que dejan
+ * de leer. Usa su propia base de datos H2 porque el contexto no es el de {@code H2IntegrationTest}.
+ *
+ * <p>El despachador tiene un solo hilo y el búfer de envío de los sockets es pequeño, así que un
+ * cliente que no lee bloquea un envío a las pocas decenas de mensajes.</p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.live.dispatcher-threads=1",
+        "app.live.buffer-size=1000",
+        "app.live.send-timeout=500ms",
+        "app.live.heartbeat-interval=200"
+})
+@ActiveProfiles("test")
+@Import(LiveStreamTest.SmallSocketBuffers.class)
+class LiveStreamTest extends DatabaseTest {
+
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final int SUBSCRIBERS = 200;
+    private static final int STALLED = 2;
+    private static final int CHANGES = 300;
+
+    @TestConfiguration
+    static class SmallSocketBuffers {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> smallSendBuffer() {
+            return factory -> factory.addConnectorCustomizers(connector ->
+                    connector.setProperty("socket.txBufSize", "4096"));
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        H2IntegrationTest.h2Database(registry, "live");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LiveStatusService liveStatusService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<SocketChannel> channels = new ArrayList<>();
+    private Long teamId;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        userId = insertUser(teamId);
+    }
+
+    @AfterEach
+    void disconnect() throws IOException {
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    @Test
+    void eventSourceConnectsWithATicket() throws Exception {
+        String accessToken = jwtService.issueToken(userRepository.findById(userId).orElseThrow());
+        HttpResponse<String> ticket = http.send(HttpRequest.newBuilder(uri("/api/live/ticket"))
+                .header("Authorization", "Bearer " + accessToken).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, ticket.statusCode());
+        String streamUrl = objectMapper.readTree(ticket.body()).get("streamUrl").asText();
+
+        assertEquals(200, statusOf(URI.create(streamUrl).getRawPath() + "?" + URI.create(streamUrl).getRawQuery()));
+        assertEquals(401, statusOf("/api/live"));
+        // Un token de calendario no sirve como ticket, ni el ticket como token de acceso
+        String calendarToken = jwtService.issueUrlToken(principal(), JwtService.PURPOSE_CALENDAR, Duration.ofMinutes(1));
+        assertEquals(401, statusOf("/api/live?ticket=" + calendarToken));
+        String liveTicket = liveStatusService.issueTicket(principal());
+        assertEquals(401, http.send(HttpRequest.newBuilder(uri("/api/vehicles"))
+                .header("Authorization", "Bearer " + liveTicket).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode());
+    }
+
+    @Test
+    void stalledClientsDoNotHoldBackTheRest() throws Exception {
+        Long vehicleId = insertVehicle(teamId);
+        long droppedBefore = liveStatusService.getDroppedCount();
+        byte[] request = ("GET /api/live?ticket=" + liveStatusService.issueTicket(principal()) + " HTTP/1.1\r\n" +
+                "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        InetSocketAddress address = new InetSocketAddress("localhost", port);
+
+        // Clientes que no leen nunca, con el búfer de recepción mínimo
+        for (int i = 0; i < STALLED; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, 1024);
+            channel.connect(address);
+            channel.write(ByteBuffer.wrap(request));
+            channels.add(channel);
+        }
+        Selector selector = Selector.open();
+        List<int[]> states = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.write(ByteBuffer.wrap(request));
+            channel.configureBlocking(false);
+            channels.add(channel);
+            int[] state = new int[2];
+            states.add(state);
+            channel.register(selector, SelectionKey.OP_READ, state);
+        }
+        AtomicInteger received = new AtomicInteger();
+        Thread reader = new Thread(() -> read(selector, received), "live-test-reader");
+        reader.start();
+        try {
+            awaitCondition(() -> liveStatusService.getSubscriberCount() == SUBSCRIBERS + STALLED);
+
+            VehicleStatus[] statuses = {VehicleStatus.IN_USE, VehicleStatus.AVAILABLE};
+            for (int i = 0; i < CHANGES; i++) {
+                VehicleStatus status = statuses[i % statuses.length];
+                transactionTemplate.executeWithoutResult(tx ->
+                        vehicleRepository.findById(vehicleId).orElseThrow().setStatus(status));
+            }
+
+            // Cada cliente que lee recibe todos los cambios, en orden de llegada de la cola
+            awaitCondition(() -> received.get() >= SUBSCRIBERS * CHANGES);
+            for (int[] state : states) {
+                assertEquals(CHANGES, state[1]);
+            }
+            // Los que no leen se desconectan por el envío bloqueado, no por la cola llena
+            awaitCondition(() -> liveStatusService.getSubscriberCount() == SUBSCRIBERS);
+            assertTrue(liveStatusService.getDroppedCount() - droppedBefore >= STALLED);
+        } finally {
+            reader.interrupt();
+            reader.join();
+            selector.close();
+        }
+    }
+
+    @Test
+    void importedRowsAreNotStreamed() throws Exception {
+        Long vehicleId = insertVehicle(teamId);
+        jdbc.update("UPDATE users SET role = 'MANAGER' WHERE id = ?", userId);
+        String accessToken = jwtService.issueToken(userRepository.findById(userId).orElseThrow());
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port));
+        channel.write(ByteBuffer.wrap(("GET /api/live?ticket=" + liveStatusService.issueTicket(principal()) +
+                " HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII)));
+        channel.configureBlocking(false);
+        channels.add(channel);
+        Selector selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ, new int[2]);
+        AtomicInteger received = new AtomicInteger();
+        Thread reader = new Thread(() -> read(selector, received), "live-test-reader");
+        reader.start();
+        try {
+            // Un primer cambio confirma que la suscripción ya está registrada
+            setVehicleStatus(vehicleId, VehicleStatus.IN_USE);
+            awaitCondition(() -> received.get() == 1);
+
+            // Un bloque entero de importación, más filas que mensajes caben en la cola por defecto
+            StringBuilder csv = new StringBuilder("name,vehicleType,teamId\n");
+            for (int i = 0; i < 500; i++) {
+                csv.append("Importado ").append(i).append(",GT3,").append(teamId).append('\n');
+            }
+            HttpResponse<String> imported = http.send(HttpRequest.newBuilder(uri("/api/import/vehicles"))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .POST(HttpRequest.BodyPublishers.ofString(csv.toString())).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, imported.statusCode());
+            assertEquals(500, objectMapper.readTree(imported.body()).get("imported").asInt());
+
+            // Las altas no llegan al canal; el siguiente cambio de estado sí
+            setVehicleStatus(vehicleId, VehicleStatus.AVAILABLE);
+            awaitCondition(() -> received.get() >= 2);
+            Thread.sleep(300);
+            assertEquals(2, received.get());
+        } finally {
+            reader.interrupt();
+            reader.join();
+            selector.close();
+        }
+    }
+
+    private void setVehicleStatus(Long vehicleId, VehicleStatus status) {
+        transactionTemplate.executeWithoutResult(tx ->
+                vehicleRepository.findById(vehicleId).orElseThrow().setStatus(status));
+    }
+
+    // Cuenta los campos "data:" de cada conexión, que pueden llegar partidos entre lecturas
+    private static void read(Selector selector, AtomicInteger received) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    int[] state = (int[]) key.attachment();
+                    buffer.clear();
+                    if (((SocketChannel) key.channel()).read(buffer) < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        byte b = buffer.get();
+                        state[0] = b == DATA_PREFIX[state[0]] ? state[0] + 1 : (b == DATA_PREFIX[0] ? 1 : 0);
+                        if (state[0] == DATA_PREFIX.length) {
+                            state[0] = 0;
+                            state[1]++;
+                            received.incrementAndGet();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Solo el código de estado: la respuesta de /live no termina
+    private int statusOf(String pathAndQuery) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+            channel.write(ByteBuffer.wrap(("GET " + pathAndQuery + " HTTP/1.1\r\nHost: localhost\r\n" +
+                    "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII)));
+            ByteBuffer buffer = ByteBuffer.allocate(12);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // La línea de estado es "HTTP/1.1 200"
+            }
+            return Integer.parseInt(new String(buffer.array(), 9, 3, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private AuthenticatedUser principal() {
+        String email = jdbc.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId);
+        return new AuthenticatedUser(userId, teamId, email, UserRole.PILOT);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Tiempo de espera agotado");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
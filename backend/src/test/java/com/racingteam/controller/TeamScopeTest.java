@@ -0,0 +1,163 @@
+package com.racingteam.controller;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TeamScopeTest extends H2IntegrationTest {
+
+    private Long teamId;
+    private Long otherTeamId;
+    private Long userId;
+    private Long otherUserId;
+    private Long vehicleId;
+    private Long otherVehicleId;
+    private Long eventId;
+    private Long otherEventId;
+
+    @BeforeEach
+    void seed() {
+        teamId = insertTeam();
+        otherTeamId = insertTeam();
+        userId = insertUser(teamId);
+        otherUserId = insertUser(otherTeamId);
+        vehicleId = insertVehicle(teamId);
+        otherVehicleId = insertVehicle(otherTeamId);
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        eventId = insertEvent(teamId, start, start.plusHours(4));
+        otherEventId = insertEvent(otherTeamId, start, start.plusHours(4));
+    }
+
+    @Test
+    void listsAreLimitedToTheCallersTeam() throws Exception {
+        mockMvc.perform(get("/users").with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].teamId", everyItem(is(teamId.intValue()))));
+        mockMvc.perform(get("/vehicles").with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].teamId", is(teamId.intValue())));
+        mockMvc.perform(get("/vehicles/readiness").with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].teamId", is(teamId.intValue())));
+    }
+
+    @Test
+    void anotherTeamIsForbidden() throws Exception {
+        for (String path : new String[]{"/users", "/vehicles", "/vehicles/maintenance-due", "/events",
+                "/vehicles/maintenance-analytics", "/vehicles/readiness", "/finance/rollups"}) {
+            mockMvc.perform(get(path).param("teamId", otherTeamId.toString()).with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isForbidden());
+        }
+        for (String path : new String[]{"/teams/{id}", "/teams/{id}/stats", "/teams/{id}/overview"}) {
+            mockMvc.perform(get(path, otherTeamId).with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isForbidden());
+        }
+        for (String path : new String[]{"/vehicles/{id}", "/vehicles/{id}/maintenance-analytics",
+                "/vehicles/{id}/readiness", "/vehicles/{id}/detail"}) {
+            mockMvc.perform(get(path, otherVehicleId).with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/events/{id}", otherEventId).with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void usageIsOnlyAcceptedForTheCallersVehiclesFromRolesThatManageThem() throws Exception {
+        String otherTeamUsage = "{\"deltas\": [{\"vehicleId\": " + otherVehicleId + ", \"hours\": 1}]}";
+        mockMvc.perform(post("/vehicles/usage").contentType(MediaType.APPLICATION_JSON).content(otherTeamUsage)
+                        .with(as(userId, teamId, UserRole.MANAGER)))
+                .andExpect(status().isNotFound());
+        String ownUsage = "{\"deltas\": [{\"vehicleId\": " + vehicleId + ", \"hours\": 1}]}";
+        mockMvc.perform(post("/vehicles/usage").contentType(MediaType.APPLICATION_JSON).content(ownUsage)
+                        .with(as(userId, teamId, UserRole.PILOT)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/vehicles/usage").contentType(MediaType.APPLICATION_JSON).content(ownUsage)
+                        .with(as(userId, teamId, UserRole.MECHANIC)))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void conflictsAreOnlyCheckedOnTheCallersEvents() throws Exception {
+        mockMvc.perform(post("/events/{id}/conflicts", otherEventId).with(as(userId, teamId, UserRole.PILOT)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/events/{id}/conflicts", eventId).with(as(userId, teamId, UserRole.PILOT)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void eventMembersAreOnlyAddedByRolesThatManageEventsOfTheirTeam() throws Exception {
+        for (String path : new String[]{"/events/{id}/participants/{memberId}", "/events/{id}/vehicles/{memberId}"}) {
+            Long ownMember = path.contains("participants") ? userId : vehicleId;
+            Long otherMember = path.contains("participants") ? otherUserId : otherVehicleId;
+            // Forzar tampoco está al alcance de un rol que no gestiona eventos
+            mockMvc.perform(post(path, eventId, ownMember).param("force", "true")
+                            .with(as(userId, teamId, UserRole.GUEST)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post(path, otherEventId, otherMember).with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(post(path, eventId, otherMember).with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(post(path, eventId, ownMember).with(as(userId, teamId, UserRole.LOGISTICS)))
+                    .andExpect(status().isNoContent());
+        }
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM event_participants WHERE event_id = ?",
+                Integer.class, eventId));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM event_vehicles WHERE event_id = ?",
+                Integer.class, eventId));
+    }
+
+    @Test
+    void eventMembersAreOnlyChangedInBulkByRolesThatManageEventsOfTheirTeam() throws Exception {
+        jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", otherEventId, otherUserId);
+        jdbc.update("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", otherEventId, otherVehicleId);
+        for (String path : new String[]{"/events/{id}/participants", "/events/{id}/vehicles"}) {
+            Long ownMember = path.endsWith("participants") ? userId : vehicleId;
+            Long otherMember = path.endsWith("participants") ? otherUserId : otherVehicleId;
+            mockMvc.perform(patch(path, otherEventId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"remove\": [" + otherMember + "]}")
+                            .with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(patch(path, eventId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"add\": [" + ownMember + "]}")
+                            .with(as(userId, teamId, UserRole.GUEST)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(patch(path, eventId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"add\": [" + ownMember + ", " + otherMember + "]}")
+                            .with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(patch(path, eventId).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"add\": [" + ownMember + "]}")
+                            .with(as(userId, teamId, UserRole.MANAGER)))
+                    .andExpect(status().isNoContent());
+        }
+        // El evento del otro equipo conserva sus miembros
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM event_participants WHERE event_id = ?",
+                Integer.class, otherEventId));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM event_vehicles WHERE event_id = ?",
+                Integer.class, otherEventId));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM event_participants WHERE event_id = ?",
+                Integer.class, eventId));
+    }
+
+    @Test
+    void userWithoutTeamIsForbidden() throws Exception {
+        mockMvc.perform(get("/vehicles").with(as(userId, null, UserRole.GUEST)))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,76 @@
+package com.racingteam.model;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.config.QueryCounter;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventTest extends H2IntegrationTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Test
+    void membershipChangeWritesOnlyTheChangedRows() {
+        Long teamId = insertTeam();
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        Long eventId = insertEvent(teamId, start, start.plusHours(3));
+        List<Long> members = List.of(insertUser(teamId), insertUser(teamId), insertUser(teamId));
+        for (Long userId : members) {
+            jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", eventId, userId);
+        }
+        Long newcomer = insertUser(teamId);
+
+        int statements = transactionTemplate.execute(status -> {
+            Event event = eventRepository.findWithMembersById(eventId).orElseThrow();
+            User user = userRepository.findById(newcomer).orElseThrow();
+            queryCounter.start();
+            event.removeParticipantsById(Set.of(members.get(0)));
+            event.addParticipants(List.of(user));
+            entityManager.flush();
+            return queryCounter.stop();
+        });
+
+        // Un DELETE y un INSERT en event_participants; una colección List se borraría y
+        // reinsertaría entera
+        assertEquals(2, statements);
+        assertEquals(Set.of(members.get(1), members.get(2), newcomer), Set.copyOf(jdbc.queryForList(
+                "SELECT user_id FROM event_participants WHERE event_id = ?", Long.class, eventId)));
+    }
+
+    @Test
+    void proxyAndLoadedInstanceOfTheSameRowAreEqual() {
+        Long teamId = insertTeam();
+        Long userId = insertUser(teamId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User loaded = entityManager.find(User.class, userId);
+            entityManager.clear();
+            User reference = entityManager.getReference(User.class, userId);
+            assertEquals(loaded, reference);
+            assertEquals(loaded.hashCode(), reference.hashCode());
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.racingteam.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationServiceTest {
+
+    private final TokenRevocationService service = new TokenRevocationService(true);
+
+    @Test
+    void revokedTokenStaysRevokedUntilItExpires() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        service.revoke("logout", expiresAt);
+        // Muchos logouts después no desalojan la revocación
+        IntStream.range(0, 20_000).forEach(i -> service.revoke("other-" + i, expiresAt));
+
+        assertTrue(service.isRevoked("logout"));
+        assertTrue(service.isRevoked("other-19999"));
+        assertFalse(service.isRevoked("never-revoked"));
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotKept() {
+        service.revoke("expired", Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        assertFalse(service.isRevoked("expired"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.racingteam.service;
+
+import com.racingteam.DatabaseTest;
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.dto.AlertSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Varias instancias de {@link AlertService} sobre la misma base de datos, como si fueran nodos
+ * distintos. Usa su propia base de datos H2 con el planificador de la aplicación desactivado para
+ * que no tome la concesión de avisos durante la prueba.
+ */
+@SpringBootTest(properties = "app.alerts.enabled=false")
+@ActiveProfiles("test")
+class AlertServiceTest extends DatabaseTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(3);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        H2IntegrationTest.h2Database(registry, "alerts");
+    }
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private FleetReadinessService fleetReadinessService;
+
+    private final List<AlertService> nodes = new ArrayList<>();
+    private Long teamId;
+
+    @BeforeEach
+    void seed() {
+        // Los nodos planifican todos los equipos: lo de las pruebas anteriores deja de contar
+        jdbc.update("UPDATE users SET active = FALSE");
+        jdbc.update("UPDATE vehicles SET active = FALSE");
+        jdbc.update("DELETE FROM job_leases");
+        teamId = insertTeam();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(AlertService::shutdown);
+    }
+
+    @Test
+    void afterIdPagesThroughEveryNewAlert() {
+        Long vehicleId = insertVehicle(teamId);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            jdbc.update("INSERT INTO alerts (alert_type, entity_id, team_id, occurrence, due_at, message, node_id, " +
+                    "created_at) VALUES ('MAINTENANCE_DUE', ?, ?, ?, CURRENT_TIMESTAMP, 'Revisión pendiente', " +
+                    "'test', CURRENT_TIMESTAMP)", vehicleId, teamId, "h=" + i);
+        }
+        jdbc.query("SELECT id FROM alerts WHERE team_id = ? ORDER BY id", rs -> {
+            ids.add(rs.getLong(1));
+        }, teamId);
+
+        // Sin cursor, los más recientes
+        assertEquals(List.of(ids.get(6), ids.get(5), ids.get(4)), idsOf(alertService.getAlerts(teamId, null, 3)));
+
+        // Con más avisos nuevos que el límite, el cursor avanza sin saltarse ninguno
+        List<Long> received = new ArrayList<>();
+        Long afterId = ids.get(0);
+        List<AlertSummary> page;
+        do {
+            page = alertService.getAlerts(teamId, afterId, 4);
+            received.addAll(idsOf(page));
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 4);
+        assertEquals(ids.subList(1, 7), received);
+        assertTrue(alertService.getAlerts(teamId, ids.get(6), 4).isEmpty());
+    }
+
+    @Test
+    void onlyTheLeaderEmitsAndTheNextOneDoesNotRepeat() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        // Licencias caducadas: solo el aviso de caducada, que ya ha vencido
+        for (int i = 0; i < 3; i++) {
+            setLicenseExpiry(insertUser(teamId), now.minusDays(1 + i));
+        }
+        // Por caducar: vence el aviso previo y queda pendiente el de caducada
+        setLicenseExpiry(insertUser(teamId), now.plusDays(10));
+        for (int i = 0; i < 2; i++) {
+            jdbc.update("UPDATE vehicles SET total_hours = 120, next_maintenance_hours = 100 WHERE id = ?",
+                    insertVehicle(teamId));
+        }
+        long expected = 3 + 1 + 2;
+
+        AlertService a = node("node-a", LEASE, Duration.ofDays(30));
+        AlertService b = node("node-b", LEASE, Duration.ofDays(30));
+        CompletableFuture.allOf(CompletableFuture.runAsync(a::refresh), CompletableFuture.runAsync(b::refresh)).get();
+        assertNotEquals(a.isLeader(), b.isLeader());
+        AlertService leader = a.isLeader() ? a : b;
+        AlertService follower = a.isLeader() ? b : a;
+
+        // El temporizador del líder emite lo vencido; el otro nodo no tiene nada programado
+        leader.fireDue();
+        assertEquals(0, follower.fireDue());
+        awaitAlerts(expected);
+        assertEquals(1, leader.pendingCount());
+        assertEquals(0, follower.pendingCount());
+        assertEquals(expected, count("SELECT COUNT(*) FROM alerts WHERE team_id = ? AND node_id = ?",
+                teamId, a.isLeader() ? "node-a" : "node-b"));
+
+        // Al soltar la concesión, el otro nodo la toma con lo pendiente y sin repetir lo emitido
+        leader.shutdown();
+        follower.refresh();
+        assertTrue(follower.isLeader());
+        assertEquals(1, follower.pendingCount());
+        assertEquals(0, follower.fireDue());
+        awaitAlerts(expected);
+    }
+
+    @Test
+    void overlappingLeadersEmitEachOccurrenceOnce() throws Exception {
+        // Sin antelación los dos avisos de licencia vencen a la vez, cuando ya la tienen los dos nodos
+        LocalDateTime expiry = LocalDateTime.now().plusSeconds(2);
+        for (int i = 0; i < 5; i++) {
+            setLicenseExpiry(insertUser(teamId), expiry);
+        }
+        long expected = 5 * 2;
+
+        // Con una concesión de 1 ms el segundo nodo la toma mientras el primero aún se cree líder
+        AlertService c = node("node-c", Duration.ofMillis(1), Duration.ZERO);
+        AlertService d = node("node-d", Duration.ofMillis(1), Duration.ZERO);
+        c.refresh();
+        Thread.sleep(10);
+        d.refresh();
+        assertTrue(c.isLeader());
+        assertTrue(d.isLeader());
+        assertEquals(expected, c.pendingCount());
+        assertEquals(expected, d.pendingCount());
+
+        awaitAlerts(expected);
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT alert_type, entity_id FROM alerts WHERE team_id = ? " +
+                "GROUP BY alert_type, entity_id, occurrence HAVING COUNT(*) > 1) duplicates", teamId));
+    }
+
+    @Test
+    void nodeThatCannotPlanOnTakingOverReleasesTheLease() {
+        // La replanificación proyecta los vehículos activos; la licencia deja dos avisos lejanos en cola
+        insertVehicle(teamId);
+        setLicenseExpiry(insertUser(teamId), LocalDateTime.now().plusDays(60));
+        FleetReadinessService failing = mock(FleetReadinessService.class);
+        when(failing.getTeamReadiness(anyLong(), eq(true)))
+                .thenThrow(new IllegalStateException("Proyección no disponible"))
+                .thenReturn(List.of());
+
+        AlertService e = node("node-e", LEASE, Duration.ofDays(30), failing);
+        assertThrows(IllegalStateException.class, e::refresh);
+        assertFalse(e.isLeader());
+        assertEquals(0, e.pendingCount());
+        assertEquals(0, count("SELECT COUNT(*) FROM job_leases"));
+
+        // Otro nodo puede tomarla enseguida, y el que falló vuelve a planificar entero cuando la recupera
+        AlertService f = node("node-f", LEASE, Duration.ofDays(30));
+        f.refresh();
+        assertTrue(f.isLeader());
+        assertEquals(2, f.pendingCount());
+        f.shutdown();
+        e.refresh();
+        assertTrue(e.isLeader());
+        assertEquals(2, e.pendingCount());
+    }
+
+    private AlertService node(String nodeId, Duration lease, Duration licenseWarning) {
+        return node(nodeId, lease, licenseWarning, fleetReadinessService);
+    }
+
+    private AlertService node(String nodeId, Duration lease, Duration licenseWarning,
+                              FleetReadinessService readiness) {
+        AlertService node = new AlertService(jdbc, new JobLeaseService(jdbc, nodeId), readiness, true,
+                licenseWarning, Duration.ofDays(7), lease, Duration.ofHours(1), Duration.ofSeconds(30), 50, 200);
+        nodes.add(node);
+        return node;
+    }
+
+    private void setLicenseExpiry(Long userId, LocalDateTime expiry) {
+        jdbc.update("UPDATE users SET license_expiry = ? WHERE id = ?", Timestamp.valueOf(expiry), userId);
+    }
+
+    // Los temporizadores de los nodos también emiten: se espera a que terminen y se comprueba
+    // que no llega ninguno más
+    private void awaitAlerts(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (count("SELECT COUNT(*) FROM alerts WHERE team_id = ?", teamId) < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200);
+        assertEquals(expected, count("SELECT COUNT(*) FROM alerts WHERE team_id = ?", teamId));
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbc.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0;
+    }
+
+    private static List<Long> idsOf(List<AlertSummary> alerts) {
+        return alerts.stream().map(AlertSummary::id).toList();
+    }
+}
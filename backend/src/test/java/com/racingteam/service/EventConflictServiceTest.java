@@ -0,0 +1,92 @@
+package com.racingteam.service;
+
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.Event;
+import com.racingteam.model.EventType;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.projection.CalendarEventView;
+import com.racingteam.repository.projection.EventMemberView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventConflictServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 6, 1, 9, 0);
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final EventConflictService service = new EventConflictService(eventRepository);
+    private final Team team = new Team("Test Racing", VehicleCategory.CAR);
+
+    @BeforeEach
+    void setUp() {
+        team.setId(1L);
+        when(eventRepository.findAllParticipantLinks()).thenReturn(List.of());
+        when(eventRepository.findAllVehicleLinks()).thenReturn(List.of());
+    }
+
+    @Test
+    void eventSavedWhileRebuildingIsKeptAfterTheSwap() {
+        // El evento se confirma después de leer los eventos y su cambio llega antes de sustituir el índice
+        Event event = event(10L, user(20L));
+        when(eventRepository.findAllCalendarViews()).thenAnswer(invocation -> {
+            service.onEntityChange(new EntityChangeEvent(event, ChangeType.CREATED));
+            return List.of();
+        });
+
+        service.rebuild();
+
+        assertEquals(1, service.findConflicts(1L, null, START, START.plusHours(2), Set.of(20L), Set.of()).size());
+    }
+
+    @Test
+    void eventDeletedWhileRebuildingIsDroppedAfterTheSwap() {
+        // La lectura aún ve el evento y su piloto; el borrado se confirma antes de sustituir el índice
+        Event event = event(10L, user(20L));
+        EventMemberView link = mock(EventMemberView.class);
+        when(link.getEventId()).thenReturn(10L);
+        when(link.getMemberId()).thenReturn(20L);
+        when(eventRepository.findAllParticipantLinks()).thenReturn(List.of(link));
+        CalendarEventView view = mock(CalendarEventView.class);
+        when(view.getId()).thenReturn(10L);
+        when(view.getTeamId()).thenReturn(1L);
+        when(view.getName()).thenReturn(event.getName());
+        when(view.getStartDate()).thenReturn(event.getStartDate());
+        when(view.getEndDate()).thenReturn(event.getEndDate());
+        when(eventRepository.findAllCalendarViews()).thenAnswer(invocation -> {
+            service.onEntityChange(new EntityChangeEvent(event, ChangeType.DELETED));
+            return List.of(view);
+        });
+
+        service.rebuild();
+
+        assertEquals(0, service.findConflicts(1L, null, START, START.plusHours(2), Set.of(20L), Set.of()).size());
+    }
+
+    private Event event(Long id, User participant) {
+        Event event = new Event("Carrera " + id, EventType.RACE, START, START.plusHours(4));
+        event.setId(id);
+        event.setTeam(team);
+        event.addParticipant(participant);
+        return event;
+    }
+
+    private User user(Long id) {
+        User user = new User("piloto" + id + "@test.com", "secret", "Piloto", "Prueba", UserRole.PILOT);
+        user.setId(id);
+        user.setTeam(team);
+        return user;
+    }
+}
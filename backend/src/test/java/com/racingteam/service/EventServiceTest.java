@@ -0,0 +1,96 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.exception.SchedulingConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventServiceTest extends H2IntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    private Long teamId;
+    private Long firstEventId;
+    private Long overlappingEventId;
+
+    @BeforeEach
+    void seed() {
+        // Insertados por JDBC: el índice de calendario no los conoce
+        teamId = insertTeam();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        firstEventId = insertEvent(teamId, start, start.plusHours(4));
+        overlappingEventId = insertEvent(teamId, start.plusHours(2), start.plusHours(6));
+    }
+
+    @Test
+    void conflictNotYetInTheIndexIsFoundInTheDatabase() {
+        Long userId = insertUser(teamId);
+        Long vehicleId = insertVehicle(teamId);
+        jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", firstEventId, userId);
+        jdbc.update("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", firstEventId, vehicleId);
+
+        assertThrows(SchedulingConflictException.class,
+                () -> eventService.addParticipant(overlappingEventId, userId, false));
+        assertThrows(SchedulingConflictException.class,
+                () -> eventService.addVehicle(overlappingEventId, vehicleId, false));
+    }
+
+    @Test
+    void forcedAssignmentSkipsTheCheck() {
+        Long userId = insertUser(teamId);
+        jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", firstEventId, userId);
+
+        eventService.addParticipant(overlappingEventId, userId, true);
+
+        assertEquals(2, participations(userId));
+    }
+
+    @Test
+    void concurrentAssignmentsOfTheSamePilotOnlyOneSucceeds() throws Exception {
+        Long userId = insertUser(teamId);
+        CountDownLatch ready = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(List.of(
+                    assign(ready, firstEventId, userId), assign(ready, overlappingEventId, userId)));
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                succeeded += result.get() ? 1 : 0;
+            }
+            assertEquals(1, succeeded);
+            assertEquals(1, participations(userId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Boolean> assign(CountDownLatch ready, Long eventId, Long userId) {
+        return () -> {
+            ready.countDown();
+            ready.await();
+            try {
+                eventService.addParticipant(eventId, userId, false);
+                return true;
+            } catch (SchedulingConflictException e) {
+                return false;
+            }
+        };
+    }
+
+    private int participations(Long userId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM event_participants WHERE user_id = ?", Integer.class, userId);
+    }
+}
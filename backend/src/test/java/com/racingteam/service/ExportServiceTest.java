@@ -0,0 +1,114 @@
+package com.racingteam.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.racingteam.dto.ExportFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Techo de memoria de la exportación: la memoria retenida mientras se escriben las filas no
+ * debe crecer con el número de filas. H2 en fichero guarda en disco los resultados grandes,
+ * así que lo único que podría acumular filas es la propia exportación.
+ */
+class ExportServiceTest {
+
+    private static final int RECORDS = 300_000;
+    private static final long MAX_GROWTH_BYTES = 16L * 1024 * 1024;
+
+    @TempDir
+    static Path databaseDir;
+
+    private static SingleConnectionDataSource dataSource;
+    private static ExportService exportService;
+
+    @BeforeAll
+    static void seed() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:file:" + databaseDir.resolve("export") + ";MODE=PostgreSQL", "sa", "", true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, first_name VARCHAR(50), last_name VARCHAR(50))");
+        jdbc.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, name VARCHAR(100), vehicle_type VARCHAR(50), " +
+                "team_id BIGINT)");
+        jdbc.execute("CREATE TABLE maintenance_records (id BIGINT PRIMARY KEY, maintenance_date TIMESTAMP, " +
+                "maintenance_type VARCHAR(50), description VARCHAR(500), vehicle_hours_at_maintenance DECIMAL(10,2), " +
+                "vehicle_km_at_maintenance DECIMAL(10,2), cost DECIMAL(10,2), parts_replaced TEXT, " +
+                "vehicle_id BIGINT, performed_by_user_id BIGINT)");
+        jdbc.update("INSERT INTO users VALUES (1, 'Mecánico', 'Jefe')");
+        jdbc.update("INSERT INTO vehicles SELECT X, 'Vehicle ' || X, 'GT3', 1 FROM SYSTEM_RANGE(1, 100)");
+        jdbc.update("INSERT INTO maintenance_records SELECT X, DATEADD('MINUTE', X, TIMESTAMP '2020-01-01 00:00:00'), " +
+                "'PREVENTIVE', 'Revisión, cambio de \"pastillas\" ' || X, 10, 1000, 100 + MOD(X, 900), " +
+                "'Pastillas de freno', 1 + MOD(X, 100), 1 FROM SYSTEM_RANGE(1, ?)", RECORDS);
+        exportService = new ExportService(dataSource, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper(), 1000);
+    }
+
+    @AfterAll
+    static void close() {
+        dataSource.destroy();
+    }
+
+    @ParameterizedTest
+    @EnumSource(DataFormat.class)
+    void retainedHeapDoesNotGrowWithTheRowCount(DataFormat format) {
+        HeapSamplingStream out = new HeapSamplingStream(20_000, RECORDS - 10_000);
+
+        long rows = exportService.exportMaintenance(new ExportFilter(1L, null, null), format, out);
+
+        assertEquals(RECORDS, rows);
+        long growth = out.last - out.first;
+        assertTrue(growth < MAX_GROWTH_BYTES,
+                "La memoria retenida creció " + growth / 1024 + " KB entre las líneas 20000 y " + (RECORDS - 10_000));
+    }
+
+    // Descarta la salida y mide la memoria retenida, tras un GC, al llegar a dos líneas dadas
+    private static final class HeapSamplingStream extends OutputStream {
+
+        private final long firstLine;
+        private final long lastLine;
+        private long lines;
+        private long first;
+        private long last;
+
+        HeapSamplingStream(long firstLine, long lastLine) {
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                if (lines == firstLine) {
+                    first = retainedHeap();
+                } else if (lines == lastLine) {
+                    last = retainedHeap();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        private static long retainedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.FinanceRollupReport;
+import com.racingteam.dto.FinanceRollupReport.TeamRollup;
+import com.racingteam.dto.FinanceRollupReport.Totals;
+import com.racingteam.model.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Datos y comprobación del rollup financiero, comunes a H2 (reconciliación) y PostgreSQL
+ * (triggers de V12): el rollup tiene que coincidir exactamente con sumar {@link BigDecimal}
+ * desde eventos, asignaciones y mantenimientos.
+ */
+final class FinanceRollupFixture {
+
+    static final int[] SEASONS = {2023, 2024, 2025};
+
+    private static final EventType[] TYPES = {EventType.RACE, EventType.TEST, EventType.PRACTICE,
+            EventType.QUALIFYING, EventType.TRACKDAY, EventType.SHAKEDOWN, EventType.TRAVEL};
+    private static final int VEHICLES = 6;
+    private static final int EVENTS_PER_SEASON = 12;
+    private static final int RECORDS_PER_VEHICLE = 40;
+
+    private FinanceRollupFixture() {
+    }
+
+    // Eventos repartidos por las temporadas con presupuesto y coste en céntimos variados
+    static void seed(JdbcTemplate jdbc, Long teamId) {
+        for (int i = 0; i < VEHICLES; i++) {
+            jdbc.update("INSERT INTO vehicles (name, vehicle_type, status, active, team_id, total_hours, " +
+                    "total_kilometers, created_at, updated_at) VALUES (?, 'GT3', 'AVAILABLE', true, ?, 0, 0, " +
+                    "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", "Vehículo " + i, teamId);
+        }
+        List<Long> vehicleIds = jdbc.queryForList("SELECT id FROM vehicles WHERE team_id = ? ORDER BY id",
+                Long.class, teamId);
+
+        List<Object[]> events = new ArrayList<>();
+        for (int season : SEASONS) {
+            for (int e = 0; e < EVENTS_PER_SEASON; e++) {
+                LocalDateTime start = LocalDateTime.of(season, 1, 1, 9, 0).plusDays(e * 30L);
+                BigDecimal budget = e % 9 == 0 ? null : BigDecimal.valueOf(100_000L + (e * 7919L + teamId) % 900_000, 2);
+                BigDecimal actual = e % 5 == 0 ? null : BigDecimal.valueOf(90_000L + (e * 104_729L) % 950_000, 2);
+                events.add(new Object[]{"Evento " + season + "-" + e, TYPES[e % TYPES.length].name(),
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(8)), budget, actual, teamId});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO events (name, event_type, start_date, end_date, status, budget_allocated, " +
+                "actual_cost, team_id, created_at, updated_at) VALUES (?, ?, ?, ?, 'PLANNED', ?, ?, ?, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", events);
+        List<Long> eventIds = jdbc.queryForList("SELECT id FROM events WHERE team_id = ? ORDER BY start_date, id",
+                Long.class, teamId);
+
+        // Cada evento con un tercio de la flota
+        List<Object[]> assignments = new ArrayList<>();
+        for (int e = 0; e < eventIds.size(); e++) {
+            for (int v = e % 3; v < vehicleIds.size(); v += 3) {
+                assignments.add(new Object[]{eventIds.get(e), vehicleIds.get(v)});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", assignments);
+
+        // Desde antes del primer evento; uno de cada once sin coste
+        LocalDateTime first = LocalDateTime.of(SEASONS[0] - 1, 12, 1, 8, 0);
+        List<Object[]> records = new ArrayList<>();
+        for (Long id : vehicleIds) {
+            for (int r = 0; r < RECORDS_PER_VEHICLE; r++) {
+                BigDecimal cost = r % 11 == 0 ? null : BigDecimal.valueOf(5_000L + (r * 3_701L + id) % 95_000, 2);
+                records.add(new Object[]{Timestamp.valueOf(first.plusDays(r * 27L).plusHours(id % 24)),
+                        cost, id});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, " +
+                "cost, vehicle_id, created_at, updated_at) VALUES (?, 'Revisión', 'PREVENTIVE', ?, ?, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", records);
+    }
+
+    // Cambios que recorren todos los caminos de los triggers
+    static void change(JdbcTemplate jdbc, Long teamId) {
+        String teamEvents = "SELECT id FROM events WHERE team_id = " + teamId;
+        String teamVehicles = "SELECT id FROM vehicles WHERE team_id = " + teamId;
+        jdbc.update("UPDATE events SET start_date = start_date + INTERVAL '9' DAY, " +
+                "end_date = end_date + INTERVAL '9' DAY WHERE team_id = ? AND MOD(id, 7) = 1", teamId);
+        jdbc.update("UPDATE events SET start_date = start_date + INTERVAL '200' DAY, " +
+                "end_date = end_date + INTERVAL '200' DAY WHERE team_id = ? AND MOD(id, 29) = 3", teamId);
+        jdbc.update("UPDATE events SET event_type = 'TEST', budget_allocated = 1234.56 " +
+                "WHERE team_id = ? AND MOD(id, 11) = 2", teamId);
+        jdbc.update("UPDATE events SET actual_cost = NULL WHERE team_id = ? AND MOD(id, 13) = 4", teamId);
+        jdbc.update("DELETE FROM event_vehicles WHERE event_id IN (" + teamEvents + ") " +
+                "AND MOD(event_id + vehicle_id, 17) = 5");
+        // Como JPA, primero las asignaciones: el esquema de H2 no las borra en cascada
+        jdbc.update("DELETE FROM event_vehicles WHERE event_id IN (" + teamEvents + ") AND MOD(event_id, 19) = 6");
+        jdbc.update("DELETE FROM events WHERE team_id = ? AND MOD(id, 19) = 6", teamId);
+        jdbc.update("DELETE FROM maintenance_records WHERE vehicle_id IN (" + teamVehicles + ") AND MOD(id, 10) = 3");
+        jdbc.update("UPDATE maintenance_records SET cost = cost + 0.01, " +
+                "maintenance_date = maintenance_date + INTERVAL '3' DAY " +
+                "WHERE vehicle_id IN (" + teamVehicles + ") AND MOD(id, 7) = 2");
+    }
+
+    static void assertMatchesRecomputation(JdbcTemplate jdbc, FinanceRollupService rollupService, Long teamId) {
+        Map<Key, Sums> expected = recompute(jdbc, teamId);
+        for (int season : SEASONS) {
+            FinanceRollupReport report = rollupService.getRollups(teamId, season);
+            assertEquals(1, report.teams().size());
+            TeamRollup team = report.teams().get(0);
+
+            Map<Key, Sums> inSeason = new HashMap<>();
+            expected.forEach((key, sums) -> {
+                if (key.season() == season) {
+                    inSeason.put(key, sums);
+                }
+            });
+            assertEquals(inSeason.size(), team.byMonthAndEventType().size());
+            Sums total = new Sums();
+            for (Totals totals : team.byMonthAndEventType()) {
+                Key key = new Key(season, totals.month(), totals.eventType());
+                Sums sums = inSeason.get(key);
+                assertNotNull(sums, "Fila del rollup sin eventos: " + key);
+                assertTotals(key, sums, totals);
+                total.add(sums);
+            }
+            assertTotals(season, total, team.total());
+        }
+    }
+
+    private record Key(int season, int month, EventType eventType) {
+    }
+
+    private record EventRow(Long id, LocalDateTime start, EventType eventType, BigDecimal budget, BigDecimal actual) {
+
+        Key key() {
+            return new Key(start.getYear(), start.getMonthValue(), eventType);
+        }
+    }
+
+    private static final class Sums {
+
+        private long eventCount;
+        private BigDecimal budget = BigDecimal.ZERO.setScale(2);
+        private BigDecimal actual = BigDecimal.ZERO.setScale(2);
+        private BigDecimal maintenance = BigDecimal.ZERO.setScale(2);
+
+        void add(Sums other) {
+            eventCount += other.eventCount;
+            budget = budget.add(other.budget);
+            actual = actual.add(other.actual);
+            maintenance = maintenance.add(other.maintenance);
+        }
+    }
+
+    /**
+     * Recálculo independiente del agregado: el mantenimiento de cada vehículo va al último de sus
+     * eventos que empezó antes o a la vez, desempatando por id.
+     */
+    private static Map<Key, Sums> recompute(JdbcTemplate jdbc, Long teamId) {
+        Map<Long, EventRow> events = new HashMap<>();
+        jdbc.query("SELECT id, start_date, event_type, budget_allocated, actual_cost FROM events WHERE team_id = ?",
+                rs -> {
+                    EventRow row = new EventRow(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(),
+                            EventType.valueOf(rs.getString(3)), rs.getBigDecimal(4), rs.getBigDecimal(5));
+                    events.put(row.id(), row);
+                }, teamId);
+        Map<Key, Sums> sums = new HashMap<>();
+        for (EventRow event : events.values()) {
+            Sums cell = sums.computeIfAbsent(event.key(), key -> new Sums());
+            cell.eventCount++;
+            cell.budget = cell.budget.add(Objects.requireNonNullElse(event.budget(), BigDecimal.ZERO));
+            cell.actual = cell.actual.add(Objects.requireNonNullElse(event.actual(), BigDecimal.ZERO));
+        }
+
+        Map<Long, TreeMap<LocalDateTime, EventRow>> byVehicle = new HashMap<>();
+        Comparator<EventRow> order = Comparator.comparing(EventRow::start).thenComparing(EventRow::id);
+        jdbc.query("SELECT event_id, vehicle_id FROM event_vehicles", rs -> {
+            EventRow event = events.get(rs.getLong(1));
+            if (event != null) {
+                byVehicle.computeIfAbsent(rs.getLong(2), id -> new TreeMap<>())
+                        .merge(event.start(), event, (a, b) -> order.compare(a, b) >= 0 ? a : b);
+            }
+        });
+        jdbc.query("SELECT m.vehicle_id, m.maintenance_date, m.cost FROM maintenance_records m " +
+                "JOIN vehicles v ON v.id = m.vehicle_id WHERE v.team_id = ? AND m.cost IS NOT NULL", rs -> {
+                    TreeMap<LocalDateTime, EventRow> timeline = byVehicle.get(rs.getLong(1));
+                    Map.Entry<LocalDateTime, EventRow> entry =
+                            timeline != null ? timeline.floorEntry(rs.getTimestamp(2).toLocalDateTime()) : null;
+                    if (entry != null) {
+                        Sums cell = sums.get(entry.getValue().key());
+                        cell.maintenance = cell.maintenance.add(rs.getBigDecimal(3));
+                    }
+                }, teamId);
+        return sums;
+    }
+
+    // equals de BigDecimal: también la escala, dos decimales como en la respuesta
+    private static void assertTotals(Object key, Sums expected, Totals actual) {
+        BigDecimal totalCost = expected.actual.add(expected.maintenance);
+        assertEquals(expected.eventCount, actual.eventCount(), "eventos de " + key);
+        assertEquals(expected.budget, actual.budgetAllocated(), "presupuesto de " + key);
+        assertEquals(expected.actual, actual.actualCost(), "coste real de " + key);
+        assertEquals(expected.maintenance, actual.maintenanceCost(), "mantenimiento de " + key);
+        assertEquals(totalCost, actual.totalCost(), "coste total de " + key);
+        assertEquals(totalCost.subtract(expected.budget), actual.deviation(), "desviación de " + key);
+    }
+}
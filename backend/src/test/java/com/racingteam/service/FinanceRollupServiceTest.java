@@ -0,0 +1,31 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FinanceRollupServiceTest extends H2IntegrationTest {
+
+    @Autowired
+    private FinanceRollupService rollupService;
+
+    @Test
+    void aggregateMatchesAnExactRecomputation() {
+        Long teamId = insertTeam();
+        Long otherTeamId = insertTeam();
+        FinanceRollupFixture.seed(jdbc, teamId);
+        FinanceRollupFixture.seed(jdbc, otherTeamId);
+        rollupService.reconcile();
+
+        FinanceRollupFixture.change(jdbc, teamId);
+
+        // H2 no tiene los triggers: la reconciliación corrige el equipo cambiado y deja el invariante
+        assertTrue(rollupService.reconcile() >= 1);
+        assertEquals(0, rollupService.reconcile());
+        FinanceRollupFixture.assertMatchesRecomputation(jdbc, rollupService, teamId);
+        FinanceRollupFixture.assertMatchesRecomputation(jdbc, rollupService, otherTeamId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.racingteam.service;
+
+import com.racingteam.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class FinanceRollupTriggerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FinanceRollupService rollupService;
+
+    @Test
+    void triggersKeepTheAggregateExact() {
+        Long teamId = insertTeam();
+        FinanceRollupFixture.seed(jdbc, teamId);
+        FinanceRollupFixture.change(jdbc, teamId);
+
+        // Sin reconciliar: lo ha mantenido V12 con cada escritura
+        FinanceRollupFixture.assertMatchesRecomputation(jdbc, rollupService, teamId);
+        assertEquals(0, rollupService.reconcile());
+    }
+}
@@ -0,0 +1,64 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos nodos sobre la misma base de datos. Cada prueba usa su propio trabajo para no competir con
+ * la concesión de avisos de la aplicación.
+ */
+class JobLeaseServiceTest extends H2IntegrationTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(3);
+
+    @Test
+    void onlyOneNodeHoldsTheLease() {
+        String job = "job-" + UUID.randomUUID();
+        JobLeaseService a = new JobLeaseService(jdbc, "node-a");
+        JobLeaseService b = new JobLeaseService(jdbc, "node-b");
+
+        assertTrue(a.tryAcquire(job, LEASE));
+        assertFalse(b.tryAcquire(job, LEASE));
+        // Renovar no la pierde
+        assertTrue(a.tryAcquire(job, LEASE));
+        assertFalse(b.tryAcquire(job, LEASE));
+        assertEquals("node-a", owner(job));
+
+        // Soltarla solo vale para el dueño
+        b.release(job);
+        assertFalse(b.tryAcquire(job, LEASE));
+        a.release(job);
+        assertTrue(b.tryAcquire(job, LEASE));
+        assertFalse(a.tryAcquire(job, LEASE));
+        assertEquals("node-b", owner(job));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() {
+        String job = "job-" + UUID.randomUUID();
+        JobLeaseService a = new JobLeaseService(jdbc, "node-a");
+        JobLeaseService b = new JobLeaseService(jdbc, "node-b");
+
+        assertTrue(a.tryAcquire(job, LEASE));
+        // El nodo a deja de renovarla
+        jdbc.update("UPDATE job_leases SET expires_at = ? WHERE job_name = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), job);
+
+        assertTrue(b.tryAcquire(job, LEASE));
+        assertFalse(a.tryAcquire(job, LEASE));
+        assertEquals("node-b", owner(job));
+    }
+
+    private String owner(String job) {
+        return jdbc.queryForObject("SELECT owner FROM job_leases WHERE job_name = ?", String.class, job);
+    }
+}
@@ -0,0 +1,57 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.CursorPage;
+import com.racingteam.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void extraRowMeansThereIsANextPage() {
+        CursorPage<Long> page = KeysetCursor.page(3, rows -> ids(rows), KeysetCursor::encodeId);
+
+        assertEquals(List.of(1L, 2L, 3L), page.items());
+        assertEquals(3L, KeysetCursor.decodeId(page.nextCursor()));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Long> page = KeysetCursor.page(5, rows -> ids(2), KeysetCursor::encodeId);
+
+        assertEquals(List.of(1L, 2L), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void limitIsClamped() {
+        int[] requested = new int[1];
+        KeysetCursor.page(10_000, rows -> {
+            requested[0] = rows;
+            return List.<Long>of();
+        }, KeysetCursor::encodeId);
+
+        assertEquals(KeysetCursor.MAX_LIMIT + 1, requested[0]);
+    }
+
+    @Test
+    void dateAndIdRoundTrip() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 8, 14, 30);
+
+        KeysetCursor.DateAndId decoded = KeysetCursor.decodeDateAndId(KeysetCursor.encodeDateAndId(start, 42L));
+
+        assertEquals(new KeysetCursor.DateAndId(start, 42L), decoded);
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decodeDateAndId("no-es-un-cursor"));
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+}
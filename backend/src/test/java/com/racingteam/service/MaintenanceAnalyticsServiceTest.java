@@ -0,0 +1,111 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.dto.MaintenanceAnalytics;
+import com.racingteam.model.MaintenanceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaintenanceAnalyticsServiceTest extends H2IntegrationTest {
+
+    private static final MaintenanceType[] TYPES = MaintenanceType.values();
+
+    @Autowired
+    private MaintenanceAnalyticsService analyticsService;
+
+    @Test
+    void aggregateMatchesARecomputationFromTheRecords() {
+        Long teamId = insertTeam();
+        Long vehicleId = insertVehicle(teamId);
+        Long otherVehicleId = insertVehicle(teamId);
+
+        // Dos temporadas; uno de cada cuatro registros es correctivo y algunos no tienen coste
+        LocalDateTime start = LocalDateTime.of(2023, 11, 1, 8, 0);
+        for (int r = 0; r < 60; r++) {
+            MaintenanceType type = r % 4 == 0 ? MaintenanceType.CORRECTIVE : TYPES[r % TYPES.length];
+            BigDecimal cost = r % 7 == 0 ? null : new BigDecimal("10.25").multiply(BigDecimal.valueOf(r));
+            insertRecord(r % 3 == 0 ? otherVehicleId : vehicleId, start.plusDays(r * 3L), type, cost);
+        }
+        analyticsService.reconcile();
+
+        // Borrados, cambios de tipo y coste y cambios de temporada después de cargar el agregado
+        jdbc.update("DELETE FROM maintenance_records WHERE vehicle_id IN (?, ?) AND MOD(id, 10) = 3",
+                vehicleId, otherVehicleId);
+        jdbc.update("UPDATE maintenance_records SET maintenance_type = 'CORRECTIVE', cost = 120 " +
+                "WHERE vehicle_id IN (?, ?) AND MOD(id, 7) = 2", vehicleId, otherVehicleId);
+        jdbc.update("UPDATE maintenance_records SET maintenance_date = maintenance_date + INTERVAL '400' DAY " +
+                "WHERE vehicle_id IN (?, ?) AND MOD(id, 13) = 5", vehicleId, otherVehicleId);
+
+        // H2 no tiene los triggers: la reconciliación corrige los dos vehículos y deja el invariante
+        assertTrue(analyticsService.reconcile() >= 2);
+        assertEquals(0, analyticsService.reconcile());
+
+        for (Integer season : new Integer[]{null, 2023, 2024}) {
+            assertAnalytics(expected(List.of(vehicleId), season), analyticsService.getVehicleAnalytics(vehicleId, season));
+            assertAnalytics(expected(List.of(vehicleId, otherVehicleId), season),
+                    analyticsService.getFleetAnalytics(teamId, season));
+        }
+    }
+
+    private void insertRecord(Long vehicleId, LocalDateTime date, MaintenanceType type, BigDecimal cost) {
+        jdbc.update("INSERT INTO maintenance_records (maintenance_date, description, maintenance_type, cost, " +
+                "vehicle_id, created_at, updated_at) VALUES (?, 'Revisión', ?, ?, ?, CURRENT_TIMESTAMP, " +
+                "CURRENT_TIMESTAMP)", Timestamp.valueOf(date), type.name(), cost, vehicleId);
+    }
+
+    // Recálculo exacto en Java a partir de los registros
+    private MaintenanceAnalytics expected(List<Long> vehicleIds, Integer season) {
+        Map<MaintenanceType, BigDecimal> costByType = new EnumMap<>(MaintenanceType.class);
+        BigDecimal totalCost = BigDecimal.ZERO;
+        long count = 0;
+        long intervals = 0;
+        long seconds = 0;
+        for (Long vehicleId : vehicleIds) {
+            List<LocalDateTime> corrective = new ArrayList<>();
+            for (Map<String, Object> row : jdbc.queryForList("SELECT maintenance_date, maintenance_type, cost " +
+                    "FROM maintenance_records WHERE vehicle_id = ?", vehicleId)) {
+                LocalDateTime date = ((Timestamp) row.get("maintenance_date")).toLocalDateTime();
+                if (season != null && date.getYear() != season) {
+                    continue;
+                }
+                MaintenanceType type = MaintenanceType.valueOf((String) row.get("maintenance_type"));
+                BigDecimal cost = row.get("cost") != null ? (BigDecimal) row.get("cost") : BigDecimal.ZERO;
+                costByType.merge(type, cost, BigDecimal::add);
+                totalCost = totalCost.add(cost);
+                count++;
+                if (type == MaintenanceType.CORRECTIVE) {
+                    corrective.add(date);
+                }
+            }
+            if (corrective.size() > 1) {
+                intervals += corrective.size() - 1;
+                seconds += Duration.between(corrective.stream().min(LocalDateTime::compareTo).orElseThrow(),
+                        corrective.stream().max(LocalDateTime::compareTo).orElseThrow()).toSeconds();
+            }
+        }
+        BigDecimal meanDays = intervals == 0 ? null : BigDecimal.valueOf(seconds)
+                .divide(BigDecimal.valueOf(Duration.ofDays(1).toSeconds() * intervals), 2, RoundingMode.HALF_UP);
+        return new MaintenanceAnalytics(null, null, season, count, totalCost, costByType, meanDays);
+    }
+
+    private static void assertAnalytics(MaintenanceAnalytics expected, MaintenanceAnalytics actual) {
+        assertEquals(expected.recordCount(), actual.recordCount());
+        assertEquals(0, expected.totalCost().compareTo(actual.totalCost()));
+        assertEquals(expected.costByType().keySet(), actual.costByType().keySet());
+        expected.costByType().forEach((type, cost) -> assertEquals(0, cost.compareTo(actual.costByType().get(type))));
+        assertEquals(expected.meanDaysBetweenCorrective(), actual.meanDaysBetweenCorrective());
+    }
+}
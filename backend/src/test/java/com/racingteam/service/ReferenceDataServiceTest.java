@@ -0,0 +1,53 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.model.User;
+import com.racingteam.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReferenceDataServiceTest extends H2IntegrationTest {
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void changingTheEmailEvictsTheEntryUnderTheOldOne() {
+        Long userId = insertUser(insertTeam());
+        String oldEmail = jdbc.queryForObject("SELECT email FROM users WHERE id = ?", String.class, userId);
+        assertNotNull(referenceDataService.findUserByEmail(oldEmail));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            user.setEmail("renamed-" + oldEmail);
+        });
+
+        assertNull(referenceDataService.findUserByEmail(oldEmail));
+        assertEquals(userId, referenceDataService.findUserByEmail("renamed-" + oldEmail).getId());
+    }
+
+    @Test
+    void jdbcWritersEvictTheVehicles() {
+        Long vehicleId = insertVehicle(insertTeam());
+        assertEquals(0, referenceDataService.getVehicle(vehicleId).getTotalHours().signum());
+
+        jdbc.update("UPDATE vehicles SET total_hours = 12.5 WHERE id = ?", vehicleId);
+        referenceDataService.evictVehicles(List.of(vehicleId));
+
+        assertEquals(new BigDecimal("12.50"), referenceDataService.getVehicle(vehicleId).getTotalHours());
+    }
+}
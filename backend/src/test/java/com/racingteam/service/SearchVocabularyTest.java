@@ -0,0 +1,70 @@
+package com.racingteam.service;
+
+import com.racingteam.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class SearchVocabularyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Test
+    void documentsWrittenWhileStoppedReachTheVocabularyAfterARestart() {
+        searchService.refreshVocabulary();
+        // La última pasada antes de parar fue hace dos horas y el documento se escribió después
+        jdbc.update("UPDATE search_vocabulary_refresh SET refreshed_at = LOCALTIMESTAMP - INTERVAL '2 hours'");
+        String word = writeDocument("1 hour");
+
+        assertTrue(restartedService().refreshVocabulary() >= 1);
+        assertTrue(inVocabulary(word));
+        // La pasada deja la marca en su inicio: el documento no se vuelve a leer
+        assertEquals(0, restartedService().refreshVocabulary());
+    }
+
+    @Test
+    void firstRefreshReadsEveryDocument() {
+        String word = writeDocument("30 days");
+        jdbc.update("UPDATE search_vocabulary_refresh SET refreshed_at = NULL");
+        assertFalse(inVocabulary(word));
+
+        restartedService().refreshVocabulary();
+        assertTrue(inVocabulary(word));
+    }
+
+    // Documento de un vehículo nuevo con una palabra única, escrito hace el intervalo indicado
+    private String writeDocument(String age) {
+        String word = "vocablo" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+        Long vehicleId = insertVehicle(insertTeam());
+        jdbc.update("UPDATE vehicles SET notes = ? WHERE id = ?", word, vehicleId);
+        jdbc.update("UPDATE search_documents SET updated_at = LOCALTIMESTAMP - CAST(? AS INTERVAL) " +
+                "WHERE entity_type = 'VEHICLE' AND entity_id = ?", age, vehicleId);
+        return word;
+    }
+
+    private boolean inVocabulary(String word) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM search_words WHERE word = ?", Integer.class, word) > 0;
+    }
+
+    // Sin estado en memoria, como un nodo recién arrancado
+    private SearchService restartedService() {
+        return new SearchService(jdbc, transactionManager, datasourceUrl, 20, 100, 2000, 4, 3, Duration.ofMinutes(5));
+    }
+}
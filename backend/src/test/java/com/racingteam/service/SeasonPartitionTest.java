@@ -0,0 +1,275 @@
+package com.racingteam.service;
+
+import com.racingteam.PostgresIntegrationTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Particionado por temporada de V11 sobre datos cargados con el esquema de V10: la base de
+ * datos se migra hasta V10, se cargan varias temporadas de un equipo y después se aplican las
+ * migraciones restantes.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class SeasonPartitionTest extends PostgresIntegrationTest {
+
+    private static final String SEEDED_TEAM = "Equipo anterior a V11";
+    private static final int SEASONS = 3;
+    private static final int FIRST_SEASON = Year.now().getValue() - SEASONS + 1;
+    private static final int VEHICLES = 5;
+    private static final int PILOTS = 5;
+    private static final int EVENTS_PER_SEASON = 10;
+    private static final int RECORDS_PER_VEHICLE_SEASON = 20;
+    private static final String[] TYPES = {"PREVENTIVE", "CORRECTIVE", "INSPECTION", "SETUP"};
+    private static final Pattern RELATION_NAME = Pattern.compile("\"Relation Name\": \"([^\"]+)\"");
+
+    @TestConfiguration
+    static class MigrationFromV10 {
+
+        @Bean
+        @Primary
+        FlywayMigrationStrategy migrateSeededFromV10() {
+            return flyway -> {
+                requireTestDatabase();
+                flyway.clean();
+                Flyway.configure().configuration(flyway.getConfiguration()).target("10").load().migrate();
+                seed(new JdbcTemplate(flyway.getConfiguration().getDataSource()));
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private PartitionMaintenanceService partitions;
+
+    @Autowired
+    private MaintenanceAnalyticsService analytics;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long seededTeamId;
+
+    @BeforeEach
+    void findSeededTeam() {
+        seededTeamId = jdbc.queryForObject("SELECT id FROM teams WHERE name = ?", Long.class, SEEDED_TEAM);
+    }
+
+    @Test
+    void migrationKeepsEverySeasonInItsPartition() {
+        for (int season = FIRST_SEASON; season < FIRST_SEASON + SEASONS; season++) {
+            assertEquals(EVENTS_PER_SEASON, count("events_y" + season + " WHERE team_id = ?", seededTeamId));
+            assertEquals(VEHICLES * RECORDS_PER_VEHICLE_SEASON, count("maintenance_records_y" + season +
+                    " m JOIN vehicles v ON v.id = m.vehicle_id WHERE v.team_id = ?", seededTeamId));
+        }
+        assertEquals(0, count("events_default WHERE team_id = ?", seededTeamId));
+        assertEquals(0, count("maintenance_records_default m JOIN vehicles v ON v.id = m.vehicle_id " +
+                "WHERE v.team_id = ?", seededTeamId));
+        // Cinco pilotos y cinco vehículos por evento
+        assertEquals(SEASONS * EVENTS_PER_SEASON * 10L, count("(SELECT event_id FROM event_participants " +
+                "UNION ALL SELECT event_id FROM event_vehicles) a JOIN events e ON e.id = a.event_id " +
+                "WHERE e.team_id = ?", seededTeamId));
+        assertEquals(count("events"), count("search_documents WHERE entity_type = 'EVENT'"));
+        assertEquals(0, analytics.reconcile());
+
+        long maxSeededId = jdbc.queryForObject("SELECT MAX(id) FROM events WHERE team_id = ?", Long.class, seededTeamId);
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(insertEvent(insertTeam(), now, now.plusHours(2)) > maxSeededId);
+    }
+
+    @Test
+    void seasonChangeMovesTheEventWithItsAssignments() {
+        int season = Year.now().getValue() + 1;
+        Long teamId = insertTeam();
+        Long eventId = insertEvent(teamId, LocalDateTime.of(season, 4, 1, 9, 0), LocalDateTime.of(season, 4, 1, 17, 0));
+        jdbc.update("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", eventId, insertUser(teamId));
+        jdbc.update("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", eventId, insertVehicle(teamId));
+        assertEquals("events_y" + season, partitionOf(eventId));
+
+        jdbc.update("UPDATE events SET start_date = start_date + INTERVAL '1 year', " +
+                "end_date = end_date + INTERVAL '1 year' WHERE id = ?", eventId);
+
+        assertEquals("events_y" + (season + 1), partitionOf(eventId));
+        assertEquals(1, count("event_participants WHERE event_id = ?", eventId));
+        assertEquals(1, count("event_vehicles WHERE event_id = ?", eventId));
+        assertEquals(0, count("sync_tombstones WHERE entity_type = 'EVENT' AND entity_id = ?", eventId));
+    }
+
+    @Test
+    void backfilledSeasonLeavesDefaultAndArchivesReadOnly() {
+        int oldSeason = FIRST_SEASON - 3;
+        Long vehicleId = insertVehicle(insertTeam());
+        for (int month = 1; month <= 12; month++) {
+            insertMaintenance(vehicleId, LocalDateTime.of(oldSeason, month, 1, 0, 0));
+        }
+        assertEquals(12, count("maintenance_records_default"));
+
+        assertTrue(partitions.ensurePartitions() >= 1);
+        assertEquals(12, count("maintenance_records_y" + oldSeason));
+        assertEquals(0, count("maintenance_records_default"));
+        assertEquals(0, analytics.reconcile());
+
+        assertEquals(1, partitions.archiveSeasonsBefore(FIRST_SEASON));
+        assertEquals(12, count("archive.maintenance_records_y" + oldSeason));
+        assertThrows(DataAccessException.class, () -> jdbc.update("DELETE FROM archive.maintenance_records_y" + oldSeason));
+        assertEquals(0, analytics.reconcile());
+        assertEquals(0, partitions.ensurePartitions());
+    }
+
+    @Test
+    void backfilledSeasonIsNotMovedWhileTheTableIsInUse() throws Exception {
+        int oldSeason = FIRST_SEASON - 10;
+        Long vehicleId = insertVehicle(insertTeam());
+        insertMaintenance(vehicleId, LocalDateTime.of(oldSeason, 6, 1, 0, 0));
+        try (Connection reader = dataSource.getConnection()) {
+            // Una lectura en curso: separar DEFAULT tendría que esperarla y haría esperar a todas las siguientes
+            reader.setAutoCommit(false);
+            try (Statement statement = reader.createStatement()) {
+                statement.execute("SELECT COUNT(*) FROM maintenance_records");
+            }
+
+            assertThrows(CannotAcquireLockException.class, () -> partitions.ensurePartitions());
+            reader.rollback();
+        } finally {
+            assertEquals(1, count("maintenance_records_default WHERE vehicle_id = ?", vehicleId));
+            jdbc.update("DELETE FROM maintenance_records WHERE vehicle_id = ?", vehicleId);
+        }
+    }
+
+    @Test
+    void rangeQueriesOnlyReadTheirSeasons() {
+        int season = FIRST_SEASON + 1;
+        // Listado de eventos filtrado por fechas (EventRepositoryImpl)
+        assertScans(Set.of("events_y" + season),
+                "SELECT e.id, e.name, e.start_date FROM events e " +
+                "WHERE e.team_id = ? AND e.start_date >= ? AND e.start_date < ? ORDER BY e.start_date, e.id LIMIT 50",
+                seededTeamId, at(season, 3), at(season, 6));
+        // Exportación de mantenimientos de un invierno (ExportService)
+        assertScans(Set.of("maintenance_records_y" + season, "maintenance_records_y" + (season + 1), "vehicles"),
+                "SELECT m.id, m.maintenance_date, m.cost, v.name FROM maintenance_records m " +
+                "JOIN vehicles v ON v.id = m.vehicle_id " +
+                "WHERE v.team_id = ? AND m.maintenance_date >= ? AND m.maintenance_date < ? " +
+                "ORDER BY m.maintenance_date, m.id",
+                seededTeamId, at(season, 11), at(season + 1, 3));
+        // Histórico de lecturas de la planificación de disponibilidad (FleetReadinessService)
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(365);
+        Set<String> history = new LinkedHashSet<>(List.of("vehicles", "maintenance_records_default"));
+        for (int s = historyStart.getYear(); s <= Year.now().getValue() + 2; s++) {
+            history.add("maintenance_records_y" + s);
+        }
+        assertScans(history,
+                "SELECT m.vehicle_id, MIN(m.maintenance_date), MIN(m.vehicle_hours_at_maintenance) " +
+                "FROM maintenance_records m JOIN vehicles v ON v.id = m.vehicle_id " +
+                "WHERE m.maintenance_date >= ? AND v.team_id = ? GROUP BY m.vehicle_id",
+                Timestamp.valueOf(historyStart), seededTeamId);
+    }
+
+    // Datos anteriores a V11, cargados con el esquema de V10
+    private static void seed(JdbcTemplate seedJdbc) {
+        seedJdbc.update("INSERT INTO teams (name, primary_category) VALUES (?, 'CAR')", SEEDED_TEAM);
+        Long team = seedJdbc.queryForObject("SELECT id FROM teams WHERE name = ?", Long.class, SEEDED_TEAM);
+
+        List<Object[]> vehicles = new ArrayList<>();
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicles.add(new Object[]{"Vehículo " + i, team});
+        }
+        seedJdbc.batchUpdate("INSERT INTO vehicles (name, vehicle_type, team_id) VALUES (?, 'GT3', ?)", vehicles);
+        List<Long> vehicleIds = seedJdbc.queryForList("SELECT id FROM vehicles ORDER BY id", Long.class);
+
+        List<Object[]> pilots = new ArrayList<>();
+        for (int i = 0; i < PILOTS; i++) {
+            pilots.add(new Object[]{"piloto" + i + "@racing.com", "Número " + i, team});
+        }
+        seedJdbc.batchUpdate("INSERT INTO users (email, password, first_name, last_name, role, team_id) " +
+                "VALUES (?, 'secret1', 'Piloto', ?, 'PILOT', ?)", pilots);
+        List<Long> pilotIds = seedJdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        for (int season = FIRST_SEASON; season < FIRST_SEASON + SEASONS; season++) {
+            List<Object[]> events = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_SEASON; i++) {
+                LocalDateTime start = LocalDateTime.of(season, 1, 1, 9, 0).plusDays(i * 30L);
+                events.add(new Object[]{"Evento " + season + "-" + i, Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(8)), team});
+            }
+            seedJdbc.batchUpdate("INSERT INTO events (name, event_type, start_date, end_date, team_id) " +
+                    "VALUES (?, 'RACE', ?, ?, ?)", events);
+
+            List<Object[]> records = new ArrayList<>();
+            for (Long vehicleId : vehicleIds) {
+                for (int r = 0; r < RECORDS_PER_VEHICLE_SEASON; r++) {
+                    LocalDateTime date = LocalDateTime.of(season, 1, 1, 8, 0).plusDays(r * 18L);
+                    records.add(new Object[]{Timestamp.valueOf(date), "Revisión " + r, TYPES[r % TYPES.length],
+                            BigDecimal.valueOf(20 + r), BigDecimal.valueOf(r * 3L), vehicleId});
+                }
+            }
+            seedJdbc.batchUpdate("INSERT INTO maintenance_records (maintenance_date, description, " +
+                    "maintenance_type, cost, vehicle_hours_at_maintenance, vehicle_id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)", records);
+        }
+
+        List<Long> eventIds = seedJdbc.queryForList("SELECT id FROM events ORDER BY id", Long.class);
+        List<Object[]> participants = new ArrayList<>();
+        List<Object[]> assigned = new ArrayList<>();
+        for (int e = 0; e < eventIds.size(); e++) {
+            for (int k = 0; k < 5; k++) {
+                participants.add(new Object[]{eventIds.get(e), pilotIds.get((e + k) % pilotIds.size())});
+                assigned.add(new Object[]{eventIds.get(e), vehicleIds.get((e + k) % vehicleIds.size())});
+            }
+        }
+        seedJdbc.batchUpdate("INSERT INTO event_participants (event_id, user_id) VALUES (?, ?)", participants);
+        seedJdbc.batchUpdate("INSERT INTO event_vehicles (event_id, vehicle_id) VALUES (?, ?)", assigned);
+    }
+
+    // Relaciones que lee el plan de la consulta con esos parámetros
+    private void assertScans(Set<String> expected, String sql, Object... args) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN (FORMAT JSON) " + sql, String.class, args));
+        Set<String> scanned = new LinkedHashSet<>();
+        Matcher matcher = RELATION_NAME.matcher(plan);
+        while (matcher.find()) {
+            scanned.add(matcher.group(1));
+        }
+        assertFalse(scanned.isEmpty());
+        assertTrue(expected.containsAll(scanned), "Se esperaba leer solo " + expected + " y se lee " + scanned);
+    }
+
+    private long count(String from, Object... args) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + from, Long.class, args);
+    }
+
+    private String partitionOf(Long eventId) {
+        return jdbc.queryForObject("SELECT CAST(tableoid::regclass AS TEXT) FROM events WHERE id = ?",
+                String.class, eventId);
+    }
+
+    private static Timestamp at(int season, int month) {
+        return Timestamp.valueOf(LocalDateTime.of(season, month, 1, 0, 0));
+    }
+}
@@ -0,0 +1,33 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.dto.SyncResponse;
+import com.racingteam.dto.VehicleSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyncServiceTest extends H2IntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Test
+    void everySyncIsFullWithoutTombstoneTriggers() {
+        Long teamId = insertTeam();
+        Long vehicleId = insertVehicle(teamId);
+        Long otherVehicleId = insertVehicle(teamId);
+        SyncResponse first = syncService.getChanges(teamId, null);
+
+        jdbc.update("DELETE FROM vehicles WHERE id = ?", otherVehicleId);
+
+        // Sin lápidas el borrado solo se ve porque la respuesta sustituye la copia local
+        SyncResponse next = syncService.getChanges(teamId, first.watermark());
+        assertTrue(next.full());
+        assertEquals(List.of(vehicleId), next.vehicles().stream().map(VehicleSummary::id).toList());
+    }
+}
@@ -0,0 +1,90 @@
+package com.racingteam.service;
+
+import com.racingteam.PostgresIntegrationTest;
+import com.racingteam.dto.EventSummary;
+import com.racingteam.dto.MaintenanceSummary;
+import com.racingteam.dto.SyncResponse;
+import com.racingteam.dto.VehicleSummary;
+import com.racingteam.model.SyncEntityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfEnvironmentVariable(named = "TEST_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class SyncTombstoneTest extends PostgresIntegrationTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 5, 10, 9, 0);
+
+    @Autowired
+    private SyncService syncService;
+
+    @Test
+    void vehicleChangingTeamTakesItsMaintenanceRecords() {
+        Long teamId = insertTeam();
+        Long otherTeamId = insertTeam();
+        Long vehicleId = insertVehicle(teamId);
+        Long recordId = insertMaintenance(vehicleId, DATE);
+        Long otherRecordId = insertMaintenance(vehicleId, DATE.plusDays(1));
+        LocalDateTime since = syncService.getChanges(teamId, null).watermark();
+        LocalDateTime otherSince = syncService.getChanges(otherTeamId, null).watermark();
+
+        jdbc.update("UPDATE vehicles SET team_id = ? WHERE id = ?", otherTeamId, vehicleId);
+
+        SyncResponse previous = syncService.getChanges(teamId, since);
+        assertFalse(previous.full());
+        assertEquals(List.of(vehicleId), previous.deleted().get(SyncEntityType.VEHICLE));
+        assertEquals(List.of(recordId, otherRecordId), sorted(previous.deleted().get(SyncEntityType.MAINTENANCE)));
+
+        SyncResponse next = syncService.getChanges(otherTeamId, otherSince);
+        assertEquals(List.of(vehicleId), next.vehicles().stream().map(VehicleSummary::id).toList());
+        assertEquals(List.of(recordId, otherRecordId),
+                sorted(next.maintenanceRecords().stream().map(MaintenanceSummary::id).toList()));
+    }
+
+    @Test
+    void deletedRowsLeaveATombstone() {
+        Long teamId = insertTeam();
+        Long vehicleId = insertVehicle(teamId);
+        Long recordId = insertMaintenance(vehicleId, DATE);
+        Long eventId = insertEvent(teamId, DATE, DATE.plusHours(2));
+        LocalDateTime since = syncService.getChanges(teamId, null).watermark();
+
+        jdbc.update("DELETE FROM maintenance_records WHERE id = ?", recordId);
+        jdbc.update("DELETE FROM events WHERE id = ?", eventId);
+
+        SyncResponse changes = syncService.getChanges(teamId, since);
+        assertEquals(List.of(recordId), changes.deleted().get(SyncEntityType.MAINTENANCE));
+        assertEquals(List.of(eventId), changes.deleted().get(SyncEntityType.EVENT));
+    }
+
+    @Test
+    void moveToAnotherSeasonIsNotADeletion() {
+        Long teamId = insertTeam();
+        Long vehicleId = insertVehicle(teamId);
+        Long recordId = insertMaintenance(vehicleId, DATE);
+        Long eventId = insertEvent(teamId, DATE, DATE.plusHours(2));
+        LocalDateTime since = syncService.getChanges(teamId, null).watermark();
+
+        // Cambia de partición: PostgreSQL lo ejecuta como DELETE más INSERT
+        jdbc.update("UPDATE maintenance_records SET maintenance_date = ? WHERE id = ?", DATE.plusYears(1), recordId);
+        jdbc.update("UPDATE events SET start_date = ?, end_date = ? WHERE id = ?",
+                DATE.plusYears(1), DATE.plusYears(1).plusHours(2), eventId);
+
+        SyncResponse changes = syncService.getChanges(teamId, since);
+        assertTrue(changes.deleted().getOrDefault(SyncEntityType.MAINTENANCE, List.of()).isEmpty());
+        assertTrue(changes.deleted().getOrDefault(SyncEntityType.EVENT, List.of()).isEmpty());
+        assertEquals(List.of(recordId), changes.maintenanceRecords().stream().map(MaintenanceSummary::id).toList());
+        assertEquals(List.of(eventId), changes.events().stream().map(EventSummary::id).toList());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
@@ -0,0 +1,73 @@
+package com.racingteam.service;
+
+import com.racingteam.event.ChangeType;
+import com.racingteam.event.EntityChangeEvent;
+import com.racingteam.model.Team;
+import com.racingteam.model.User;
+import com.racingteam.model.UserRole;
+import com.racingteam.model.VehicleCategory;
+import com.racingteam.repository.EventRepository;
+import com.racingteam.repository.UserRepository;
+import com.racingteam.repository.VehicleRepository;
+import com.racingteam.repository.projection.UserStatsView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TeamStatsServiceTest {
+
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final TeamStatsService service = new TeamStatsService(vehicleRepository, userRepository, eventRepository);
+    private final Team team = new Team("Test Racing", VehicleCategory.CAR);
+
+    @BeforeEach
+    void setUp() {
+        team.setId(1L);
+        when(vehicleRepository.findAllStatsViews()).thenReturn(List.of());
+        when(eventRepository.findAllStatsViews()).thenReturn(List.of());
+    }
+
+    @Test
+    void changeReceivedWhileReloadingIsKeptAfterTheSwap() {
+        // El usuario se confirma después de leer los usuarios y su evento llega antes de sustituir el estado
+        User user = user(10L);
+        when(userRepository.findAllStatsViews()).thenAnswer(invocation -> {
+            service.onEntityChange(new EntityChangeEvent(user, ChangeType.CREATED));
+            return List.of();
+        });
+
+        service.reconcile();
+
+        assertEquals(1, service.getStats(1L).totalUsers());
+    }
+
+    @Test
+    void changeAlreadyInTheSnapshotIsNotCountedTwice() {
+        User user = user(10L);
+        UserStatsView view = mock(UserStatsView.class);
+        when(view.getId()).thenReturn(10L);
+        when(view.getTeamId()).thenReturn(1L);
+        when(userRepository.findAllStatsViews()).thenAnswer(invocation -> {
+            service.onEntityChange(new EntityChangeEvent(user, ChangeType.CREATED));
+            return List.of(view);
+        });
+
+        service.reconcile();
+
+        assertEquals(1, service.getStats(1L).totalUsers());
+    }
+
+    private User user(Long id) {
+        User user = new User("piloto" + id + "@test.com", "secret", "Piloto", "Prueba", UserRole.PILOT);
+        user.setId(id);
+        user.setTeam(team);
+        return user;
+    }
+}
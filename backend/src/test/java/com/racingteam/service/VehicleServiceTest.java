@@ -0,0 +1,36 @@
+package com.racingteam.service;
+
+import com.racingteam.H2IntegrationTest;
+import com.racingteam.repository.projection.MaintenanceDueView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VehicleServiceTest extends H2IntegrationTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Test
+    void maintenanceDueIsComputedOnTheH2Schema() {
+        Long teamId = insertTeam();
+        Long dueByHours = insertVehicle(teamId);
+        Long dueByKilometers = insertVehicle(teamId);
+        Long notDue = insertVehicle(teamId);
+        // Las columnas de la proyección se calculan también con los UPDATE que no pasan por JPA
+        jdbc.update("UPDATE vehicles SET total_hours = 120, next_maintenance_hours = 100 WHERE id = ?", dueByHours);
+        jdbc.update("UPDATE vehicles SET total_kilometers = 5000, next_maintenance_km = 4000 WHERE id = ?",
+                dueByKilometers);
+        jdbc.update("UPDATE vehicles SET total_hours = 10, next_maintenance_hours = 100 WHERE id = ?", notDue);
+
+        List<MaintenanceDueView> due = vehicleService.findMaintenanceDue(teamId);
+
+        assertEquals(List.of(dueByHours, dueByKilometers), due.stream().map(MaintenanceDueView::getId).sorted().toList());
+        MaintenanceDueView byHours = due.stream().filter(view -> view.getId().equals(dueByHours)).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("-20").compareTo(byHours.getHoursUntilMaintenance()));
+    }
+}
@@ -0,0 +1,186 @@
+package com.racingteam.service;
+
+import com.racingteam.dto.UsageDelta;
+import com.racingteam.exception.ResourceNotFoundException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class VehicleUsageIngestionServiceTest {
+
+    private static final Long TEAM_ID = 1L;
+
+    @TempDir
+    Path walDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private VehicleUsageIngestionService service;
+    private final ReferenceDataService referenceDataService = mock(ReferenceDataService.class);
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE vehicles (id BIGINT PRIMARY KEY, team_id BIGINT, " +
+                "total_hours DECIMAL(10,2), total_kilometers DECIMAL(10,2))");
+        jdbc.update("INSERT INTO vehicles VALUES (1, 1, 99999999.00, 0), (2, 1, 0, 0), (3, 2, 0, 0)");
+        service = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        database.shutdown();
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseIsQuarantinedAndDoesNotBlockTheRest() throws Exception {
+        // El vehículo 1 desborda DECIMAL(10,2)
+        assertTrue(service.submit(TEAM_ID, List.of(delta(1L, "10"), delta(2L, "5"))));
+
+        service.flush();
+
+        assertEquals(0, service.getPendingDeltas());
+        assertEquals(new BigDecimal("5.00"), hours(2L));
+        assertEquals(new BigDecimal("99999999.00"), hours(1L));
+        verify(referenceDataService).evictVehicles(argThat(ids -> ids.contains(2L)));
+        verify(referenceDataService, never()).evictVehicles(argThat(ids -> ids.contains(1L)));
+        String deadLetter = Files.readString(walDir.resolve("usage-dead-letter.log"), StandardCharsets.UTF_8);
+        assertTrue(deadLetter.startsWith("1;10;0;"), deadLetter);
+
+        // Los lotes siguientes se vuelcan con normalidad
+        assertTrue(service.submit(TEAM_ID, List.of(delta(2L, "1.5"))));
+        service.flush();
+        assertEquals(new BigDecimal("6.50"), hours(2L));
+    }
+
+    @Test
+    void quarantinedRowIsNotReplayedAfterARestart() {
+        service.submit(TEAM_ID, List.of(delta(1L, "10"), delta(2L, "5")));
+        service.flush();
+        service.shutdown();
+
+        service = start();
+
+        assertEquals(0, service.getPendingDeltas());
+        assertEquals(new BigDecimal("5.00"), hours(2L));
+    }
+
+    @Test
+    void unknownVehicleIsRejectedBeforeAccepting() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.submit(TEAM_ID, List.of(delta(2L, "1"), delta(999L, "1"))));
+
+        assertEquals(0, service.getPendingDeltas());
+    }
+
+    @Test
+    void anotherTeamsVehicleIsRejectedBeforeAccepting() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.submit(TEAM_ID, List.of(delta(2L, "1"), delta(3L, "1"))));
+
+        assertEquals(0, service.getPendingDeltas());
+    }
+
+    @Test
+    void tornLastLineIsDroppedAndDoesNotAbsorbTheNextDelta() throws Exception {
+        Path dir = walDir.resolve("torn");
+        UsageWriteAheadLog crashed = new UsageWriteAheadLog(dir.toString());
+        crashed.recover();
+        crashed.append(List.of(delta(2L, "5")));
+        crashed.close();
+        // Caída a mitad de escribir un delta del vehículo 1: el fragmento "1" seguido del
+        // siguiente delta "7;..." sería un delta del vehículo 17
+        Files.writeString(dir.resolve("usage-wal.log"), "1", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        UsageWriteAheadLog restarted = new UsageWriteAheadLog(dir.toString());
+        assertEquals(List.of(delta(2L, "5")), restarted.recover());
+        restarted.append(List.of(delta(7L, "1.5")));
+        restarted.close();
+
+        assertEquals("2;5;0\n7;1.5;0\n", Files.readString(dir.resolve("usage-wal.log"), StandardCharsets.UTF_8));
+        assertEquals(List.of(delta(2L, "5"), delta(7L, "1.5")), new UsageWriteAheadLog(dir.toString()).recover());
+    }
+
+    @Test
+    void batchBeingAppliedIsNotAppliedAgainByAConcurrentFlush() throws Exception {
+        CountDownLatch applied = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // El primer volcado se detiene con el UPDATE confirmado y el lote aún en curso
+        doAnswer(invocation -> {
+            applied.countDown();
+            release.await();
+            return null;
+        }).when(referenceDataService).evictVehicles(any());
+        service.submit(TEAM_ID, List.of(delta(2L, "5")));
+
+        Thread scheduled = new Thread(service::flush);
+        scheduled.start();
+        applied.await();
+        Thread closing = new Thread(service::shutdown);
+        closing.start();
+        while (closing.getState() != Thread.State.WAITING && closing.isAlive()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        scheduled.join();
+        closing.join();
+
+        assertEquals(new BigDecimal("5.00"), hours(2L));
+        assertEquals(0, service.getPendingDeltas());
+    }
+
+    @Test
+    void deltaOutsideTheColumnBoundsFailsValidation() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        assertFalse(validator.validate(delta(1L, "100000")).isEmpty());
+        assertFalse(validator.validate(delta(1L, "1.001")).isEmpty());
+        assertTrue(validator.validate(delta(1L, "99999.99")).isEmpty());
+    }
+
+    private VehicleUsageIngestionService start() {
+        VehicleUsageIngestionService started = new VehicleUsageIngestionService(jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(database)),
+                new UsageWriteAheadLog(walDir.toString()), referenceDataService, 1000);
+        started.recover();
+        return started;
+    }
+
+    private BigDecimal hours(Long vehicleId) {
+        return jdbc.queryForObject("SELECT total_hours FROM vehicles WHERE id = ?", BigDecimal.class, vehicleId);
+    }
+
+    private static UsageDelta delta(Long vehicleId, String hours) {
+        return new UsageDelta(vehicleId, new BigDecimal(hours), BigDecimal.ZERO);
+    }
+}